@@ -0,0 +1,548 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldap;
+
+import static org.forgerock.opendj.ldap.LdapException.*;
+import static org.forgerock.util.promise.Promises.*;
+
+import static com.forgerock.opendj.ldap.CoreMessages.*;
+import static com.forgerock.opendj.util.StaticUtils.*;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.util.Reject;
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.forgerock.util.promise.ResultHandler;
+import org.forgerock.util.time.TimeService;
+
+import com.forgerock.opendj.util.ReferenceCountedObject;
+
+/**
+ * A connection pool implementation with the same sizing and expiration policy
+ * as {@link CachedConnectionPool}, but which does not use any pool-wide lock.
+ * <p>
+ * Idle connections are kept in a lock-free stack: the most recently released
+ * connection is leased first, which keeps a small working set of connections
+ * busy and leaves the other ones at the bottom of the stack, where they expire.
+ * Lease requests which cannot be served by an idle connection wait in a
+ * lock-free FIFO queue. Whichever of a lease request or a released connection
+ * arrives last hands the connection over to the oldest waiting lease request.
+ */
+final class ConcurrentConnectionPool implements MonitoredConnectionPool {
+
+    /**
+     * This success handler is invoked when an attempt to add a new connection
+     * to the pool completes.
+     */
+    private final class ConnectionResultHandler implements ResultHandler<Connection> {
+        @Override
+        public void handleResult(final Connection connection) {
+            logger.debug(LocalizableMessage.raw(
+                    "Connection attempt succeeded: poolSize=%d, maxPoolSize=%d", poolSize.get(), maxPoolSize));
+            pendingConnectionAttempts.decrementAndGet();
+            publishConnection(connection);
+        }
+    }
+
+    /**
+     * This failure handler is invoked when an attempt to add a new connection
+     * to the pool ended in error.
+     */
+    private final class ConnectionFailureHandler implements ExceptionHandler<LdapException> {
+        @Override
+        public void handleException(final LdapException exception) {
+            // Connection attempt failed, so decrease the pool size.
+            pendingConnectionAttempts.decrementAndGet();
+            poolSize.decrementAndGet();
+
+            logger.debug(LocalizableMessage.raw(
+                    "Connection attempt failed: poolSize=%d, maxPoolSize=%d", poolSize.get(), maxPoolSize, exception));
+
+            /*
+             * As with CachedConnectionPool, a failed connection attempt fails
+             * all the waiting lease requests, because there may be more of them
+             * than outstanding connection attempts (see OPENDJ-1348).
+             */
+            failWaitingLeases(exception);
+        }
+    }
+
+    /**
+     * A pooled connection whose underlying connection is put back in this
+     * pool, or replaced if it is no longer valid, when it is closed.
+     */
+    class PooledConnection extends AbstractPooledConnection {
+        PooledConnection(final Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        void releaseConnection() {
+            // Don't put invalid connections back in the pool.
+            if (connection.isValid()) {
+                publishConnection(connection);
+            } else {
+                /*
+                 * The connection may have been disconnected by the remote
+                 * server, but the server may still be available. Reconnect
+                 * immediately, reusing the slot of the invalid connection.
+                 */
+                connection.close();
+                openConnection();
+
+                logger.debug(LocalizableMessage.raw(
+                        "Connection no longer valid: poolSize=%d, maxPoolSize=%d", poolSize.get(), maxPoolSize));
+            }
+        }
+    }
+
+    private final class DebugEnabledPooledConnection extends PooledConnection {
+        private final StackTraceElement[] stackTrace;
+
+        private DebugEnabledPooledConnection(final Connection connection, final StackTraceElement[] stackTrace) {
+            super(connection);
+            this.stackTrace = stackTrace;
+        }
+
+        @Override
+        protected void finalize() throws Throwable {
+            if (!isClosed()) {
+                logIfDebugEnabled("CONNECTION POOL: connection leaked! It was allocated here: ", stackTrace);
+            }
+        }
+    }
+
+    /**
+     * Scheduled task responsible for purging non-core pooled connections which
+     * have been idle for longer than the idle timeout limit.
+     */
+    private final class PurgeIdleConnectionsTask implements Runnable {
+        @Override
+        public void run() {
+            if (isClosed.get()) {
+                return;
+            }
+
+            // The least recently released connections are at the bottom of the stack.
+            final long timeoutMillis = timeService.now() - idleTimeoutMillis;
+            int closedConnectionCount = 0;
+            for (;;) {
+                final IdleConnection idleConnection = idleConnections.pollLast();
+                if (idleConnection == null) {
+                    break;
+                }
+                if (!idleConnection.hasTimedOut(timeoutMillis) || !tryRemoveNonCoreConnection()) {
+                    // Put it back, a lease request may have missed it in the meantime.
+                    idleConnections.offerLast(idleConnection);
+                    dispatchIdleConnections();
+                    break;
+                }
+                idleConnection.connection.close();
+                closedConnectionCount++;
+                replaceConnectionIfNeeded();
+            }
+
+            if (closedConnectionCount > 0) {
+                logger.debug(LocalizableMessage.raw(
+                        "Closed %d idle pooled connections: poolSize=%d, maxPoolSize=%d",
+                        closedConnectionCount, poolSize.get(), maxPoolSize));
+            }
+        }
+    }
+
+    /** An unused connection, with the time at which it was released to the pool. */
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long timestampMillis;
+
+        IdleConnection(final Connection connection, final long timestampMillis) {
+            this.connection = connection;
+            this.timestampMillis = timestampMillis;
+        }
+
+        boolean hasTimedOut(final long timeLimitMillis) {
+            return timestampMillis < timeLimitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(connection);
+        }
+    }
+
+    /** A pending connection request promise awaiting a {@code Connection}. */
+    private static final class LeaseRequest {
+        private final PromiseImpl<Connection, LdapException> promise = PromiseImpl.create();
+        private final long startTimeNanos = System.nanoTime();
+        private final StackTraceElement[] stack;
+
+        LeaseRequest(final StackTraceElement[] stack) {
+            this.stack = stack;
+        }
+    }
+
+    private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+    /**
+     * This is package private in order to allow unit tests to inject fake time
+     * stamps.
+     */
+    TimeService timeService = TimeService.SYSTEM;
+
+    private final ResultHandler<Connection> connectionResultHandler = new ConnectionResultHandler();
+    private final ExceptionHandler<LdapException> connectionFailureHandler = new ConnectionFailureHandler();
+    private final int corePoolSize;
+    private final ConnectionFactory factory;
+    private final AtomicBoolean isClosed = new AtomicBoolean();
+    private final ScheduledFuture<?> idleTimeoutFuture;
+    private final long idleTimeoutMillis;
+    private final int maxPoolSize;
+    private final ReferenceCountedObject<ScheduledExecutorService>.Reference scheduler;
+
+    /**
+     * The number of connections held by the pool, whether they are idle, in
+     * use, or being established.
+     */
+    private final AtomicInteger poolSize = new AtomicInteger();
+    /**
+     * The number of new connections which are in the process of being
+     * established.
+     */
+    private final AtomicInteger pendingConnectionAttempts = new AtomicInteger();
+    /** Idle connections, the most recently released one first. */
+    private final ConcurrentLinkedDeque<IdleConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    /** Lease requests waiting for a connection, the oldest one first. */
+    private final ConcurrentLinkedDeque<LeaseRequest> waitingLeases = new ConcurrentLinkedDeque<>();
+
+    private final AtomicLong leaseCount = new AtomicLong();
+    private final AtomicLong delayedLeaseCount = new AtomicLong();
+    private final AtomicLong totalLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong maximumLeaseWaitNanos = new AtomicLong();
+
+    ConcurrentConnectionPool(final ConnectionFactory factory, final int corePoolSize,
+            final int maximumPoolSize, final long idleTimeout, final TimeUnit unit,
+            final ScheduledExecutorService scheduler) {
+        Reject.ifNull(factory);
+        Reject.ifFalse(corePoolSize >= 0, "corePoolSize < 0");
+        Reject.ifFalse(maximumPoolSize > 0, "maxPoolSize <= 0");
+        Reject.ifFalse(corePoolSize <= maximumPoolSize, "corePoolSize > maxPoolSize");
+        Reject.ifFalse(idleTimeout >= 0, "idleTimeout < 0");
+        Reject.ifFalse(idleTimeout == 0 || unit != null, "time unit is null");
+
+        this.factory = factory;
+        this.corePoolSize = corePoolSize;
+        this.maxPoolSize = maximumPoolSize;
+
+        if (corePoolSize < maximumPoolSize && idleTimeout > 0) {
+            // Dynamic pool.
+            this.scheduler = DEFAULT_SCHEDULER.acquireIfNull(scheduler);
+            this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+            this.idleTimeoutFuture =
+                    this.scheduler.get().scheduleWithFixedDelay(new PurgeIdleConnectionsTask(),
+                            idleTimeout, idleTimeout, unit);
+        } else {
+            // Fixed pool.
+            this.scheduler = null;
+            this.idleTimeoutMillis = 0;
+            this.idleTimeoutFuture = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!isClosed.compareAndSet(false, true)) {
+            return;
+        }
+
+        logger.debug(LocalizableMessage.raw(
+                "Connection pool is closing: poolSize=%d, maxPoolSize=%d", poolSize.get(), maxPoolSize));
+
+        if (idleTimeoutFuture != null) {
+            idleTimeoutFuture.cancel(false);
+            scheduler.release();
+        }
+
+        /*
+         * Connections in use are closed when they are released, the waiting
+         * lease requests would never be served.
+         */
+        closeIdleConnections();
+        failWaitingLeases(newPoolClosingException());
+
+        // Close the underlying factory.
+        factory.close();
+    }
+
+    @Override
+    public Connection getConnection() throws LdapException {
+        try {
+            return getConnectionAsync().getOrThrow();
+        } catch (final InterruptedException e) {
+            throw newLdapException(ResultCode.CLIENT_SIDE_USER_CANCELLED, e);
+        }
+    }
+
+    @Override
+    public Promise<Connection, LdapException> getConnectionAsync() {
+        if (isClosed.get()) {
+            throw new IllegalStateException("ConcurrentConnectionPool is already closed");
+        }
+
+        // Don't overtake the lease requests which are already waiting.
+        if (waitingLeases.isEmpty()) {
+            final IdleConnection idleConnection = pollIdleConnection();
+            if (idleConnection != null) {
+                leaseCount.incrementAndGet();
+                final Connection pooledConnection =
+                        newPooledConnection(idleConnection.connection, getStackTraceIfDebugEnabled());
+                return newResultPromise(pooledConnection);
+            }
+        }
+
+        final LeaseRequest leaseRequest = new LeaseRequest(getStackTraceIfDebugEnabled());
+        waitingLeases.offerLast(leaseRequest);
+
+        // Grow the pool if needed.
+        if (tryAddConnection()) {
+            openConnection();
+        }
+        // A connection may have been released while the lease request was queued.
+        dispatchIdleConnections();
+        if (isClosed.get()) {
+            failWaitingLeases(newPoolClosingException());
+        }
+        return leaseRequest.promise;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return poolSize.get();
+    }
+
+    @Override
+    public int getIdleConnectionCount() {
+        return idleConnections.size();
+    }
+
+    @Override
+    public int getWaitingLeaseCount() {
+        return waitingLeases.size();
+    }
+
+    @Override
+    public long getLeaseCount() {
+        return leaseCount.get();
+    }
+
+    @Override
+    public long getDelayedLeaseCount() {
+        return delayedLeaseCount.get();
+    }
+
+    @Override
+    public long getTotalLeaseWaitTime(final TimeUnit unit) {
+        return unit.convert(totalLeaseWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public long getMaximumLeaseWaitTime(final TimeUnit unit) {
+        return unit.convert(maximumLeaseWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        final int size = poolSize.get();
+        final int pending = pendingConnectionAttempts.get();
+        final int in = idleConnections.size();
+        final int out = size - in - pending;
+        return String.format("ConcurrentConnectionPool(size=%d[in:%d + out:%d + "
+                + "pending:%d], maxSize=%d, blocked=%d, factory=%s)", size, in, out, pending,
+                maxPoolSize, waitingLeases.size(), String.valueOf(factory));
+    }
+
+    /**
+     * Provide a finalizer because connection pools are expensive resources to
+     * accidentally leave around. Also, since they won't be created all that
+     * frequently, there's little risk of overloading the finalizer.
+     */
+    @Override
+    protected void finalize() throws Throwable {
+        close();
+    }
+
+    /** Reserves a slot for a new connection, unless the pool is full. */
+    private boolean tryAddConnection() {
+        for (;;) {
+            final int size = poolSize.get();
+            if (size >= maxPoolSize) {
+                return false;
+            }
+            if (poolSize.compareAndSet(size, size + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Releases the slot of an idle connection, unless the pool would shrink below its core size. */
+    private boolean tryRemoveNonCoreConnection() {
+        for (;;) {
+            final int size = poolSize.get();
+            if (size <= corePoolSize) {
+                return false;
+            }
+            if (poolSize.compareAndSet(size, size - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Opens a new connection once a slot has been freed, if lease requests are
+     * waiting. Lease requests only grow the pool when they are queued, so they
+     * could otherwise wait for a slot which has been freed after they checked
+     * the pool size.
+     */
+    private void replaceConnectionIfNeeded() {
+        if (!waitingLeases.isEmpty() && tryAddConnection()) {
+            openConnection();
+        }
+    }
+
+    /** Opens a new connection, whose slot has already been reserved. */
+    private void openConnection() {
+        pendingConnectionAttempts.incrementAndGet();
+        factory.getConnectionAsync().thenOnResult(connectionResultHandler)
+                                    .thenOnException(connectionFailureHandler);
+    }
+
+    /** Returns the most recently released valid idle connection, closing the stale ones (see OPENDJ-590). */
+    private IdleConnection pollIdleConnection() {
+        for (;;) {
+            final IdleConnection idleConnection = idleConnections.pollFirst();
+            if (idleConnection == null || idleConnection.connection.isValid()) {
+                return idleConnection;
+            }
+
+            // Close the stale connection and try again.
+            idleConnection.connection.close();
+            poolSize.decrementAndGet();
+            replaceConnectionIfNeeded();
+
+            logger.debug(LocalizableMessage.raw(
+                    "Connection no longer valid: poolSize=%d, maxPoolSize=%d", poolSize.get(), maxPoolSize));
+        }
+    }
+
+    /** Hands over idle connections to the waiting lease requests, oldest first. */
+    private void dispatchIdleConnections() {
+        while (!waitingLeases.isEmpty()) {
+            final IdleConnection idleConnection = pollIdleConnection();
+            if (idleConnection == null) {
+                return;
+            }
+            final LeaseRequest leaseRequest = waitingLeases.pollFirst();
+            if (leaseRequest == null) {
+                // Another thread served the waiting lease requests in the meantime.
+                idleConnections.offerFirst(idleConnection);
+            } else {
+                completeLease(leaseRequest, idleConnection.connection);
+            }
+        }
+    }
+
+    private void publishConnection(final Connection connection) {
+        if (isClosed.get()) {
+            // The connection will be closed, so decrease the pool size.
+            connection.close();
+            poolSize.decrementAndGet();
+
+            logger.debug(LocalizableMessage.raw(
+                    "Closing connection because connection pool is closing: poolSize=%d, maxPoolSize=%d",
+                    poolSize.get(), maxPoolSize));
+
+            failWaitingLeases(newPoolClosingException());
+            return;
+        }
+
+        final LeaseRequest leaseRequest = waitingLeases.pollFirst();
+        if (leaseRequest != null) {
+            completeLease(leaseRequest, connection);
+            return;
+        }
+
+        idleConnections.offerFirst(new IdleConnection(connection, timeService.now()));
+        // A lease request may have been queued after the wait queue was found empty.
+        dispatchIdleConnections();
+        if (isClosed.get()) {
+            closeIdleConnections();
+        }
+    }
+
+    private void completeLease(final LeaseRequest leaseRequest, final Connection connection) {
+        if (!leaseRequest.promise.tryHandleResult(newPooledConnection(connection, leaseRequest.stack))) {
+            // The lease request has already been completed (e.g. cancelled), give the connection to another one.
+            publishConnection(connection);
+            return;
+        }
+
+        final long waitNanos = System.nanoTime() - leaseRequest.startTimeNanos;
+        leaseCount.incrementAndGet();
+        delayedLeaseCount.incrementAndGet();
+        totalLeaseWaitNanos.addAndGet(waitNanos);
+        long maximumWaitNanos = maximumLeaseWaitNanos.get();
+        while (waitNanos > maximumWaitNanos && !maximumLeaseWaitNanos.compareAndSet(maximumWaitNanos, waitNanos)) {
+            maximumWaitNanos = maximumLeaseWaitNanos.get();
+        }
+    }
+
+    private void failWaitingLeases(final LdapException exception) {
+        for (LeaseRequest leaseRequest = waitingLeases.pollFirst(); leaseRequest != null;
+                leaseRequest = waitingLeases.pollFirst()) {
+            leaseRequest.promise.tryHandleException(exception);
+        }
+    }
+
+    private void closeIdleConnections() {
+        for (IdleConnection idleConnection = idleConnections.pollFirst(); idleConnection != null;
+                idleConnection = idleConnections.pollFirst()) {
+            idleConnection.connection.close();
+            poolSize.decrementAndGet();
+        }
+    }
+
+    private LdapException newPoolClosingException() {
+        return newLdapException(ResultCode.CLIENT_SIDE_USER_CANCELLED,
+                ERR_CONNECTION_POOL_CLOSING.get(toString()).toString());
+    }
+
+    private PooledConnection newPooledConnection(final Connection connection, final StackTraceElement[] stack) {
+        if (!DEBUG_ENABLED) {
+            return new PooledConnection(connection);
+        } else {
+            return new DebugEnabledPooledConnection(connection, stack);
+        }
+    }
+}
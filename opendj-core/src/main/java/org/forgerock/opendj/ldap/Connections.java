@@ -13,6 +13,7 @@
  *
  * Copyright 2009-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldap;
 
@@ -251,6 +252,76 @@ public final class Connections {
         return new CachedConnectionPool(factory, poolSize, poolSize, 0L, null, null);
     }
 
+    /**
+     * Creates a new connection pool which behaves like the pools returned by
+     * {@link #newCachedConnectionPool(ConnectionFactory, int, int, long, TimeUnit, ScheduledExecutorService)},
+     * but which is designed for applications obtaining and releasing pooled
+     * connections at a high rate from many threads.
+     * <p>
+     * The returned connection pool does not use any pool-wide lock: idle
+     * connections are kept in a lock-free stack, and the most recently released
+     * connection is reused first. Requests for a connection which cannot be
+     * served immediately wait in a lock-free queue, in arrival order. The
+     * connection pool also exposes statistics about the time spent waiting for
+     * a connection.
+     *
+     * @param factory
+     *            The connection factory to use for creating new connections.
+     * @param corePoolSize
+     *            The minimum number of connections to keep in the pool, even if
+     *            they are idle.
+     * @param maximumPoolSize
+     *            The maximum number of connections to allow in the pool.
+     * @param idleTimeout
+     *            The time out period, after which unused non-core connections
+     *            will be closed.
+     * @param unit
+     *            The time unit for the {@code idleTimeout} argument.
+     * @param scheduler
+     *            The scheduler which should be used for periodically checking
+     *            for idle connections, or {@code null} if the default scheduler
+     *            should be used.
+     * @return The new connection pool.
+     * @throws IllegalArgumentException
+     *             If {@code corePoolSize}, {@code maximumPoolSize} are less
+     *             than or equal to zero, or if {@code idleTimeout} is negative,
+     *             or if {@code corePoolSize} is greater than
+     *             {@code maximumPoolSize}, or if {@code idleTimeout} is
+     *             non-zero and {@code unit} is {@code null}.
+     * @throws NullPointerException
+     *             If {@code factory} was {@code null}.
+     */
+    public static MonitoredConnectionPool newConcurrentConnectionPool(final ConnectionFactory factory,
+            final int corePoolSize, final int maximumPoolSize, final long idleTimeout,
+            final TimeUnit unit, final ScheduledExecutorService scheduler) {
+        return new ConcurrentConnectionPool(factory, corePoolSize, maximumPoolSize, idleTimeout, unit,
+                scheduler);
+    }
+
+    /**
+     * Creates a new connection pool which will maintain {@code poolSize}
+     * connections created using the provided connection factory, and which is
+     * designed for applications obtaining and releasing pooled connections at
+     * a high rate from many threads.
+     * <p>
+     * See {@link #newConcurrentConnectionPool(ConnectionFactory, int, int, long, TimeUnit, ScheduledExecutorService)}
+     * for a description of the returned connection pool.
+     *
+     * @param factory
+     *            The connection factory to use for creating new connections.
+     * @param poolSize
+     *            The maximum size of the connection pool.
+     * @return The new connection pool.
+     * @throws IllegalArgumentException
+     *             If {@code poolSize} is negative.
+     * @throws NullPointerException
+     *             If {@code factory} was {@code null}.
+     */
+    public static MonitoredConnectionPool newConcurrentConnectionPool(final ConnectionFactory factory,
+            final int poolSize) {
+        return new ConcurrentConnectionPool(factory, poolSize, poolSize, 0L, null, null);
+    }
+
     /**
      * Creates a new internal client connection which will route requests to the
      * provided {@code RequestHandler}.
@@ -732,6 +803,7 @@ public final class Connections {
      * @see #newRoundRobinLoadBalancer(Collection, Options)
      * @see #newFailoverLoadBalancer(Collection, Options)
      * @see #newAffinityRequestLoadBalancer(Collection, Options)
+     * @see #newLeastLatencyLoadBalancer(Collection, Options)
      * @see #LOAD_BALANCER_EVENT_LISTENER
      * @see #LOAD_BALANCER_MONITORING_INTERVAL
      * @see #LOAD_BALANCER_SCHEDULER
@@ -744,6 +816,52 @@ public final class Connections {
                 newLeastRequestsLoadBalancerEndOfRequestFunction(dispatcher));
     }
 
+    /**
+     * Creates a new "least latency" load-balancer which will load-balance individual requests across the provided
+     * set of connection factories, each typically representing a single replica, using an algorithm that routes
+     * requests to the replicas which are expected to respond the fastest.
+     * <p>
+     * The load-balancer maintains an average of the response times of each replica, in which recent requests weigh
+     * more than older ones, as well as its number of active requests. Each request is routed to the best of two
+     * replicas picked at random, the best replica being the one having the lowest average response time multiplied by
+     * its number of active requests. Replicas which are not available, or whose last requests failed because they could
+     * not be reached, were busy, unavailable or did not respond in time, are degraded and only receive occasional
+     * requests until they recover. As with the "least requests" load-balancer, consistency is low since there is no
+     * guarantee that requests for the same DN are directed to the same replica.
+     * <p/>
+     * The routing statistics of each replica are exposed by the returned load-balancer, replicas being identified by
+     * their position in the provided collection of connection factories.
+     * <p/>
+     * <b>NOTE:</b> this connection factory returns fake connections, since real connections are obtained for each
+     * request. Therefore, the returned fake connections have certain limitations: abandon requests will be ignored
+     * since they cannot be routed; connection event listeners can be registered, but will only be notified when the
+     * fake connection is closed or when all of the connection factories are unavailable.
+     * <p/>
+     * <b>NOTE:</b>Server selection is only based on information which is local to the client application. Response
+     * times reflect the load induced by other applications, but their active requests are not taken into account.
+     * <p/>
+     * The implementation periodically attempts to connect to failed connection factories in order to determine if they
+     * have become available again. Replicas which have not been selected during a monitoring interval are sent the
+     * next request, so that their response time is refreshed.
+     *
+     * @param factories
+     *            The connection factories.
+     * @param options
+     *            This configuration options for the load-balancer.
+     * @return The new least latency load balancer.
+     * @see #newRoundRobinLoadBalancer(Collection, Options)
+     * @see #newFailoverLoadBalancer(Collection, Options)
+     * @see #newAffinityRequestLoadBalancer(Collection, Options)
+     * @see #newLeastRequestsLoadBalancer(Collection, Options)
+     * @see #LOAD_BALANCER_EVENT_LISTENER
+     * @see #LOAD_BALANCER_MONITORING_INTERVAL
+     * @see #LOAD_BALANCER_SCHEDULER
+     */
+    public static MonitoredLoadBalancer newLeastLatencyLoadBalancer(
+            final Collection<? extends ConnectionFactory> factories, final Options options) {
+        return new LeastLatencyLoadBalancer(factories, options);
+    }
+
     private static final DecodeOptions CONTROL_DECODE_OPTIONS = new DecodeOptions();
 
     static Function<Request, PartitionedRequest, NeverThrowsException> newLeastRequestsLoadBalancerNextFunction(
@@ -0,0 +1,262 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldap;
+
+import static org.forgerock.opendj.ldap.Connections.LOAD_BALANCER_MONITORING_INTERVAL;
+import static org.forgerock.opendj.ldap.Connections.NOOP_END_OF_REQUEST_FUNCTION;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.forgerock.opendj.ldap.RequestLoadBalancer.PartitionedRequest;
+import org.forgerock.opendj.ldap.RequestLoadBalancer.RequestResultListener;
+import org.forgerock.opendj.ldap.requests.Request;
+import org.forgerock.util.Function;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * A request load balancer which routes each request to the replica having the lowest expected response time.
+ * <p>
+ * The load balancer maintains, for each server, an exponentially weighted moving average of the response times and
+ * the number of active requests. The expected response time of a server is its average response time multiplied by
+ * its number of active requests plus one. Rather than comparing all the servers, the load balancer picks two healthy
+ * servers at random and chooses the one with the lowest expected response time: this "power of two choices" policy
+ * performs nearly as well as a global comparison while avoiding that all the clients rush to the same server between
+ * two updates of the statistics.
+ * <p>
+ * A server is degraded when it is not available or when the last requests routed to it have failed because of the
+ * server. Degraded servers, and more generally servers which have not been selected for a monitoring interval, are
+ * occasionally sent a request in order to refresh their statistics, so that they can recover their share of the
+ * traffic.
+ */
+final class LeastLatencyLoadBalancer implements MonitoredLoadBalancer, RequestResultListener {
+    /** The number of consecutive failures after which a server is considered degraded. */
+    private static final int DEGRADED_FAILURE_THRESHOLD = 3;
+    /** The weight of a new response time in the average, as a power of 2, i.e. 1/8 as for the TCP smoothed RTT. */
+    private static final int AVERAGE_WEIGHT_SHIFT = 3;
+
+    private final RequestLoadBalancer loadBalancer;
+    /** The delay after which a server which has not been selected is sent a request in order to probe it. */
+    private final long probeIntervalNanos;
+    private final AtomicLongArray activeRequests;
+    private final AtomicLongArray requestCounts;
+    private final AtomicLongArray failedRequestCounts;
+    private final AtomicLongArray consecutiveFailures;
+    /** The average response time of each server in nanoseconds, zero until a first response time is known. */
+    private final AtomicLongArray averageResponseTimes;
+    /** The last time each server was selected, as returned by {@link System#nanoTime()}. */
+    private final AtomicLongArray lastSelectionTimes;
+
+    LeastLatencyLoadBalancer(final Collection<? extends ConnectionFactory> factories, final Options options) {
+        final int size = factories.size();
+        this.activeRequests = new AtomicLongArray(size);
+        this.requestCounts = new AtomicLongArray(size);
+        this.failedRequestCounts = new AtomicLongArray(size);
+        this.consecutiveFailures = new AtomicLongArray(size);
+        this.averageResponseTimes = new AtomicLongArray(size);
+        this.lastSelectionTimes = new AtomicLongArray(size);
+        final long now = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            lastSelectionTimes.set(i, now);
+        }
+        this.probeIntervalNanos = options.get(LOAD_BALANCER_MONITORING_INTERVAL).to(TimeUnit.NANOSECONDS);
+        this.loadBalancer = new RequestLoadBalancer("LeastLatencyLoadBalancer", factories, options,
+                new Function<Request, PartitionedRequest, NeverThrowsException>() {
+                    @Override
+                    public PartitionedRequest apply(final Request request) {
+                        return new PartitionedRequest(request, selectServer());
+                    }
+                }, NOOP_END_OF_REQUEST_FUNCTION, this);
+    }
+
+    @Override
+    public void close() {
+        loadBalancer.close();
+    }
+
+    @Override
+    public Connection getConnection() throws LdapException {
+        return loadBalancer.getConnection();
+    }
+
+    @Override
+    public Promise<Connection, LdapException> getConnectionAsync() {
+        return loadBalancer.getConnectionAsync();
+    }
+
+    @Override
+    public int getServerCount() {
+        return activeRequests.length();
+    }
+
+    @Override
+    public long getRequestCount(final int server) {
+        return requestCounts.get(server);
+    }
+
+    @Override
+    public long getActiveRequestCount(final int server) {
+        return activeRequests.get(server);
+    }
+
+    @Override
+    public long getFailedRequestCount(final int server) {
+        return failedRequestCounts.get(server);
+    }
+
+    @Override
+    public long getAverageResponseTime(final int server, final TimeUnit unit) {
+        return unit.convert(averageResponseTimes.get(server), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean isDegraded(final int server) {
+        return !isHealthy(server);
+    }
+
+    @Override
+    public String toString() {
+        return loadBalancer.toString();
+    }
+
+    /**
+     * Returns the index of the server which the next request should be routed to, and accounts for the new request
+     * in the statistics of this server.
+     *
+     * @return The index of the server which the next request should be routed to.
+     */
+    int selectServer() {
+        final long now = System.nanoTime();
+        int index = selectServerToProbe(now);
+        if (index == -1) {
+            index = selectFastestServer();
+        }
+        if (index == -1) {
+            // All the servers are degraded, spread the requests until one recovers.
+            index = ThreadLocalRandom.current().nextInt(getServerCount());
+        }
+        activeRequests.incrementAndGet(index);
+        requestCounts.incrementAndGet(index);
+        lastSelectionTimes.lazySet(index, now);
+        return index;
+    }
+
+    @Override
+    public void handleRequestResult(final int selectedIndex, final int servedIndex, final long responseTimeNanos,
+            final LdapException error) {
+        activeRequests.decrementAndGet(selectedIndex);
+        if (servedIndex == -1) {
+            // No server was available, the unavailable servers have already been taken out of the rotation.
+            return;
+        }
+        if (servedIndex != selectedIndex) {
+            // The request failed over to another server, which is the one which actually processed it.
+            requestCounts.decrementAndGet(selectedIndex);
+            requestCounts.incrementAndGet(servedIndex);
+        }
+        recordRequestResult(servedIndex, responseTimeNanos, error);
+    }
+
+    private void recordRequestResult(final int serverIndex, final long responseTimeNanos, final LdapException error) {
+        if (isServerFailure(error)) {
+            failedRequestCounts.incrementAndGet(serverIndex);
+            consecutiveFailures.incrementAndGet(serverIndex);
+        } else {
+            consecutiveFailures.set(serverIndex, 0);
+        }
+        if (!(error instanceof ConnectionException)) {
+            // Requests which could not be sent say nothing about the server response time.
+            updateAverageResponseTime(serverIndex, responseTimeNanos);
+        }
+    }
+
+    /** Returns an available server which has not been selected for a monitoring interval, or -1 if there is none. */
+    private int selectServerToProbe(final long now) {
+        for (int i = 0; i < getServerCount(); i++) {
+            final long lastSelectionTime = lastSelectionTimes.get(i);
+            if (now - lastSelectionTime >= probeIntervalNanos
+                    && loadBalancer.isOperational(i)
+                    && lastSelectionTimes.compareAndSet(i, lastSelectionTime, now)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the best of two healthy servers picked at random, or -1 if all the servers are degraded. */
+    private int selectFastestServer() {
+        final int size = getServerCount();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = nextHealthyServer(random.nextInt(size));
+        if (first == -1 || size == 1) {
+            return first;
+        }
+        final int second = nextHealthyServer((first + 1 + random.nextInt(size - 1)) % size);
+        return getExpectedResponseTime(second) < getExpectedResponseTime(first) ? second : first;
+    }
+
+    /** Returns the first healthy server starting from the provided index, or -1 if all the servers are degraded. */
+    private int nextHealthyServer(final int start) {
+        final int size = getServerCount();
+        for (int i = 0; i < size; i++) {
+            final int index = (start + i) % size;
+            if (isHealthy(index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isHealthy(final int index) {
+        return loadBalancer.isOperational(index) && consecutiveFailures.get(index) < DEGRADED_FAILURE_THRESHOLD;
+    }
+
+    /**
+     * Servers without any known response time have the lowest expected response time, so that they are sampled
+     * first. Otherwise, servers having the same average response time are ordered by number of active requests.
+     */
+    private long getExpectedResponseTime(final int index) {
+        return (averageResponseTimes.get(index) + 1) * (activeRequests.get(index) + 1);
+    }
+
+    private void updateAverageResponseTime(final int index, final long responseTimeNanos) {
+        long average;
+        long newAverage;
+        do {
+            average = averageResponseTimes.get(index);
+            newAverage = average == 0
+                    ? responseTimeNanos
+                    : average + ((responseTimeNanos - average) >> AVERAGE_WEIGHT_SHIFT);
+            // Zero is reserved for servers without any known response time.
+            newAverage = Math.max(newAverage, 1);
+        } while (!averageResponseTimes.compareAndSet(index, average, newAverage));
+    }
+
+    private static boolean isServerFailure(final LdapException error) {
+        if (error == null) {
+            return false;
+        }
+        final ResultCode resultCode = error.getResult().getResultCode();
+        return error instanceof ConnectionException
+                || error instanceof TimeoutResultException
+                || resultCode == ResultCode.BUSY
+                || resultCode == ResultCode.UNAVAILABLE;
+    }
+}
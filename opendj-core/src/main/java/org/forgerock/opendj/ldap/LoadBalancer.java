@@ -13,6 +13,7 @@
  *
  * Copyright 2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldap;
 
@@ -23,6 +24,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.i18n.slf4j.LocalizedLogger;
@@ -125,11 +127,22 @@ abstract class LoadBalancer implements ConnectionFactory {
 
         @Override
         public Promise<Connection, LdapException> getConnectionAsync() {
+            return getConnectionAsync(null);
+        }
+
+        /**
+         * Same as {@link #getConnectionAsync()}, and also sets the index of the connection factory which created the
+         * connection, which is not this one if it failed over to the next connection factories.
+         */
+        private Promise<Connection, LdapException> getConnectionAsync(final AtomicInteger servedIndex) {
             return factory.getConnectionAsync().thenAsync(
                 new AsyncFunction<Connection, Connection, LdapException>() {
                     @Override
                     public Promise<Connection, LdapException> apply(Connection value) throws LdapException {
                         notifyOnline();
+                        if (servedIndex != null) {
+                            servedIndex.set(index);
+                        }
                         return newResultPromise(value);
                     }
                 },
@@ -139,7 +152,7 @@ abstract class LoadBalancer implements ConnectionFactory {
                         // Attempt failed - try next factory.
                         notifyOffline(error);
                         final int nextIndex = (index + 1) % monitoredFactories.size();
-                        return getMonitoredConnectionFactory(nextIndex).getConnectionAsync();
+                        return getOperationalFactory(nextIndex).getConnectionAsync(servedIndex);
                     }
                 });
         }
@@ -273,6 +286,27 @@ abstract class LoadBalancer implements ConnectionFactory {
      * @throws LdapException If no connection factories are available.
      */
     final ConnectionFactory getMonitoredConnectionFactory(final int initialIndex) throws LdapException {
+        return getOperationalFactory(initialIndex);
+    }
+
+    /**
+     * Returns a connection from the first available connection factory starting from {@code initialIndex}, failing
+     * over to the next connection factories if it cannot be obtained.
+     *
+     * @param initialIndex The index of the connection factory to be used if operational.
+     * @param servedIndex Set to the index of the connection factory which created the connection.
+     * @return A promise of the connection, failed if no connection factories are available.
+     */
+    final Promise<Connection, LdapException> getMonitoredConnectionAsync(final int initialIndex,
+            final AtomicInteger servedIndex) {
+        try {
+            return getOperationalFactory(initialIndex).getConnectionAsync(servedIndex);
+        } catch (final LdapException e) {
+            return newExceptionPromise(e);
+        }
+    }
+
+    private MonitoredConnectionFactory getOperationalFactory(final int initialIndex) throws LdapException {
         final int maxIndex = monitoredFactories.size();
         int index = initialIndex;
         do {
@@ -291,6 +325,17 @@ abstract class LoadBalancer implements ConnectionFactory {
         throw newLdapException(CLIENT_SIDE_CONNECT_ERROR, "No operational connection factories available", lastFailure);
     }
 
+    /**
+     * Returns {@code true} if the connection factory having the provided index is considered operational, i.e. if
+     * requests routed to it will not fail over to the next connection factory.
+     *
+     * @param index The index of the connection factory.
+     * @return {@code true} if the connection factory having the provided index is considered operational.
+     */
+    final boolean isOperational(final int index) {
+        return monitoredFactories.get(index).isOperational.get();
+    }
+
     final String getLoadBalancerName() {
         return loadBalancerName;
     }
@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A connection pool which exposes statistics about its size and about the
+ * time spent by applications waiting for a connection.
+ * <p>
+ * Obtaining a connection from the pool is referred to as a lease. A lease is
+ * delayed when no idle connection is available at the time it is requested:
+ * the application then waits until a connection is released back to the pool
+ * or until a new connection is established. The lease wait statistics are
+ * cumulated since the creation of the pool.
+ */
+public interface MonitoredConnectionPool extends ConnectionPool {
+    /**
+     * Returns the number of connections held by this connection pool,
+     * including idle connections, connections in use, and connections being
+     * established.
+     *
+     * @return The number of connections held by this connection pool.
+     */
+    int getPoolSize();
+
+    /**
+     * Returns the approximate number of idle connections in this connection
+     * pool.
+     *
+     * @return The approximate number of idle connections in this connection
+     *         pool.
+     */
+    int getIdleConnectionCount();
+
+    /**
+     * Returns the approximate number of lease requests which are currently
+     * waiting for a connection.
+     *
+     * @return The approximate number of lease requests which are currently
+     *         waiting for a connection.
+     */
+    int getWaitingLeaseCount();
+
+    /**
+     * Returns the number of connections which have been leased from this
+     * connection pool.
+     *
+     * @return The number of connections which have been leased from this
+     *         connection pool.
+     */
+    long getLeaseCount();
+
+    /**
+     * Returns the number of leases which had to wait for a connection because
+     * no idle connection was available.
+     *
+     * @return The number of leases which had to wait for a connection.
+     */
+    long getDelayedLeaseCount();
+
+    /**
+     * Returns the total time spent waiting by the delayed leases.
+     *
+     * @param unit
+     *            The time unit of the returned value.
+     * @return The total time spent waiting by the delayed leases.
+     */
+    long getTotalLeaseWaitTime(TimeUnit unit);
+
+    /**
+     * Returns the longest time spent waiting by a delayed lease.
+     *
+     * @param unit
+     *            The time unit of the returned value.
+     * @return The longest time spent waiting by a delayed lease.
+     */
+    long getMaximumLeaseWaitTime(TimeUnit unit);
+}
@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A load balancer which exposes the routing statistics it maintains for each
+ * of its servers.
+ * <p>
+ * Servers are identified by their index, i.e. their position in the
+ * collection of connection factories provided when the load balancer was
+ * created. The statistics are cumulated since the creation of the load
+ * balancer and only reflect the requests routed by this load balancer.
+ */
+public interface MonitoredLoadBalancer extends ConnectionFactory {
+    /**
+     * Returns the number of servers which requests are load balanced across.
+     *
+     * @return The number of servers which requests are load balanced across.
+     */
+    int getServerCount();
+
+    /**
+     * Returns the number of requests which have been routed to the provided
+     * server.
+     *
+     * @param server
+     *            The index of the server.
+     * @return The number of requests which have been routed to the provided
+     *         server.
+     * @throws IndexOutOfBoundsException
+     *             If {@code server} is not a valid server index.
+     */
+    long getRequestCount(int server);
+
+    /**
+     * Returns the number of requests routed to the provided server which have
+     * not completed yet.
+     *
+     * @param server
+     *            The index of the server.
+     * @return The number of requests routed to the provided server which have
+     *         not completed yet.
+     * @throws IndexOutOfBoundsException
+     *             If {@code server} is not a valid server index.
+     */
+    long getActiveRequestCount(int server);
+
+    /**
+     * Returns the number of requests routed to the provided server which
+     * failed because the server could not be reached or was unable to process
+     * them.
+     *
+     * @param server
+     *            The index of the server.
+     * @return The number of requests routed to the provided server which
+     *         failed because of the server.
+     * @throws IndexOutOfBoundsException
+     *             If {@code server} is not a valid server index.
+     */
+    long getFailedRequestCount(int server);
+
+    /**
+     * Returns the average response time of the provided server. Recent
+     * requests weigh more than older ones, so that the average follows changes
+     * in the server load. Zero is returned until a request routed to the
+     * server has completed.
+     *
+     * @param server
+     *            The index of the server.
+     * @param unit
+     *            The time unit of the returned value.
+     * @return The average response time of the provided server.
+     * @throws IndexOutOfBoundsException
+     *             If {@code server} is not a valid server index.
+     */
+    long getAverageResponseTime(int server, TimeUnit unit);
+
+    /**
+     * Returns {@code true} if the provided server is currently avoided by the
+     * load balancer, either because it is not available or because the last
+     * requests routed to it have failed. Degraded servers still receive
+     * occasional requests in order to detect when they recover.
+     *
+     * @param server
+     *            The index of the server.
+     * @return {@code true} if the provided server is currently avoided by the
+     *         load balancer.
+     * @throws IndexOutOfBoundsException
+     *             If {@code server} is not a valid server index.
+     */
+    boolean isDegraded(int server);
+}
@@ -12,14 +12,15 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldap;
 
-import static org.forgerock.opendj.ldap.spi.LdapPromises.newFailedLdapPromise;
 import static org.forgerock.util.Utils.closeSilently;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.forgerock.opendj.ldap.requests.AbandonRequest;
@@ -55,6 +56,24 @@ import org.forgerock.util.promise.ResultHandler;
  * for selecting the first connection factory to use for each request.
  */
 final class RequestLoadBalancer extends LoadBalancer {
+    /** A listener which is notified of the outcome of each request, e.g. in order to adapt the routing policy. */
+    interface RequestResultListener {
+        /**
+         * Invoked when a request routed to the provided server has completed, whether successfully or not.
+         *
+         * @param selectedIndex
+         *            The index of the server chosen for the request.
+         * @param servedIndex
+         *            The index of the server which processed the request, which differs from the selected one when
+         *            the request failed over to another server, or -1 if no server could be connected to.
+         * @param responseTimeNanos
+         *            The time elapsed since the request was routed, in nanoseconds.
+         * @param error
+         *            The error returned for the request, or {@code null} if it succeeded.
+         */
+        void handleRequestResult(int selectedIndex, int servedIndex, long responseTimeNanos, LdapException error);
+    }
+
     /**
      * A function which returns the index of the first connection factory which should be used in order to satisfy the
      * next request. Implementations may base the decision on properties of the provided request, such as the target DN,
@@ -66,15 +85,27 @@ final class RequestLoadBalancer extends LoadBalancer {
     private final Function<Request, PartitionedRequest, NeverThrowsException> nextFactoryFunction;
     /** A function which is called after a request is terminated. */
     private final Function<Integer, Void, NeverThrowsException> endOfRequestFunction;
+    /** The listener notified of the outcome of each request, may be {@code null}. */
+    private final RequestResultListener resultListener;
 
     RequestLoadBalancer(final String loadBalancerName,
                         final Collection<? extends ConnectionFactory> factories,
                         final Options options,
                         final Function<Request, PartitionedRequest, NeverThrowsException> nextFactoryFunction,
                         final Function<Integer, Void, NeverThrowsException> endOfRequestFunction) {
+        this(loadBalancerName, factories, options, nextFactoryFunction, endOfRequestFunction, null);
+    }
+
+    RequestLoadBalancer(final String loadBalancerName,
+                        final Collection<? extends ConnectionFactory> factories,
+                        final Options options,
+                        final Function<Request, PartitionedRequest, NeverThrowsException> nextFactoryFunction,
+                        final Function<Integer, Void, NeverThrowsException> endOfRequestFunction,
+                        final RequestResultListener resultListener) {
         super(loadBalancerName, factories, options);
         this.nextFactoryFunction = nextFactoryFunction;
         this.endOfRequestFunction = endOfRequestFunction;
+        this.resultListener = resultListener;
     }
 
     @Override
@@ -246,41 +277,53 @@ final class RequestLoadBalancer extends LoadBalancer {
             if (state.isClosed()) {
                 throw new IllegalStateException();
             }
-            try {
-                final PartitionedRequest partitionedRequest = nextFactoryFunction.apply(request);
-                final ConnectionFactory factory = getMonitoredConnectionFactory(partitionedRequest.getServerIndex());
-                return new ConnectionContext(
-                        LdapPromises.asPromise(factory.getConnectionAsync()
-                                .thenOnException(new ExceptionHandler<LdapException>() {
-                                    @Override
-                                    public void handleException(final LdapException e) {
-                                        state.notifyConnectionError(false, e);
-                                    }
-                                })), partitionedRequest);
-            } catch (final LdapException e) {
-                state.notifyConnectionError(false, e);
-                LdapPromise<Connection> failedLdapPromise = newFailedLdapPromise(e);
-                return new ConnectionContext(failedLdapPromise, new PartitionedRequest(request, -1));
-            }
+            final PartitionedRequest partitionedRequest = nextFactoryFunction.apply(request);
+            final AtomicInteger servedIndex = new AtomicInteger(-1);
+            // Keep the selected server index, the end of request function must release what the next one acquired.
+            return new ConnectionContext(
+                    LdapPromises.asPromise(getMonitoredConnectionAsync(partitionedRequest.getServerIndex(), servedIndex)
+                            .thenOnException(new ExceptionHandler<LdapException>() {
+                                @Override
+                                public void handleException(final LdapException e) {
+                                    state.notifyConnectionError(false, e);
+                                }
+                            })), partitionedRequest, servedIndex);
         }
 
         private <R> LdapPromise<R> executeRequest(final ConnectionContext connectionContext,
                 final AsyncFunction<Connection, R, LdapException> requestSender) {
-            return connectionContext.getConnectionPromise()
+            final long startTimeNanos = resultListener != null ? System.nanoTime() : 0;
+            final LdapPromise<R> promise = connectionContext.getConnectionPromise()
                     .thenOnResult(new ResultHandler<Connection>() {
                         @Override
                         public void handleResult(final Connection connection) {
                             connectionContext.setConnection(connection);
                         }
                     })
-                    .thenAsync(requestSender)
-                    .thenFinally(new Runnable() {
-                        @Override
-                        public void run() {
-                            closeSilently(connectionContext.getConnection());
-                            endOfRequestFunction.apply(connectionContext.getServerIndex());
-                        }
-                    });
+                    .thenAsync(requestSender);
+            if (resultListener != null && connectionContext.getServerIndex() != -1) {
+                final int serverIndex = connectionContext.getServerIndex();
+                promise.thenOnResultOrException(new ResultHandler<R>() {
+                    @Override
+                    public void handleResult(final R result) {
+                        resultListener.handleRequestResult(serverIndex, connectionContext.getServedIndex(),
+                                System.nanoTime() - startTimeNanos, null);
+                    }
+                }, new ExceptionHandler<LdapException>() {
+                    @Override
+                    public void handleException(final LdapException e) {
+                        resultListener.handleRequestResult(serverIndex, connectionContext.getServedIndex(),
+                                System.nanoTime() - startTimeNanos, e);
+                    }
+                });
+            }
+            return promise.thenFinally(new Runnable() {
+                @Override
+                public void run() {
+                    closeSilently(connectionContext.getConnection());
+                    endOfRequestFunction.apply(connectionContext.getServerIndex());
+                }
+            });
         }
     }
 
@@ -309,10 +352,14 @@ final class RequestLoadBalancer extends LoadBalancer {
         private final AtomicReference<Connection> connectionHolder = new AtomicReference<>();
         private final LdapPromise<Connection> connectionPromise;
         private final PartitionedRequest partitionedRequest;
+        /** The index of the server which created the connection, -1 until the connection is obtained. */
+        private final AtomicInteger servedIndex;
 
-        ConnectionContext(LdapPromise<Connection> connectionPromise, PartitionedRequest partitionedRequest) {
+        ConnectionContext(LdapPromise<Connection> connectionPromise, PartitionedRequest partitionedRequest,
+                AtomicInteger servedIndex) {
             this.partitionedRequest = partitionedRequest;
             this.connectionPromise = connectionPromise;
+            this.servedIndex = servedIndex;
         }
 
         Connection getConnection() {
@@ -331,6 +378,10 @@ final class RequestLoadBalancer extends LoadBalancer {
             return partitionedRequest.getServerIndex();
         }
 
+        int getServedIndex() {
+            return servedIndex.get();
+        }
+
         Request getRequest() {
             return partitionedRequest.getRequest();
         }
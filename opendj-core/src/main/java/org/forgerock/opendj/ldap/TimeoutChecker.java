@@ -13,13 +13,16 @@
  *
  * Copyright 2010 Sun Microsystems, Inc.
  * Portions copyright 2013-2014 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldap;
 
 import static java.util.Collections.newSetFromMap;
 
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.i18n.slf4j.LocalizedLogger;
@@ -32,8 +35,53 @@ import com.forgerock.opendj.util.ReferenceCountedObject;
  * All listeners registered with the {@code #addListener()} method are called
  * back with {@code TimeoutEventListener#handleTimeout()} to be able to handle
  * the timeout.
+ * <p>
+ * Individual timeouts, such as request timeouts, should rather be scheduled with
+ * the {@code #schedule()} method. Scheduled timeouts are held by a hashed
+ * hierarchical timing wheel: scheduling and cancelling a timeout takes constant
+ * time, and the timeout checker only visits the timeouts which expire, instead of
+ * calling back every listener each time it wakes up.
  */
 public final class TimeoutChecker {
+    /**
+     * A timeout scheduled with {@link TimeoutChecker#schedule}.
+     */
+    public final class Timeout {
+        private final TimeoutEventListener listener;
+        private volatile boolean isCancelled;
+
+        /** The following fields are only accessed by the timeout checker thread. */
+        private long deadline;
+        private int bucket = -1;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(final TimeoutEventListener listener, final long deadline) {
+            this.listener = listener;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels this timeout. The listener will not be called back, unless the
+         * timeout has already expired.
+         */
+        public void cancel() {
+            if (!isCancelled) {
+                isCancelled = true;
+                cancelledTimeouts.offer(this);
+            }
+        }
+    }
+
+    /** Duration of a tick of the timing wheel in milliseconds. */
+    private static final long TICK_MS = 10;
+    /** Each level of the timing wheel has 64 buckets. */
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    /** Four levels cover more than 46 hours, longer timeouts are cascaded from the last level. */
+    private static final int WHEEL_LEVELS = 4;
+
     /**
      * Global reference on the timeout checker.
      */
@@ -75,6 +123,27 @@ public final class TimeoutChecker {
      */
     private volatile long pendingListenerMinDelay = Long.MAX_VALUE;
 
+    /** Timeouts scheduled since the timeout checker last woke up. */
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    /** Timeouts cancelled since the timeout checker last woke up. */
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    /** Indicates whether the timeout checker must be woken up when a timeout is scheduled. */
+    private volatile boolean isSleeping;
+    /** The number of timeouts held by the timing wheel. */
+    private volatile long pendingTimeoutCount;
+    /** The number of timeouts which have expired. */
+    private volatile long expiredTimeoutCount;
+
+    /**
+     * The buckets of the timing wheel, level after level. Each bucket is a
+     * doubly linked list of timeouts. Only accessed by the timeout checker thread.
+     */
+    private final Timeout[] buckets = new Timeout[WHEEL_LEVELS * WHEEL_SIZE];
+    /** The time of the first tick of the timing wheel. */
+    private final long startTime = System.currentTimeMillis();
+    /** The next tick to process. Only accessed by the timeout checker thread. */
+    private long nextTick;
+
     private TimeoutChecker() {
         final Thread checkerThread = new Thread("OpenDJ LDAP SDK Timeout Checker") {
             @Override
@@ -100,11 +169,21 @@ public final class TimeoutChecker {
                             delay = Math.min(newDelay, delay);
                         }
                     }
+                    processTimeouts(currentTime);
 
                     try {
                         synchronized (stateLock) {
                             // Include any pending listener delays.
                             delay = Math.min(pendingListenerMinDelay, delay);
+                            if (pendingTimeoutCount > 0) {
+                                // Wake up for the next tick.
+                                delay = Math.min(delay, TICK_MS - (System.currentTimeMillis() - startTime) % TICK_MS);
+                            }
+                            // Must be set before checking for new timeouts, see schedule().
+                            isSleeping = delay > TICK_MS;
+                            if (!newTimeouts.isEmpty()) {
+                                delay = Math.min(delay, TICK_MS);
+                            }
                             if (shutdownRequested) {
                                 // Stop immediately.
                                 break;
@@ -121,6 +200,7 @@ public final class TimeoutChecker {
                     } catch (final InterruptedException e) {
                         shutdownRequested = true;
                     }
+                    isSleeping = false;
                 }
             }
         };
@@ -161,6 +241,164 @@ public final class TimeoutChecker {
         // No need to signal.
     }
 
+    /**
+     * Schedules a timeout. The listener will be called back with
+     * {@code TimeoutEventListener#handleTimeout()} once the delay has expired,
+     * then again after the delay it returns, until it returns zero or the timeout
+     * is cancelled.
+     *
+     * @param listener
+     *            The timeout event listener.
+     * @param delay
+     *            The delay in milliseconds before calling back the listener.
+     * @return The scheduled timeout, which must be cancelled if it is no longer needed.
+     */
+    public Timeout schedule(final TimeoutEventListener listener, final long delay) {
+        final Timeout timeout = new Timeout(listener, System.currentTimeMillis() + delay);
+        newTimeouts.offer(timeout);
+        if (isSleeping) {
+            synchronized (stateLock) {
+                stateLock.notifyAll();
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Returns the number of scheduled timeouts which have neither expired nor been cancelled yet.
+     *
+     * @return The number of pending timeouts.
+     */
+    public long getPendingTimeoutCount() {
+        return pendingTimeoutCount;
+    }
+
+    /**
+     * Returns the number of scheduled timeouts which have expired, which means
+     * that their listener has been called back and has not asked to be called back again.
+     *
+     * @return The number of expired timeouts.
+     */
+    public long getExpiredTimeoutCount() {
+        return expiredTimeoutCount;
+    }
+
+    /** Adds the new timeouts to the timing wheel, removes the cancelled ones and expires the due ones. */
+    private void processTimeouts(final long currentTime) {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (!timeout.isCancelled) {
+                addTimeout(timeout);
+            }
+        }
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            removeTimeout(timeout);
+        }
+
+        final long currentTick = (currentTime - startTime) / TICK_MS;
+        while (nextTick <= currentTick && pendingTimeoutCount > 0) {
+            // Cascade the timeouts of the upper levels, highest level first.
+            for (int level = WHEEL_LEVELS - 1; level > 0; level--) {
+                final int shift = level * WHEEL_BITS;
+                if ((nextTick & ((1L << shift) - 1)) == 0) {
+                    for (Timeout t = detachBucket(bucketIndex(level, nextTick >> shift)); t != null;) {
+                        final Timeout next = t.next;
+                        t.next = null;
+                        addTimeout(t);
+                        t = next;
+                    }
+                }
+            }
+
+            for (Timeout t = detachBucket(bucketIndex(0, nextTick)); t != null;) {
+                final Timeout next = t.next;
+                t.next = null;
+                expireTimeout(t, currentTime);
+                t = next;
+            }
+            nextTick++;
+        }
+        if (pendingTimeoutCount == 0) {
+            // Nothing to cascade, skip the ticks.
+            nextTick = Math.max(nextTick, currentTick + 1);
+        }
+    }
+
+    private void expireTimeout(final Timeout timeout, final long currentTime) {
+        if (timeout.isCancelled) {
+            return;
+        }
+        long newDelay = 0;
+        try {
+            newDelay = timeout.listener.handleTimeout(currentTime);
+        } catch (final RuntimeException e) {
+            // Do not let a faulty listener stop the timeout checker.
+            logger.traceException(e);
+        }
+        if (newDelay > 0) {
+            timeout.deadline = currentTime + newDelay;
+            addTimeout(timeout);
+        } else {
+            expiredTimeoutCount++;
+        }
+    }
+
+    private void addTimeout(final Timeout timeout) {
+        final long deadlineTick = Math.max((timeout.deadline - startTime + TICK_MS - 1) / TICK_MS, nextTick);
+        final long ticks = deadlineTick - nextTick;
+        int level = 0;
+        while (level < WHEEL_LEVELS - 1 && ticks >= 1L << ((level + 1) * WHEEL_BITS)) {
+            level++;
+        }
+        // Timeouts beyond the last level are cascaded again when their bucket is reached.
+        final long maxTick = nextTick + (1L << (WHEEL_LEVELS * WHEEL_BITS)) - 1;
+        final int bucket = bucketIndex(level, Math.min(deadlineTick, maxTick) >> (level * WHEEL_BITS));
+
+        timeout.bucket = bucket;
+        timeout.previous = null;
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        buckets[bucket] = timeout;
+        pendingTimeoutCount++;
+    }
+
+    private void removeTimeout(final Timeout timeout) {
+        if (timeout.bucket < 0) {
+            // Already expired.
+            return;
+        }
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.bucket = -1;
+        timeout.previous = null;
+        timeout.next = null;
+        pendingTimeoutCount--;
+    }
+
+    /** Removes all the timeouts of a bucket, returning them as a singly linked list. */
+    private Timeout detachBucket(final int bucket) {
+        final Timeout head = buckets[bucket];
+        buckets[bucket] = null;
+        for (Timeout t = head; t != null; t = t.next) {
+            t.bucket = -1;
+            t.previous = null;
+            pendingTimeoutCount--;
+        }
+        return head;
+    }
+
+    private static int bucketIndex(final int level, final long tick) {
+        return level * WHEEL_SIZE + (int) (tick & WHEEL_MASK);
+    }
+
     private void shutdown() {
         synchronized (stateLock) {
             shutdownRequested = true;
@@ -13,13 +13,18 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldif;
 
 import static com.forgerock.opendj.ldap.CoreMessages.*;
+import static org.forgerock.util.Utils.closeSilently;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -51,9 +56,17 @@ import org.forgerock.util.Reject;
  * <pre>
  * generator = new EntryGenerator(templatePath).setResourcePath(path).setSchema(schema)
  * </pre>
+ * <p>
+ * Large sets of entries can be generated faster by splitting them into shards,
+ * which are generated concurrently with {@link #setShardCount(int)}, or one at
+ * a time with {@link #setShardIndex(int)}. The entries generated for a given
+ * random seed and number of shards are always the same.
  */
 public final class EntryGenerator implements EntryReader {
 
+    /** Number of consecutive top-level entries generated by a shard before moving to its next chunk. */
+    private static final int SHARD_CHUNK_SIZE = 1000;
+
     /** Template file that contains directives for generation of entries. */
     private TemplateFile templateFile;
 
@@ -108,6 +121,15 @@ public final class EntryGenerator implements EntryReader {
     /** Dictionary of constants to use in the template file. */
     private Map<String, String> constants = new HashMap<>();
 
+    /** Number of shards the entries are split into. */
+    private int shardCount = 1;
+
+    /** Index of the only shard to generate, or -1 to generate all the shards. */
+    private int shardIndex = -1;
+
+    /** Reader of the entries of all the shards, when several shards are generated concurrently. */
+    private EntryReader shardedEntries;
+
     /**
      * Creates a generator using default values.
      * <p>
@@ -229,6 +251,51 @@ public final class EntryGenerator implements EntryReader {
         return this;
     }
 
+    /**
+     * Sets the number of shards the generated entries are split into.
+     * <p>
+     * The entries generated by the subordinate templates of the branches are
+     * split into chunks of consecutive entries, which are assigned to the
+     * shards in turn. Each shard generates its chunks with its own random
+     * number generator, deriving from the random seed, and advances the
+     * sequential counters and the names over the chunks of the other shards.
+     * The generated entries are therefore the same for a given random seed and
+     * number of shards, but differ in their random values from the entries
+     * generated without shards. All the templates must generate a limited
+     * number of entries.
+     * <p>
+     * Unless a single shard is selected with {@link #setShardIndex(int)}, the
+     * shards are generated concurrently, each by its own thread, and their
+     * entries are returned in the order of the template file.
+     * <p>
+     * The default is {@code 1}.
+     *
+     * @param shardCount
+     *            The number of shards.
+     * @return A reference to this {@code EntryGenerator}.
+     */
+    public EntryGenerator setShardCount(final int shardCount) {
+        Reject.ifFalse(shardCount > 0, "The number of shards must be positive");
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    /**
+     * Restricts the generated entries to those of a single shard, in the
+     * current thread. Generating every shard of a same random seed and number
+     * of shards gives the same entries as generating all the shards at once.
+     *
+     * @param shardIndex
+     *            The index of the shard to generate, lower than the number of
+     *            shards set with {@link #setShardCount(int)}.
+     * @return A reference to this {@code EntryGenerator}.
+     */
+    public EntryGenerator setShardIndex(final int shardIndex) {
+        Reject.ifFalse(shardIndex >= 0, "The shard index must not be negative");
+        this.shardIndex = shardIndex;
+        return this;
+    }
+
     /**
      * Checks if there are some warning(s) after parsing the template file.
      * <p>
@@ -256,6 +323,9 @@ public final class EntryGenerator implements EntryReader {
     @Override
     public void close() {
         isClosed = true;
+        if (shardedEntries != null) {
+            closeSilently(shardedEntries);
+        }
     }
 
     @Override
@@ -264,13 +334,23 @@ public final class EntryGenerator implements EntryReader {
             return false;
         }
         ensureGeneratorIsInitialized();
-        return templateFile.hasNext();
+        if (shardedEntries != null) {
+            return shardedEntries.hasNext();
+        }
+        while (!templateFile.hasNext()) {
+            if (shardIndex < 0 || !templateFile.nextChunk()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public Entry readEntry() throws IOException {
         if (!hasNext()) {
             throw new NoSuchElementException();
+        } else if (shardedEntries != null) {
+            return shardedEntries.readEntry();
         } else {
             return templateFile.nextEntry();
         }
@@ -294,7 +374,39 @@ public final class EntryGenerator implements EntryReader {
         if (schema == null) {
             schema = Schema.getDefaultSchema();
         }
-        templateFile = new TemplateFile(schema, constants, resourcePath, random, generateBranches);
+        if (shardCount == 1 && shardIndex < 0) {
+            templateFile = parseTemplateFile(random, warnings);
+            return;
+        }
+
+        Reject.ifFalse(shardIndex < shardCount, "The shard index must be lower than the number of shards");
+        if (templateStream != null) {
+            // The template is parsed once per shard
+            templateLines = readLines(templateStream);
+            templateStream = null;
+        }
+        final List<TemplateFile> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            final Random shardRandom = new Random(random.nextLong());
+            if (shardIndex < 0 || shardIndex == i) {
+                final TemplateFile shard = parseTemplateFile(
+                        shardRandom, shards.isEmpty() ? warnings : new ArrayList<LocalizableMessage>());
+                shard.selectShard(i, shardCount, SHARD_CHUNK_SIZE);
+                shards.add(shard);
+            }
+        }
+        if (shardIndex < 0) {
+            shardedEntries = new ShardedEntryReader(shards);
+        } else {
+            templateFile = shards.get(0);
+        }
+    }
+
+    private TemplateFile parseTemplateFile(final Random random, final List<LocalizableMessage> warnings)
+            throws IOException {
+        // Template files add their constants, keep those of the generator for the other shards
+        final TemplateFile templateFile =
+                new TemplateFile(schema, new HashMap<>(constants), resourcePath, random, generateBranches);
         try {
             if (templatePath != null) {
                 templateFile.parse(templatePath, warnings);
@@ -311,6 +423,14 @@ public final class EntryGenerator implements EntryReader {
         } catch (Exception e) {
             throw DecodeException.fatalError(ERR_ENTRY_GENERATOR_EXCEPTION_DURING_PARSE.get(e.getMessage()), e);
         }
+        return templateFile;
+    }
+
+    private static String[] readLines(final InputStream inputStream) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+            final List<String> lines = TemplateFile.readLines(reader);
+            return lines.toArray(new String[lines.size()]);
+        }
     }
 
 }
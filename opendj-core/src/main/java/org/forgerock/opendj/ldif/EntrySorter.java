@@ -0,0 +1,407 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldif;
+
+import static com.forgerock.opendj.ldap.CoreMessages.ERR_LDIF_ENTRIES_NOT_SORTED;
+import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.Utils.newThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.Entry;
+
+/**
+ * Sorts the entries read from an entry reader by normalized DN using a bounded amount of memory.
+ * <p>
+ * Entries are buffered in memory. Each time the buffer is full, it is sorted and written to a temporary file, called
+ * a run, by a pool of threads while the next buffer is filled. The runs are then merged while the sorted entries are
+ * read. Inputs which fit in memory are sorted without temporary files.
+ */
+final class EntrySorter {
+    /**
+     * A cursor over entries sorted by normalized DN. Entries are encoded as returned by
+     * {@link LDIF#encodeEntry(Entry)}.
+     */
+    abstract static class Run implements Closeable {
+        /** The normalized DN of the current entry. */
+        byte[] dn;
+        /** The encoded current entry. */
+        byte[] entry;
+
+        /**
+         * Moves to the next entry.
+         *
+         * @return {@code true} if there is a next entry, {@code false} if the run is exhausted
+         * @throws IOException
+         *             If an error occurred while reading the next entry.
+         */
+        abstract boolean next() throws IOException;
+    }
+
+    /** A run held in memory. */
+    private static final class MemoryRun extends Run {
+        private final List<byte[][]> entries;
+        private int index;
+
+        private MemoryRun(final List<byte[][]> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        boolean next() {
+            if (index == entries.size()) {
+                return false;
+            }
+            final byte[][] bEntry = entries.get(index);
+            // Let the entries be garbage collected while the run is read.
+            entries.set(index++, null);
+            dn = bEntry[0];
+            entry = bEntry[1];
+            return true;
+        }
+
+        @Override
+        public void close() {
+            entries.clear();
+        }
+    }
+
+    /** A run written to a temporary file, which is deleted when the run is closed. */
+    private static final class FileRun extends Run {
+        private final File file;
+        private final DataInputStream input;
+
+        private FileRun(final File file) throws IOException {
+            this.file = file;
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER_SIZE));
+        }
+
+        @Override
+        boolean next() throws IOException {
+            final int dnLength;
+            try {
+                dnLength = input.readInt();
+            } catch (final EOFException e) {
+                return false;
+            }
+            dn = new byte[dnLength];
+            input.readFully(dn);
+            entry = new byte[input.readInt()];
+            input.readFully(entry);
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closeSilently(input);
+            file.delete();
+        }
+    }
+
+    /** Merges sorted runs. */
+    private static final class MergeRun extends Run {
+        private final List<Run> runs;
+        private final PriorityQueue<Run> queue;
+        private Run current;
+
+        private MergeRun(final List<Run> runs) throws IOException {
+            this.runs = runs;
+            this.queue = new PriorityQueue<>(Math.max(runs.size(), 1), RUN_ORDER);
+            for (final Run run : runs) {
+                if (run.next()) {
+                    queue.add(run);
+                }
+            }
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (current != null && current.next()) {
+                queue.add(current);
+            }
+            current = queue.poll();
+            if (current == null) {
+                return false;
+            }
+            dn = current.dn;
+            entry = current.entry;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closeRuns(runs);
+        }
+    }
+
+    /** Reads entries which are expected to be sorted, failing as soon as an entry is out of order. */
+    private static final class SortedReaderRun extends Run {
+        private final EntryReader reader;
+        private DN previousDN;
+
+        private SortedReaderRun(final EntryReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (!reader.hasNext()) {
+                return false;
+            }
+            final Entry nextEntry = reader.readEntry();
+            final byte[][] bEntry = LDIF.encodeEntry(nextEntry);
+            if (dn != null && LDIF.DN_ORDER.compare(dn, bEntry[0]) > 0) {
+                throw DecodeException.error(ERR_LDIF_ENTRIES_NOT_SORTED.get(nextEntry.getName(), previousDN));
+            }
+            previousDN = nextEntry.getName();
+            dn = bEntry[0];
+            entry = bEntry[1];
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // The reader is closed by the caller.
+        }
+    }
+
+    private static final Comparator<Run> RUN_ORDER = new Comparator<Run>() {
+        @Override
+        public int compare(final Run r1, final Run r2) {
+            return LDIF.DN_ORDER.compare(r1.dn, r2.dn);
+        }
+    };
+
+    /** Maximum number of runs merged at once, more runs are first merged into intermediate runs. */
+    private static final int MAX_MERGED_RUNS = 128;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    /** Approximate memory used by a buffered entry in addition to its encoded DN and content. */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final File tempDirectory;
+    private final long bufferSize;
+    private final int threadCount;
+
+    /**
+     * Creates a new entry sorter.
+     *
+     * @param tempDirectory
+     *            The directory where runs are written.
+     * @param maxMemorySize
+     *            The maximum amount of memory used to buffer entries, in bytes.
+     * @param threadCount
+     *            The number of threads sorting and writing runs concurrently.
+     */
+    EntrySorter(final File tempDirectory, final long maxMemorySize, final int threadCount) {
+        this.tempDirectory = tempDirectory;
+        this.threadCount = Math.max(threadCount, 1);
+        // One buffer is filled while the others are sorted and written.
+        this.bufferSize = Math.max(maxMemorySize / (this.threadCount + 1), 1);
+    }
+
+    /**
+     * Returns a run reading the provided entries, which are expected to be already sorted by normalized DN. No
+     * temporary file is used, and reading the run fails if an entry is out of order.
+     *
+     * @param reader
+     *            The sorted entries.
+     * @return A run reading the provided entries.
+     */
+    static Run readSorted(final EntryReader reader) {
+        return new SortedReaderRun(reader);
+    }
+
+    /**
+     * Reads and sorts all the entries of the provided reader in memory.
+     *
+     * @param reader
+     *            The entries to sort.
+     * @return A run reading the sorted entries.
+     * @throws IOException
+     *             If an error occurred while reading the entries.
+     */
+    static Run sortInMemory(final EntryReader reader) throws IOException {
+        final List<byte[][]> entries = new ArrayList<>();
+        while (reader.hasNext()) {
+            entries.add(LDIF.encodeEntry(reader.readEntry()));
+        }
+        Collections.sort(entries, LDIF.DN_ORDER2);
+        return new MemoryRun(entries);
+    }
+
+    /**
+     * Sorts all the entries of the provided reader.
+     *
+     * @param reader
+     *            The entries to sort.
+     * @return A run reading the sorted entries, which must be closed in order to delete temporary files.
+     * @throws IOException
+     *             If an error occurred while reading the entries or writing the runs.
+     */
+    Run sort(final EntryReader reader) throws IOException {
+        final List<Future<File>> writtenRuns = new ArrayList<>();
+        final List<File> runFiles = new ArrayList<>();
+        final List<Run> runs = new ArrayList<>();
+        final ExecutorService executor =
+                Executors.newFixedThreadPool(threadCount, newThreadFactory(null, "LDIF sorter %d", true));
+        final Semaphore availableBuffers = new Semaphore(threadCount);
+        try {
+            List<byte[][]> buffer = new ArrayList<>();
+            long bufferedSize = 0;
+            while (reader.hasNext()) {
+                final byte[][] bEntry = LDIF.encodeEntry(reader.readEntry());
+                buffer.add(bEntry);
+                bufferedSize += bEntry[0].length + bEntry[1].length + ENTRY_OVERHEAD;
+                if (bufferedSize >= bufferSize) {
+                    availableBuffers.acquire();
+                    writtenRuns.add(executor.submit(newWriteRunTask(buffer, availableBuffers)));
+                    buffer = new ArrayList<>();
+                    bufferedSize = 0;
+                }
+            }
+
+            // The last buffer is merged from memory.
+            Collections.sort(buffer, LDIF.DN_ORDER2);
+            runs.add(new MemoryRun(buffer));
+            for (final Future<File> writtenRun : writtenRuns) {
+                runFiles.add(writtenRun.get());
+            }
+            mergeIntermediateRuns(runFiles);
+            runs.addAll(openRuns(runFiles));
+            return runs.size() == 1 ? runs.get(0) : new MergeRun(runs);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteRuns(runs, runFiles, writtenRuns);
+            throw new IOException(e);
+        } catch (final ExecutionException e) {
+            deleteRuns(runs, runFiles, writtenRuns);
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } catch (final IOException | RuntimeException e) {
+            deleteRuns(runs, runFiles, writtenRuns);
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Callable<File> newWriteRunTask(final List<byte[][]> buffer, final Semaphore availableBuffers) {
+        return new Callable<File>() {
+            @Override
+            public File call() throws IOException {
+                try {
+                    Collections.sort(buffer, LDIF.DN_ORDER2);
+                    return writeRun(new MemoryRun(buffer));
+                } finally {
+                    availableBuffers.release();
+                }
+            }
+        };
+    }
+
+    /**
+     * Merges run files into intermediate run files until there are few enough of them to be merged at once with the
+     * run held in memory. Only the runs merged by a pass are open, so that at most {@link #MAX_MERGED_RUNS} files are
+     * open at the same time.
+     */
+    private void mergeIntermediateRuns(final List<File> runFiles) throws IOException {
+        while (runFiles.size() >= MAX_MERGED_RUNS) {
+            final List<File> mergedFiles = runFiles.subList(runFiles.size() - MAX_MERGED_RUNS, runFiles.size());
+            final List<Run> mergedRuns = openRuns(mergedFiles);
+            final File mergedFile;
+            try {
+                mergedFile = writeRun(new MergeRun(mergedRuns));
+            } finally {
+                closeRuns(mergedRuns);
+            }
+            mergedFiles.clear();
+            runFiles.add(0, mergedFile);
+        }
+    }
+
+    /** Opens the provided run files, closing the already opened runs if one of them cannot be opened. */
+    private static List<Run> openRuns(final List<File> runFiles) throws IOException {
+        final List<Run> runs = new ArrayList<>(runFiles.size());
+        try {
+            for (final File runFile : runFiles) {
+                runs.add(new FileRun(runFile));
+            }
+            return runs;
+        } catch (final IOException e) {
+            closeRuns(runs);
+            throw e;
+        }
+    }
+
+    private File writeRun(final Run run) throws IOException {
+        final File file = File.createTempFile("ldif-sort", ".run", tempDirectory);
+        try (DataOutputStream output =
+                new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE))) {
+            while (run.next()) {
+                output.writeInt(run.dn.length);
+                output.write(run.dn);
+                output.writeInt(run.entry.length);
+                output.write(run.entry);
+            }
+        } catch (final IOException e) {
+            file.delete();
+            throw e;
+        }
+        return file;
+    }
+
+    private static void closeRuns(final List<Run> runs) {
+        for (final Run run : runs) {
+            closeSilently(run);
+        }
+    }
+
+    private static void deleteRuns(final List<Run> runs, final List<File> runFiles,
+            final List<Future<File>> writtenRuns) {
+        closeRuns(runs);
+        for (final File runFile : runFiles) {
+            runFile.delete();
+        }
+        for (final Future<File> writtenRun : writtenRuns) {
+            try {
+                writtenRun.get().delete();
+            } catch (final Exception ignored) {
+                // The run could not be written.
+            }
+        }
+    }
+}
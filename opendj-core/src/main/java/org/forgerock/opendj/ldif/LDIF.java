@@ -12,17 +12,19 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldif;
 
 import static com.forgerock.opendj.ldap.CoreMessages.*;
 import static org.forgerock.opendj.ldap.LdapException.newLdapException;
+import static org.forgerock.util.Utils.closeSilently;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -60,6 +62,8 @@ import org.forgerock.opendj.ldap.requests.Requests;
 import org.forgerock.opendj.ldap.requests.SearchRequest;
 import org.forgerock.opendj.ldap.schema.AttributeUsage;
 import org.forgerock.opendj.ldap.schema.Schema;
+import org.forgerock.util.Option;
+import org.forgerock.util.Options;
 
 /**
  * This class contains common utility methods for creating and manipulating
@@ -79,10 +83,41 @@ public final class LDIF {
     }
     // @formatter:on
 
+    /**
+     * Directory where {@link #diff(EntryReader, EntryReader, Options)} writes
+     * the temporary files holding sorted entries. The default is the system
+     * temporary directory.
+     */
+    public static final Option<File> DIFF_TEMP_DIRECTORY =
+            Option.of(File.class, new File(System.getProperty("java.io.tmpdir")));
+
+    /**
+     * Maximum amount of memory in bytes used by
+     * {@link #diff(EntryReader, EntryReader, Options)} to sort entries before
+     * writing them to temporary files. The default is 64 MB.
+     */
+    public static final Option<Long> DIFF_SORT_MEMORY_SIZE = Option.withDefault(64L * 1024 * 1024);
+
+    /**
+     * Number of threads used by {@link #diff(EntryReader, EntryReader, Options)}
+     * to sort entries and write them to temporary files. The default is the
+     * number of available processors.
+     */
+    public static final Option<Integer> DIFF_SORT_THREADS =
+            Option.withDefault(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Indicates whether the entries compared by
+     * {@link #diff(EntryReader, EntryReader, Options)} are already sorted by DN,
+     * in which case they are compared as they are read, without being sorted.
+     * Comparing entries which are not sorted fails. The default is {@code false}.
+     */
+    public static final Option<Boolean> DIFF_INPUTS_SORTED = Option.withDefault(false);
+
     /**
      * Comparator ordering the DN ASC.
      */
-    private static final Comparator<byte[][]> DN_ORDER2 = new Comparator<byte[][]>() {
+    static final Comparator<byte[][]> DN_ORDER2 = new Comparator<byte[][]>() {
         @Override
         public int compare(byte[][] b1, byte[][] b2) {
             return DN_ORDER.compare(b1[0], b2[0]);
@@ -92,7 +127,7 @@ public final class LDIF {
     /**
      * Comparator ordering the DN ASC.
      */
-    private static final Comparator<byte[]> DN_ORDER = new Comparator<byte[]>() {
+    static final Comparator<byte[]> DN_ORDER = new Comparator<byte[]>() {
         @Override
         public int compare(byte[] b1, byte[] b2) {
             final ByteString bs = ByteString.valueOfBytes(b1);
@@ -150,7 +185,8 @@ public final class LDIF {
      * <b>NOTE:</b> this method reads the content of {@code source} and
      * {@code target} into memory before calculating the differences, and is
      * therefore not suited for use in cases where a very large number of
-     * entries are to be compared.
+     * entries are to be compared. Use {@link #diff(EntryReader, EntryReader, Options)}
+     * in such cases.
      *
      * @param source
      *            The entry reader containing the source entries to be compared.
@@ -162,22 +198,64 @@ public final class LDIF {
      */
     public static ChangeRecordReader diff(final EntryReader source, final EntryReader target)
             throws IOException {
+        return diff(source, target, EntrySorter.sortInMemory(source), EntrySorter.sortInMemory(target));
+    }
+
+    /**
+     * Compares the content of {@code source} to the content of {@code target}
+     * using a bounded amount of memory, and returns the differences in a change
+     * record reader. Closing the returned reader will cause {@code source} and
+     * {@code target} to be closed as well.
+     * <p>
+     * Unless {@link #DIFF_INPUTS_SORTED} is set, {@code source} and
+     * {@code target} are sorted by DN before calculating the differences. Entries
+     * which do not fit in {@link #DIFF_SORT_MEMORY_SIZE} are sorted in temporary
+     * files written to {@link #DIFF_TEMP_DIRECTORY}. Both entry readers are
+     * read before this method returns.
+     *
+     * @param source
+     *            The entry reader containing the source entries to be compared.
+     * @param target
+     *            The entry reader containing the target entries to be compared.
+     * @param options
+     *            The options controlling how the entries are sorted.
+     * @return A change record reader containing the differences.
+     * @throws IOException
+     *             If an unexpected IO error occurred.
+     */
+    public static ChangeRecordReader diff(final EntryReader source, final EntryReader target, final Options options)
+            throws IOException {
+        if (options.get(DIFF_INPUTS_SORTED)) {
+            return diff(source, target, EntrySorter.readSorted(source), EntrySorter.readSorted(target));
+        }
 
-        final List<byte[][]> source2 = readEntriesAsList(source);
-        final List<byte[][]> target2 = readEntriesAsList(target);
-        final Iterator<byte[][]> sourceIterator = source2.iterator();
-        final Iterator<byte[][]> targetIterator = target2.iterator();
+        final EntrySorter sorter = new EntrySorter(options.get(DIFF_TEMP_DIRECTORY),
+                options.get(DIFF_SORT_MEMORY_SIZE), options.get(DIFF_SORT_THREADS));
+        final EntrySorter.Run sourceRun = sorter.sort(source);
+        try {
+            return diff(source, target, sourceRun, sorter.sort(target));
+        } catch (final IOException | RuntimeException e) {
+            closeSilently(sourceRun);
+            throw e;
+        }
+    }
 
+    private static ChangeRecordReader diff(final EntryReader source, final EntryReader target,
+            final EntrySorter.Run sourceRun, final EntrySorter.Run targetRun) throws IOException {
         return new ChangeRecordReader() {
-            private Entry sourceEntry = nextEntry(sourceIterator);
-            private Entry targetEntry = nextEntry(targetIterator);
+            private Entry sourceEntry = nextEntry(sourceRun);
+            private Entry targetEntry = nextEntry(targetRun);
 
             @Override
             public void close() throws IOException {
                 try {
                     source.close();
                 } finally {
-                    target.close();
+                    try {
+                        target.close();
+                    } finally {
+                        closeSilently(sourceRun, targetRun);
+                    }
                 }
             }
 
@@ -197,39 +275,39 @@ public final class LDIF {
                         // Modify record: entry in both source and target.
                         final ModifyRequest request =
                                 Requests.newModifyRequest(sourceEntry, targetEntry);
-                        sourceEntry = nextEntry(sourceIterator);
-                        targetEntry = nextEntry(targetIterator);
+                        sourceEntry = nextEntry(sourceRun);
+                        targetEntry = nextEntry(targetRun);
                         return request;
                     } else if (cmp < 0) {
                         // Delete record: entry in source but not in target.
                         final DeleteRequest request =
                                 Requests.newDeleteRequest(sourceEntry.getName());
-                        sourceEntry = nextEntry(sourceIterator);
+                        sourceEntry = nextEntry(sourceRun);
                         return request;
                     } else {
                         // Add record: entry in target but not in source.
                         final AddRequest request = Requests.newAddRequest(targetEntry);
-                        targetEntry = nextEntry(targetIterator);
+                        targetEntry = nextEntry(targetRun);
                         return request;
                     }
                 } else if (sourceEntry != null) {
                     // Delete remaining source records.
                     final DeleteRequest request = Requests.newDeleteRequest(sourceEntry.getName());
-                    sourceEntry = nextEntry(sourceIterator);
+                    sourceEntry = nextEntry(sourceRun);
                     return request;
                 } else if (targetEntry != null) {
                     // Add remaining target records.
                     final AddRequest request = Requests.newAddRequest(targetEntry);
-                    targetEntry = nextEntry(targetIterator);
+                    targetEntry = nextEntry(targetRun);
                     return request;
                 } else {
                     throw new NoSuchElementException();
                 }
             }
 
-            private Entry nextEntry(final Iterator<byte[][]> i) {
-                if (i.hasNext()) {
-                    return decodeEntry(i.next()[1]);
+            private Entry nextEntry(final EntrySorter.Run run) throws IOException {
+                if (run.next()) {
+                    return decodeEntry(run.entry);
                 }
                 return null;
             }
@@ -829,19 +907,6 @@ public final class LDIF {
         }
     }
 
-    private static List<byte[][]> readEntriesAsList(final EntryReader reader) throws IOException {
-        final List<byte[][]> entries = new ArrayList<>();
-
-        while (reader.hasNext()) {
-            final Entry entry = reader.readEntry();
-            entries.add(encodeEntry(entry));
-        }
-        // Sorting the list by DN
-        Collections.sort(entries, DN_ORDER2);
-
-        return entries;
-    }
-
     private static TreeMap<byte[], byte[]> readEntriesAsMap(final EntryReader reader)
             throws IOException {
         final TreeMap<byte[], byte[]> entries = new TreeMap<>(DN_ORDER);
@@ -855,7 +920,7 @@ public final class LDIF {
         return entries;
     }
 
-    private static Entry decodeEntry(final byte[] asn1EntryFormat) {
+    static Entry decodeEntry(final byte[] asn1EntryFormat) {
         try {
             return LDAP.readEntry(ASN1.getReader(asn1EntryFormat), new DecodeOptions());
         } catch (IOException ex) {
@@ -867,7 +932,7 @@ public final class LDIF {
         return dn.toNormalizedByteString().toByteArray();
     }
 
-    private static byte[][] encodeEntry(final Entry entry) {
+    static byte[][] encodeEntry(final Entry entry) {
         final byte[][] bEntry = new byte[2][];
         // Store normalized DN
         bEntry[0] = toNormalizedByteArray(entry.getName());
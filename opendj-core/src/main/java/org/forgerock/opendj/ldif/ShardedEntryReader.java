@@ -0,0 +1,153 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldif;
+
+import static com.forgerock.opendj.ldap.CoreMessages.ERR_ENTRY_GENERATOR_SHARD_FAILED;
+import static org.forgerock.util.Utils.newThreadFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.Entry;
+
+/**
+ * Reads the entries of all the shards of a template file, each shard being generated by its own thread.
+ * <p>
+ * Each shard generates its chunks in turn, as selected by {@link TemplateFile#selectShard(int, int, int)}. Generated
+ * chunks are queued, and read back in the order of the chunks, so that entries are returned in the order of the
+ * template file.
+ */
+final class ShardedEntryReader implements EntryReader {
+    /** Maximum number of generated chunks waiting to be read, for each shard. */
+    private static final int MAX_PENDING_CHUNKS = 4;
+
+    /** Queued after the last chunk of a shard, compared by identity. */
+    private static final List<Entry> END_OF_SHARD = new ArrayList<>(0);
+
+    private final List<BlockingQueue<List<Entry>>> queues;
+    private final List<Future<Void>> shards;
+    private final ExecutorService executor;
+    private Iterator<Entry> chunk = Collections.emptyIterator();
+    private long nextChunk;
+    private boolean isDone;
+
+    /**
+     * Starts generating the entries of the provided template files.
+     *
+     * @param templateFiles
+     *            The template files generating each shard, whose shard has been selected.
+     */
+    ShardedEntryReader(final List<TemplateFile> templateFiles) {
+        queues = new ArrayList<>(templateFiles.size());
+        shards = new ArrayList<>(templateFiles.size());
+        executor = Executors.newFixedThreadPool(templateFiles.size(),
+                newThreadFactory(null, "Entry generator %d", true));
+        for (final TemplateFile templateFile : templateFiles) {
+            final BlockingQueue<List<Entry>> queue = new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS);
+            queues.add(queue);
+            shards.add(executor.submit(newShardTask(templateFile, queue)));
+        }
+    }
+
+    private static Callable<Void> newShardTask(final TemplateFile templateFile,
+            final BlockingQueue<List<Entry>> queue) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws InterruptedException {
+                try {
+                    while (templateFile.nextChunk()) {
+                        final List<Entry> entries = new ArrayList<>();
+                        while (templateFile.hasNext()) {
+                            entries.add(templateFile.nextEntry());
+                        }
+                        queue.put(entries);
+                    }
+                } finally {
+                    queue.put(END_OF_SHARD);
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        isDone = true;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        while (!chunk.hasNext()) {
+            if (isDone) {
+                return false;
+            }
+            // Chunks are assigned to the shards in turn
+            final int shard = (int) (nextChunk++ % queues.size());
+            final List<Entry> entries;
+            try {
+                entries = queues.get(shard).take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            if (entries == END_OF_SHARD) {
+                // The following chunks would belong to this shard, or the shard failed
+                try {
+                    checkShard(shard);
+                } finally {
+                    close();
+                }
+                return false;
+            }
+            chunk = entries.iterator();
+        }
+        return true;
+    }
+
+    private void checkShard(final int shard) throws IOException {
+        try {
+            shards.get(shard).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (final ExecutionException e) {
+            throw DecodeException.fatalError(
+                    ERR_ENTRY_GENERATOR_SHARD_FAILED.get(shard, e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    @Override
+    public Entry readEntry() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.next();
+    }
+}
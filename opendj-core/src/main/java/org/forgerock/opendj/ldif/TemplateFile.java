@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldif;
 
@@ -29,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -264,14 +266,30 @@ final class TemplateFile {
      * should be called before beginning generation of each template entry.
      */
     void nextFirstAndLastNames() {
-        firstName = firstNames[firstNameIndex++];
-        lastName = lastNames[lastNameIndex++];
+        firstName = firstNames[firstNameIndex];
+        lastName = lastNames[lastNameIndex];
 
         // If we've already exhausted every possible combination
         // then append an integer to the last name.
         if (nameUniquenessCounter > 1) {
             lastName += nameUniquenessCounter;
         }
+        advanceNameIndexes();
+    }
+
+    /**
+     * Skips the provided number of first and last name combinations, as if
+     * {@link #nextFirstAndLastNames()} had been called as many times.
+     */
+    private void skipFirstAndLastNames(final long count) {
+        for (long i = 0; i < count; i++) {
+            advanceNameIndexes();
+        }
+    }
+
+    private void advanceNameIndexes() {
+        firstNameIndex++;
+        lastNameIndex++;
 
         if (firstNameIndex >= firstNames.length) {
             // We're at the end of the first name list, so start over.
@@ -1243,7 +1261,7 @@ final class TemplateFile {
      * @throws IOException
      *             If a problem occurs while reading the lines.
      */
-    private List<String> readLines(final BufferedReader reader) throws IOException {
+    static List<String> readLines(final BufferedReader reader) throws IOException {
         final List<String> lines = new ArrayList<>();
         String line;
         for (int lineNumber = 1; (line = reader.readLine()) != null; lineNumber++) {
@@ -1306,6 +1324,160 @@ final class TemplateFile {
         return entry;
     }
 
+    /** Number of shards the entries are split into. */
+    private int shardCount;
+
+    /** Number of consecutive top-level entries in a chunk of a shard. */
+    private int chunkSize;
+
+    /** Index of the next chunk to generate. */
+    private long nextChunk;
+
+    /**
+     * Total number of top-level entries, which are the entries generated by
+     * the subordinate templates of the branches, excluding their own
+     * subordinate entries.
+     */
+    private long topLevelEntries;
+
+    /** Position of the first top-level entry which has been neither generated nor skipped. */
+    private long position;
+
+    /**
+     * Restricts the generated entries to a shard. The top-level entries,
+     * generated by the subordinate templates of the branches, are split into
+     * chunks of consecutive entries, which are assigned to the shards in turn.
+     * A top-level entry is generated with all its subordinate entries, and a
+     * branch entry with the chunk holding its first subordinate entry.
+     * <p>
+     * Entries are not generated until {@link #nextChunk()} is called. The
+     * counters of the tags of the skipped entries, and the combinations of
+     * first and last names, are advanced as if the entries had been generated,
+     * so that concatenating the chunks of all the shards in order gives the
+     * same entries as generating them in sequence, except for random values.
+     * This assumes that each tag generates one value per entry.
+     *
+     * @param shardIndex
+     *            The index of the shard to generate.
+     * @param shardCount
+     *            The number of shards.
+     * @param chunkSize
+     *            The number of top-level entries in each chunk.
+     * @throws DecodeException
+     *             If a template generates an unlimited number of entries.
+     */
+    void selectShard(final int shardIndex, final int shardCount, final int chunkSize) throws DecodeException {
+        topLevelEntries = 0;
+        for (final Branch branch : branches.values()) {
+            branch.firstTopLevelEntry = topLevelEntries;
+            for (int i = 0; i < branch.subordinateTemplates.size(); i++) {
+                final int numEntries = branch.numEntriesPerTemplate.get(i);
+                ensureFiniteEntries(branch.subordinateTemplates.get(i), numEntries);
+                topLevelEntries += numEntries;
+            }
+        }
+        this.shardCount = shardCount;
+        this.chunkSize = chunkSize;
+        nextChunk = shardIndex;
+        position = 0;
+        currentBranch = null;
+        nextEntry = null;
+    }
+
+    private void ensureFiniteEntries(final Template template, final int numEntries) throws DecodeException {
+        if (numEntries < 0) {
+            throw DecodeException.fatalError(ERR_ENTRY_GENERATOR_SHARDS_INFINITE_ENTRIES.get(template.getName()));
+        }
+        for (int i = 0; i < template.subTemplates.size(); i++) {
+            ensureFiniteEntries(template.subTemplates.get(i), template.numEntriesPerTemplate.get(i));
+        }
+    }
+
+    /**
+     * Selects the next chunk of the shard selected with
+     * {@link #selectShard(int, int, int)}, whose entries are then returned by
+     * {@link #nextEntry()}. The entries of the current chunk must all have been
+     * read.
+     *
+     * @return {@code true} if a chunk was selected, {@code false} if all the
+     *         chunks of the shard have been generated
+     */
+    boolean nextChunk() {
+        // There is always a chunk, in order to generate the branch entries
+        final long chunkCount = Math.max((topLevelEntries + chunkSize - 1) / chunkSize, 1);
+        if (nextChunk >= chunkCount) {
+            currentBranch = null;
+            return false;
+        }
+        final long start = nextChunk * chunkSize;
+        final long end = Math.min(start + chunkSize, topLevelEntries);
+        nextChunk += shardCount;
+
+        skipEntries(position, start);
+        position = end;
+        for (final Branch branch : branches.values()) {
+            branch.selectRange(start, end, topLevelEntries);
+        }
+        branchesIterator = branches.values().iterator();
+        currentBranch = branchesIterator.hasNext() ? branchesIterator.next() : null;
+        nextEntry = null;
+        return true;
+    }
+
+    /**
+     * Advances the state of the tags and of the names as if the provided range
+     * of top-level entries had been generated with their subordinate entries.
+     */
+    private void skipEntries(final long start, final long end) {
+        if (start >= end) {
+            return;
+        }
+        final Map<TemplateTag, Long> skippedValues = new IdentityHashMap<>();
+        long skippedEntries = 0;
+        for (final Branch branch : branches.values()) {
+            long first = branch.firstTopLevelEntry;
+            for (int i = 0; i < branch.subordinateTemplates.size(); i++) {
+                final int numEntries = branch.numEntriesPerTemplate.get(i);
+                final long count = overlap(start, end, first, first + numEntries);
+                if (count > 0) {
+                    skippedEntries += countSkippedValues(branch.subordinateTemplates.get(i), count, skippedValues);
+                }
+                first += numEntries;
+            }
+        }
+        for (final Map.Entry<TemplateTag, Long> skipped : skippedValues.entrySet()) {
+            skipped.getKey().skipValues(skipped.getValue());
+        }
+        skipFirstAndLastNames(skippedEntries);
+    }
+
+    /**
+     * Counts the values generated by each tag for the provided number of
+     * entries of a template, including their subordinate entries, and returns
+     * the total number of entries. Tags are counted by identity because
+     * templates may share template lines.
+     */
+    private static long countSkippedValues(final Template template, final long count,
+            final Map<TemplateTag, Long> skippedValues) {
+        for (final TemplateLine line : template.getTemplateLines()) {
+            for (final TemplateTag tag : line.getTags()) {
+                final Long skipped = skippedValues.get(tag);
+                skippedValues.put(tag, skipped != null ? skipped + count : count);
+            }
+        }
+        long entries = count;
+        for (int i = 0; i < template.subTemplates.size(); i++) {
+            entries += countSkippedValues(template.subTemplates.get(i),
+                    count * template.numEntriesPerTemplate.get(i), skippedValues);
+        }
+        return entries;
+    }
+
+    /** Returns the number of positions shared by the ranges [start1, end1) and [start2, end2). */
+    private static long overlap(final long start1, final long end1, final long start2, final long end2) {
+        return Math.max(Math.min(end1, end2) - Math.max(start1, start2), 0);
+    }
+
     /**
      * Represents a branch that should be included in the generated results. A
      * branch may or may not have subordinate entries.
@@ -1332,12 +1504,22 @@ final class TemplateFile {
         /** The set of extra lines that should be included in this branch entry. */
         private final List<TemplateLine> extraLines;
 
+        /** The entry of this branch, or {@code null} if branch entries are not generated. */
+        private TemplateEntry branchEntry;
+
         /** Entry to return when calling {@code nextEntry} method. */
         private TemplateEntry nextEntry;
 
         /** Index of subordinate template currently read. */
         private int currentSubTemplateIndex;
 
+        /**
+         * Position of the first entry generated by the subordinate templates of
+         * this branch, among the entries generated by the subordinate templates
+         * of all the branches.
+         */
+        private long firstTopLevelEntry;
+
         /**
          * Creates a new branch with the provided information.
          *
@@ -1423,7 +1605,34 @@ final class TemplateFile {
                 subordinateTemplates.add(copyTemplate(templates, refTemplate));
             }
 
-            nextEntry = buildBranchEntry(generateBranches);
+            branchEntry = buildBranchEntry(generateBranches);
+            nextEntry = branchEntry;
+        }
+
+        /**
+         * Restricts the entries generated below this branch to those of the
+         * provided range of top-level entries.
+         *
+         * @param start
+         *            The position of the first top-level entry to generate.
+         * @param end
+         *            The position following the last top-level entry to
+         *            generate.
+         * @param topLevelEntries
+         *            The total number of top-level entries.
+         */
+        private void selectRange(final long start, final long end, final long topLevelEntries) {
+            // The branch entry goes with the range holding its first subordinate entry
+            final boolean includesBranchEntry =
+                    start <= firstTopLevelEntry && (firstTopLevelEntry < end || end == topLevelEntries);
+            nextEntry = includesBranchEntry ? branchEntry : null;
+            long first = firstTopLevelEntry;
+            for (int i = 0; i < subordinateTemplates.size(); i++) {
+                final int numEntries = numEntriesPerTemplate.get(i);
+                subordinateTemplates.get(i).reset(branchDN, (int) overlap(start, end, first, first + numEntries));
+                first += numEntries;
+            }
+            currentSubTemplateIndex = 0;
         }
 
         private Template copyTemplate(final Map<String, Template> allTemplates, final Template templateToCopy)
@@ -2019,6 +2228,10 @@ final class TemplateFile {
             return attributeType;
         }
 
+        List<TemplateTag> getTags() {
+            return tags;
+        }
+
         /**
          * Generates the content for this template line and places it in the
          * provided template entry.
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldif;
 
@@ -113,6 +114,19 @@ abstract class TemplateTag {
         // No implementation required by default.
     }
 
+    /**
+     * Advances the state of this tag as if it had generated values for the
+     * provided number of entries, without generating them. This is used to
+     * start generating entries in the middle of a template, as when entries are
+     * generated in shards.
+     *
+     * @param count
+     *            The number of values to skip.
+     */
+    void skipValues(long count) {
+        // No implementation required by default.
+    }
+
     /**
      * Check for an attribute type in a branch or in a template.
      *
@@ -414,6 +428,13 @@ abstract class TemplateTag {
             }
         }
 
+        @Override
+        void skipValues(long count) {
+            if (isSequential) {
+                nextIndex = (int) ((nextIndex + count) % fileLines.length);
+            }
+        }
+
         @Override
         TagResult generateValue(TemplateEntry templateEntry, TemplateValue templateValue) {
             if (isSequential) {
@@ -1362,6 +1383,11 @@ abstract class TemplateTag {
             }
         }
 
+        @Override
+        void skipValues(long count) {
+            nextValue += count;
+        }
+
         @Override
         TagResult generateValue(TemplateEntry templateEntry, TemplateValue templateValue) {
             templateValue.append(nextValue++);
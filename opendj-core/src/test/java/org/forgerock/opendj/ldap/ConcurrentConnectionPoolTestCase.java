@@ -0,0 +1,278 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldap;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.forgerock.opendj.ldap.Connections.newConcurrentConnectionPool;
+import static org.forgerock.opendj.ldap.TestCaseUtils.mockConnectionFactory;
+import static org.forgerock.opendj.ldap.TestCaseUtils.mockTimeService;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.forgerock.util.promise.Promise;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the concurrent connection pool implementation. The behavior shared
+ * with the cached connection pool is tested by {@link ConnectionPoolTestCase}.
+ */
+@SuppressWarnings("javadoc")
+public class ConcurrentConnectionPoolTestCase extends SdkTestCase {
+
+    @Test
+    public void testLeaseStatistics() throws Exception {
+        final Connection connection = mockValidConnection("connection");
+        final MonitoredConnectionPool pool = newConcurrentConnectionPool(mockConnectionFactory(connection), 1);
+
+        // The first lease waits for the connection to be established.
+        final Connection pc1 = pool.getConnection();
+        assertThat(pool.getPoolSize()).isEqualTo(1);
+        assertThat(pool.getLeaseCount()).isEqualTo(1);
+        assertThat(pool.getDelayedLeaseCount()).isEqualTo(1);
+        pc1.close();
+        assertThat(pool.getIdleConnectionCount()).isEqualTo(1);
+
+        // The idle connection is leased immediately.
+        final Connection pc2 = pool.getConnection();
+        assertThat(pool.getLeaseCount()).isEqualTo(2);
+        assertThat(pool.getDelayedLeaseCount()).isEqualTo(1);
+        assertThat(pool.getIdleConnectionCount()).isEqualTo(0);
+
+        // The pool is full, the next lease waits for the connection to be released.
+        final Promise<? extends Connection, LdapException> promise = pool.getConnectionAsync();
+        assertThat(promise.isDone()).isFalse();
+        assertThat(pool.getWaitingLeaseCount()).isEqualTo(1);
+        Thread.sleep(10);
+        pc2.close();
+        assertThat(promise.isDone()).isTrue();
+        assertThat(pool.getWaitingLeaseCount()).isEqualTo(0);
+        assertThat(pool.getLeaseCount()).isEqualTo(3);
+        assertThat(pool.getDelayedLeaseCount()).isEqualTo(2);
+        assertThat(pool.getMaximumLeaseWaitTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+        assertThat(pool.getTotalLeaseWaitTime(TimeUnit.NANOSECONDS))
+                .isGreaterThanOrEqualTo(pool.getMaximumLeaseWaitTime(TimeUnit.NANOSECONDS));
+
+        promise.get().close();
+        pool.close();
+        verify(connection).close();
+        assertThat(pool.getPoolSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testMostRecentlyReleasedConnectionIsLeasedFirst() throws Exception {
+        final Connection connection1 = mockValidConnection("connection1");
+        final Connection connection2 = mockValidConnection("connection2");
+        final ConnectionFactory factory = mockConnectionFactory(connection1, connection2);
+        final MonitoredConnectionPool pool = newConcurrentConnectionPool(factory, 2);
+
+        final Connection pc1 = pool.getConnection();
+        final Connection pc2 = pool.getConnection();
+        pc1.close();
+        pc2.close();
+
+        final Connection pc3 = pool.getConnection();
+        assertThat(pc3.toString()).contains("connection2");
+        pc3.close();
+        pool.close();
+    }
+
+    @Test
+    public void testSkipStaleConnectionsOnGetWhenAtCapacity() throws Exception {
+        final Connection connection1 = mockValidConnection("connection1");
+        final Connection connection2 = mockValidConnection("connection2");
+        final Connection connection3 = mockValidConnection("connection3");
+        final ConnectionFactory factory = mockConnectionFactory(connection1, connection2, connection3);
+        final MonitoredConnectionPool pool = newConcurrentConnectionPool(factory, 2);
+
+        // Fully allocate the pool.
+        final Connection pc1 = pool.getConnection();
+        final Connection pc2 = pool.getConnection();
+        pc1.close();
+        pc2.close();
+
+        // Simulate remote disconnect of connection1 and connection2.
+        when(connection1.isValid()).thenReturn(false);
+        when(connection2.isValid()).thenReturn(false);
+        final Connection pc3 = pool.getConnection();
+
+        assertThat(pc3.toString()).contains("connection3");
+        verify(connection1).close();
+        verify(connection2).close();
+        verify(factory, times(3)).getConnection();
+        assertThat(pool.getPoolSize()).isEqualTo(1);
+
+        pc3.close();
+        pool.close();
+    }
+
+    @Test
+    public void testConnectionKeepAliveExpiration() throws Exception {
+        final Connection pooledConnection1 = mockValidConnection("pooledConnection1");
+        final Connection pooledConnection2 = mockValidConnection("pooledConnection2");
+        final Connection pooledConnection3 = mockValidConnection("pooledConnection3");
+        final Connection pooledConnection4 = mockValidConnection("pooledConnection4");
+        final Connection pooledConnection5 = mockValidConnection("pooledConnection5");
+        final Connection pooledConnection6 = mockValidConnection("pooledConnection6");
+
+        final ConnectionFactory factory =
+                mockConnectionFactory(pooledConnection1, pooledConnection2, pooledConnection3,
+                        pooledConnection4, pooledConnection5, pooledConnection6);
+        final MockScheduler scheduler = new MockScheduler();
+        final ConcurrentConnectionPool pool =
+                new ConcurrentConnectionPool(factory, 2, 4, 100, TimeUnit.MILLISECONDS, scheduler);
+        assertThat(scheduler.isScheduled()).isTrue();
+
+        // First populate the pool with idle connections at time 0.
+        pool.timeService = mockTimeService(0);
+
+        final Connection c1 = pool.getConnection();
+        final Connection c2 = pool.getConnection();
+        final Connection c3 = pool.getConnection();
+        final Connection c4 = pool.getConnection();
+        c1.close();
+        c2.close();
+        c3.close();
+        c4.close();
+        assertThat(pool.getPoolSize()).isEqualTo(4);
+
+        // First purge at time 50 is no-op because no connections have expired.
+        when(pool.timeService.now()).thenReturn(50L);
+        scheduler.runFirstTask();
+        assertThat(pool.getPoolSize()).isEqualTo(4);
+
+        // Second purge at time 150 should remove the 2 least recently released connections.
+        when(pool.timeService.now()).thenReturn(150L);
+        scheduler.runFirstTask();
+        assertThat(pool.getPoolSize()).isEqualTo(2);
+        verify(pooledConnection1, times(1)).close();
+        verify(pooledConnection2, times(1)).close();
+        verify(pooledConnection3, times(0)).close();
+        verify(pooledConnection4, times(0)).close();
+
+        // Regrow the pool at time 200.
+        when(pool.timeService.now()).thenReturn(200L);
+        final Connection c5 = pool.getConnection(); // pooledConnection4
+        final Connection c6 = pool.getConnection(); // pooledConnection3
+        final Connection c7 = pool.getConnection(); // pooledConnection5
+        final Connection c8 = pool.getConnection(); // pooledConnection6
+        assertThat(pool.getPoolSize()).isEqualTo(4);
+        c5.close();
+        c6.close();
+        c7.close();
+        c8.close();
+
+        // Third purge at time 250 should not remove any connections.
+        when(pool.timeService.now()).thenReturn(250L);
+        scheduler.runFirstTask();
+        assertThat(pool.getPoolSize()).isEqualTo(4);
+
+        // Fourth purge at time 350 should remove 2 non-core connections.
+        when(pool.timeService.now()).thenReturn(350L);
+        scheduler.runFirstTask();
+        assertThat(pool.getPoolSize()).isEqualTo(2);
+        verify(pooledConnection3, times(1)).close();
+        verify(pooledConnection4, times(1)).close();
+        verify(pooledConnection5, times(0)).close();
+        verify(pooledConnection6, times(0)).close();
+
+        pool.close();
+        verify(pooledConnection5, times(1)).close();
+        verify(pooledConnection6, times(1)).close();
+        assertThat(scheduler.isScheduled()).isFalse();
+    }
+
+    @Test
+    public void testCloseFailsWaitingLeases() throws Exception {
+        final Connection connection = mockValidConnection("connection");
+        final MonitoredConnectionPool pool = newConcurrentConnectionPool(mockConnectionFactory(connection), 1);
+        final Connection pc1 = pool.getConnection();
+        final Promise<? extends Connection, LdapException> promise = pool.getConnectionAsync();
+
+        pool.close();
+        try {
+            promise.getOrThrow();
+            Assert.fail("Expected an exception to be thrown");
+        } catch (LdapException e) {
+            assertThat(e.getResult().getResultCode()).isEqualTo(ResultCode.CLIENT_SIDE_USER_CANCELLED);
+        }
+
+        // Connections in use are closed once released.
+        verify(connection, times(0)).close();
+        pc1.close();
+        verify(connection).close();
+        assertThat(pool.getPoolSize()).isEqualTo(0);
+    }
+
+    @Test(timeOut = 30000)
+    public void testConcurrentLeases() throws Exception {
+        final int poolSize = 4;
+        final int threadCount = 8;
+        final int leasesPerThread = 1000;
+        final ConnectionFactory factory = mockConnectionFactory(mockValidConnection("connection1"),
+                mockValidConnection("connection2"), mockValidConnection("connection3"),
+                mockValidConnection("connection4"));
+        final MonitoredConnectionPool pool = newConcurrentConnectionPool(factory, poolSize);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < leasesPerThread; j++) {
+                            pool.getConnection().close();
+                        }
+                    } catch (final Throwable t) {
+                        error.compareAndSet(null, t);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(error.get()).isNull();
+        assertThat(pool.getLeaseCount()).isEqualTo(threadCount * leasesPerThread);
+        assertThat(pool.getWaitingLeaseCount()).isEqualTo(0);
+        assertThat(pool.getPoolSize()).isLessThanOrEqualTo(poolSize);
+        assertThat(pool.getIdleConnectionCount()).isEqualTo(pool.getPoolSize());
+        verify(factory, atMost(poolSize)).getConnectionAsync();
+        pool.close();
+    }
+
+    private static Connection mockValidConnection(final String name) {
+        final Connection connection = mock(Connection.class, name);
+        when(connection.isValid()).thenReturn(true);
+        return connection;
+    }
+}
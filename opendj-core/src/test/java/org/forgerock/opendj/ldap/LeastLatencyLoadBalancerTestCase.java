@@ -0,0 +1,194 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldap;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.forgerock.opendj.ldap.Connections.LOAD_BALANCER_MONITORING_INTERVAL;
+import static org.forgerock.opendj.ldap.LdapException.newLdapException;
+import static org.forgerock.opendj.ldap.TestCaseUtils.mockConnectionFactory;
+import static org.forgerock.opendj.ldap.responses.Responses.newResult;
+import static org.forgerock.opendj.ldap.spi.LdapPromises.newFailedLdapPromise;
+import static org.forgerock.opendj.ldap.spi.LdapPromises.newSuccessfulLdapPromise;
+import static org.forgerock.util.Options.defaultOptions;
+import static org.forgerock.util.time.Duration.duration;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.opendj.ldap.requests.DeleteRequest;
+import org.forgerock.opendj.ldap.requests.Requests;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class LeastLatencyLoadBalancerTestCase extends SdkTestCase {
+    private static final long FAST_RESPONSE_TIME = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW_RESPONSE_TIME = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    public void requestsShouldBeRoutedToTheFastestServer() throws Exception {
+        final LeastLatencyLoadBalancer loadBalancer = newLoadBalancer("1 hours");
+        for (int i = 0; i < 100; i++) {
+            final int server = loadBalancer.selectServer();
+            final long responseTime = server == 0 ? FAST_RESPONSE_TIME : SLOW_RESPONSE_TIME;
+            loadBalancer.handleRequestResult(server, server, responseTime, null);
+        }
+
+        // Each server is sampled once, then only the fastest server is selected.
+        assertThat(loadBalancer.getRequestCount(0)).isEqualTo(99);
+        assertThat(loadBalancer.getRequestCount(1)).isEqualTo(1);
+        assertThat(loadBalancer.getAverageResponseTime(0, TimeUnit.MILLISECONDS)).isEqualTo(1);
+        assertThat(loadBalancer.getAverageResponseTime(1, TimeUnit.MILLISECONDS)).isEqualTo(50);
+        assertThat(loadBalancer.getActiveRequestCount(0)).isEqualTo(0);
+        assertThat(loadBalancer.getActiveRequestCount(1)).isEqualTo(0);
+        loadBalancer.close();
+    }
+
+    @Test
+    public void equallyFastServersShouldShareActiveRequests() throws Exception {
+        final LeastLatencyLoadBalancer loadBalancer = newLoadBalancer("1 hours");
+        for (int i = 0; i < 2; i++) {
+            final int server = loadBalancer.selectServer();
+            loadBalancer.handleRequestResult(server, server, FAST_RESPONSE_TIME, null);
+        }
+        assertThat(loadBalancer.getRequestCount(0)).isEqualTo(1);
+        assertThat(loadBalancer.getRequestCount(1)).isEqualTo(1);
+
+        for (int i = 0; i < 10; i++) {
+            loadBalancer.selectServer();
+        }
+        assertThat(loadBalancer.getActiveRequestCount(0)).isEqualTo(5);
+        assertThat(loadBalancer.getActiveRequestCount(1)).isEqualTo(5);
+        loadBalancer.close();
+    }
+
+    @Test
+    public void degradedServersShouldBeAvoidedUntilProbed() throws Exception {
+        final LeastLatencyLoadBalancer loadBalancer = newLoadBalancer("200 milliseconds");
+        final LdapException connectionFailure = newLdapException(ResultCode.CLIENT_SIDE_CONNECT_ERROR);
+        while (!loadBalancer.isDegraded(1)) {
+            final int server = loadBalancer.selectServer();
+            final LdapException error = server == 1 ? connectionFailure : null;
+            loadBalancer.handleRequestResult(server, server, FAST_RESPONSE_TIME, error);
+        }
+        assertThat(loadBalancer.getFailedRequestCount(1)).isEqualTo(3);
+        assertThat(loadBalancer.getAverageResponseTime(1, TimeUnit.NANOSECONDS)).isEqualTo(0);
+        assertThat(loadBalancer.isDegraded(0)).isFalse();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(loadBalancer.selectServer()).isEqualTo(0);
+            loadBalancer.handleRequestResult(0, 0, FAST_RESPONSE_TIME, null);
+        }
+
+        // The degraded server is probed once the monitoring interval has elapsed, and recovers on success.
+        Thread.sleep(250);
+        assertThat(loadBalancer.selectServer()).isEqualTo(1);
+        loadBalancer.handleRequestResult(1, 1, FAST_RESPONSE_TIME, null);
+        assertThat(loadBalancer.isDegraded(1)).isFalse();
+        assertThat(loadBalancer.getFailedRequestCount(1)).isEqualTo(3);
+        loadBalancer.close();
+    }
+
+    @Test
+    public void requestResultsShouldUpdateTheStatistics() throws Exception {
+        final Connection connection = mock(Connection.class);
+        final DeleteRequest deleteRequest = Requests.newDeleteRequest("dc=example,dc=com");
+        final LdapException busy = newLdapException(ResultCode.BUSY);
+        when(connection.deleteAsync(any(DeleteRequest.class), any()))
+                .thenReturn(newSuccessfulLdapPromise(newResult(ResultCode.SUCCESS)))
+                .thenReturn(newFailedLdapPromise(busy));
+        final MonitoredLoadBalancer loadBalancer = Connections.newLeastLatencyLoadBalancer(
+                asList(mockConnectionFactory(connection, connection)), defaultOptions());
+        assertThat(loadBalancer.getServerCount()).isEqualTo(1);
+
+        try (Connection lbConnection = loadBalancer.getConnection()) {
+            final Result result = lbConnection.delete(deleteRequest);
+            assertThat(result.getResultCode()).isEqualTo(ResultCode.SUCCESS);
+            try {
+                lbConnection.delete(deleteRequest);
+                fail("delete unexpectedly succeeded");
+            } catch (LdapException e) {
+                assertThat(e.getResult().getResultCode()).isEqualTo(ResultCode.BUSY);
+            }
+        }
+        assertThat(loadBalancer.getRequestCount(0)).isEqualTo(2);
+        assertThat(loadBalancer.getActiveRequestCount(0)).isEqualTo(0);
+        assertThat(loadBalancer.getFailedRequestCount(0)).isEqualTo(1);
+        assertThat(loadBalancer.getAverageResponseTime(0, TimeUnit.NANOSECONDS)).isGreaterThan(0);
+        assertThat(loadBalancer.isDegraded(0)).isFalse();
+        loadBalancer.close();
+    }
+
+    @Test
+    public void failedOverRequestsShouldBeChargedToTheServingServer() throws Exception {
+        final LeastLatencyLoadBalancer loadBalancer = newLoadBalancer("1 hours");
+        final LdapException busy = newLdapException(ResultCode.BUSY);
+        final int selected = loadBalancer.selectServer();
+        final int served = 1 - selected;
+        loadBalancer.handleRequestResult(selected, served, SLOW_RESPONSE_TIME, busy);
+
+        assertThat(loadBalancer.getRequestCount(selected)).isEqualTo(0);
+        assertThat(loadBalancer.getActiveRequestCount(selected)).isEqualTo(0);
+        assertThat(loadBalancer.getFailedRequestCount(selected)).isEqualTo(0);
+        assertThat(loadBalancer.getAverageResponseTime(selected, TimeUnit.NANOSECONDS)).isEqualTo(0);
+        assertThat(loadBalancer.getRequestCount(served)).isEqualTo(1);
+        assertThat(loadBalancer.getActiveRequestCount(served)).isEqualTo(0);
+        assertThat(loadBalancer.getFailedRequestCount(served)).isEqualTo(1);
+        assertThat(loadBalancer.getAverageResponseTime(served, TimeUnit.MILLISECONDS)).isEqualTo(50);
+        loadBalancer.close();
+    }
+
+    @Test
+    public void unavailableServersShouldNotBeChargedForFailedOverRequests() throws Exception {
+        final Connection connection = mock(Connection.class);
+        final DeleteRequest deleteRequest = Requests.newDeleteRequest("dc=example,dc=com");
+        when(connection.deleteAsync(any(DeleteRequest.class), any()))
+                .thenReturn(newSuccessfulLdapPromise(newResult(ResultCode.SUCCESS)));
+        final ConnectionFactory offline = mock(ConnectionFactory.class);
+        final Promise<Connection, LdapException> connectFailure =
+                newFailedLdapPromise(newLdapException(ResultCode.CLIENT_SIDE_CONNECT_ERROR));
+        when(offline.getConnectionAsync()).thenReturn(connectFailure);
+        final MonitoredLoadBalancer loadBalancer = Connections.newLeastLatencyLoadBalancer(
+                asList(offline, mockConnectionFactory(connection, connection, connection, connection)),
+                defaultOptions().set(LOAD_BALANCER_MONITORING_INTERVAL, duration("1 hours")));
+
+        // Whichever server is selected first, the requests are all processed by the online server.
+        for (int i = 0; i < 4; i++) {
+            try (Connection lbConnection = loadBalancer.getConnection()) {
+                lbConnection.delete(deleteRequest);
+            }
+        }
+        assertThat(loadBalancer.getRequestCount(0)).isEqualTo(0);
+        assertThat(loadBalancer.getFailedRequestCount(0)).isEqualTo(0);
+        assertThat(loadBalancer.getActiveRequestCount(0)).isEqualTo(0);
+        assertThat(loadBalancer.getRequestCount(1)).isEqualTo(4);
+        assertThat(loadBalancer.getFailedRequestCount(1)).isEqualTo(0);
+        assertThat(loadBalancer.getActiveRequestCount(1)).isEqualTo(0);
+        loadBalancer.close();
+    }
+
+    private static LeastLatencyLoadBalancer newLoadBalancer(final String monitoringInterval) {
+        final ConnectionFactory factory1 = mock(ConnectionFactory.class);
+        final ConnectionFactory factory2 = mock(ConnectionFactory.class);
+        return new LeastLatencyLoadBalancer(asList(factory1, factory2),
+                defaultOptions().set(LOAD_BALANCER_MONITORING_INTERVAL, duration(monitoringInterval)));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.ldap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.opendj.ldap.TimeoutChecker.TIMEOUT_CHECKER;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.forgerock.opendj.util.ReferenceCountedObject;
+
+@SuppressWarnings("javadoc")
+public class TimeoutCheckerTestCase extends SdkTestCase {
+    private ReferenceCountedObject<TimeoutChecker>.Reference timeoutChecker;
+
+    @BeforeClass
+    public void acquireTimeoutChecker() {
+        timeoutChecker = TIMEOUT_CHECKER.acquire();
+    }
+
+    @AfterClass
+    public void releaseTimeoutChecker() {
+        timeoutChecker.release();
+    }
+
+    @Test
+    public void testScheduledTimeoutExpires() throws Exception {
+        final CountingListener listener = new CountingListener(1);
+        final long startTime = System.currentTimeMillis();
+        timeoutChecker.get().schedule(listener, 50);
+
+        assertThat(listener.await()).isTrue();
+        assertThat(listener.lastTime - startTime).isGreaterThanOrEqualTo(50);
+        assertThat(listener.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testScheduledTimeoutIsCalledBackAgain() throws Exception {
+        final CountingListener listener = new CountingListener(3);
+        timeoutChecker.get().schedule(listener, 20);
+
+        assertThat(listener.await()).isTrue();
+        assertThat(listener.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotExpire() throws Exception {
+        final CountingListener cancelled = new CountingListener(1);
+        final CountingListener expired = new CountingListener(1);
+        timeoutChecker.get().schedule(cancelled, 30).cancel();
+        timeoutChecker.get().schedule(expired, 60);
+
+        assertThat(expired.await()).isTrue();
+        assertThat(cancelled.calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void testTimeoutsBeyondTheFirstWheelLevel() throws Exception {
+        // Far timeouts are cascaded, cancel them so they do not linger
+        final TimeoutChecker.Timeout farTimeout = timeoutChecker.get().schedule(new CountingListener(1), 3600000);
+        final CountingListener listener = new CountingListener(1);
+        timeoutChecker.get().schedule(listener, 700);
+
+        assertThat(listener.await()).isTrue();
+        farTimeout.cancel();
+    }
+
+    /** Counts its calls, asking to be called back again until the expected number of calls is reached. */
+    private static final class CountingListener implements TimeoutEventListener {
+        private final int expectedCalls;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile long lastTime;
+
+        private CountingListener(final int expectedCalls) {
+            this.expectedCalls = expectedCalls;
+        }
+
+        @Override
+        public long handleTimeout(final long currentTime) {
+            lastTime = currentTime;
+            if (calls.incrementAndGet() < expectedCalls) {
+                return 20;
+            }
+            latch.countDown();
+            return 0;
+        }
+
+        @Override
+        public long getTimeout() {
+            return 0;
+        }
+
+        private boolean await() throws InterruptedException {
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldif;
 
@@ -25,12 +26,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.opendj.ldap.Attribute;
 import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.DecodeException;
 import org.forgerock.opendj.ldap.Entry;
 import org.forgerock.opendj.ldap.SdkTestCase;
@@ -340,6 +344,115 @@ public class EntryGeneratorTestCase extends SdkTestCase {
         }
     }
 
+    /**
+     * Test that generating a template in shards gives the same entries as
+     * generating it in sequence, except for their random values.
+     */
+    @Test
+    public void testShardsGiveSameEntriesAsSequence() throws Exception {
+        final EntryGenerator sequence = newShardedTemplateGenerator();
+        final EntryGenerator shards = newShardedTemplateGenerator().setShardCount(3);
+        try {
+            int count = 0;
+            while (sequence.hasNext()) {
+                assertThat(shards.hasNext()).isTrue();
+                final Entry expected = sequence.readEntry();
+                final Entry actual = shards.readEntry();
+                assertThat(actual.getName()).isEqualTo(expected.getName());
+                assertThat(actual.getAttribute("cn")).isEqualTo(expected.getAttribute("cn"));
+                count++;
+            }
+            assertThat(shards.hasNext()).isFalse();
+            assertThat(count).isEqualTo(1 + 2100 * 5);
+        } finally {
+            Utils.closeSilently(sequence, shards);
+        }
+    }
+
+    /**
+     * Test that generating each shard separately gives the same entries as
+     * generating all the shards at once, for a given random seed.
+     */
+    @Test
+    public void testShardIndexGivesSameEntriesAsAllShards() throws Exception {
+        final Map<DN, Entry> shardEntries = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            final EntryGenerator shard = newShardedTemplateGenerator().setRandomSeed(42).setShardCount(3)
+                    .setShardIndex(i);
+            try {
+                while (shard.hasNext()) {
+                    final Entry entry = shard.readEntry();
+                    assertThat(shardEntries.put(entry.getName(), entry)).isNull();
+                }
+            } finally {
+                Utils.closeSilently(shard);
+            }
+        }
+
+        final EntryGenerator shards = newShardedTemplateGenerator().setRandomSeed(42).setShardCount(3);
+        try {
+            int count = 0;
+            while (shards.hasNext()) {
+                final Entry entry = shards.readEntry();
+                assertThat(entry).isEqualTo(shardEntries.get(entry.getName()));
+                count++;
+            }
+            assertThat(count).isEqualTo(shardEntries.size());
+        } finally {
+            Utils.closeSilently(shards);
+        }
+    }
+
+    @Test(expectedExceptions = DecodeException.class)
+    public void testShardsRequireFiniteEntries() throws Exception {
+        final EntryGenerator generator = new EntryGenerator(
+                "branch: dc=example,dc=com",
+                "subordinateTemplate: person",
+                "",
+                "template: person",
+                "rdnAttr: uid",
+                "objectClass: top",
+                "uid: user.<sequential:0>"
+        ).setResourcePath(resourcePath).setShardCount(2);
+        try {
+            generator.hasNext();
+        } finally {
+            Utils.closeSilently(generator);
+        }
+    }
+
+    /** More top-level entries than a chunk, each with subordinate entries using sequential counters. */
+    private EntryGenerator newShardedTemplateGenerator() {
+        return new EntryGenerator(
+                "branch: dc=example,dc=com",
+                "subordinateTemplate: ous:2100",
+                "",
+                "template: ous",
+                "subordinateTemplate: person:2",
+                "subordinateTemplate: group:2",
+                "rdnAttr: ou",
+                "objectclass: top",
+                "objectclass: organizationalUnit",
+                "ou: Organization_<sequential:1>",
+                "description: <random:alpha:10>",
+                "",
+                "template: person",
+                "rdnAttr: uid",
+                "objectClass: top",
+                "objectClass: inetOrgPerson",
+                "cn: <first> <last>",
+                "employeeNumber: <sequential:0>",
+                "uid: user.{employeeNumber}",
+                "description: <random:alpha:10>",
+                "",
+                "template: group",
+                "rdnAttr: cn",
+                "objectClass: top",
+                "objectClass: groupOfNames",
+                "cn: Group_<sequential:1>"
+        ).setResourcePath(resourcePath);
+    }
+
     /**
      * Test to show that reporting an error about an uninitialized variable when
      * generating templates reports the correct line.
@@ -13,11 +13,13 @@
  *
  * Copyright 2009-2010 Sun Microsystems, Inc.
  * Portions copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.ldif;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -45,6 +47,7 @@ import org.forgerock.opendj.ldap.schema.MatchingRule;
 import org.forgerock.opendj.ldap.schema.Schema;
 import org.forgerock.opendj.ldap.schema.SchemaBuilder;
 import org.forgerock.opendj.ldap.schema.Syntax;
+import org.forgerock.util.Options;
 import org.testng.annotations.Test;
 
 import com.forgerock.opendj.ldap.CoreMessages;
@@ -1315,6 +1318,122 @@ public class LDIFTestCase extends AbstractLDIFTestCase {
         LDIF.diff(null, null);
     }
 
+    /**
+     * LDIF diff sorting entries in temporary files gives the same differences
+     * as the in-memory diff, and deletes its temporary files when closed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public final void testLdifDiffWithTemporaryFiles() throws Exception {
+        final File diffDirectory = Files.createTempDirectory("ldifdiff").toFile();
+        // Sort each entry in its own run, so that runs are merged in several passes
+        final Options options = Options.defaultOptions()
+                .set(LDIF.DIFF_TEMP_DIRECTORY, diffDirectory)
+                .set(LDIF.DIFF_SORT_MEMORY_SIZE, 1L)
+                .set(LDIF.DIFF_SORT_THREADS, 2);
+        try {
+            final List<ChangeRecord> expected = readChangeRecords(
+                    LDIF.diff(LDIF.newEntryIteratorReader(newDiffSource().iterator()),
+                              LDIF.newEntryIteratorReader(newDiffTarget().iterator())));
+            final List<ChangeRecord> actual = readChangeRecords(
+                    LDIF.diff(LDIF.newEntryIteratorReader(newDiffSource().iterator()),
+                              LDIF.newEntryIteratorReader(newDiffTarget().iterator()), options));
+
+            assertThat(actual).hasSize(expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertThat(actual.get(i).getClass()).isEqualTo(expected.get(i).getClass());
+                assertThat(actual.get(i).getName()).isEqualTo(expected.get(i).getName());
+            }
+            assertThat(diffDirectory.list()).isEmpty();
+        } finally {
+            diffDirectory.delete();
+        }
+    }
+
+    /**
+     * LDIF diff of entries which are already sorted by DN.
+     *
+     * @throws Exception
+     */
+    @Test
+    public final void testLdifDiffSortedInputs() throws Exception {
+        // @formatter:off
+        final LDIFEntryReader source = new LDIFEntryReader(
+            "dn: dc=example,dc=com",
+            "",
+            "dn: ou=People,dc=example,dc=com",
+            "",
+            "dn: uid=bjensen,ou=People,dc=example,dc=com"
+        );
+        final LDIFEntryReader target = new LDIFEntryReader(
+            "dn: dc=example,dc=com",
+            "",
+            "dn: ou=People,dc=example,dc=com",
+            "",
+            "dn: uid=scarter,ou=People,dc=example,dc=com"
+        );
+        // @formatter:on
+
+        final ChangeRecordReader reader =
+                LDIF.diff(source, target, Options.defaultOptions().set(LDIF.DIFF_INPUTS_SORTED, true));
+        final List<ChangeRecord> changes = readChangeRecords(reader);
+        assertThat(changes).hasSize(4);
+        assertThat(changes.get(2)).isInstanceOf(DeleteRequest.class);
+        assertThat(changes.get(2).getName().toString()).isEqualTo("uid=bjensen,ou=People,dc=example,dc=com");
+        assertThat(changes.get(3)).isInstanceOf(AddRequest.class);
+        assertThat(changes.get(3).getName().toString()).isEqualTo("uid=scarter,ou=People,dc=example,dc=com");
+    }
+
+    /**
+     * LDIF diff of entries which are supposed to be sorted but are not. Exception expected.
+     *
+     * @throws Exception
+     */
+    @Test(expectedExceptions = DecodeException.class)
+    public final void testLdifDiffSortedInputsOutOfOrder() throws Exception {
+        // @formatter:off
+        final LDIFEntryReader source = new LDIFEntryReader(
+            "dn: ou=People,dc=example,dc=com",
+            "",
+            "dn: dc=example,dc=com"
+        );
+        // @formatter:on
+
+        readChangeRecords(LDIF.diff(source, new LDIFEntryReader(new String[0]),
+                Options.defaultOptions().set(LDIF.DIFF_INPUTS_SORTED, true)));
+    }
+
+    private static List<Entry> newDiffSource() {
+        final List<Entry> entries = new ArrayList<>();
+        for (int i = 299; i >= 0; i--) {
+            entries.add(new LinkedHashMapEntry("uid=user." + i + ",ou=People,dc=example,dc=com")
+                    .addAttribute("description", "source"));
+        }
+        return entries;
+    }
+
+    private static List<Entry> newDiffTarget() {
+        final List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 350; i += 2) {
+            entries.add(new LinkedHashMapEntry("uid=user." + i + ",ou=People,dc=example,dc=com")
+                    .addAttribute("description", i % 4 == 0 ? "source" : "target"));
+        }
+        return entries;
+    }
+
+    private static List<ChangeRecord> readChangeRecords(final ChangeRecordReader reader) throws IOException {
+        final List<ChangeRecord> changes = new ArrayList<>();
+        try {
+            while (reader.hasNext()) {
+                changes.add(reader.readChangeRecord());
+            }
+        } finally {
+            reader.close();
+        }
+        return changes;
+    }
+
     /**
      * Create a patch without any differences with the original.
      *
@@ -13,6 +13,7 @@
  *
  * Copyright 2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.grizzly;
 
@@ -48,6 +49,7 @@ import org.forgerock.opendj.ldap.LdapPromise;
 import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.SSLContextBuilder;
 import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.TimeoutChecker;
 import org.forgerock.opendj.ldap.TimeoutEventListener;
 import org.forgerock.opendj.ldap.TrustManagers;
 import org.forgerock.opendj.ldap.requests.AbandonRequest;
@@ -87,7 +89,7 @@ import org.glassfish.grizzly.ssl.SSLEngineConfigurator;
 import org.glassfish.grizzly.ssl.SSLFilter;
 
 /** LDAP connection implementation. */
-final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventListener {
+final class GrizzlyLDAPConnection implements LDAPConnectionImpl {
     static final int LDAP_V3 = 3;
     /**
      * A dummy SSL client engine configurator as SSLFilter only needs client
@@ -210,7 +212,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             synchronized (stateLock) {
                 checkConnectionIsValid();
                 checkBindOrStartTLSInProgress();
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
             try {
                 final LDAPWriter<ASN1BufferWriter> writer =
@@ -283,7 +285,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                             "Bind or Start TLS operation in progress"));
                     return promise;
                 }
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
 
             try {
@@ -333,7 +335,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             synchronized (stateLock) {
                 checkConnectionIsValid();
                 checkBindOrStartTLSInProgress();
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
             try {
                 final LDAPWriter<ASN1BufferWriter> writer =
@@ -364,7 +366,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             synchronized (stateLock) {
                 checkConnectionIsValid();
                 checkBindOrStartTLSInProgress();
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
             try {
                 final LDAPWriter<ASN1BufferWriter> writer =
@@ -411,7 +413,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                 } else {
                     checkBindOrStartTLSInProgress();
                 }
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
             try {
                 final LDAPWriter<ASN1BufferWriter> writer =
@@ -457,7 +459,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             synchronized (stateLock) {
                 checkConnectionIsValid();
                 checkBindOrStartTLSInProgress();
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
             try {
                 final LDAPWriter<ASN1BufferWriter> writer =
@@ -488,7 +490,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             synchronized (stateLock) {
                 checkConnectionIsValid();
                 checkBindOrStartTLSInProgress();
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
             try {
                 final LDAPWriter<ASN1BufferWriter> writer =
@@ -529,7 +531,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             synchronized (stateLock) {
                 checkConnectionIsValid();
                 checkBindOrStartTLSInProgress();
-                pendingRequests.put(messageID, promise);
+                addPendingRequest(messageID, promise);
             }
             try {
                 final LDAPWriter<ASN1BufferWriter> writer =
@@ -556,8 +558,17 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             + ',' + connection.getPeerAddress() + ')';
     }
 
-    @Override
-    public long handleTimeout(final long currentTime) {
+    /**
+     * Times out all the pending requests which have expired at the provided
+     * time. Pending requests are normally timed out one by one by the timeout
+     * checker.
+     *
+     * @param currentTime
+     *            Time to use as current time.
+     * @return The delay before the next pending request expires in
+     *         milliseconds, or zero if requests do not time out.
+     */
+    long handleTimeout(final long currentTime) {
         if (requestTimeoutMS <= 0) {
             return 0;
         }
@@ -567,56 +578,65 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             if (promise == null || !promise.checkForTimeout()) {
                 continue;
             }
-            final long diff = (promise.getTimestamp() + requestTimeoutMS) - currentTime;
+            final long diff = handleRequestTimeout(promise, currentTime);
             if (diff > 0) {
-                // Will expire in diff milliseconds.
                 delay = Math.min(delay, diff);
-            } else if (pendingRequests.remove(promise.getRequestID()) == null) {
-                // Result arrived at the same time.
-                continue;
-            } else if (promise.isBindOrStartTLS()) {
-                /*
-                 * No other operations can be performed while a bind or StartTLS
-                 * request is active, so we cannot time out the request. We
-                 * therefore have a choice: either ignore timeouts for these
-                 * operations, or enforce them but doing so requires
-                 * invalidating the connection. We'll do the latter, since
-                 * ignoring timeouts could cause the application to hang.
-                 */
-                logger.debug(LocalizableMessage.raw("Failing bind or StartTLS request due to timeout %s"
-                        + "(connection will be invalidated): ", promise));
-                final Result result = Responses.newResult(ResultCode.CLIENT_SIDE_TIMEOUT).setDiagnosticMessage(
-                        LDAP_CONNECTION_BIND_OR_START_TLS_REQUEST_TIMEOUT.get(requestTimeoutMS).toString());
-                promise.adaptErrorResult(result);
-
-                // Fail the connection.
-                final Result errorResult = Responses.newResult(ResultCode.CLIENT_SIDE_TIMEOUT).setDiagnosticMessage(
-                        LDAP_CONNECTION_BIND_OR_START_TLS_CONNECTION_TIMEOUT.get(requestTimeoutMS).toString());
-                connectionErrorOccurred(errorResult);
-            } else {
-                logger.debug(LocalizableMessage.raw("Failing request due to timeout: %s", promise));
-                final Result result = Responses.newResult(ResultCode.CLIENT_SIDE_TIMEOUT).setDiagnosticMessage(
-                        LDAP_CONNECTION_REQUEST_TIMEOUT.get(requestTimeoutMS).toString());
-                promise.adaptErrorResult(result);
-
-                /*
-                 * FIXME: there's a potential race condition here if a bind or
-                 * startTLS is initiated just after we check the boolean. It
-                 * seems potentially even more dangerous to send the abandon
-                 * request while holding the state lock, since a blocking write
-                 * could hang the application.
-                 */
-                // if (!bindOrStartTLSInProgress.get()) {
-                // sendAbandonRequest(newAbandonRequest(promise.getRequestID()));
-                // }
             }
         }
         return delay;
     }
 
-    @Override
-    public long getTimeout() {
-        return requestTimeoutMS;
+    /**
+     * Times out the provided pending request if it has expired.
+     *
+     * @return The delay before the request expires in milliseconds, or zero
+     *         if it has expired or is no longer pending.
+     */
+    private long handleRequestTimeout(final ResultLdapPromiseImpl<?, ?> promise, final long currentTime) {
+        final long diff = (promise.getTimestamp() + requestTimeoutMS) - currentTime;
+        if (diff > 0) {
+            // Will expire in diff milliseconds.
+            return diff;
+        } else if (pendingRequests.remove(promise.getRequestID()) == null) {
+            // Result arrived at the same time.
+            return 0;
+        } else if (promise.isBindOrStartTLS()) {
+            /*
+             * No other operations can be performed while a bind or StartTLS
+             * request is active, so we cannot time out the request. We
+             * therefore have a choice: either ignore timeouts for these
+             * operations, or enforce them but doing so requires
+             * invalidating the connection. We'll do the latter, since
+             * ignoring timeouts could cause the application to hang.
+             */
+            logger.debug(LocalizableMessage.raw("Failing bind or StartTLS request due to timeout %s"
+                    + "(connection will be invalidated): ", promise));
+            final Result result = Responses.newResult(ResultCode.CLIENT_SIDE_TIMEOUT).setDiagnosticMessage(
+                    LDAP_CONNECTION_BIND_OR_START_TLS_REQUEST_TIMEOUT.get(requestTimeoutMS).toString());
+            promise.adaptErrorResult(result);
+
+            // Fail the connection.
+            final Result errorResult = Responses.newResult(ResultCode.CLIENT_SIDE_TIMEOUT).setDiagnosticMessage(
+                    LDAP_CONNECTION_BIND_OR_START_TLS_CONNECTION_TIMEOUT.get(requestTimeoutMS).toString());
+            connectionErrorOccurred(errorResult);
+        } else {
+            logger.debug(LocalizableMessage.raw("Failing request due to timeout: %s", promise));
+            final Result result = Responses.newResult(ResultCode.CLIENT_SIDE_TIMEOUT).setDiagnosticMessage(
+                    LDAP_CONNECTION_REQUEST_TIMEOUT.get(requestTimeoutMS).toString());
+            promise.adaptErrorResult(result);
+
+            /*
+             * FIXME: there's a potential race condition here if a bind or
+             * startTLS is initiated just after we check the boolean. It
+             * seems potentially even more dangerous to send the abandon
+             * request while holding the state lock, since a blocking write
+             * could hang the application.
+             */
+            // if (!bindOrStartTLSInProgress.get()) {
+            // sendAbandonRequest(newAbandonRequest(promise.getRequestID()));
+            // }
+        }
+        return 0;
     }
 
     /**
@@ -689,7 +709,6 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             } finally {
                 GrizzlyUtils.recycleWriter(writer);
             }
-            factory.getTimeoutChecker().removeListener(this);
             connection.closeSilently();
             factory.releaseTransportAndTimeoutChecker();
         }
@@ -770,6 +789,33 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
         }
     }
 
+    /**
+     * Adds a pending request, scheduling its timeout. The timeout is cancelled
+     * as soon as the request completes.
+     */
+    private void addPendingRequest(final int messageID, final ResultLdapPromiseImpl<?, ?> promise) {
+        pendingRequests.put(messageID, promise);
+        if (requestTimeoutMS > 0 && promise.checkForTimeout()) {
+            final TimeoutChecker.Timeout timeout = factory.getTimeoutChecker().schedule(new TimeoutEventListener() {
+                @Override
+                public long handleTimeout(final long currentTime) {
+                    return handleRequestTimeout(promise, currentTime);
+                }
+
+                @Override
+                public long getTimeout() {
+                    return requestTimeoutMS;
+                }
+            }, requestTimeoutMS);
+            promise.thenOnResultOrException(new Runnable() {
+                @Override
+                public void run() {
+                    timeout.cancel();
+                }
+            });
+        }
+    }
+
     ResultLdapPromiseImpl<?, ?> removePendingRequest(final Integer messageID) {
         return pendingRequests.remove(messageID);
     }
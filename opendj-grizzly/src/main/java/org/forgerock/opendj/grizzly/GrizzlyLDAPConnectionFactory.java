@@ -13,6 +13,7 @@
  *
  * Copyright 2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.opendj.grizzly;
@@ -66,12 +67,13 @@ public final class GrizzlyLDAPConnectionFactory implements LDAPConnectionFactory
     private final class CompletionHandlerAdapter implements CompletionHandler<Connection>, TimeoutEventListener {
         private final PromiseImpl<LDAPConnectionImpl, LdapException> promise;
         private final long timeoutEndTime;
+        private final TimeoutChecker.Timeout timeout;
 
         private CompletionHandlerAdapter(final PromiseImpl<LDAPConnectionImpl, LdapException> promise) {
             this.promise = promise;
             final long timeoutMS = getTimeout();
             this.timeoutEndTime = timeoutMS > 0 ? System.currentTimeMillis() + timeoutMS : 0;
-            timeoutChecker.get().addListener(this);
+            this.timeout = timeoutMS > 0 ? timeoutChecker.get().schedule(this, timeoutMS) : null;
         }
 
         @Override
@@ -83,7 +85,7 @@ public final class GrizzlyLDAPConnectionFactory implements LDAPConnectionFactory
         public void completed(final Connection result) {
             // Adapt the connection.
             final GrizzlyLDAPConnection connection = adaptConnection(result);
-            timeoutChecker.get().removeListener(this);
+            cancelTimeout();
             if (!promise.tryHandleResult(connection)) {
                 // The connection has been either cancelled or it has timed out.
                 connection.close();
@@ -93,7 +95,7 @@ public final class GrizzlyLDAPConnectionFactory implements LDAPConnectionFactory
         @Override
         public void failed(final Throwable throwable) {
             // Adapt and forward.
-            timeoutChecker.get().removeListener(this);
+            cancelTimeout();
             promise.handleException(adaptConnectionException(throwable));
             releaseTransportAndTimeoutChecker();
         }
@@ -103,13 +105,18 @@ public final class GrizzlyLDAPConnectionFactory implements LDAPConnectionFactory
             // Ignore this.
         }
 
+        private void cancelTimeout() {
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
         private GrizzlyLDAPConnection adaptConnection(final Connection<?> connection) {
             configureConnection(connection, logger, options);
             connection.configureBlocking(true);
 
             final GrizzlyLDAPConnection ldapConnection =
                     new GrizzlyLDAPConnection(connection, GrizzlyLDAPConnectionFactory.this);
-            timeoutChecker.get().addListener(ldapConnection);
             clientFilter.registerConnection(connection, ldapConnection);
             return ldapConnection;
         }
@@ -0,0 +1,561 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.BindRequest;
+import org.forgerock.opendj.ldap.requests.Request;
+import org.forgerock.opendj.ldap.requests.Requests;
+
+/**
+ * Reads the operations logged in Directory Server access logs, as written by the text and the JSON file access log
+ * publishers. The format of each line is detected, so that both formats may be mixed.
+ * <p>
+ * Only the operations which can be rebuilt from the logged information are returned: searches and simple binds. The
+ * passwords of simple binds are not logged, they are replaced by the provided password. The other operations are
+ * counted as skipped. Lines which do not log an operation request, such as connections or responses logged separately
+ * from their request, are ignored.
+ */
+final class AccessLogReader implements Closeable {
+    /** The type of the operations which can be replayed. */
+    enum OperationType {
+        /** Search operations. */
+        SEARCH,
+        /** Simple bind operations. */
+        BIND
+    }
+
+    /** An operation read from an access log. */
+    static final class LoggedOperation {
+        private final long timeMs;
+        private final long connectionId;
+        private final OperationType type;
+        private final Request request;
+
+        private LoggedOperation(final long timeMs, final long connectionId, final OperationType type,
+                final Request request) {
+            this.timeMs = timeMs;
+            this.connectionId = connectionId;
+            this.type = type;
+            this.request = request;
+        }
+
+        /** Returns the time at which the operation was requested, in milliseconds since the epoch. */
+        long getTimeMs() {
+            return timeMs;
+        }
+
+        /** Returns the identifier of the client connection which requested the operation. */
+        long getConnectionId() {
+            return connectionId;
+        }
+
+        OperationType getType() {
+            return type;
+        }
+
+        /** Returns the request to replay, a search request or a simple bind request. */
+        Request getRequest() {
+            return request;
+        }
+    }
+
+    /** Default format of the timestamps of the text access logs. */
+    static final String DEFAULT_TIMESTAMP_FORMAT = "dd/MMM/yyyy:HH:mm:ss Z";
+    private static final String JSON_TIMESTAMP_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSX";
+    private static final String CATEGORY_REQUEST = "REQ";
+    private static final String CATEGORY_RESPONSE = "RES";
+    private static final String SYNCHRONIZATION = "synchronization";
+    /** Logged values are not escaped, a quoted value ends with the quote followed by another field or the line end. */
+    private static final Pattern QUOTED_VALUE_END = Pattern.compile("\"(?= [A-Za-z]+=|$)");
+
+    private final Iterator<String> files;
+    private final DateFormat textTimestampFormat;
+    private final DateFormat jsonTimestampFormat;
+    private final byte[] bindPassword;
+    private BufferedReader reader;
+    private String currentFile;
+    private long skippedCount;
+
+    /**
+     * Creates a new access log reader.
+     *
+     * @param files
+     *            The access log files, read in the provided order. Files whose name ends with ".gz" are decompressed.
+     * @param textTimestampFormat
+     *            The format of the timestamps of the text access logs, as configured in the server.
+     * @param bindPassword
+     *            The password of the replayed simple binds, or {@code null} if simple binds must be skipped.
+     */
+    AccessLogReader(final List<String> files, final String textTimestampFormat, final byte[] bindPassword) {
+        this.files = new ArrayList<>(files).iterator();
+        this.textTimestampFormat = new SimpleDateFormat(textTimestampFormat, Locale.US);
+        this.jsonTimestampFormat = new SimpleDateFormat(JSON_TIMESTAMP_FORMAT, Locale.US);
+        this.jsonTimestampFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        this.bindPassword = bindPassword;
+    }
+
+    /**
+     * Returns the next operation which can be replayed.
+     *
+     * @return The next operation, or {@code null} if all the access logs have been read.
+     * @throws IOException
+     *             If an error occurred while reading an access log.
+     */
+    LoggedOperation readOperation() throws IOException {
+        while (true) {
+            if (reader == null) {
+                if (!files.hasNext()) {
+                    return null;
+                }
+                currentFile = files.next();
+                reader = openFile(currentFile);
+            }
+            final String line = reader.readLine();
+            if (line == null) {
+                reader.close();
+                reader = null;
+                continue;
+            }
+            final LoggedOperation operation = parseLine(line.trim());
+            if (operation != null) {
+                return operation;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of logged operations which have been skipped because they cannot be replayed.
+     *
+     * @return The number of skipped operations.
+     */
+    long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Returns the access log file being read.
+     *
+     * @return The access log file being read.
+     */
+    String getCurrentFile() {
+        return currentFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+
+    private static BufferedReader openFile(final String file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        if (file.endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private LoggedOperation parseLine(final String line) {
+        try {
+            if (line.startsWith("{")) {
+                return parseJsonLine(line);
+            } else if (line.startsWith("[")) {
+                return parseTextLine(line);
+            }
+        } catch (final IllegalArgumentException e) {
+            // Malformed filter, DN, scope or JSON
+            skippedCount++;
+        }
+        return null;
+    }
+
+    /**
+     * Parses a line such as:
+     * <pre>
+     * [19/Oct/2026:10:00:00 +0200] SEARCH REQ conn=3 op=7 msgID=8 base="dc=example,dc=com" scope=sub
+     *   filter="(uid=user.0)" attrs="cn,mail"
+     * </pre>
+     * The category is omitted when the request and the response are logged on the same line.
+     */
+    private LoggedOperation parseTextLine(final String line) {
+        final int timestampEnd = line.indexOf(']');
+        if (timestampEnd < 0) {
+            return null;
+        }
+        final Date time = textTimestampFormat.parse(line.substring(1, timestampEnd), new ParsePosition(0));
+        if (time == null) {
+            return null;
+        }
+
+        final String[] header = line.substring(timestampEnd + 1).trim().split(" ", 3);
+        if (header.length < 2) {
+            return null;
+        }
+        final String operation = header[0];
+        final int fieldsStart;
+        if (CATEGORY_RESPONSE.equals(header[1])) {
+            return null;
+        } else if (CATEGORY_REQUEST.equals(header[1])) {
+            fieldsStart = line.indexOf(CATEGORY_REQUEST, timestampEnd) + CATEGORY_REQUEST.length();
+        } else {
+            fieldsStart = line.indexOf(operation, timestampEnd) + operation.length();
+        }
+        final Map<String, String> fields = parseTextFields(line, fieldsStart);
+        final String connectionId = fields.get("conn");
+        if (connectionId == null || connectionId.startsWith("-")) {
+            // Connections and disconnections, or internal operations
+            return null;
+        }
+
+        switch (operation) {
+        case "SEARCH":
+            if (SYNCHRONIZATION.equals(fields.get("type"))) {
+                return skip();
+            }
+            final String attrs = fields.get("attrs");
+            return newSearch(time.getTime(), connectionId, fields.get("base"), fields.get("scope"),
+                    fields.get("filter"), attrs == null || "ALL".equals(attrs) ? new String[0] : attrs.split(","));
+        case "BIND":
+            return newSimpleBind(time.getTime(), connectionId, fields.get("type"), fields.get("dn"));
+        default:
+            return skip();
+        }
+    }
+
+    private static Map<String, String> parseTextFields(final String line, final int start) {
+        final Map<String, String> fields = new HashMap<>();
+        final int length = line.length();
+        int pos = start;
+        while (pos < length) {
+            while (pos < length && line.charAt(pos) == ' ') {
+                pos++;
+            }
+            final int equals = line.indexOf('=', pos);
+            if (equals < 0) {
+                break;
+            }
+            final String key = line.substring(pos, equals);
+            if (equals + 1 < length && line.charAt(equals + 1) == '"') {
+                final Matcher matcher = QUOTED_VALUE_END.matcher(line);
+                final int valueEnd = matcher.find(equals + 2) ? matcher.start() : length;
+                fields.put(key, line.substring(equals + 2, valueEnd));
+                pos = valueEnd + 1;
+            } else {
+                int valueEnd = line.indexOf(' ', equals);
+                if (valueEnd < 0) {
+                    valueEnd = length;
+                }
+                fields.put(key, line.substring(equals + 1, valueEnd));
+                pos = valueEnd;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Parses an event logged by the JSON file access log publisher, such as:
+     * <pre>
+     * {"eventName":"DJ-LDAP","timestamp":"2026-10-19T08:00:00.123Z",
+     *   "request":{"protocol":"LDAP","operation":"SEARCH","connId":3,"msgId":8,"dn":"dc=example,dc=com",
+     *   "scope":"sub","filter":"(uid=user.0)","attrs":["cn","mail"]},
+     *   "response":{"status":"SUCCESSFUL","statusCode":"0","elapsedTime":1,"elapsedTimeUnits":"MILLISECONDS"}}
+     * </pre>
+     * Events are logged once the operation has completed, the elapsed time is subtracted to get the request time.
+     */
+    private LoggedOperation parseJsonLine(final String line) {
+        final Object event = new JsonParser(line).parse();
+        if (!(event instanceof Map)) {
+            return null;
+        }
+        final Map<?, ?> request = getObject((Map<?, ?>) event, "request");
+        final Object timestamp = ((Map<?, ?>) event).get("timestamp");
+        if (request == null || !(timestamp instanceof String) || !(request.get("connId") instanceof Number)) {
+            return null;
+        }
+        final Date time = jsonTimestampFormat.parse((String) timestamp, new ParsePosition(0));
+        if (time == null) {
+            return null;
+        }
+        final long timeMs = time.getTime() - getElapsedTimeMs(getObject((Map<?, ?>) event, "response"));
+        final String connectionId = request.get("connId").toString();
+        if (connectionId.startsWith("-")) {
+            // Internal operations
+            return null;
+        }
+
+        final Object operation = request.get("operation");
+        if ("sync".equals(request.get("opType"))) {
+            return "SEARCH".equals(operation) || "BIND".equals(operation) ? skip() : null;
+        } else if ("SEARCH".equals(operation)) {
+            final List<String> attributes = new ArrayList<>();
+            if (request.get("attrs") instanceof List) {
+                for (final Object attribute : (List<?>) request.get("attrs")) {
+                    if (!"ALL".equals(attribute)) {
+                        attributes.add(String.valueOf(attribute));
+                    }
+                }
+            }
+            return newSearch(timeMs, connectionId, getString(request, "dn"), getString(request, "scope"),
+                    getString(request, "filter"), attributes.toArray(new String[attributes.size()]));
+        } else if ("BIND".equals(operation)) {
+            return newSimpleBind(timeMs, connectionId, getString(request, "authType"), getString(request, "dn"));
+        } else if ("CONNECT".equals(operation) || "DISCONNECT".equals(operation) || "UNBIND".equals(operation)
+                || "ABANDON".equals(operation)) {
+            return null;
+        }
+        return skip();
+    }
+
+    private static long getElapsedTimeMs(final Map<?, ?> response) {
+        if (response != null && response.get("elapsedTime") instanceof Number) {
+            try {
+                final TimeUnit unit = TimeUnit.valueOf(getString(response, "elapsedTimeUnits"));
+                return unit.toMillis(((Number) response.get("elapsedTime")).longValue());
+            } catch (final IllegalArgumentException | NullPointerException e) {
+                // Unknown unit, ignore the elapsed time
+            }
+        }
+        return 0;
+    }
+
+    private static Map<?, ?> getObject(final Map<?, ?> object, final String key) {
+        final Object value = object.get(key);
+        return value instanceof Map ? (Map<?, ?>) value : null;
+    }
+
+    private static String getString(final Map<?, ?> object, final String key) {
+        final Object value = object.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private LoggedOperation newSearch(final long timeMs, final String connectionId, final String baseDN,
+            final String scope, final String filter, final String[] attributes) {
+        final SearchScope searchScope = scope != null ? SearchScope.valueOf(scope) : null;
+        if (baseDN == null || searchScope == null || filter == null) {
+            return skip();
+        }
+        return new LoggedOperation(timeMs, Long.parseLong(connectionId), OperationType.SEARCH,
+                Requests.newSearchRequest(baseDN, searchScope, filter, attributes));
+    }
+
+    private LoggedOperation newSimpleBind(final long timeMs, final String connectionId, final String authType,
+            final String bindDN) {
+        if (!"SIMPLE".equalsIgnoreCase(authType) || bindDN == null) {
+            // SASL binds cannot be replayed
+            return skip();
+        }
+        final BindRequest request;
+        if (bindDN.isEmpty()) {
+            request = Requests.newSimpleBindRequest();
+        } else if (bindPassword != null) {
+            request = Requests.newSimpleBindRequest(bindDN, bindPassword);
+        } else {
+            return skip();
+        }
+        return new LoggedOperation(timeMs, Long.parseLong(connectionId), OperationType.BIND, request);
+    }
+
+    private LoggedOperation skip() {
+        skippedCount++;
+        return null;
+    }
+
+    /** Minimal JSON parser, access log events only contain objects, arrays, strings, numbers and booleans. */
+    private static final class JsonParser {
+        private final String json;
+        private int pos;
+
+        private JsonParser(final String json) {
+            this.json = json;
+        }
+
+        private Object parse() {
+            final Object value = parseValue();
+            skipWhitespaces();
+            if (pos != json.length()) {
+                throw error();
+            }
+            return value;
+        }
+
+        private Object parseValue() {
+            skipWhitespaces();
+            if (pos >= json.length()) {
+                throw error();
+            }
+            final char c = json.charAt(pos);
+            switch (c) {
+            case '{':
+                return parseObject();
+            case '[':
+                return parseArray();
+            case '"':
+                return parseString();
+            default:
+                return parseLiteral();
+            }
+        }
+
+        private Map<String, Object> parseObject() {
+            final Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespaces();
+            if (consume('}')) {
+                return object;
+            }
+            do {
+                skipWhitespaces();
+                final String key = parseString();
+                skipWhitespaces();
+                expect(':');
+                object.put(key, parseValue());
+                skipWhitespaces();
+            } while (consume(','));
+            expect('}');
+            return object;
+        }
+
+        private List<Object> parseArray() {
+            final List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespaces();
+            if (consume(']')) {
+                return array;
+            }
+            do {
+                array.add(parseValue());
+                skipWhitespaces();
+            } while (consume(','));
+            expect(']');
+            return array;
+        }
+
+        private String parseString() {
+            expect('"');
+            final StringBuilder builder = new StringBuilder();
+            while (pos < json.length()) {
+                final char c = json.charAt(pos++);
+                if (c == '"') {
+                    return builder.toString();
+                } else if (c != '\\') {
+                    builder.append(c);
+                } else if (pos < json.length()) {
+                    final char escaped = json.charAt(pos++);
+                    switch (escaped) {
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > json.length()) {
+                            throw error();
+                        }
+                        builder.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        builder.append(escaped);
+                        break;
+                    }
+                }
+            }
+            throw error();
+        }
+
+        private Object parseLiteral() {
+            final int start = pos;
+            while (pos < json.length() && ",:]} \t".indexOf(json.charAt(pos)) < 0) {
+                pos++;
+            }
+            final String literal = json.substring(start, pos);
+            switch (literal) {
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            case "null":
+                return null;
+            default:
+                if (literal.contains(".") || literal.contains("e") || literal.contains("E")) {
+                    return Double.valueOf(literal);
+                }
+                return Long.valueOf(literal);
+            }
+        }
+
+        private void skipWhitespaces() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean consume(final char c) {
+            if (pos < json.length() && json.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(final char c) {
+            if (!consume(c)) {
+                throw error();
+            }
+        }
+
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException("Malformed JSON at offset " + pos);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.cli.CliMessages.INFO_BINDPWD_PLACEHOLDER;
+import static com.forgerock.opendj.cli.ToolVersionHandler.newSdkVersionHandler;
+import static com.forgerock.opendj.cli.Utils.*;
+import static com.forgerock.opendj.ldap.tools.ToolsMessages.*;
+import static com.forgerock.opendj.cli.CommonArguments.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.forgerock.util.Utils.closeSilently;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.opendj.ldap.Connection;
+import org.forgerock.opendj.ldap.ConnectionFactory;
+import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.requests.BindRequest;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.responses.BindResult;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.opendj.ldap.responses.SearchResultReference;
+import org.forgerock.util.promise.Promise;
+
+import com.forgerock.opendj.cli.ArgumentException;
+import com.forgerock.opendj.cli.ArgumentParser;
+import com.forgerock.opendj.cli.BooleanArgument;
+import com.forgerock.opendj.cli.ConnectionFactoryProvider;
+import com.forgerock.opendj.cli.ConsoleApplication;
+import com.forgerock.opendj.cli.IntegerArgument;
+import com.forgerock.opendj.cli.MultiColumnPrinter;
+import com.forgerock.opendj.cli.StringArgument;
+import com.forgerock.opendj.ldap.tools.AccessLogReader.LoggedOperation;
+import com.forgerock.opendj.ldap.tools.AccessLogReader.OperationType;
+
+/**
+ * A load generation tool that replays the searches and simple binds logged in Directory Server access logs using one
+ * or more LDAP connections.
+ * <p>
+ * The logged client connections are spread over the connections, each used by a single worker thread and never
+ * rebound, so that the operations of a logged client connection are sent in order on the same connection, with the
+ * identity established by its replayed binds. Operations are sent at the time they were logged, scaled by the replay
+ * speed, without waiting for previous operations to complete.
+ * <p>
+ * Several logged client connections may be replayed on the same connection: a replayed bind then also applies to the
+ * next operations of the other logged client connections replayed on it. Using more connections reduces how often
+ * this happens.
+ */
+public final class AccessLogReplay extends ConsoleApplication {
+    private final class ReplayPerformanceRunner extends PerformanceRunner {
+        private final class ReplaySearchHandler extends UpdateStatsResultHandler<Result>
+                implements SearchResultHandler {
+            private ReplaySearchHandler(final long startTimeNs) {
+                super(startTimeNs);
+            }
+
+            @Override
+            public boolean handleEntry(final SearchResultEntry entry) {
+                return true;
+            }
+
+            @Override
+            public boolean handleReference(final SearchResultReference reference) {
+                return true;
+            }
+        }
+
+        private final class ReplayWorkerThread extends WorkerThread {
+            private final BlockingQueue<LoggedOperation> operations;
+            private LoggedOperation operation;
+
+            private ReplayWorkerThread(final Connection connection, final ConnectionFactory connectionFactory,
+                    final BlockingQueue<LoggedOperation> operations) {
+                super(connection, connectionFactory);
+                this.operations = operations;
+            }
+
+            @Override
+            long getIntendedStartTimeNs(final long firstStartTimeNs, final long requestCount)
+                    throws InterruptedException {
+                operation = null;
+                while (operation == null) {
+                    operation = operations.poll(POLL_INTERVAL_MS, MILLISECONDS);
+                    if (operation == null && ((logsRead && operations.isEmpty()) || isStopping())) {
+                        localStopRequested = true;
+                        return firstStartTimeNs;
+                    }
+                }
+
+                final long currentTimeNs = System.nanoTime();
+                if (speedPercent == 0) {
+                    return currentTimeNs;
+                }
+                replayStartTimeNs.compareAndSet(NOT_STARTED, currentTimeNs);
+                final long logTimeNs = MILLISECONDS.toNanos(operation.getTimeMs() - logStartTimeMs);
+                return replayStartTimeNs.get() + (long) (logTimeNs * 100.0 / speedPercent);
+            }
+
+            @Override
+            boolean requiresIdleConnection() {
+                return operation.getType() == OperationType.BIND;
+            }
+
+            @Override
+            public Promise<?, LdapException> performOperation(final Connection connection,
+                    final DataSource[] dataSources, final long currentTimeNs) {
+                incrementIterationCount();
+                final Promise<?, LdapException> promise;
+                if (operation.getType() == OperationType.BIND) {
+                    final UpdateStatsResultHandler<BindResult> handler = new UpdateStatsResultHandler<>(currentTimeNs);
+                    promise = connection.bindAsync((BindRequest) operation.getRequest())
+                                        .thenOnResult(handler).thenOnException(handler);
+                } else {
+                    final ReplaySearchHandler handler = new ReplaySearchHandler(currentTimeNs);
+                    promise = connection.searchAsync((SearchRequest) operation.getRequest(), handler)
+                                        .thenOnResult(handler).thenOnException(handler);
+                }
+
+                final OperationTypeStats stats = operationStats.get(operation.getType());
+                return promise.thenAlways(new Runnable() {
+                    @Override
+                    public void run() {
+                        stats.addResponseTime(System.nanoTime() - currentTimeNs);
+                    }
+                });
+            }
+        }
+
+        private final class ReplayStatsThread extends StatsThread {
+            private ReplayStatsThread(final PerformanceRunner performanceRunner, final ConsoleApplication app) {
+                super(performanceRunner, app);
+            }
+
+            @Override
+            void resetAdditionalStats() {
+                for (final OperationTypeStats stats : operationStats.values()) {
+                    stats.reset();
+                }
+            }
+
+            @Override
+            List<MultiColumnPrinter.Column> registerAdditionalColumns() {
+                final double[] percentiles = getPercentiles();
+                final List<MultiColumnPrinter.Column> columns = new ArrayList<>();
+                for (final OperationTypeStats stats : operationStats.values()) {
+                    columns.addAll(stats.registerColumns(
+                            registry, percentiles[percentiles.length - 1], isScriptFriendly()));
+                }
+                return columns;
+            }
+        }
+
+        private static final int MAX_QUEUED_OPERATIONS = 1000;
+        private static final long POLL_INTERVAL_MS = 100;
+        private static final long NOT_STARTED = Long.MIN_VALUE;
+
+        private final Map<OperationType, OperationTypeStats> operationStats = new EnumMap<>(OperationType.class);
+        private final List<BlockingQueue<LoggedOperation>> queues = new ArrayList<>();
+        private final AtomicLong replayStartTimeNs = new AtomicLong(NOT_STARTED);
+        private AccessLogReader logReader;
+        private Thread readerThread;
+        private int nextQueue;
+        private volatile long logStartTimeMs;
+        private volatile boolean logsRead;
+        private int speedPercent;
+
+        private ReplayPerformanceRunner(final PerformanceRunnerOptions options) throws ArgumentException {
+            super(options);
+            operationStats.put(OperationType.SEARCH, new OperationTypeStats("srch"));
+            operationStats.put(OperationType.BIND, new OperationTypeStats("bind"));
+        }
+
+        @Override
+        WorkerThread newWorkerThread(final Connection connection, final ConnectionFactory connectionFactory) {
+            if (readerThread == null) {
+                // The server is reachable, start reading the access logs
+                readerThread = new Thread("Access Log Reader") {
+                    @Override
+                    public void run() {
+                        readLogs();
+                    }
+                };
+                readerThread.setDaemon(true);
+                readerThread.start();
+            }
+            return new ReplayWorkerThread(connection, connectionFactory, queues.get(nextQueue++));
+        }
+
+        @Override
+        StatsThread newStatsThread(final PerformanceRunner performanceRunner, final ConsoleApplication app) {
+            return new ReplayStatsThread(performanceRunner, app);
+        }
+
+        /** Prepares the replay of the access logs, once the arguments have been validated. */
+        private void setLogReader(final AccessLogReader reader) {
+            logReader = reader;
+            for (int i = 0; i < numConnections * numThreads; i++) {
+                queues.add(new ArrayBlockingQueue<LoggedOperation>(MAX_QUEUED_OPERATIONS));
+            }
+        }
+
+        private void readLogs() {
+            try {
+                LoggedOperation operation;
+                boolean isFirstOperation = true;
+                while ((operation = logReader.readOperation()) != null) {
+                    if (isFirstOperation) {
+                        logStartTimeMs = operation.getTimeMs();
+                        isFirstOperation = false;
+                    }
+                    queues.get((int) (operation.getConnectionId() % queues.size())).put(operation);
+                }
+            } catch (final InterruptedException e) {
+                // The tool is stopping
+            } catch (final IOException e) {
+                errPrintln(ERR_ACCESSLOGREPLAY_CANNOT_READ_LOG.get(logReader.getCurrentFile(), e.getMessage()));
+                stopTool(true);
+            } finally {
+                logsRead = true;
+                closeSilently(logReader);
+            }
+        }
+
+        /** Stops reading the access logs, and returns the number of logged operations which were not replayed. */
+        private long stopReading() {
+            if (readerThread == null) {
+                closeSilently(logReader);
+                return 0;
+            }
+            readerThread.interrupt();
+            try {
+                readerThread.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return logReader.getSkippedCount();
+        }
+    }
+
+    /**
+     * The main method for AccessLogReplay tool.
+     *
+     * @param args
+     *            The command-line arguments provided to this program.
+     */
+    public static void main(final String[] args) {
+        final int retCode = new AccessLogReplay().run(args);
+        System.exit(filterExitCode(retCode));
+    }
+
+    private BooleanArgument verbose;
+    private BooleanArgument scriptFriendly;
+
+    private AccessLogReplay() {
+        // Nothing to do.
+    }
+
+    /**
+     * Constructor to allow tests.
+     *
+     * @param out
+     *            output stream of console application
+     * @param err
+     *            error stream of console application
+     */
+    AccessLogReplay(PrintStream out, PrintStream err) {
+        super(out, err);
+    }
+
+    @Override
+    public boolean isInteractive() {
+        return false;
+    }
+
+    @Override
+    public boolean isScriptFriendly() {
+        return scriptFriendly.isPresent();
+    }
+
+    @Override
+    public boolean isVerbose() {
+        return verbose.isPresent();
+    }
+
+    int run(final String[] args) {
+        // Create the command-line argument parser for use with this program.
+        final LocalizableMessage toolDescription = INFO_ACCESSLOGREPLAY_TOOL_DESCRIPTION.get();
+        final ArgumentParser argParser = LDAPToolArgumentParser.builder(AccessLogReplay.class.getName())
+                .toolDescription(toolDescription)
+                .trailingArgumentsUnbounded(1, "[access log file ...]")
+                .build();
+        argParser.setVersionHandler(newSdkVersionHandler());
+        argParser.setShortToolDescription(REF_SHORT_DESC_ACCESSLOGREPLAY.get());
+        argParser.setDocToolDescriptionSupplement(SUPPLEMENT_DESCRIPTION_RATE_TOOLS.get());
+
+        ConnectionFactoryProvider connectionFactoryProvider;
+        ConnectionFactory connectionFactory;
+        ReplayPerformanceRunner runner;
+
+        IntegerArgument speed;
+        StringArgument timestampFormat;
+        StringArgument replayBindPassword;
+        BooleanArgument showUsage;
+        StringArgument propertiesFileArgument;
+        BooleanArgument noPropertiesFileArgument;
+        try {
+            Utils.setDefaultPerfToolProperties();
+            final PerformanceRunnerOptions options = new PerformanceRunnerOptions(argParser, this);
+            options.setSupportsGeneratorArgument(false);
+            options.setSupportsTargetThroughput(false);
+            options.setRequiresDedicatedConnections(true);
+
+            connectionFactoryProvider = new ConnectionFactoryProvider(argParser, this);
+            runner = new ReplayPerformanceRunner(options);
+
+            propertiesFileArgument = propertiesFileArgument();
+            argParser.addArgument(propertiesFileArgument);
+            argParser.setFilePropertiesArgument(propertiesFileArgument);
+
+            noPropertiesFileArgument = noPropertiesFileArgument();
+            argParser.addArgument(noPropertiesFileArgument);
+            argParser.setNoPropertiesFileArgument(noPropertiesFileArgument);
+
+            showUsage = showUsageArgument();
+            argParser.addArgument(showUsage);
+            argParser.setUsageArgument(showUsage, getOutputStream());
+
+            speed =
+                    IntegerArgument.builder("speed")
+                            .description(INFO_ACCESSLOGREPLAY_DESCRIPTION_SPEED.get())
+                            .lowerBound(0)
+                            .defaultValue(100)
+                            .valuePlaceholder(INFO_SPEED_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+            timestampFormat =
+                    StringArgument.builder("timestampFormat")
+                            .description(INFO_ACCESSLOGREPLAY_DESCRIPTION_TIMESTAMP_FORMAT.get())
+                            .defaultValue(AccessLogReader.DEFAULT_TIMESTAMP_FORMAT)
+                            .valuePlaceholder(INFO_TIMESTAMP_FORMAT_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+            replayBindPassword =
+                    StringArgument.builder("replayBindPassword")
+                            .description(INFO_ACCESSLOGREPLAY_DESCRIPTION_BIND_PASSWORD.get())
+                            .valuePlaceholder(INFO_BINDPWD_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+
+            verbose = verboseArgument();
+            argParser.addArgument(verbose);
+
+            scriptFriendly = scriptFriendlySdkArgument();
+            argParser.addArgument(scriptFriendly);
+        } catch (final ArgumentException ae) {
+            final LocalizableMessage message = ERR_CANNOT_INITIALIZE_ARGS.get(ae.getMessage());
+            errPrintln(message);
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        // Parse the command-line arguments provided to this program.
+        try {
+            argParser.parseArguments(args);
+
+            // If we should just display usage or version information,
+            // then print it and exit.
+            if (argParser.usageOrVersionDisplayed()) {
+                return 0;
+            }
+
+            connectionFactory = connectionFactoryProvider.getAuthenticatedConnectionFactory();
+            runner.setBindRequest(connectionFactoryProvider.getBindRequest());
+            runner.validate();
+            runner.speedPercent = speed.getIntValue();
+        } catch (final ArgumentException ae) {
+            argParser.displayMessageAndUsageReference(getErrStream(), ERR_ERROR_PARSING_ARGS.get(ae.getMessage()));
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        final List<String> logFiles = argParser.getTrailingArguments();
+        for (final String logFile : logFiles) {
+            if (!new File(logFile).isFile()) {
+                errPrintln(ERR_ACCESSLOGREPLAY_LOG_NOT_FOUND.get(logFile));
+                return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+            }
+        }
+        final byte[] password =
+                replayBindPassword.isPresent() ? replayBindPassword.getValue().getBytes(UTF_8) : null;
+        runner.setLogReader(new AccessLogReader(logFiles, timestampFormat.getValue(), password));
+
+        final int resultCode;
+        try {
+            resultCode = runner.run(connectionFactory);
+        } finally {
+            final long skippedCount = runner.stopReading();
+            if (skippedCount > 0 && !isScriptFriendly()) {
+                errPrintln(INFO_ACCESSLOGREPLAY_SKIPPED_OPERATIONS.get(skippedCount));
+            }
+        }
+        return resultCode;
+    }
+}
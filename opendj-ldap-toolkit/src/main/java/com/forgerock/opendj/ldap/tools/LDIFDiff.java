@@ -12,7 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 package com.forgerock.opendj.ldap.tools;
 
@@ -31,6 +31,7 @@ import static com.forgerock.opendj.ldap.tools.Utils.runTool;
 import static com.forgerock.opendj.ldap.tools.Utils.runToolAndExit;
 import static org.forgerock.util.Utils.closeSilently;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,6 +45,7 @@ import org.forgerock.opendj.ldif.ChangeRecordReader;
 import org.forgerock.opendj.ldif.LDIF;
 import org.forgerock.opendj.ldif.LDIFChangeRecordWriter;
 import org.forgerock.opendj.ldif.LDIFEntryReader;
+import org.forgerock.util.Options;
 
 import com.forgerock.opendj.cli.ArgumentException;
 import com.forgerock.opendj.cli.ArgumentParser;
@@ -60,6 +62,9 @@ public final class LDIFDiff extends ToolConsoleApplication {
     static final int NO_DIFFERENCES_FOUND = 0;
     static final int DIFFERENCES_FOUND = 1;
 
+    /** Default amount of memory used to sort each LDIF file, in megabytes. */
+    private static final int DEFAULT_SORT_MEMORY_SIZE = 64;
+
     /**
      * The main method for ldifdiff tool.
      *
@@ -108,6 +113,9 @@ public final class LDIFDiff extends ToolConsoleApplication {
         final BooleanArgument showUsage;
         final StringArgument outputFilename;
         final IntegerArgument wrapColumn;
+        final StringArgument tmpDirectory;
+        final IntegerArgument sortMemorySize;
+        final BooleanArgument inputsSorted;
         try {
             outputFilename =
                     StringArgument.builder(OPTION_LONG_OUTPUT_LDIF_FILENAME)
@@ -119,6 +127,23 @@ public final class LDIFDiff extends ToolConsoleApplication {
                             .buildAndAddToParser(argParser);
             wrapColumn = wrapColumnArgument();
             argParser.addArgument(wrapColumn);
+            tmpDirectory =
+                    StringArgument.builder("tmpDirectory")
+                            .description(INFO_LDIFDIFF_DESCRIPTION_TMP_DIRECTORY.get())
+                            .defaultValue(System.getProperty("java.io.tmpdir"))
+                            .valuePlaceholder(INFO_PATH_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+            sortMemorySize =
+                    IntegerArgument.builder("sortMemorySize")
+                            .description(INFO_LDIFDIFF_DESCRIPTION_SORT_MEMORY_SIZE.get())
+                            .lowerBound(1)
+                            .defaultValue(DEFAULT_SORT_MEMORY_SIZE)
+                            .valuePlaceholder(INFO_MEMORY_SIZE_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+            inputsSorted =
+                    BooleanArgument.builder("inputsSorted")
+                            .description(INFO_LDIFDIFF_DESCRIPTION_INPUTS_SORTED.get())
+                            .buildAndAddToParser(argParser);
 
             showUsage = showUsageArgument();
             argParser.addArgument(showUsage);
@@ -150,8 +175,13 @@ public final class LDIFDiff extends ToolConsoleApplication {
                  LDIFEntryReader targetReader = new LDIFEntryReader(targetInputStream);
                  LDIFChangeRecordWriter outputWriter = new LDIFChangeRecordWriter(outputStream)) {
                 outputWriter.setWrapColumn(computeWrapColumn(wrapColumn));
-                final ChangeRecordReader changes = LDIF.diff(sourceReader, targetReader);
-                LDIF.copyTo(changes, outputWriter);
+                final Options diffOptions = Options.defaultOptions()
+                        .set(LDIF.DIFF_TEMP_DIRECTORY, new File(tmpDirectory.getValue()))
+                        .set(LDIF.DIFF_SORT_MEMORY_SIZE, sortMemorySize.getIntValue() * 1024L * 1024L)
+                        .set(LDIF.DIFF_INPUTS_SORTED, inputsSorted.isPresent());
+                try (ChangeRecordReader changes = LDIF.diff(sourceReader, targetReader, diffOptions)) {
+                    LDIF.copyTo(changes, outputWriter);
+                }
                 if (outputWriter.containsChanges()) {
                     return DIFFERENCES_FOUND;
                 } else {
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.forgerock.opendj.ldap.tools;
 
@@ -29,13 +30,23 @@ import static com.forgerock.opendj.ldap.tools.Utils.parseArguments;
 import static com.forgerock.opendj.ldap.tools.Utils.runTool;
 import static com.forgerock.opendj.ldap.tools.Utils.runToolAndExit;
 import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.Utils.newThreadFactory;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.GZIPOutputStream;
 
 import org.forgerock.i18n.LocalizableMessage;
@@ -97,8 +108,8 @@ public final class MakeLDIF extends ToolConsoleApplication {
         return false;
     }
 
-    /** The total number of entries that have been written. */
-    private long numberOfEntriesWritten;
+    /** The total number of entries that have been written, by all the shards. */
+    private final AtomicLong numberOfEntriesWritten = new AtomicLong();
 
     @Override
     int run(final String... args) throws LDAPToolException {
@@ -117,6 +128,8 @@ public final class MakeLDIF extends ToolConsoleApplication {
         StringArgument resourcePath;
         StringArgument constants;
         IntegerArgument wrapColumn;
+        IntegerArgument shardCount;
+        BooleanArgument shardFiles;
         try {
             resourcePath =
                     StringArgument.builder(OPTION_LONG_RESOURCE_PATH)
@@ -152,6 +165,18 @@ public final class MakeLDIF extends ToolConsoleApplication {
             wrapColumn = wrapColumnArgument();
             argParser.addArgument(wrapColumn);
 
+            shardCount =
+                    IntegerArgument.builder("shardCount")
+                            .description(INFO_MAKELDIF_DESCRIPTION_SHARD_COUNT.get())
+                            .lowerBound(1)
+                            .defaultValue(1)
+                            .valuePlaceholder(INFO_SHARD_COUNT_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+            shardFiles =
+                    BooleanArgument.builder("shardFiles")
+                            .description(INFO_MAKELDIF_DESCRIPTION_SHARD_FILES.get())
+                            .buildAndAddToParser(argParser);
+
             argParser.setUsageArgument(showUsage, getOutputStream());
         } catch (final ArgumentException ae) {
             throw newToolParamException(ae, ERR_CANNOT_INITIALIZE_ARGS.get(ae.getMessage()));
@@ -163,7 +188,7 @@ public final class MakeLDIF extends ToolConsoleApplication {
             return ResultCode.SUCCESS.intValue();
         }
         final String templatePath = argParser.getTrailingArguments().get(0);
-        return run(templatePath, resourcePath, ldifFile, randomSeed, constants, wrapColumn);
+        return run(templatePath, resourcePath, ldifFile, randomSeed, constants, wrapColumn, shardCount, shardFiles);
     }
 
     /** Run Make LDIF with provided arguments. */
@@ -172,44 +197,132 @@ public final class MakeLDIF extends ToolConsoleApplication {
                     final StringArgument ldifFile,
                     final IntegerArgument randomSeedArg,
                     final StringArgument constants,
-                    final IntegerArgument wrapColumn)  throws LDAPToolException {
-        LDIFEntryWriter writer = null;
-        try (EntryGenerator generator = createGenerator(templatePath, resourcePath, randomSeedArg, constants)) {
-            if (generator == null) {
-                // Root exception has already been printed
-                throw newToolExceptionAlreadyPrinted(null, ResultCode.UNDEFINED);
+                    final IntegerArgument wrapColumnArg,
+                    final IntegerArgument shardCountArg,
+                    final BooleanArgument shardFiles)  throws LDAPToolException {
+        final int wrapColumn;
+        final int shardCount;
+        try {
+            wrapColumn = computeWrapColumn(wrapColumnArg);
+            shardCount = shardCountArg.getIntValue();
+        } catch (final ArgumentException e) {
+            throw newToolParamException(e, ERR_ERROR_PARSING_ARGS.get(e.getMessageObject()));
+        }
+
+        if (shardFiles.isPresent()) {
+            if (!ldifFile.isPresent()) {
+                throw newToolParamException(ERR_MAKELDIF_SHARD_FILES_REQUIRE_LDIF.get());
             }
+            generateShardFiles(templatePath, resourcePath, ldifFile.getValue(), randomSeedArg, constants, wrapColumn,
+                    shardCount);
+        } else {
+            generateLdifFile(templatePath, resourcePath, ldifFile, randomSeedArg, constants, wrapColumn, shardCount);
+        }
+
+        println(INFO_MAKELDIF_PROCESSING_COMPLETE.get(numberOfEntriesWritten.get()));
+        return ResultCode.SUCCESS.intValue();
+    }
 
-            if (generator.hasWarnings()) {
-                for (LocalizableMessage warn : generator.getWarnings()) {
-                    errPrintln(warn);
+    /** Writes all the entries, in order, to the LDIF file or to the standard output. */
+    private void generateLdifFile(final String templatePath, final StringArgument resourcePath,
+            final StringArgument ldifFile, final IntegerArgument randomSeedArg, final StringArgument constants,
+            final int wrapColumn, final int shardCount) throws LDAPToolException {
+        LDIFEntryWriter writer = null;
+        try (EntryGenerator generator =
+                createGenerator(templatePath, resourcePath, randomSeedArg, constants, shardCount, -1)) {
+            printWarnings(generator);
+
+            final String ldifFileName = ldifFile.isPresent() ? ldifFile.getValue() : null;
+            writer = createLdifWriter(ldifFileName, wrapColumn);
+            generateEntries(generator, writer, ldifFileName);
+        } finally {
+            closeSilently(writer);
+        }
+    }
+
+    /**
+     * Writes each shard to its own LDIF file, concurrently. The shard files are named after the LDIF file, with the
+     * index of the shard inserted before the extensions.
+     */
+    private void generateShardFiles(final String templatePath, final StringArgument resourcePath,
+            final String ldifFileName, final IntegerArgument randomSeedArg, final StringArgument constants,
+            final int wrapColumn, final int shardCount) throws LDAPToolException {
+        final List<Closeable> resources = new ArrayList<>();
+        final List<Callable<Void>> shards = new ArrayList<>(shardCount);
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                final EntryGenerator generator =
+                        createGenerator(templatePath, resourcePath, randomSeedArg, constants, shardCount, i);
+                resources.add(generator);
+                if (i == 0) {
+                    printWarnings(generator);
                 }
+                final String shardFileName = getShardFileName(ldifFileName, i);
+                final LDIFEntryWriter writer = createLdifWriter(shardFileName, wrapColumn);
+                resources.add(writer);
+                shards.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws LDAPToolException {
+                        generateEntries(generator, writer, shardFileName);
+                        return null;
+                    }
+                });
             }
 
+            final ExecutorService executor =
+                    Executors.newFixedThreadPool(shardCount, newThreadFactory(null, "MakeLDIF shard %d", true));
             try {
-                writer = createLdifWriter(ldifFile, computeWrapColumn(wrapColumn));
-            } catch (final IOException e) {
-                throw newToolParamException(
-                        e, ERR_MAKELDIF_UNABLE_TO_CREATE_LDIF.get(ldifFile.getValue(), e.getMessage()));
-            } catch (final ArgumentException e) {
-                throw newToolParamException(
-                        e, ERR_ERROR_PARSING_ARGS.get(e.getMessageObject()));
+                for (final Future<Void> shard : executor.invokeAll(shards)) {
+                    shard.get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw newToolException(
+                        e, ResultCode.UNDEFINED, ERR_MAKELDIF_EXCEPTION_DURING_PROCESSING.get(e.getMessage()));
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof LDAPToolException) {
+                    throw (LDAPToolException) e.getCause();
+                }
+                throw newToolException(e, ResultCode.UNDEFINED,
+                        ERR_MAKELDIF_EXCEPTION_DURING_PROCESSING.get(e.getCause().getMessage()));
+            } finally {
+                executor.shutdownNow();
             }
+        } finally {
+            closeSilently(resources.toArray(new Closeable[resources.size()]));
+        }
+    }
 
-            generateEntries(generator, writer, ldifFile);
+    /** Inserts the index of the shard before the extensions of the LDIF file name, as in "data-0.ldif.gz". */
+    static String getShardFileName(final String ldifFileName, final int shardIndex) {
+        final int nameStart = ldifFileName.lastIndexOf(File.separatorChar) + 1;
+        // A leading dot is not an extension
+        final int extensionStart = ldifFileName.indexOf('.', nameStart + 1);
+        final int nameEnd = extensionStart >= 0 ? extensionStart : ldifFileName.length();
+        return ldifFileName.substring(0, nameEnd) + "-" + shardIndex + ldifFileName.substring(nameEnd);
+    }
 
-            println(INFO_MAKELDIF_PROCESSING_COMPLETE.get(numberOfEntriesWritten));
-            return ResultCode.SUCCESS.intValue();
-        } finally {
-            closeSilently(writer);
+    private void printWarnings(final EntryGenerator generator) {
+        if (generator.hasWarnings()) {
+            for (LocalizableMessage warn : generator.getWarnings()) {
+                errPrintln(warn);
+            }
         }
     }
 
-    private LDIFEntryWriter createLdifWriter(final StringArgument ldifFile, final int wrapColumn)
-            throws IOException, ArgumentException {
+    /** Creates a writer to the provided LDIF file, or to the standard output if the file name is {@code null}. */
+    private LDIFEntryWriter createLdifWriter(final String ldifFileName, final int wrapColumn)
+            throws LDAPToolException {
+        try {
+            return openLdifWriter(ldifFileName).setWrapColumn(wrapColumn);
+        } catch (final IOException e) {
+            throw newToolParamException(e, ERR_MAKELDIF_UNABLE_TO_CREATE_LDIF.get(ldifFileName, e.getMessage()));
+        }
+    }
+
+    private LDIFEntryWriter openLdifWriter(final String ldifFileName) throws IOException {
         final LDIFEntryWriter writer;
-        if (ldifFile.isPresent()) {
-            final String ldifFileName = ldifFile.getValue();
+        if (ldifFileName != null) {
             if (ldifFileName.toLowerCase().endsWith(".gz")) {
                 writer = new LDIFEntryWriter(new GZIPOutputStream(new FileOutputStream(ldifFileName)));
             } else {
@@ -218,14 +331,23 @@ public final class MakeLDIF extends ToolConsoleApplication {
         } else {
             writer = new LDIFEntryWriter(getOutputStream());
         }
-        return writer.setWrapColumn(wrapColumn);
+        return writer;
     }
 
     static EntryGenerator createGenerator(final String templatePath, final StringArgument resourcePath,
                                             final IntegerArgument randomSeedArg, final StringArgument constants,
                                             final boolean generateBranches, final ConsoleApplication app) {
-        final EntryGenerator generator = new EntryGenerator(templatePath).setGenerateBranches(generateBranches);
+        return configureGenerator(new EntryGenerator(templatePath).setGenerateBranches(generateBranches),
+                resourcePath, randomSeedArg, constants, app);
+    }
 
+    /**
+     * Configures and initializes the provided generator, returning {@code null} after printing the error if it
+     * cannot be initialized.
+     */
+    private static EntryGenerator configureGenerator(final EntryGenerator generator,
+            final StringArgument resourcePath, final IntegerArgument randomSeedArg, final StringArgument constants,
+            final ConsoleApplication app) {
         if (resourcePath.isPresent()) {
             final File resourceDir = new File(resourcePath.getValue());
             if (!resourceDir.exists()) {
@@ -278,15 +400,27 @@ public final class MakeLDIF extends ToolConsoleApplication {
         return true;
     }
 
+    /**
+     * Returns a generator of the provided shard, or of all the shards if the shard index is negative. The root
+     * exception has already been printed when the generator cannot be created.
+     */
     private EntryGenerator createGenerator(final String templatePath, final StringArgument resourcePath,
-            final IntegerArgument randomSeedArg, final StringArgument constants) {
-        return createGenerator(templatePath, resourcePath, randomSeedArg, constants, true, this);
+            final IntegerArgument randomSeedArg, final StringArgument constants, final int shardCount,
+            final int shardIndex) throws LDAPToolException {
+        final EntryGenerator generator = new EntryGenerator(templatePath).setShardCount(shardCount);
+        if (shardIndex >= 0) {
+            generator.setShardIndex(shardIndex);
+        }
+        if (configureGenerator(generator, resourcePath, randomSeedArg, constants, this) == null) {
+            throw newToolExceptionAlreadyPrinted(null, ResultCode.UNDEFINED);
+        }
+        return generator;
     }
 
     /** Returns true if generation is successful, false otherwise. */
     private void generateEntries(final EntryGenerator generator,
                                     final LDIFEntryWriter writer,
-                                    final StringArgument ldifFile) throws LDAPToolException {
+                                    final String ldifFileName) throws LDAPToolException {
         try {
             while (generator.hasNext()) {
                 final Entry entry = generator.readEntry();
@@ -294,10 +428,11 @@ public final class MakeLDIF extends ToolConsoleApplication {
                     writer.writeEntry(entry);
                 } catch (final IOException e) {
                     throw newToolParamException(
-                            e, ERR_MAKELDIF_ERROR_WRITING_LDIF.get(ldifFile.getValue(), e.getMessage()));
+                            e, ERR_MAKELDIF_ERROR_WRITING_LDIF.get(ldifFileName, e.getMessage()));
                 }
-                if ((++numberOfEntriesWritten % 1000) == 0) {
-                    errPrintln(INFO_MAKELDIF_PROCESSED_N_ENTRIES.get(numberOfEntriesWritten));
+                final long entriesWritten = numberOfEntriesWritten.incrementAndGet();
+                if ((entriesWritten % 1000) == 0) {
+                    errPrintln(INFO_MAKELDIF_PROCESSED_N_ENTRIES.get(entriesWritten));
                 }
             }
         } catch (final Exception e) {
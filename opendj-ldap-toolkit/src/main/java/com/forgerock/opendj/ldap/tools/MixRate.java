@@ -0,0 +1,316 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.cli.ToolVersionHandler.newSdkVersionHandler;
+import static com.forgerock.opendj.cli.Utils.*;
+import static com.forgerock.opendj.ldap.tools.ToolsMessages.*;
+import static com.forgerock.opendj.cli.CommonArguments.*;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.opendj.ldap.Connection;
+import org.forgerock.opendj.ldap.ConnectionFactory;
+import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.requests.BindRequest;
+import org.forgerock.opendj.ldap.requests.ModifyRequest;
+import org.forgerock.opendj.ldap.requests.Request;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.responses.BindResult;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.opendj.ldap.responses.SearchResultReference;
+import org.forgerock.util.promise.Promise;
+
+import com.forgerock.opendj.cli.ArgumentException;
+import com.forgerock.opendj.cli.ArgumentParser;
+import com.forgerock.opendj.cli.BooleanArgument;
+import com.forgerock.opendj.cli.ConnectionFactoryProvider;
+import com.forgerock.opendj.cli.ConsoleApplication;
+import com.forgerock.opendj.cli.MultiColumnPrinter;
+import com.forgerock.opendj.cli.StringArgument;
+import com.forgerock.opendj.ldap.tools.OperationMix.OperationTemplate;
+import com.forgerock.opendj.ldap.tools.OperationMix.OperationType;
+
+/**
+ * A load generation tool that can be used to load a Directory Server with a weighted mix of Search, Bind and Modify
+ * requests using one or more LDAP connections.
+ */
+public final class MixRate extends ConsoleApplication {
+    private final class MixPerformanceRunner extends PerformanceRunner {
+        private final class MixSearchHandler extends UpdateStatsResultHandler<Result> implements SearchResultHandler {
+            private MixSearchHandler(final long startTimeNs) {
+                super(startTimeNs);
+            }
+
+            @Override
+            public boolean handleEntry(final SearchResultEntry entry) {
+                return true;
+            }
+
+            @Override
+            public boolean handleReference(final SearchResultReference reference) {
+                return true;
+            }
+        }
+
+        private final class MixWorkerThread extends WorkerThread {
+            private final Random random = new Random();
+            private OperationTemplate template;
+            private Object[] data;
+
+            private MixWorkerThread(final Connection connection, final ConnectionFactory connectionFactory) {
+                super(connection, connectionFactory);
+            }
+
+            @Override
+            boolean requiresIdleConnection() {
+                return nextTemplate().getType() == OperationType.BIND;
+            }
+
+            @Override
+            public Promise<?, LdapException> performOperation(final Connection connection,
+                    final DataSource[] dataSources, final long currentTimeNs) {
+                final OperationTemplate operationTemplate = nextTemplate();
+                template = null;
+                data = DataSource.generateData(dataSources, data);
+                final Request request = operationTemplate.newRequest(data);
+
+                incrementIterationCount();
+                final Promise<?, LdapException> promise;
+                switch (operationTemplate.getType()) {
+                case SEARCH:
+                    final MixSearchHandler searchHandler = new MixSearchHandler(currentTimeNs);
+                    promise = connection.searchAsync((SearchRequest) request, searchHandler)
+                                        .thenOnResult(searchHandler).thenOnException(searchHandler);
+                    break;
+                case BIND:
+                    final UpdateStatsResultHandler<BindResult> bindHandler =
+                            new UpdateStatsResultHandler<>(currentTimeNs);
+                    promise = connection.bindAsync((BindRequest) request)
+                                        .thenOnResult(bindHandler).thenOnException(bindHandler);
+                    break;
+                default:
+                    final UpdateStatsResultHandler<Result> modifyHandler =
+                            new UpdateStatsResultHandler<>(currentTimeNs);
+                    promise = connection.modifyAsync((ModifyRequest) request)
+                                        .thenOnResult(modifyHandler).thenOnException(modifyHandler);
+                    break;
+                }
+
+                final OperationTypeStats stats = operationStats.get(operationTemplate.getType());
+                return promise.thenAlways(new Runnable() {
+                    @Override
+                    public void run() {
+                        stats.addResponseTime(System.nanoTime() - currentTimeNs);
+                    }
+                });
+            }
+
+            /** Selects the template of the next operation, unless it has already been selected. */
+            private OperationTemplate nextTemplate() {
+                if (template == null) {
+                    template = mix.select(random);
+                }
+                return template;
+            }
+        }
+
+        private final class MixStatsThread extends StatsThread {
+            private MixStatsThread(final PerformanceRunner performanceRunner, final ConsoleApplication app) {
+                super(performanceRunner, app);
+            }
+
+            @Override
+            void resetAdditionalStats() {
+                for (final OperationTypeStats stats : operationStats.values()) {
+                    stats.reset();
+                }
+            }
+
+            @Override
+            List<MultiColumnPrinter.Column> registerAdditionalColumns() {
+                final double[] percentiles = getPercentiles();
+                final List<MultiColumnPrinter.Column> columns = new ArrayList<>();
+                for (final OperationTypeStats stats : operationStats.values()) {
+                    columns.addAll(stats.registerColumns(
+                            registry, percentiles[percentiles.length - 1], isScriptFriendly()));
+                }
+                return columns;
+            }
+        }
+
+        private final Map<OperationType, OperationTypeStats> operationStats = new EnumMap<>(OperationType.class);
+        private OperationMix mix;
+
+        private MixPerformanceRunner(final PerformanceRunnerOptions options) throws ArgumentException {
+            super(options);
+        }
+
+        private void setOperationMix(final OperationMix mix) {
+            this.mix = mix;
+            for (final OperationType type : mix.getOperationTypes()) {
+                operationStats.put(type, new OperationTypeStats(type.getStatName()));
+            }
+        }
+
+        @Override
+        WorkerThread newWorkerThread(final Connection connection, final ConnectionFactory connectionFactory) {
+            return new MixWorkerThread(connection, connectionFactory);
+        }
+
+        @Override
+        StatsThread newStatsThread(final PerformanceRunner performanceRunner, final ConsoleApplication app) {
+            return new MixStatsThread(performanceRunner, app);
+        }
+    }
+
+    /**
+     * The main method for MixRate tool.
+     *
+     * @param args
+     *            The command-line arguments provided to this program.
+     */
+    public static void main(final String[] args) {
+        final int retCode = new MixRate().run(args);
+        System.exit(filterExitCode(retCode));
+    }
+
+    private BooleanArgument verbose;
+    private BooleanArgument scriptFriendly;
+
+    private MixRate() {
+        // Nothing to do.
+    }
+
+    /**
+     * Constructor to allow tests.
+     *
+     * @param out
+     *            output stream of console application
+     * @param err
+     *            error stream of console application
+     */
+    MixRate(PrintStream out, PrintStream err) {
+        super(out, err);
+    }
+
+    @Override
+    public boolean isInteractive() {
+        return false;
+    }
+
+    @Override
+    public boolean isScriptFriendly() {
+        return scriptFriendly.isPresent();
+    }
+
+    @Override
+    public boolean isVerbose() {
+        return verbose.isPresent();
+    }
+
+    int run(final String[] args) {
+        // Create the command-line argument parser for use with this program.
+        final LocalizableMessage toolDescription = INFO_MIXRATE_TOOL_DESCRIPTION.get();
+        final ArgumentParser argParser = LDAPToolArgumentParser.builder(MixRate.class.getName())
+                .toolDescription(toolDescription)
+                .trailingArguments(1, "scenario-file-path")
+                .build();
+        argParser.setVersionHandler(newSdkVersionHandler());
+        argParser.setShortToolDescription(REF_SHORT_DESC_MIXRATE.get());
+        argParser.setDocToolDescriptionSupplement(SUPPLEMENT_DESCRIPTION_RATE_TOOLS.get());
+
+        ConnectionFactoryProvider connectionFactoryProvider;
+        ConnectionFactory connectionFactory;
+        MixPerformanceRunner runner;
+
+        BooleanArgument showUsage;
+        StringArgument propertiesFileArgument;
+        BooleanArgument noPropertiesFileArgument;
+        try {
+            Utils.setDefaultPerfToolProperties();
+
+            connectionFactoryProvider = new ConnectionFactoryProvider(argParser, this);
+            runner = new MixPerformanceRunner(new PerformanceRunnerOptions(argParser, this));
+
+            propertiesFileArgument = propertiesFileArgument();
+            argParser.addArgument(propertiesFileArgument);
+            argParser.setFilePropertiesArgument(propertiesFileArgument);
+
+            noPropertiesFileArgument = noPropertiesFileArgument();
+            argParser.addArgument(noPropertiesFileArgument);
+            argParser.setNoPropertiesFileArgument(noPropertiesFileArgument);
+
+            showUsage = showUsageArgument();
+            argParser.addArgument(showUsage);
+            argParser.setUsageArgument(showUsage, getOutputStream());
+
+            verbose = verboseArgument();
+            argParser.addArgument(verbose);
+
+            scriptFriendly = scriptFriendlySdkArgument();
+            argParser.addArgument(scriptFriendly);
+        } catch (final ArgumentException ae) {
+            final LocalizableMessage message = ERR_CANNOT_INITIALIZE_ARGS.get(ae.getMessage());
+            errPrintln(message);
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        // Parse the command-line arguments provided to this program.
+        try {
+            argParser.parseArguments(args);
+
+            // If we should just display usage or version information,
+            // then print it and exit.
+            if (argParser.usageOrVersionDisplayed()) {
+                return 0;
+            }
+
+            connectionFactory = connectionFactoryProvider.getAuthenticatedConnectionFactory();
+            runner.setBindRequest(connectionFactoryProvider.getBindRequest());
+            runner.validate();
+        } catch (final ArgumentException ae) {
+            argParser.displayMessageAndUsageReference(getErrStream(), ERR_ERROR_PARSING_ARGS.get(ae.getMessage()));
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        final String scenarioPath = argParser.getTrailingArguments().get(0);
+        try {
+            final OperationMix mix = OperationMix.read(scenarioPath);
+            /* Try it out to make sure the format strings and data sources match. */
+            mix.validate(DataSource.generateData(runner.getDataSources(), null));
+            runner.setOperationMix(mix);
+        } catch (final IOException e) {
+            errPrintln(ERR_MIXRATE_CANNOT_READ_SCENARIO.get(scenarioPath, e.getMessage()));
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        } catch (final ArgumentException e) {
+            errPrintln(e.getMessageObject());
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        return runner.run(connectionFactory);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.ldap.tools.ToolsMessages.*;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.opendj.ldap.ModificationType;
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.ModifyRequest;
+import org.forgerock.opendj.ldap.requests.Request;
+import org.forgerock.opendj.ldap.requests.Requests;
+
+import com.forgerock.opendj.cli.ArgumentException;
+
+/**
+ * A weighted mix of operation templates, read from a scenario file such as:
+ * <pre>
+ * operation: search
+ * weight: 7
+ * baseDN: ou=people,dc=example,dc=com
+ * filter: (uid=user.%d)
+ * attribute: cn
+ *
+ * operation: bind
+ * weight: 2
+ * bindDN: uid=user.%d,ou=people,dc=example,dc=com
+ * bindPassword: password
+ *
+ * operation: modify
+ * targetDN: uid=user.%d,ou=people,dc=example,dc=com
+ * modification: description:%d
+ * </pre>
+ * Values are format strings, evaluated with the data generated for each operation.
+ */
+final class OperationMix {
+    /** The types of operations which can be mixed. */
+    enum OperationType {
+        SEARCH("srch", "baseDN", "filter"),
+        BIND("bind", "bindDN", "bindPassword"),
+        MODIFY("mod", "targetDN", "modification");
+
+        private final String statName;
+        private final List<String> requiredFields;
+
+        private OperationType(final String statName, final String... requiredFields) {
+            this.statName = statName;
+            this.requiredFields = Arrays.asList(requiredFields);
+        }
+
+        /**
+         * Returns the short name of this operation type, used to report its statistics.
+         *
+         * @return The short name of this operation type.
+         */
+        String getStatName() {
+            return statName;
+        }
+    }
+
+    /** An operation template, whose requests are built from format strings. */
+    static final class OperationTemplate {
+        private final OperationType type;
+        private final int weight;
+        private final Map<String, List<String>> fields;
+        private final SearchScope scope;
+
+        private OperationTemplate(final OperationType type, final int weight, final Map<String, List<String>> fields,
+                final SearchScope scope) {
+            this.type = type;
+            this.weight = weight;
+            this.fields = fields;
+            this.scope = scope;
+        }
+
+        OperationType getType() {
+            return type;
+        }
+
+        /**
+         * Returns a new request built from this template.
+         *
+         * @param data
+         *            The data used to evaluate the format strings of this template.
+         * @return A new request, whose type depends on the operation type of this template.
+         */
+        Request newRequest(final Object[] data) {
+            switch (type) {
+            case SEARCH:
+                final List<String> attributes = format(getValues("attribute"), data);
+                return Requests.newSearchRequest(format(getValue("baseDN"), data), scope,
+                        format(getValue("filter"), data), attributes.toArray(new String[attributes.size()]));
+            case BIND:
+                return Requests.newSimpleBindRequest(format(getValue("bindDN"), data),
+                        format(getValue("bindPassword"), data).toCharArray());
+            default:
+                final ModifyRequest request = Requests.newModifyRequest(format(getValue("targetDN"), data));
+                for (final String modification : format(getValues("modification"), data)) {
+                    final int colonPos = modification.indexOf(':');
+                    request.addModification(ModificationType.REPLACE, modification.substring(0, colonPos),
+                            modification.substring(colonPos + 1));
+                }
+                return request;
+            }
+        }
+
+        private String getValue(final String field) {
+            return fields.get(field).get(0);
+        }
+
+        private List<String> getValues(final String field) {
+            final List<String> values = fields.get(field);
+            return values != null ? values : Collections.<String> emptyList();
+        }
+
+        private static String format(final String value, final Object[] data) {
+            return data != null ? String.format(value, data) : value;
+        }
+
+        private static List<String> format(final List<String> values, final Object[] data) {
+            final List<String> formattedValues = new ArrayList<>(values.size());
+            for (final String value : values) {
+                formattedValues.add(format(value, data));
+            }
+            return formattedValues;
+        }
+    }
+
+    private static final Map<OperationType, List<String>> OPTIONAL_FIELDS = new HashMap<>();
+    static {
+        OPTIONAL_FIELDS.put(OperationType.SEARCH, Arrays.asList("scope", "attribute"));
+        OPTIONAL_FIELDS.put(OperationType.BIND, Collections.<String> emptyList());
+        OPTIONAL_FIELDS.put(OperationType.MODIFY, Collections.<String> emptyList());
+    }
+
+    private final List<OperationTemplate> templates;
+    /** Cumulated weights of the templates, in the order of the templates. */
+    private final int[] cumulatedWeights;
+
+    private OperationMix(final List<OperationTemplate> templates) {
+        this.templates = templates;
+        this.cumulatedWeights = new int[templates.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < templates.size(); i++) {
+            totalWeight += templates.get(i).weight;
+            cumulatedWeights[i] = totalWeight;
+        }
+    }
+
+    /**
+     * Reads the operation templates of a scenario file.
+     *
+     * @param file
+     *            The path of the scenario file.
+     * @return The operation mix defined by the scenario file.
+     * @throws IOException
+     *             If the scenario file cannot be read.
+     * @throws ArgumentException
+     *             If the scenario file is invalid.
+     */
+    static OperationMix read(final String file) throws IOException, ArgumentException {
+        final List<OperationTemplate> templates = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            Map<String, List<String>> fields = new HashMap<>();
+            int lineNumber = 0;
+            int templateLineNumber = 0;
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null || line.trim().isEmpty()) {
+                    if (!fields.isEmpty()) {
+                        templates.add(newTemplate(fields, templateLineNumber, file));
+                        fields = new HashMap<>();
+                    }
+                } else if (!line.startsWith("#")) {
+                    if (fields.isEmpty()) {
+                        templateLineNumber = lineNumber;
+                    }
+                    final int colonPos = line.indexOf(':');
+                    if (colonPos <= 0) {
+                        throw new ArgumentException(ERR_MIXRATE_INVALID_TEMPLATE.get(
+                                templateLineNumber, file, ERR_MIXRATE_MALFORMED_LINE.get(lineNumber)));
+                    }
+                    final String name = line.substring(0, colonPos).trim();
+                    List<String> values = fields.get(name);
+                    if (values == null) {
+                        values = new ArrayList<>();
+                        fields.put(name, values);
+                    }
+                    values.add(line.substring(colonPos + 1).trim());
+                }
+            } while (line != null);
+        }
+
+        if (templates.isEmpty()) {
+            throw new ArgumentException(ERR_MIXRATE_EMPTY_SCENARIO.get(file));
+        }
+        return new OperationMix(templates);
+    }
+
+    private static OperationTemplate newTemplate(final Map<String, List<String>> fields, final int lineNumber,
+            final String file) throws ArgumentException {
+        final LocalizableMessage error = validateTemplate(fields);
+        if (error != null) {
+            throw new ArgumentException(ERR_MIXRATE_INVALID_TEMPLATE.get(lineNumber, file, error));
+        }
+        final OperationType type = OperationType.valueOf(getFirstValue(fields, "operation").toUpperCase(Locale.ROOT));
+        final String weight = getFirstValue(fields, "weight");
+        final String scope = getFirstValue(fields, "scope");
+        return new OperationTemplate(type, weight != null ? Integer.parseInt(weight) : 1, fields,
+                scope != null ? SearchScope.valueOf(scope) : SearchScope.WHOLE_SUBTREE);
+    }
+
+    /** Returns the reason why the provided template is invalid, or {@code null} if it is valid. */
+    private static LocalizableMessage validateTemplate(final Map<String, List<String>> fields) {
+        final String operation = getFirstValue(fields, "operation");
+        if (operation == null) {
+            return ERR_MIXRATE_MISSING_FIELD.get("operation");
+        }
+        final OperationType type;
+        try {
+            type = OperationType.valueOf(operation.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return ERR_MIXRATE_UNKNOWN_OPERATION.get(operation);
+        }
+
+        for (final String field : fields.keySet()) {
+            if (!"operation".equals(field) && !"weight".equals(field) && !type.requiredFields.contains(field)
+                    && !OPTIONAL_FIELDS.get(type).contains(field)) {
+                return ERR_MIXRATE_UNSUPPORTED_FIELD.get(field, operation);
+            }
+        }
+        for (final String field : type.requiredFields) {
+            if (!fields.containsKey(field)) {
+                return ERR_MIXRATE_MISSING_FIELD.get(field);
+            }
+        }
+
+        final String weight = getFirstValue(fields, "weight");
+        if (weight != null && !isPositiveInteger(weight)) {
+            return ERR_MIXRATE_INVALID_WEIGHT.get(weight);
+        }
+        final String scope = getFirstValue(fields, "scope");
+        if (scope != null && SearchScope.valueOf(scope) == null) {
+            return ERR_MIXRATE_INVALID_SCOPE.get(scope);
+        }
+        final List<String> modifications = fields.get("modification");
+        if (modifications != null) {
+            for (final String modification : modifications) {
+                if (modification.indexOf(':') <= 0) {
+                    return ERR_MIXRATE_INVALID_MODIFICATION.get(modification);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPositiveInteger(final String value) {
+        try {
+            return Integer.parseInt(value) > 0;
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String getFirstValue(final Map<String, List<String>> fields, final String field) {
+        final List<String> values = fields.get(field);
+        return values != null ? values.get(0) : null;
+    }
+
+    /**
+     * Checks that the requests of all the templates can be built from the provided data.
+     *
+     * @param data
+     *            Sample data, as generated by the data sources.
+     * @throws ArgumentException
+     *             If the format strings of a template do not match the data, or result in an invalid request.
+     */
+    void validate(final Object[] data) throws ArgumentException {
+        for (final OperationTemplate template : templates) {
+            try {
+                template.newRequest(data);
+            } catch (final RuntimeException e) {
+                throw new ArgumentException(ERR_MIXRATE_CANNOT_FORMAT.get(e.getMessage()), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the types of the operations of this mix.
+     *
+     * @return The types of the operations of this mix.
+     */
+    Set<OperationType> getOperationTypes() {
+        final Set<OperationType> types = EnumSet.noneOf(OperationType.class);
+        for (final OperationTemplate template : templates) {
+            types.add(template.type);
+        }
+        return types;
+    }
+
+    /**
+     * Randomly selects a template according to the weights of the templates.
+     *
+     * @param random
+     *            The random number generator of the calling thread.
+     * @return The selected template.
+     */
+    OperationTemplate select(final Random random) {
+        final int value = random.nextInt(cumulatedWeights[cumulatedWeights.length - 1]);
+        int i = 0;
+        while (cumulatedWeights[i] <= value) {
+            i++;
+        }
+        return templates.get(i);
+    }
+}
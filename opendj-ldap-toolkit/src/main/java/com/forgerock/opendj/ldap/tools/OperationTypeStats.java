@@ -0,0 +1,136 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.cli.MultiColumnPrinter.column;
+import static com.forgerock.opendj.ldap.tools.StatsThread.MS_IN_S;
+import static com.forgerock.opendj.ldap.tools.StatsThread.NS_IN_MS;
+import static com.forgerock.opendj.ldap.tools.StatsThread.STAT_ID_PREFIX;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mpierce.metrics.reservoir.hdrhistogram.HdrHistogramReservoir;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.forgerock.opendj.cli.MultiColumnPrinter;
+
+/**
+ * Throughput and response time statistics of one type of operation, for the rate tools sending several types of
+ * operations. The statistics are reported as additional columns of the {@link StatsThread}.
+ */
+final class OperationTypeStats {
+    private static final int COLUMN_WIDTH = 8;
+
+    private final String name;
+    private StatsThread.IntervalCounter count;
+    private StatsThread.IntervalCounter responseTimeNs;
+    private Histogram responseTimes;
+    private long lastRefreshTimeMs;
+    private long intervalDurationMs;
+
+    /**
+     * Creates the statistics of an operation type.
+     *
+     * @param name
+     *            The short name of the operation type, used in the column titles.
+     */
+    OperationTypeStats(final String name) {
+        this.name = name;
+        reset();
+    }
+
+    /** Resets the statistics, as done at the end of the warm up. */
+    void reset() {
+        count = StatsThread.newIntervalCounter();
+        responseTimeNs = StatsThread.newIntervalCounter();
+        responseTimes = new Histogram(new HdrHistogramReservoir());
+        lastRefreshTimeMs = System.currentTimeMillis();
+    }
+
+    /**
+     * Records a completed operation.
+     *
+     * @param timeNs
+     *            The response time of the operation, in nanoseconds.
+     */
+    void addResponseTime(final long timeNs) {
+        count.inc();
+        responseTimeNs.inc(timeNs);
+        responseTimes.update(timeNs);
+    }
+
+    /**
+     * Registers the gauges reporting the throughput, the recent response time and the provided response time
+     * percentile of this operation type.
+     *
+     * @param registry
+     *            The registry of the stats thread.
+     * @param percentile
+     *            The reported response time percentile.
+     * @param scriptFriendly
+     *            Whether the columns are printed in CSV format, which uses self-explanatory titles.
+     * @return The columns of the registered gauges.
+     */
+    List<MultiColumnPrinter.Column> registerColumns(final MetricRegistry registry, final double percentile,
+            final boolean scriptFriendly) {
+        final String statId = STAT_ID_PREFIX + name;
+        // Gauges are evaluated in the order of the columns, the first one refreshes the interval counts
+        registry.register(statId + "_throughput", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                refresh();
+                return Ratio.of(count.getLastIntervalCount(), intervalDurationMs / MS_IN_S);
+            }
+        });
+        registry.register(statId + "_response_time", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(responseTimeNs.getLastIntervalCount() / NS_IN_MS, count.getLastIntervalCount());
+            }
+        });
+        registry.register(statId + "_percentile", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return responseTimes.getSnapshot().getValue(percentile / 100.0) / NS_IN_MS;
+            }
+        });
+
+        final List<MultiColumnPrinter.Column> columns = new ArrayList<>();
+        if (scriptFriendly) {
+            columns.add(column(statId + "_throughput", name + " throughput (ops/second)", 1));
+            columns.add(column(statId + "_response_time", name + " response time (milliseconds)", 3));
+            columns.add(column(statId + "_percentile",
+                    name + " " + percentile + "% response time (milliseconds)", 2));
+        } else {
+            columns.add(column(statId + "_throughput", name + "/sec", COLUMN_WIDTH, 1));
+            columns.add(column(statId + "_response_time", name + " ms", COLUMN_WIDTH, 3));
+            columns.add(column(statId + "_percentile", name + " " + percentile + "%", COLUMN_WIDTH, 2));
+        }
+        return columns;
+    }
+
+    private void refresh() {
+        final long currentTimeMs = System.currentTimeMillis();
+        intervalDurationMs = currentTimeMs - lastRefreshTimeMs;
+        lastRefreshTimeMs = currentTimeMs;
+        count.refreshIntervalCount();
+        responseTimeNs.refreshIntervalCount();
+    }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.forgerock.opendj.ldap.tools;
 
@@ -27,6 +28,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.opendj.ldap.Connection;
@@ -37,6 +40,7 @@ import org.forgerock.opendj.ldap.LdapResultHandler;
 import org.forgerock.opendj.ldap.requests.BindRequest;
 import org.forgerock.opendj.ldap.responses.ExtendedResult;
 import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.Promise;
 
 import com.forgerock.opendj.cli.ArgumentException;
@@ -50,6 +54,10 @@ import com.forgerock.opendj.util.StaticUtils;
 /** Benchmark application framework. */
 abstract class PerformanceRunner implements ConnectionEventListener {
     private static final double[] DEFAULT_PERCENTILES = new double[] { 99.9, 99.99, 99.999 };
+    /** Time in ms between two checks for stop requests while waiting for an outstanding request to complete. */
+    private static final long STOP_CHECK_INTERVAL_MS = 100;
+    /** Maximum time in ms to wait for outstanding requests to complete once all worker threads are done. */
+    private static final long OUTSTANDING_REQUESTS_TIMEOUT_MS = 10000;
 
     class TimerThread extends Thread {
         private final long timeToWait;
@@ -114,7 +122,9 @@ abstract class PerformanceRunner implements ConnectionEventListener {
         private int count;
         private final Connection connection;
         private final ConnectionFactory connectionFactory;
-        boolean localStopRequested;
+        /** Bounds the requests sent and not completed yet on the connection. */
+        private Semaphore outstandingRequests;
+        volatile boolean localStopRequested;
 
         WorkerThread(final Connection connection, final ConnectionFactory connectionFactory) {
             super("Worker Thread");
@@ -127,6 +137,15 @@ abstract class PerformanceRunner implements ConnectionEventListener {
 
         @Override
         public void run() {
+            if (openLoop) {
+                runOpenLoop();
+            } else {
+                runClosedLoop();
+            }
+        }
+
+        /** Sends each request once the previous one has completed, sleeping as needed to meet the target throughput. */
+        private void runClosedLoop() {
             Promise<?, LdapException> promise;
             Connection connection;
             final double targetTimeMs = 1000.0 / (targetThroughput / (double) (numThreads * numConnections));
@@ -134,12 +153,24 @@ abstract class PerformanceRunner implements ConnectionEventListener {
 
             while (!stopRequested && !localStopRequested
                     && (maxIterations <= 0 || count < maxIterations)) {
+                final int permits = getRequiredPermits();
+                try {
+                    if (!acquireOutstandingRequests(permits)) {
+                        break;
+                    }
+                } catch (final InterruptedException e) {
+                    // Ignore and check stop requested
+                    continue;
+                }
+
                 try {
                     connection = getConnectionToUse();
                 } catch (final InterruptedException e) {
+                    outstandingRequests.release(permits);
                     // Ignore and check stop requested
                     continue;
                 } catch (final LdapException e) {
+                    outstandingRequests.release(permits);
                     handleConnectionError(false, e);
                     break;
                 }
@@ -163,6 +194,7 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                     if (this.connection == null) {
                         connection.close();
                     }
+                    outstandingRequests.release(permits);
                 }
 
                 if (targetThroughput > 0) {
@@ -184,6 +216,136 @@ abstract class PerformanceRunner implements ConnectionEventListener {
             }
         }
 
+        /**
+         * Sends requests at the times intended by the target throughput, whether or not the previous requests have
+         * completed. Response times are measured from the intended send times, so that they include the time spent
+         * waiting to send requests when the server does not keep up.
+         */
+        private void runOpenLoop() {
+            final long firstStartTimeNs = System.nanoTime();
+            long requestCount = 0;
+
+            while (!isStopping() && (maxIterations <= 0 || count < maxIterations)) {
+                final long intendedStartTimeNs;
+                final int permits;
+                try {
+                    intendedStartTimeNs = getIntendedStartTimeNs(firstStartTimeNs, requestCount);
+                    if (localStopRequested) {
+                        break;
+                    }
+                    waitUntil(intendedStartTimeNs);
+                    permits = getRequiredPermits();
+                    if (!acquireOutstandingRequests(permits)) {
+                        break;
+                    }
+                } catch (final InterruptedException e) {
+                    // Ignore and check stop requested
+                    continue;
+                }
+
+                final Connection connection;
+                try {
+                    connection = getConnectionToUse();
+                } catch (final InterruptedException e) {
+                    outstandingRequests.release(permits);
+                    // Ignore and check stop requested
+                    continue;
+                } catch (final LdapException e) {
+                    outstandingRequests.release(permits);
+                    handleConnectionError(false, e);
+                    break;
+                }
+
+                requestCount++;
+                final Promise<?, LdapException> promise =
+                        performOperation(connection, dataSources.get(), intendedStartTimeNs);
+                statsThread.incrementOperationCount();
+                promise.thenOnException(new ExceptionHandler<LdapException>() {
+                    @Override
+                    public void handleException(final LdapException e) {
+                        if (!stopRequested && e.getCause() instanceof IOException) {
+                            e.getCause().printStackTrace(app.getErrorStream());
+                            stopTool(true);
+                        }
+                        // Otherwise handled by result handler
+                    }
+                }).thenAlways(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (WorkerThread.this.connection == null) {
+                            connection.close();
+                        }
+                        outstandingRequests.release(permits);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Returns the time at which the next request should be sent in open-loop mode, as returned by
+         * {@link System#nanoTime()}. By default, requests are evenly spread in order to achieve the target throughput.
+         * Implementations may set {@link #localStopRequested} when there are no more requests to send.
+         *
+         * @param firstStartTimeNs
+         *            The time at which this worker started sending requests.
+         * @param requestCount
+         *            The number of requests already sent by this worker.
+         * @return The time at which the next request should be sent.
+         * @throws InterruptedException
+         *             If this thread is interrupted while waiting for the next request.
+         */
+        long getIntendedStartTimeNs(final long firstStartTimeNs, final long requestCount)
+                throws InterruptedException {
+            return firstStartTimeNs + (long) (requestCount * openLoopIntervalNs);
+        }
+
+        /**
+         * Returns whether the next request may only be sent once all the outstanding requests on the connection have
+         * completed, and must complete before other requests are sent, as bind requests do.
+         *
+         * @return {@code true} if the next request requires an idle connection
+         */
+        boolean requiresIdleConnection() {
+            return false;
+        }
+
+        /** Returns the number of outstanding request permits of the connection needed by the next request. */
+        private int getRequiredPermits() {
+            if (this.connection == null) {
+                // Each request uses its own connection
+                return 1;
+            }
+            return requiresIdleConnection() ? maxRequestsPerConnection : 1;
+        }
+
+        /**
+         * Returns whether this worker should stop sending requests.
+         *
+         * @return {@code true} if the tool is stopping or this worker is done
+         */
+        final boolean isStopping() {
+            return stopRequested || localStopRequested;
+        }
+
+        private void waitUntil(final long timeNs) throws InterruptedException {
+            long remainingNs;
+            while ((remainingNs = timeNs - System.nanoTime()) > 0 && !isStopping()) {
+                LockSupport.parkNanos(remainingNs);
+                if (interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+
+        private boolean acquireOutstandingRequests(final int permits) throws InterruptedException {
+            while (!outstandingRequests.tryAcquire(permits, STOP_CHECK_INTERVAL_MS, MILLISECONDS)) {
+                if (isStopping()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private Connection getConnectionToUse() throws InterruptedException, LdapException {
             if (this.connection == null) {
                 return connectionFactory.getConnectionAsync().getOrThrow();
@@ -221,9 +383,16 @@ abstract class PerformanceRunner implements ConnectionEventListener {
 
     int numThreads;
     int numConnections;
-    private boolean stopRequested;
+    private volatile boolean stopRequested;
 
     private int targetThroughput;
+    private boolean openLoop;
+    /** Time between two requests sent by a worker in open-loop mode, in nanoseconds. */
+    private double openLoopIntervalNs;
+    /** Maximum number of outstanding requests per connection in open-loop mode. */
+    private int maxOutstandingRequests;
+    /** Maximum number of outstanding requests per connection in the current mode. */
+    private int maxRequestsPerConnection;
     private int maxIterations;
     /** Warm-up duration time in ms. */
     private long warmUpDurationMs;
@@ -238,6 +407,10 @@ abstract class PerformanceRunner implements ConnectionEventListener {
     private final IntegerArgument targetThroughputArgument;
     private final IntegerArgument numConnectionsArgument;
     private final IntegerArgument percentilesArgument;
+    private final BooleanArgument openLoopArgument;
+    private final IntegerArgument maxOutstandingRequestsArgument;
+    private final boolean supportsTargetThroughput;
+    private final boolean requiresDedicatedConnections;
     private final BooleanArgument keepConnectionsOpen;
     private final BooleanArgument noRebindArgument;
     private final StringArgument arguments;
@@ -245,12 +418,15 @@ abstract class PerformanceRunner implements ConnectionEventListener {
     protected final IntegerArgument warmUpArgument;
 
     private final List<Thread> workerThreads = new ArrayList<>();
+    private final List<Semaphore> outstandingRequestsPerConnection = new ArrayList<>();
     StatsThread statsThread;
 
     PerformanceRunner(final PerformanceRunnerOptions options) throws ArgumentException {
         ArgumentParser argParser = options.getArgumentParser();
 
         this.app = options.getConsoleApplication();
+        this.supportsTargetThroughput = options.supportsTargetThroughput();
+        this.requiresDedicatedConnections = options.requiresDedicatedConnections();
 
         numThreadsArgument =
                 IntegerArgument.builder("numThreads")
@@ -260,7 +436,7 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                         .defaultValue(1)
                         .valuePlaceholder(LocalizableMessage.raw("{numThreads}"))
                         .buildArgument();
-        if (options.supportsMultipleThreadsPerConnection()) {
+        if (options.supportsMultipleThreadsPerConnection() && !options.requiresDedicatedConnections()) {
             argParser.addArgument(numThreadsArgument);
         } else {
             numThreadsArgument.addValue("1");
@@ -310,7 +486,32 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                         .description(LocalizableMessage.raw("Target average throughput to achieve"))
                         .defaultValue(0)
                         .valuePlaceholder(LocalizableMessage.raw("{targetThroughput}"))
-                        .buildAndAddToParser(argParser);
+                        .buildArgument();
+        openLoopArgument =
+                BooleanArgument.builder("openLoop")
+                        .description(LocalizableMessage.raw("Send requests at the rate defined by the target "
+                                + "throughput without waiting for previous requests to complete, and measure "
+                                + "response times from the time each request should have been sent"))
+                        .buildArgument();
+        if (supportsTargetThroughput) {
+            argParser.addArgument(targetThroughputArgument);
+            argParser.addArgument(openLoopArgument);
+        } else {
+            targetThroughputArgument.addValue("0");
+        }
+        maxOutstandingRequestsArgument =
+                IntegerArgument.builder("maxOutstandingRequests")
+                        .description(LocalizableMessage.raw(
+                                "Maximum number of outstanding requests per connection in open-loop mode"))
+                        .lowerBound(1)
+                        .defaultValue(100)
+                        .valuePlaceholder(LocalizableMessage.raw("{maxOutstandingRequests}"))
+                        .buildArgument();
+        if (options.supportsMultipleThreadsPerConnection()) {
+            argParser.addArgument(maxOutstandingRequestsArgument);
+        } else {
+            maxOutstandingRequestsArgument.addValue("1");
+        }
         percentilesArgument =
                 IntegerArgument.builder("percentile")
                         .shortIdentifier('e')
@@ -382,14 +583,37 @@ abstract class PerformanceRunner implements ConnectionEventListener {
         maxDurationTimeMs = maxDurationArgument.getIntValue() * 1000L;
         statsIntervalMs = statsIntervalArgument.getIntValue() * 1000;
         targetThroughput = targetThroughputArgument.getIntValue();
+        openLoop = !supportsTargetThroughput || openLoopArgument.isPresent();
+        if (targetThroughput > 0) {
+            openLoopIntervalNs = SECONDS.toNanos(1) * (numThreads * numConnections) / (double) targetThroughput;
+        }
+        maxOutstandingRequests = maxOutstandingRequestsArgument.getIntValue();
+        maxRequestsPerConnection = openLoop ? maxOutstandingRequests : numThreads;
 
         noRebind = noRebindArgument.isPresent();
 
+        if (requiresDedicatedConnections && !noRebind) {
+            throw new ArgumentException(
+                ERR_TOOL_DEDICATED_CONNECTIONS_REQUIRE_NO_REBIND.get("--" + noRebindArgument.getLongIdentifier()));
+        }
+
         if (!noRebindArgument.isPresent() && this.numThreads > 1) {
             throw new ArgumentException(ERR_TOOL_ARG_MUST_BE_USED_WHEN_ARG_CONDITION.get(
                 "--" + noRebindArgument.getLongIdentifier(), "--" + numThreadsArgument.getLongIdentifier(), "> 1"));
         }
 
+        // A kept open connection is rebound before each request, which must not happen while requests are outstanding
+        if (openLoop && maxOutstandingRequests > 1 && keepConnectionsOpen.isPresent() && !noRebind) {
+            throw new ArgumentException(ERR_TOOL_OPEN_LOOP_REQUIRES_NO_REBIND.get(
+                "--" + noRebindArgument.getLongIdentifier(), "--" + keepConnectionsOpen.getLongIdentifier(),
+                "--" + maxOutstandingRequestsArgument.getLongIdentifier()));
+        }
+
+        if (supportsTargetThroughput && openLoop && targetThroughput <= 0) {
+            throw new ArgumentException(ERR_TOOL_OPEN_LOOP_REQUIRES_TARGET_THROUGHPUT.get(
+                "--" + targetThroughputArgument.getLongIdentifier(), "--" + openLoopArgument.getLongIdentifier()));
+        }
+
         if (maxIterationsArgument.isPresent() && maxIterations <= 0) {
             throw new ArgumentException(ERR_TOOL_NOT_ENOUGH_ITERATIONS.get(
                 "--" + maxIterationsArgument.getLongIdentifier(), numConnections * numThreads,
@@ -426,8 +650,12 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                     connection.addConnectionEventListener(this);
                     connections.add(connection);
                 }
+                // Fair, so that requests requiring an idle connection are not delayed indefinitely
+                final Semaphore outstandingRequests = new Semaphore(maxRequestsPerConnection, true);
+                outstandingRequestsPerConnection.add(outstandingRequests);
                 for (int j = 0; j < numThreads; j++) {
-                    final Thread thread = newWorkerThread(connection, connectionFactory);
+                    final WorkerThread thread = newWorkerThread(connection, connectionFactory);
+                    thread.outstandingRequests = outstandingRequests;
                     workerThreads.add(thread);
                     thread.start();
                 }
@@ -439,6 +667,9 @@ abstract class PerformanceRunner implements ConnectionEventListener {
 
             statsThread.startReporting();
             joinAllWorkerThreads();
+            if (openLoop) {
+                awaitOutstandingRequests();
+            }
             stopTool();
         } catch (final InterruptedException e) {
             stopTool(true);
@@ -458,6 +689,15 @@ abstract class PerformanceRunner implements ConnectionEventListener {
         connectionFactory.getConnection().close();
     }
 
+    /** Waits for the requests sent in open-loop mode to complete before the connections are closed. */
+    private void awaitOutstandingRequests() throws InterruptedException {
+        final long deadlineNs = System.nanoTime() + MILLISECONDS.toNanos(OUTSTANDING_REQUESTS_TIMEOUT_MS);
+        for (final Semaphore outstandingRequests : outstandingRequestsPerConnection) {
+            outstandingRequests.tryAcquire(
+                    maxRequestsPerConnection, Math.max(deadlineNs - System.nanoTime(), 0), NANOSECONDS);
+        }
+    }
+
     synchronized void stopTool() {
         stopTool(false);
     }
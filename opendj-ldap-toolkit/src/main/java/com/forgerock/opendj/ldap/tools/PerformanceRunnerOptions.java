@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.forgerock.opendj.ldap.tools;
@@ -29,6 +30,8 @@ class PerformanceRunnerOptions {
     private boolean supportsRebind = true;
     private boolean supportsMultipleThreadsPerConnection = true;
     private boolean supportsGeneratorArgument = true;
+    private boolean supportsTargetThroughput = true;
+    private boolean requiresDedicatedConnections;
 
     PerformanceRunnerOptions(ArgumentParser argParser, ConsoleApplication app) {
         this.argParser = argParser;
@@ -59,6 +62,26 @@ class PerformanceRunnerOptions {
         this.supportsGeneratorArgument = supportsGeneratorArgument;
     }
 
+    boolean supportsTargetThroughput() {
+        return supportsTargetThroughput;
+    }
+
+    void setSupportsTargetThroughput(boolean supportsTargetThroughput) {
+        this.supportsTargetThroughput = supportsTargetThroughput;
+    }
+
+    boolean requiresDedicatedConnections() {
+        return requiresDedicatedConnections;
+    }
+
+    /**
+     * Sets whether each worker thread must use its own connection, which is never rebound, so that the identity
+     * established by the bind requests sent by the worker is kept for its next requests.
+     */
+    void setRequiresDedicatedConnections(boolean requiresDedicatedConnections) {
+        this.requiresDedicatedConnections = requiresDedicatedConnections;
+    }
+
     ArgumentParser getArgumentParser() {
         return argParser;
     }
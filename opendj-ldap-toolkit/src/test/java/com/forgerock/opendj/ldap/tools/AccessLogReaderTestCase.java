@@ -0,0 +1,145 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.ldap.tools.ToolsTestUtils.createTempFile;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.requests.SimpleBindRequest;
+import org.forgerock.testng.ForgeRockTestCase;
+import org.testng.annotations.Test;
+
+import com.forgerock.opendj.ldap.tools.AccessLogReader.LoggedOperation;
+import com.forgerock.opendj.ldap.tools.AccessLogReader.OperationType;
+
+@SuppressWarnings("javadoc")
+@Test
+public class AccessLogReaderTestCase extends ForgeRockTestCase {
+    /** 19/Oct/2026:08:00:00 UTC. */
+    private static final long LOG_START_TIME_MS = 1792396800000L;
+
+    @Test
+    public void testReadTextAccessLog() throws Exception {
+        final String log = createTempFile(
+                "[19/Oct/2026:10:00:00 +0200] CONNECT conn=3 from=127.0.0.1:51234 to=127.0.0.1:1389 protocol=LDAP",
+                "[19/Oct/2026:10:00:00 +0200] BIND REQ conn=3 op=0 msgID=1 version=3 type=SIMPLE "
+                        + "dn=\"uid=user.0,ou=people,dc=example,dc=com\"",
+                "[19/Oct/2026:10:00:00 +0200] BIND RES conn=3 op=0 msgID=1 result=0 authDN=\"uid=user.0\" etime=1",
+                "[19/Oct/2026:10:00:01 +0200] SEARCH REQ conn=3 op=1 msgID=2 base=\"ou=people,dc=example,dc=com\" "
+                        + "scope=sub filter=\"(cn=Aaron \"Al\" Zax)\" attrs=\"cn,mail\"",
+                "[19/Oct/2026:10:00:02 +0200] SEARCH conn=4 op=0 msgID=1 base=\"\" scope=base "
+                        + "filter=\"(objectClass=*)\" attrs=\"ALL\" result=0 nentries=1 etime=0",
+                "[19/Oct/2026:10:00:03 +0200] MODIFY REQ conn=3 op=2 msgID=3 dn=\"uid=user.0,dc=example,dc=com\"",
+                "[19/Oct/2026:10:00:03 +0200] BIND REQ conn=4 op=1 msgID=2 version=3 type=SASL mechanism=PLAIN",
+                "[19/Oct/2026:10:00:04 +0200] SEARCH REQ conn=-1 op=5 msgID=5 base=\"cn=config\" scope=base "
+                        + "filter=\"(objectClass=*)\" attrs=\"ALL\"");
+
+        try (AccessLogReader reader = new AccessLogReader(
+                Collections.singletonList(log), AccessLogReader.DEFAULT_TIMESTAMP_FORMAT, "password".getBytes())) {
+            final LoggedOperation bind = reader.readOperation();
+            assertThat(bind.getType()).isEqualTo(OperationType.BIND);
+            assertThat(bind.getConnectionId()).isEqualTo(3);
+            assertThat(bind.getTimeMs()).isEqualTo(LOG_START_TIME_MS);
+            final SimpleBindRequest bindRequest = (SimpleBindRequest) bind.getRequest();
+            assertThat(bindRequest.getName()).isEqualTo("uid=user.0,ou=people,dc=example,dc=com");
+            assertThat(bindRequest.getPassword()).containsExactly("password".getBytes());
+
+            final LoggedOperation search = reader.readOperation();
+            assertThat(search.getType()).isEqualTo(OperationType.SEARCH);
+            assertThat(search.getTimeMs()).isEqualTo(LOG_START_TIME_MS + 1000);
+            final SearchRequest searchRequest = (SearchRequest) search.getRequest();
+            assertThat(searchRequest.getName().toString()).isEqualTo("ou=people,dc=example,dc=com");
+            assertThat(searchRequest.getScope()).isEqualTo(SearchScope.WHOLE_SUBTREE);
+            assertThat(searchRequest.getFilter().toString()).isEqualTo("(cn=Aaron \"Al\" Zax)");
+            assertThat(searchRequest.getAttributes()).containsExactly("cn", "mail");
+
+            final LoggedOperation rootDSESearch = reader.readOperation();
+            assertThat(rootDSESearch.getConnectionId()).isEqualTo(4);
+            assertThat(((SearchRequest) rootDSESearch.getRequest()).getScope()).isEqualTo(SearchScope.BASE_OBJECT);
+            assertThat(((SearchRequest) rootDSESearch.getRequest()).getAttributes()).isEmpty();
+
+            assertThat(reader.readOperation()).isNull();
+            // The modify and the SASL bind
+            assertThat(reader.getSkippedCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testReadJsonAccessLog() throws Exception {
+        final String log = createTempFile(
+                "{\"eventName\":\"DJ-LDAP\",\"timestamp\":\"2026-10-19T08:00:00.123Z\",\"request\":{\"protocol\":"
+                        + "\"LDAP\",\"operation\":\"SEARCH\",\"connId\":7,\"msgId\":2,\"dn\":\"dc=example,dc=com\","
+                        + "\"scope\":\"one\",\"filter\":\"(uid=user.\\u0031)\",\"attrs\":[\"cn\"]},\"response\":"
+                        + "{\"status\":\"SUCCESSFUL\",\"statusCode\":\"0\",\"elapsedTime\":23,"
+                        + "\"elapsedTimeUnits\":\"MILLISECONDS\",\"nentries\":1}}",
+                "{\"eventName\":\"DJ-LDAP\",\"timestamp\":\"2026-10-19T08:00:01.000Z\",\"request\":{\"protocol\":"
+                        + "\"LDAP\",\"operation\":\"BIND\",\"connId\":8,\"msgId\":1,\"version\":\"3\","
+                        + "\"authType\":\"Simple\",\"dn\":\"\"},\"response\":{\"status\":\"SUCCESSFUL\"}}",
+                "{\"eventName\":\"DJ-LDAP\",\"timestamp\":\"2026-10-19T08:00:02.000Z\",\"request\":{\"protocol\":"
+                        + "\"LDAP\",\"operation\":\"BIND\",\"connId\":8,\"msgId\":2,\"version\":\"3\","
+                        + "\"authType\":\"Simple\",\"dn\":\"uid=user.0,dc=example,dc=com\"}}",
+                "{\"eventName\":\"DJ-LDAP\",\"timestamp\":\"2026-10-19T08:00:03.000Z\",\"request\":{\"protocol\":"
+                        + "\"LDAP\",\"operation\":\"SEARCH\",\"connId\":9,\"msgId\":2,\"dn\":\"dc=example,dc=com\","
+                        + "\"scope\":\"sub\",\"filter\":\"(changeNumber>=1)\",\"opType\":\"sync\"}}",
+                "{\"eventName\":\"DJ-LDAP\",\"timestamp\":\"2026-10-19T08:00:04.000Z\",\"request\":{\"protocol\":"
+                        + "\"LDAP\",\"operation\":\"UNBIND\",\"connId\":8,\"msgId\":3}}",
+                "{\"eventName\":\"DJ-LDAP\",\"timestamp\":\"2026-10-19T08:00:05.000Z\",\"request\":{\"protocol\":"
+                        + "\"LDAP\",\"operation\":\"SEARCH\",\"connId\":7,\"msgId\":3,\"dn\":\"dc=example,dc=com\","
+                        + "\"scope\":\"sub\",\"filter\":\"(uid=user.1\"}}");
+
+        try (AccessLogReader reader = new AccessLogReader(
+                Arrays.asList(log), AccessLogReader.DEFAULT_TIMESTAMP_FORMAT, null)) {
+            final LoggedOperation search = reader.readOperation();
+            assertThat(search.getType()).isEqualTo(OperationType.SEARCH);
+            assertThat(search.getConnectionId()).isEqualTo(7);
+            assertThat(search.getTimeMs()).isEqualTo(LOG_START_TIME_MS + 100);
+            final SearchRequest searchRequest = (SearchRequest) search.getRequest();
+            assertThat(searchRequest.getScope()).isEqualTo(SearchScope.SINGLE_LEVEL);
+            assertThat(searchRequest.getFilter().toString()).isEqualTo("(uid=user.1)");
+            assertThat(searchRequest.getAttributes()).containsExactly("cn");
+
+            final LoggedOperation anonymousBind = reader.readOperation();
+            assertThat(anonymousBind.getType()).isEqualTo(OperationType.BIND);
+            assertThat(((SimpleBindRequest) anonymousBind.getRequest()).getName()).isEmpty();
+
+            assertThat(reader.readOperation()).isNull();
+            // The bind without password, the synchronization search and the malformed filter
+            assertThat(reader.getSkippedCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testReadSeveralAccessLogs() throws Exception {
+        final List<String> logs = Arrays.asList(
+                createTempFile("[19/Oct/2026:08:00:00 +0000] SEARCH REQ conn=1 op=1 msgID=2 base=\"dc=example,dc=com\""
+                        + " scope=base filter=\"(objectClass=*)\" attrs=\"ALL\""),
+                createTempFile(),
+                createTempFile("[19/Oct/2026:08:00:01 +0000] SEARCH REQ conn=2 op=1 msgID=2 base=\"dc=example,dc=com\""
+                        + " scope=base filter=\"(objectClass=*)\" attrs=\"ALL\""));
+
+        try (AccessLogReader reader = new AccessLogReader(logs, AccessLogReader.DEFAULT_TIMESTAMP_FORMAT, null)) {
+            assertThat(reader.readOperation().getConnectionId()).isEqualTo(1);
+            assertThat(reader.readOperation().getConnectionId()).isEqualTo(2);
+            assertThat(reader.readOperation()).isNull();
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.forgerock.opendj.ldap.tools;
 
@@ -81,6 +82,9 @@ public class AddRateITCase extends ToolsITCase {
             { args("-C", "fifo", "-a", "3", "-s", "20000", TEMPLATE_NAME), ERR_ADDRATE_THRESHOLD_SIZE_AND_AGE.get() },
             { args("-C", "random", "-a", "3", TEMPLATE_NAME), ERR_ADDRATE_DELMODE_RAND_THRESHOLD_AGE.get() },
             { args("-s", "999", TEMPLATE_NAME), ERR_ADDRATE_SIZE_THRESHOLD_LOWER_THAN_ITERATIONS.get() },
+            { args("-M", "100", "--openLoop", "--maxOutstandingRequests", "10", "-f", TEMPLATE_NAME),
+              ERR_TOOL_OPEN_LOOP_REQUIRES_NO_REBIND.get("--noRebind", "--keepConnectionsOpen",
+                                                        "--maxOutstandingRequests") },
             { args("-42"), INFO_GLOBAL_HELP_REFERENCE.get("java " + AddRate.class.getCanonicalName()) }
         };
     }
@@ -12,11 +12,13 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.forgerock.opendj.ldap.tools;
 
 import static com.forgerock.opendj.cli.CliMessages.*;
 import static com.forgerock.opendj.ldap.tools.ToolsMessages.ERR_ERROR_PARSING_ARGS;
+import static com.forgerock.opendj.ldap.tools.ToolsMessages.ERR_TOOL_OPEN_LOOP_REQUIRES_TARGET_THROUGHPUT;
 import static com.forgerock.opendj.ldap.tools.ToolsMessages.INFO_TOOL_WARMING_UP;
 import static org.fest.assertions.Assertions.assertThat;
 
@@ -52,6 +54,22 @@ public class AuthRateITCase extends ToolsITCase {
                      "-g", "rand(0,1000)", "-D", "uid=%d,ou=people,o=test", "-w", "password",
                      "-i", "1", "-c", "1", "-m", "10", "-f", "-S", "-B", "0"),
                 THROUGHPUT_TEXT, "" },
+
+            // Open-loop test case
+            {
+                args("-h", TestCaseUtils.getServerSocketAddress().getHostName(),
+                     "-p", Integer.toString(TestCaseUtils.getServerSocketAddress().getPort()),
+                     "-g", "rand(0,1000)", "-D", "uid=%d,ou=people,o=test", "-w", "password",
+                     "-i", "1", "-c", "2", "-m", "20", "-M", "100", "--openLoop", "-f", "-S", "-B", "0"),
+                THROUGHPUT_TEXT, "" },
+
+            // Open-loop without target throughput
+            {
+                args("-h", TestCaseUtils.getServerSocketAddress().getHostName(),
+                     "-p", Integer.toString(TestCaseUtils.getServerSocketAddress().getPort()),
+                     "-g", "rand(0,1000)", "-D", "uid=%d,ou=people,o=test", "-w", "password",
+                     "-m", "10", "--openLoop"),
+                "", ERR_TOOL_OPEN_LOOP_REQUIRES_TARGET_THROUGHPUT.get("--targetThroughput", "--openLoop") },
         };
     }
 
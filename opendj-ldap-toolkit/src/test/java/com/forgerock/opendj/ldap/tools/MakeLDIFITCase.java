@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.forgerock.opendj.ldap.tools;
 
@@ -78,6 +79,10 @@ public class MakeLDIFITCase extends ToolsITCase {
             { args("-c", "numusers=5", "example.template"),
               // 2 base entries + users
               expectedOutput(INFO_MAKELDIF_PROCESSING_COMPLETE.get(7)) },
+
+            { args("-c", "numusers=5", "--shardCount", "3", "example.template"),
+              // 2 base entries + users
+              expectedOutput(INFO_MAKELDIF_PROCESSING_COMPLETE.get(7)) },
         };
     }
 
@@ -100,6 +105,9 @@ public class MakeLDIFITCase extends ToolsITCase {
 
             { args("-s", "non-numeric" , "example.template"),
               expectedOutput(ERR_ERROR_PARSING_ARGS.get("")) },
+
+            { args("--shardFiles", "example.template"),
+              expectedOutput(ERR_MAKELDIF_SHARD_FILES_REQUIRE_LDIF.get()) },
         };
     }
 
@@ -152,6 +160,31 @@ public class MakeLDIFITCase extends ToolsITCase {
         Files.delete(tempOutputFile);
     }
 
+    @Test
+    public void testMakeLDIFShardFiles() throws Exception {
+        final Path tempOutputFile = Paths.get(TEST_RESOURCE_PATH, TEMP_OUTPUT_FILE);
+        run(args("-o", tempOutputFile.toString(),
+                 "-c", "numusers=5",
+                 "--shardCount", "2",
+                 "--shardFiles",
+                 "example.template"),
+            SUCCESS,
+            INFO_MAKELDIF_PROCESSING_COMPLETE.get(7),
+            "");
+        for (int i = 0; i < 2; i++) {
+            final Path shardFile = Paths.get(MakeLDIF.getShardFileName(tempOutputFile.toString(), i));
+            assertThat(Files.exists(shardFile)).isTrue();
+            Files.delete(shardFile);
+        }
+    }
+
+    @Test
+    public void testShardFileName() {
+        assertThat(MakeLDIF.getShardFileName("data.ldif", 0)).isEqualTo("data-0.ldif");
+        assertThat(MakeLDIF.getShardFileName("data.ldif.gz", 3)).isEqualTo("data-3.ldif.gz");
+        assertThat(MakeLDIF.getShardFileName("data", 1)).isEqualTo("data-1");
+    }
+
     private void assertFilesAreEquals(final String outputFile, final String expectedOutputFileName) throws IOException {
         assertThat(Files.readAllBytes(Paths.get(TEST_RESOURCE_PATH, outputFile))).isEqualTo(
                    Files.readAllBytes(Paths.get(TEST_RESOURCE_PATH, expectedOutputFileName)));
@@ -0,0 +1,143 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.ldap.tools.ToolsMessages.*;
+import static com.forgerock.opendj.ldap.tools.ToolsTestUtils.createTempFile;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.ModifyRequest;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.requests.SimpleBindRequest;
+import org.forgerock.testng.ForgeRockTestCase;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.forgerock.opendj.cli.ArgumentException;
+import com.forgerock.opendj.ldap.tools.OperationMix.OperationTemplate;
+import com.forgerock.opendj.ldap.tools.OperationMix.OperationType;
+
+@SuppressWarnings("javadoc")
+@Test
+public class OperationMixTestCase extends ForgeRockTestCase {
+    private static final String[] SCENARIO = {
+        "# Mostly searches",
+        "operation: search",
+        "weight: 7",
+        "baseDN: ou=people,dc=example,dc=com",
+        "scope: one",
+        "filter: (uid=user.%d)",
+        "attribute: cn",
+        "attribute: mail",
+        "",
+        "operation: bind",
+        "weight: 2",
+        "bindDN: uid=user.%d,ou=people,dc=example,dc=com",
+        "bindPassword: password",
+        "",
+        "",
+        "operation: modify",
+        "targetDN: uid=user.%d,ou=people,dc=example,dc=com",
+        "modification: description:user %d" };
+
+    @Test
+    public void testBuildRequests() throws Exception {
+        final OperationMix mix = OperationMix.read(createTempFile(SCENARIO));
+        assertThat(mix.getOperationTypes()).containsOnly(OperationType.SEARCH, OperationType.BIND,
+                OperationType.MODIFY);
+
+        final Map<OperationType, OperationTemplate> templates = new EnumMap<>(OperationType.class);
+        final Random random = new Random(0);
+        for (int i = 0; i < 1000 && templates.size() < 3; i++) {
+            final OperationTemplate template = mix.select(random);
+            templates.put(template.getType(), template);
+        }
+        final Object[] data = { 42 };
+
+        final SearchRequest search = (SearchRequest) templates.get(OperationType.SEARCH).newRequest(data);
+        assertThat(search.getName().toString()).isEqualTo("ou=people,dc=example,dc=com");
+        assertThat(search.getScope()).isEqualTo(SearchScope.SINGLE_LEVEL);
+        assertThat(search.getFilter().toString()).isEqualTo("(uid=user.42)");
+        assertThat(search.getAttributes()).containsExactly("cn", "mail");
+
+        final SimpleBindRequest bind = (SimpleBindRequest) templates.get(OperationType.BIND).newRequest(data);
+        assertThat(bind.getName()).isEqualTo("uid=user.42,ou=people,dc=example,dc=com");
+        assertThat(new String(bind.getPassword())).isEqualTo("password");
+
+        final ModifyRequest modify = (ModifyRequest) templates.get(OperationType.MODIFY).newRequest(data);
+        assertThat(modify.getName().toString()).isEqualTo("uid=user.42,ou=people,dc=example,dc=com");
+        assertThat(modify.getModifications()).hasSize(1);
+        assertThat(modify.getModifications().get(0).getAttribute().firstValueAsString()).isEqualTo("user 42");
+    }
+
+    @Test
+    public void testSelectFollowsWeights() throws Exception {
+        final OperationMix mix = OperationMix.read(createTempFile(SCENARIO));
+        final Map<OperationType, Integer> counts = new EnumMap<>(OperationType.class);
+        for (final OperationType type : OperationType.values()) {
+            counts.put(type, 0);
+        }
+        final Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            final OperationType type = mix.select(random).getType();
+            counts.put(type, counts.get(type) + 1);
+        }
+        assertThat(counts.get(OperationType.SEARCH)).isBetween(6500, 7500);
+        assertThat(counts.get(OperationType.BIND)).isBetween(1500, 2500);
+        assertThat(counts.get(OperationType.MODIFY)).isBetween(500, 1500);
+    }
+
+    @DataProvider
+    public Object[][] invalidScenarios() {
+        return new Object[][] {
+            { new String[] { "# No operation" }, "does not define any operation" },
+            { new String[] { "operation: delete", "dn: dc=example,dc=com" },
+              ERR_MIXRATE_UNKNOWN_OPERATION.get("delete").toString() },
+            { new String[] { "operation: search", "baseDN: dc=example,dc=com" },
+              ERR_MIXRATE_MISSING_FIELD.get("filter").toString() },
+            { new String[] { "operation: bind", "bindDN: cn=user", "bindPassword: secret", "scope: sub" },
+              ERR_MIXRATE_UNSUPPORTED_FIELD.get("scope", "bind").toString() },
+            { new String[] { "operation: search", "weight: -1", "baseDN: dc=example,dc=com", "filter: (cn=*)" },
+              ERR_MIXRATE_INVALID_WEIGHT.get("-1").toString() },
+            { new String[] { "operation: search", "baseDN: dc=example,dc=com", "filter: (cn=*)", "scope: all" },
+              ERR_MIXRATE_INVALID_SCOPE.get("all").toString() },
+            { new String[] { "operation: modify", "targetDN: cn=user", "modification: description" },
+              ERR_MIXRATE_INVALID_MODIFICATION.get("description").toString() },
+            { new String[] { "operation: search", "baseDN" }, ERR_MIXRATE_MALFORMED_LINE.get(2).toString() },
+        };
+    }
+
+    @Test(dataProvider = "invalidScenarios")
+    public void testInvalidScenario(final String[] scenario, final String expectedError) throws Exception {
+        try {
+            OperationMix.read(createTempFile(scenario));
+            fail("The scenario should be invalid");
+        } catch (final ArgumentException e) {
+            assertThat(e.getMessage()).contains(expectedError);
+        }
+    }
+
+    @Test(expectedExceptions = ArgumentException.class)
+    public void testFormatStringsNotMatchingArguments() throws Exception {
+        OperationMix.read(createTempFile(SCENARIO)).validate(new Object[] { "not a number" });
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.rest2ldap;
 
@@ -27,17 +28,25 @@ import static org.forgerock.util.Reject.checkNotNull;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.opendj.ldap.Attribute;
+import org.forgerock.opendj.ldap.AVA;
 import org.forgerock.opendj.ldap.AttributeDescription;
 import org.forgerock.opendj.ldap.ByteString;
 import org.forgerock.opendj.ldap.DN;
@@ -46,7 +55,7 @@ import org.forgerock.opendj.ldap.EntryNotFoundException;
 import org.forgerock.opendj.ldap.Filter;
 import org.forgerock.opendj.ldap.LdapException;
 import org.forgerock.opendj.ldap.LinkedAttribute;
-import org.forgerock.opendj.ldap.MultipleEntriesFoundException;
+import org.forgerock.opendj.ldap.RDN;
 import org.forgerock.opendj.ldap.SearchResultHandler;
 import org.forgerock.opendj.ldap.SearchScope;
 import org.forgerock.opendj.ldap.requests.SearchRequest;
@@ -55,13 +64,16 @@ import org.forgerock.opendj.ldap.responses.SearchResultEntry;
 import org.forgerock.opendj.ldap.responses.SearchResultReference;
 import org.forgerock.opendj.ldap.schema.Schema;
 import org.forgerock.services.context.Context;
+import org.forgerock.services.context.SecurityContext;
 import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Function;
+import org.forgerock.util.Reject;
 import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.promise.PromiseImpl;
 import org.forgerock.util.promise.Promises;
 import org.forgerock.util.promise.ResultHandler;
+import org.forgerock.util.time.Duration;
 
 /**
  * An property mapper which provides a mapping from a JSON value to a single DN
@@ -70,6 +82,19 @@ import org.forgerock.util.promise.ResultHandler;
 public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<ReferencePropertyMapper> {
     /** The maximum number of candidate references to allow in search filters. */
     private static final int SEARCH_MAX_CANDIDATES = 1000;
+    /** The default maximum number of references resolved by a single LDAP search. */
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    /** The default maximum number of referenced resources retained by the shared cache. */
+    private static final int DEFAULT_SHARED_CACHE_MAX_SIZE = 10000;
+
+    /** Returns defensive copies of cached JSON values so that callers cannot alter them. */
+    private static final Function<JsonValue, JsonValue, ResourceException> COPY_JSON_VALUE =
+            new Function<JsonValue, JsonValue, ResourceException>() {
+                @Override
+                public JsonValue apply(final JsonValue value) {
+                    return value != null ? value.copy() : null;
+                }
+            };
 
     private final DnTemplate baseDnTemplate;
     private final Schema schema;
@@ -77,6 +102,10 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
     private final PropertyMapper mapper;
     private final AttributeDescription primaryKey;
     private SearchScope scope = SearchScope.WHOLE_SUBTREE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long sharedCacheTimeToLiveMillis;
+    private int sharedCacheMaxSize = DEFAULT_SHARED_CACHE_MAX_SIZE;
+    private final ConcurrentMap<CacheKey, SharedCacheEntry> sharedCache = new ConcurrentHashMap<>();
 
     ReferencePropertyMapper(final Schema schema, final AttributeDescription ldapAttributeName,
                             final String baseDnTemplate, final AttributeDescription primaryKey,
@@ -129,6 +158,51 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
         return this;
     }
 
+    /**
+     * Sets the maximum number of references which may be resolved using a single LDAP search. References are resolved
+     * using OR filters, so larger batches reduce the number of round trips at the cost of more complex filters. The
+     * default is {@value #DEFAULT_BATCH_SIZE}.
+     * <p>
+     * Referenced entries having the same parent entry are read using one-level searches beneath the parent entry.
+     * Referenced entries which are not returned by these searches, for example because access controls prevent
+     * searching beneath the parent entry, are then read individually using base object searches. The resulting
+     * resources are therefore the same as when each referenced entry is read individually, but dangling references
+     * cost an additional search.
+     *
+     * @param batchSize
+     *            The maximum number of references which may be resolved using a single LDAP search.
+     * @return This property mapper.
+     */
+    public ReferencePropertyMapper batchSize(final int batchSize) {
+        Reject.ifTrue(batchSize < 1, "batch size must be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Enables caching of referenced resources across requests. Referenced resources are always cached for the duration
+     * of a single request, which avoids reading the same entry repeatedly when, for example, querying a collection of
+     * users sharing the same manager. In addition, when a non-zero time to live is provided, referenced resources are
+     * shared between requests made by the same authenticated principal until they expire. Modifications to referenced
+     * entries may therefore not be visible until the time to live has elapsed. By default the shared cache is
+     * disabled.
+     *
+     * @param timeToLive
+     *            The duration during which referenced resources are cached, or zero in order to disable the shared
+     *            cache.
+     * @param maxSize
+     *            The maximum number of referenced resources which may be retained by the shared cache.
+     * @return This property mapper.
+     */
+    public ReferencePropertyMapper sharedCache(final Duration timeToLive, final int maxSize) {
+        Reject.ifTrue(timeToLive.isUnlimited(), "time to live must not be unlimited");
+        Reject.ifTrue(maxSize < 1, "maximum cache size must be positive");
+        this.sharedCacheTimeToLiveMillis = timeToLive.to(TimeUnit.MILLISECONDS);
+        this.sharedCacheMaxSize = maxSize;
+        this.sharedCache.clear();
+        return this;
+    }
+
     @Override
     public String toString() {
         return "reference(" + ldapAttributeName + ")";
@@ -144,7 +218,7 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
                     @Override
                     public Promise<Filter, ResourceException> apply(final Filter result) {
                         // Search for all referenced entries and construct a filter.
-                        final SearchRequest request = createSearchRequest(context, result);
+                        final SearchRequest request = createSearchRequest(context, result, "1.1");
                         final List<Filter> subFilters = new LinkedList<>();
 
                         return connectionFrom(context).searchAsync(request, new SearchResultHandler() {
@@ -189,85 +263,119 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
                                                                final JsonPointer path, final List<Object> newValues) {
         /*
          * For each value use the subordinate mapper to obtain the LDAP primary
-         * key, the perform a search for each one to find the corresponding entries.
+         * key, then perform a batch of searches to find the corresponding entries.
          */
-        final Attribute newLDAPAttribute = new LinkedAttribute(ldapAttributeName);
-        final AtomicInteger pendingSearches = new AtomicInteger(newValues.size());
-        final AtomicReference<ResourceException> exception = new AtomicReference<>();
-        final PromiseImpl<Attribute, ResourceException> promise = PromiseImpl.create();
-
+        final List<Promise<List<Attribute>, ResourceException>> promises = new ArrayList<>(newValues.size());
         for (final Object value : newValues) {
-            mapper.create(context, resource, path, new JsonValue(value))
-                  .thenOnResult(new ResultHandler<List<Attribute>>() {
-                      @Override
-                      public void handleResult(List<Attribute> result) {
-                          Attribute primaryKeyAttribute = null;
-                          for (final Attribute attribute : result) {
-                              if (attribute.getAttributeDescription().equals(primaryKey)) {
-                                  primaryKeyAttribute = attribute;
-                                  break;
-                              }
-                          }
-
-                          if (primaryKeyAttribute == null || primaryKeyAttribute.isEmpty()) {
-                              promise.handleException(newBadRequestException(
-                                      ERR_REFERENCE_FIELD_NO_PRIMARY_KEY.get(path)));
-                              return;
-                          }
-
-                          if (primaryKeyAttribute.size() > 1) {
-                              promise.handleException(
-                                      newBadRequestException(ERR_REFERENCE_FIELD_MULTIPLE_PRIMARY_KEYS.get(path)));
-                              return;
-                          }
-
-                          // Now search for the referenced entry in to get its DN.
-                          final ByteString primaryKeyValue = primaryKeyAttribute.firstValue();
-                          final Filter filter = Filter.equality(primaryKey.toString(), primaryKeyValue);
-                          final SearchRequest search = createSearchRequest(context, filter);
-                          connectionFrom(context).searchSingleEntryAsync(search)
-                                    .thenOnResult(new ResultHandler<SearchResultEntry>() {
-                                        @Override
-                                        public void handleResult(final SearchResultEntry result) {
-                                            synchronized (newLDAPAttribute) {
-                                                newLDAPAttribute.add(result.getName());
-                                            }
-                                            completeIfNecessary();
-                                        }
-                                    })
-                                    .thenOnException(new ExceptionHandler<LdapException>() {
-                                        @Override
-                                        public void handleException(final LdapException error) {
-                                            ResourceException re;
-                                            try {
-                                                throw error;
-                                            } catch (final EntryNotFoundException e) {
-                                                re = newBadRequestException(
-                                                        ERR_REFERENCE_FIELD_DOES_NOT_EXIST.get(primaryKeyValue, path));
-                                            } catch (final MultipleEntriesFoundException e) {
-                                                re = newBadRequestException(
-                                                        ERR_REFERENCE_FIELD_AMBIGUOUS.get(primaryKeyValue, path));
-                                            } catch (final LdapException e) {
-                                                re = asResourceException(e);
-                                            }
-                                            exception.compareAndSet(null, re);
-                                            completeIfNecessary();
-                                        }
-                                    });
-                      }
-
-                      private void completeIfNecessary() {
-                          if (pendingSearches.decrementAndGet() == 0) {
-                              if (exception.get() != null) {
-                                  promise.handleException(exception.get());
-                              } else {
-                                  promise.handleResult(newLDAPAttribute);
-                              }
-                          }
-                      }
-                  });
+            promises.add(mapper.create(context, resource, path, new JsonValue(value)));
+        }
+        return Promises.when(promises)
+                       .thenAsync(new AsyncFunction<List<List<Attribute>>, Attribute, ResourceException>() {
+                           @Override
+                           public Promise<Attribute, ResourceException> apply(final List<List<Attribute>> results) {
+                               final List<ByteString> primaryKeyValues = new ArrayList<>(results.size());
+                               for (final List<Attribute> result : results) {
+                                   final Attribute primaryKeyAttribute = findPrimaryKey(result);
+                                   if (primaryKeyAttribute == null || primaryKeyAttribute.isEmpty()) {
+                                       return Promises.newExceptionPromise(newBadRequestException(
+                                               ERR_REFERENCE_FIELD_NO_PRIMARY_KEY.get(path)));
+                                   }
+                                   if (primaryKeyAttribute.size() > 1) {
+                                       return Promises.newExceptionPromise(newBadRequestException(
+                                               ERR_REFERENCE_FIELD_MULTIPLE_PRIMARY_KEYS.get(path)));
+                                   }
+                                   primaryKeyValues.add(primaryKeyAttribute.firstValue());
+                               }
+                               return resolvePrimaryKeys(context, path, primaryKeyValues);
+                           }
+                       });
+    }
+
+    private Attribute findPrimaryKey(final List<Attribute> attributes) {
+        for (final Attribute attribute : attributes) {
+            if (attribute.getAttributeDescription().equals(primaryKey)) {
+                return attribute;
+            }
         }
-        return promise;
+        return null;
+    }
+
+    /**
+     * Searches for the entries having the provided primary keys using OR filters containing at most
+     * {@link #batchSize(int) batchSize} primary keys each, and returns an attribute containing their DNs.
+     */
+    private Promise<Attribute, ResourceException> resolvePrimaryKeys(final Context context, final JsonPointer path,
+                                                                     final List<ByteString> primaryKeyValues) {
+        final List<Promise<List<DN>, ResourceException>> promises = new ArrayList<>();
+        for (int i = 0; i < primaryKeyValues.size(); i += batchSize) {
+            final List<ByteString> batch =
+                    primaryKeyValues.subList(i, Math.min(i + batchSize, primaryKeyValues.size()));
+            promises.add(resolvePrimaryKeyBatch(context, path, batch));
+        }
+        return Promises.when(promises).then(new Function<List<List<DN>>, Attribute, ResourceException>() {
+            @Override
+            public Attribute apply(final List<List<DN>> results) {
+                final Attribute newLDAPAttribute = new LinkedAttribute(ldapAttributeName);
+                for (final List<DN> dns : results) {
+                    for (final DN dn : dns) {
+                        newLDAPAttribute.add(dn);
+                    }
+                }
+                return newLDAPAttribute;
+            }
+        });
+    }
+
+    private Promise<List<DN>, ResourceException> resolvePrimaryKeyBatch(final Context context, final JsonPointer path,
+                                                                       final List<ByteString> primaryKeyValues) {
+        final List<Filter> subFilters = new ArrayList<>(primaryKeyValues.size());
+        for (final ByteString primaryKeyValue : primaryKeyValues) {
+            subFilters.add(Filter.equality(primaryKey.toString(), primaryKeyValue));
+        }
+        final Filter keyFilter = subFilters.size() == 1 ? subFilters.get(0) : Filter.or(subFilters);
+        final SearchRequest request = createSearchRequest(context, keyFilter, primaryKey.toString());
+        final List<SearchResultEntry> entries = new ArrayList<>(primaryKeyValues.size());
+
+        return connectionFrom(context).searchAsync(request, new SearchResultHandler() {
+            @Override
+            public boolean handleEntry(final SearchResultEntry entry) {
+                entries.add(entry);
+                return true;
+            }
+
+            @Override
+            public boolean handleReference(final SearchResultReference reference) {
+                // Ignore references.
+                return true;
+            }
+        }).then(new Function<Result, List<DN>, ResourceException>() {
+            @Override
+            public List<DN> apply(final Result result) throws ResourceException {
+                final List<DN> dns = new ArrayList<>(primaryKeyValues.size());
+                for (final ByteString primaryKeyValue : primaryKeyValues) {
+                    DN dn = null;
+                    for (final SearchResultEntry entry : entries) {
+                        final Attribute attribute = entry.getAttribute(primaryKey);
+                        if (attribute != null && attribute.contains(primaryKeyValue)) {
+                            if (dn != null) {
+                                throw newBadRequestException(ERR_REFERENCE_FIELD_AMBIGUOUS.get(primaryKeyValue, path));
+                            }
+                            dn = entry.getName();
+                        }
+                    }
+                    if (dn == null) {
+                        throw newBadRequestException(ERR_REFERENCE_FIELD_DOES_NOT_EXIST.get(primaryKeyValue, path));
+                    }
+                    dns.add(dn);
+                }
+                return dns;
+            }
+        }, new Function<LdapException, List<DN>, ResourceException>() {
+            @Override
+            public List<DN> apply(final LdapException exception) throws ResourceException {
+                throw asResourceException(exception);
+            }
+        });
     }
 
     @Override
@@ -286,7 +394,7 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
         case 1:
             if (attributeIsSingleValued()) {
                 try {
-                    return readEntry(context, resource, path, dns.iterator().next());
+                    return readEntries(context, resource, path, dns).get(0);
                 } catch (final Exception ex) {
                     // The LDAP attribute could not be decoded.
                     return Promises.newExceptionPromise(asResourceException(ex));
@@ -295,11 +403,7 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
             // Fall-though: unexpectedly got multiple values. It's probably best to just return them.
         default:
             try {
-                final List<Promise<JsonValue, ResourceException>> promises = new ArrayList<>(dns.size());
-                for (final DN dn : dns) {
-                    promises.add(readEntry(context, resource, path, dn));
-                }
-                return Promises.when(promises)
+                return Promises.when(readEntries(context, resource, path, dns))
                                .then(new Function<List<JsonValue>, JsonValue, ResourceException>() {
                                    @Override
                                    public JsonValue apply(final List<JsonValue> value) {
@@ -325,19 +429,171 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
         }
     }
 
-    private SearchRequest createSearchRequest(final Context context, final Filter result) {
+    private SearchRequest createSearchRequest(final Context context, final Filter result, final String attribute) {
         final Filter searchFilter = filter != null ? Filter.and(filter, result) : result;
-        return newSearchRequest(baseDnTemplate.format(context), scope, searchFilter, "1.1");
+        return newSearchRequest(baseDnTemplate.format(context), scope, searchFilter, attribute);
     }
 
-    private Promise<JsonValue, ResourceException> readEntry(
-            final Context context, final Resource resource, final JsonPointer path, final DN dn) {
+    /**
+     * Returns the mapped JSON value of each referenced entry, in the same order as the provided DNs. Referenced
+     * entries which have already been read during the current request, or which are present in the shared cache, are
+     * not read again. The remaining entries are read using one-level searches beneath their parent entry, each
+     * containing at most {@link #batchSize(int) batchSize} RDNs. Entries which are not returned by these searches are
+     * read individually, so that the result is the same as reading each referenced entry with a base object search.
+     */
+    private List<Promise<JsonValue, ResourceException>> readEntries(final Context context, final Resource resource,
+                                                                    final JsonPointer path, final Collection<DN> dns) {
+        final ConcurrentMap<Object, Promise<JsonValue, ResourceException>> requestCache =
+                context.containsContext(Rest2LdapContext.class)
+                        ? context.asContext(Rest2LdapContext.class).getReferenceCache() : null;
+        final Object principal = sharedCacheTimeToLiveMillis > 0 ? principalFrom(context) : null;
+        final List<Promise<JsonValue, ResourceException>> promises = new ArrayList<>(dns.size());
+        final Map<DN, List<DN>> pendingByParent = new LinkedHashMap<>();
+        final Map<DN, PromiseImpl<JsonValue, ResourceException>> pending = new HashMap<>();
+
+        for (final DN dn : dns) {
+            final CacheKey requestKey = new CacheKey(this, dn);
+            Promise<JsonValue, ResourceException> cached = requestCache != null ? requestCache.get(requestKey) : null;
+            if (cached == null && sharedCacheTimeToLiveMillis > 0) {
+                final JsonValue value = getSharedCacheEntry(new CacheKey(principal, dn));
+                if (value != null) {
+                    cached = newResultPromise(value);
+                    if (requestCache != null) {
+                        requestCache.putIfAbsent(requestKey, cached);
+                    }
+                }
+            }
+            if (cached != null) {
+                promises.add(cached.then(COPY_JSON_VALUE));
+                continue;
+            }
+
+            final PromiseImpl<JsonValue, ResourceException> promise = PromiseImpl.create();
+            if (requestCache != null) {
+                final Promise<JsonValue, ResourceException> concurrent = requestCache.putIfAbsent(requestKey, promise);
+                if (concurrent != null) {
+                    promises.add(concurrent.then(COPY_JSON_VALUE));
+                    continue;
+                }
+            }
+            if (sharedCacheTimeToLiveMillis > 0) {
+                promise.thenOnResult(new ResultHandler<JsonValue>() {
+                    @Override
+                    public void handleResult(final JsonValue value) {
+                        putSharedCacheEntry(new CacheKey(principal, dn), value);
+                    }
+                });
+            }
+            promises.add(promise.then(COPY_JSON_VALUE));
+            pending.put(dn, promise);
+            final DN parent = dn.parent();
+            List<DN> siblings = pendingByParent.get(parent);
+            if (siblings == null) {
+                siblings = new ArrayList<>();
+                pendingByParent.put(parent, siblings);
+            }
+            siblings.add(dn);
+        }
+
+        for (final Map.Entry<DN, List<DN>> siblings : pendingByParent.entrySet()) {
+            final List<DN> children = siblings.getValue();
+            for (int i = 0; i < children.size(); i += batchSize) {
+                final List<DN> batch = children.subList(i, Math.min(i + batchSize, children.size()));
+                if (siblings.getKey() == null || batch.size() == 1) {
+                    for (final DN dn : batch) {
+                        readEntry(context, resource, path, dn).thenOnResult(pending.get(dn))
+                                                              .thenOnException(pending.get(dn));
+                    }
+                } else {
+                    readEntryBatch(context, resource, path, siblings.getKey(), batch, pending);
+                }
+            }
+        }
+        return promises;
+    }
+
+    private void readEntryBatch(final Context context, final Resource resource, final JsonPointer path,
+                                final DN parent, final List<DN> dns,
+                                final Map<DN, PromiseImpl<JsonValue, ResourceException>> pending) {
+        final List<Filter> rdnFilters = new ArrayList<>(dns.size());
+        for (final DN dn : dns) {
+            rdnFilters.add(toFilter(dn.rdn()));
+        }
+        final Filter searchFilter = filter != null ? Filter.and(filter, Filter.or(rdnFilters)) : Filter.or(rdnFilters);
+        final SearchRequest request =
+                newSearchRequest(parent, SearchScope.SINGLE_LEVEL, searchFilter, getRequestedAttributes(path));
+        final Map<DN, SearchResultEntry> entries = new HashMap<>();
+
+        connectionFrom(context).searchAsync(request, new SearchResultHandler() {
+            @Override
+            public boolean handleEntry(final SearchResultEntry entry) {
+                // The filter may also match non-naming values, so ignore entries which were not requested.
+                if (pending.containsKey(entry.getName())) {
+                    synchronized (entries) {
+                        entries.put(entry.getName(), entry);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public boolean handleReference(final SearchResultReference reference) {
+                // Ignore references.
+                return true;
+            }
+        }).thenOnResult(new ResultHandler<Result>() {
+            @Override
+            public void handleResult(final Result result) {
+                for (final DN dn : dns) {
+                    final PromiseImpl<JsonValue, ResourceException> promise = pending.get(dn);
+                    final SearchResultEntry entry;
+                    synchronized (entries) {
+                        entry = entries.get(dn);
+                    }
+                    if (entry != null) {
+                        mapper.read(context, resource, path, entry).thenOnResult(promise).thenOnException(promise);
+                    } else {
+                        // The entry may be missing, or only be visible to base object searches, e.g. because access
+                        // controls or limits apply differently to the parent entry.
+                        readEntry(context, resource, path, dn).thenOnResult(promise).thenOnException(promise);
+                    }
+                }
+            }
+        }).thenOnException(new ExceptionHandler<LdapException>() {
+            @Override
+            public void handleException(final LdapException error) {
+                // The parent entry may be missing or not searchable while its children can still be read.
+                for (final DN dn : dns) {
+                    readEntry(context, resource, path, dn).thenOnResult(pending.get(dn))
+                                                          .thenOnException(pending.get(dn));
+                }
+            }
+        });
+    }
+
+    private static Filter toFilter(final RDN rdn) {
+        if (!rdn.isMultiValued()) {
+            final AVA ava = rdn.getFirstAVA();
+            return Filter.equality(ava.getAttributeName(), ava.getAttributeValue());
+        }
+        final List<Filter> avaFilters = new ArrayList<>(rdn.size());
+        for (final AVA ava : rdn) {
+            avaFilters.add(Filter.equality(ava.getAttributeName(), ava.getAttributeValue()));
+        }
+        return Filter.and(avaFilters);
+    }
+
+    private String[] getRequestedAttributes(final JsonPointer path) {
         final Set<String> requestedLDAPAttributes = new LinkedHashSet<>();
         mapper.getLdapAttributes(path, new JsonPointer(), requestedLDAPAttributes);
+        return requestedLDAPAttributes.toArray(new String[requestedLDAPAttributes.size()]);
+    }
 
+    private Promise<JsonValue, ResourceException> readEntry(
+            final Context context, final Resource resource, final JsonPointer path, final DN dn) {
         final Filter searchFilter = filter != null ? filter : Filter.alwaysTrue();
-        final String[] attributes = requestedLDAPAttributes.toArray(new String[requestedLDAPAttributes.size()]);
-        final SearchRequest request = newSearchRequest(dn, SearchScope.BASE_OBJECT, searchFilter, attributes);
+        final SearchRequest request =
+                newSearchRequest(dn, SearchScope.BASE_OBJECT, searchFilter, getRequestedAttributes(path));
 
         return connectionFrom(context)
                 .searchSingleEntryAsync(request)
@@ -358,6 +614,80 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
                 });
     }
 
+    private static Object principalFrom(final Context context) {
+        return context.containsContext(SecurityContext.class)
+                ? context.asContext(SecurityContext.class).getAuthenticationId() : null;
+    }
+
+    private JsonValue getSharedCacheEntry(final CacheKey key) {
+        final SharedCacheEntry cacheEntry = sharedCache.get(key);
+        if (cacheEntry == null) {
+            return null;
+        }
+        if (cacheEntry.expirationTimeMillis <= System.currentTimeMillis()) {
+            sharedCache.remove(key, cacheEntry);
+            return null;
+        }
+        return cacheEntry.value;
+    }
+
+    private void putSharedCacheEntry(final CacheKey key, final JsonValue value) {
+        if (value == null) {
+            // Do not remember missing entries since they may be created at any time.
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (sharedCache.size() >= sharedCacheMaxSize) {
+            for (final Iterator<SharedCacheEntry> i = sharedCache.values().iterator(); i.hasNext();) {
+                if (i.next().expirationTimeMillis <= now) {
+                    i.remove();
+                }
+            }
+            if (sharedCache.size() >= sharedCacheMaxSize) {
+                // Still full of live entries: do not cache rather than evicting entries which are probably hot.
+                return;
+            }
+        }
+        sharedCache.put(key, new SharedCacheEntry(value.copy(), now + sharedCacheTimeToLiveMillis));
+    }
+
+    /** Identifies a referenced entry within a cache scope: a property mapper or an authenticated principal. */
+    private static final class CacheKey {
+        private final Object scope;
+        private final DN dn;
+
+        private CacheKey(final Object scope, final DN dn) {
+            this.scope = scope;
+            this.dn = dn;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof CacheKey) {
+                final CacheKey other = (CacheKey) obj;
+                return Objects.equals(scope, other.scope) && dn.equals(other.dn);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(scope) * 31 + dn.hashCode();
+        }
+    }
+
+    private static final class SharedCacheEntry {
+        private final JsonValue value;
+        private final long expirationTimeMillis;
+
+        private SharedCacheEntry(final JsonValue value, final long expirationTimeMillis) {
+            this.value = value;
+            this.expirationTimeMillis = expirationTimeMillis;
+        }
+    }
+
     @Override
     JsonValue toJsonSchema() {
         if (mapper.isMultiValued()) {
@@ -12,17 +12,27 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.rest2ldap;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ResourceException;
 import org.forgerock.services.context.AbstractContext;
 import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
 
 /**
  * A {@link Context} which communicates the {@link Rest2Ldap} instance to downstream handlers and property mappers.
  */
 final class Rest2LdapContext extends AbstractContext {
     private final Rest2Ldap rest2ldap;
+    /** Request scoped cache of referenced resources, populated by {@link ReferencePropertyMapper}. */
+    private final ConcurrentMap<Object, Promise<JsonValue, ResourceException>> referenceCache =
+            new ConcurrentHashMap<>();
 
     Rest2LdapContext(final Context parent, final Rest2Ldap rest2ldap) {
         super(parent, "rest2ldap context");
@@ -32,4 +42,8 @@ final class Rest2LdapContext extends AbstractContext {
     Rest2Ldap getRest2ldap() {
         return rest2ldap;
     }
+
+    ConcurrentMap<Object, Promise<JsonValue, ResourceException>> getReferenceCache() {
+        return referenceCache;
+    }
 }
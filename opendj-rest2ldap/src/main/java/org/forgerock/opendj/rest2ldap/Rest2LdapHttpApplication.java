@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.rest2ldap;
 
@@ -25,6 +26,7 @@ import static org.forgerock.opendj.ldap.KeyManagers.useSingleCertificate;
 import static org.forgerock.opendj.rest2ldap.Rest2LdapJsonConfigurator.*;
 import static org.forgerock.opendj.rest2ldap.Rest2ldapMessages.*;
 import static org.forgerock.opendj.rest2ldap.Utils.newJsonValueException;
+import static org.forgerock.opendj.rest2ldap.authz.AuthenticationStrategies.newCachedAuthenticationStrategy;
 import static org.forgerock.opendj.rest2ldap.authz.AuthenticationStrategies.newSaslPlainStrategy;
 import static org.forgerock.opendj.rest2ldap.authz.AuthenticationStrategies.newSearchThenBindStrategy;
 import static org.forgerock.opendj.rest2ldap.authz.AuthenticationStrategies.newSimpleBindStrategy;
@@ -48,8 +50,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.TrustManager;
@@ -62,10 +62,7 @@ import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.filter.Filters;
 import org.forgerock.http.handler.HttpClientHandler;
 import org.forgerock.http.io.Buffer;
-import org.forgerock.http.oauth2.AccessTokenException;
-import org.forgerock.http.oauth2.AccessTokenInfo;
 import org.forgerock.http.oauth2.AccessTokenResolver;
-import org.forgerock.http.oauth2.resolver.CachingAccessTokenResolver;
 import org.forgerock.http.oauth2.resolver.OpenAmAccessTokenResolver;
 import org.forgerock.http.protocol.Headers;
 import org.forgerock.http.swagger.OpenApiRequestFilter;
@@ -82,6 +79,7 @@ import org.forgerock.opendj.ldap.ConnectionFactory;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.SearchScope;
 import org.forgerock.opendj.ldap.schema.Schema;
+import org.forgerock.opendj.rest2ldap.authz.AuthenticationCache;
 import org.forgerock.opendj.rest2ldap.authz.AuthenticationStrategy;
 import org.forgerock.opendj.rest2ldap.authz.ConditionalFilters.ConditionalFilter;
 import org.forgerock.services.context.SecurityContext;
@@ -89,10 +87,8 @@ import org.forgerock.util.Factory;
 import org.forgerock.util.Function;
 import org.forgerock.util.Options;
 import org.forgerock.util.Pair;
-import org.forgerock.util.PerItemEvictionStrategyCache;
 import org.forgerock.util.annotations.VisibleForTesting;
 import org.forgerock.util.promise.NeverThrowsException;
-import org.forgerock.util.promise.Promise;
 import org.forgerock.util.time.Duration;
 import org.forgerock.util.time.TimeService;
 
@@ -109,11 +105,19 @@ public class Rest2LdapHttpApplication implements HttpApplication {
     private static final String SCOPES = "requiredScopes";
     private static final String AUTHZID_TEMPLATE = "authzIdTemplate";
     private static final String CACHE_EXPIRATION_DEFAULT = "5 minutes";
+    /**
+     * Cached HTTP Basic authentications are not invalidated by changes made directly in the directory, such as account
+     * lockouts, so they must only be trusted for a short time.
+     */
+    private static final String BASIC_CACHE_EXPIRATION_DEFAULT = "10 seconds";
 
-    /** Keys for json oauth2 access token cache configuration. */
+    /** Keys for json oauth2 access token and basic authentication cache configuration. */
     private static final String CACHE_CONFIG_OBJECT = "accessTokenCache";
+    private static final String BASIC_CACHE_CONFIG_OBJECT = "cache";
     private static final String CACHE_ENABLED = "enabled";
     private static final String CACHE_EXPIRATION = "cacheExpiration";
+    private static final String CACHE_MAX_SIZE = "maxSize";
+    private static final int CACHE_MAX_SIZE_DEFAULT = 10000;
 
     private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
@@ -124,8 +128,6 @@ public class Rest2LdapHttpApplication implements HttpApplication {
     protected final Schema schema;
 
     private final Map<String, ConnectionFactory> connectionFactories = new HashMap<>();
-    /** Used for token caching. */
-    private ScheduledExecutorService executorService;
 
     /** Resources which have to be closed when this application is stopped. */
     private final Collection<Closeable> closeableResources = new ArrayList<>();
@@ -202,17 +204,6 @@ public class Rest2LdapHttpApplication implements HttpApplication {
         try {
             logger.info(INFO_REST2LDAP_STARTING.get(configDirectory));
 
-            final ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1);
-            scheduledExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
-            scheduledExecutor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
-            closeOnStop(new Closeable() {
-                @Override
-                public void close() throws IOException {
-                    scheduledExecutor.shutdown();
-                }
-            });
-            executorService = scheduledExecutor;
-
             final JsonValue config = readJson(new File(configDirectory, "config.json"));
             configureSecurity(config.get("security"));
             configureConnectionFactories(config.get("ldapConnectionFactories"));
@@ -288,7 +279,6 @@ public class Rest2LdapHttpApplication implements HttpApplication {
         closeSilently(closeableResources);
         closeableResources.clear();
         connectionFactories.clear();
-        executorService = null;
     }
 
     private Filter buildAuthorizationFilter(final JsonValue config) throws HttpApplicationException {
@@ -328,13 +318,24 @@ public class Rest2LdapHttpApplication implements HttpApplication {
         if (cacheConfig.isNull() || !cacheConfig.get(CACHE_ENABLED).defaultTo(Boolean.FALSE).asBoolean()) {
             return resolver;
         }
-        final Duration expiration = parseCacheExpiration(
-                cacheConfig.get(CACHE_EXPIRATION).defaultTo(CACHE_EXPIRATION_DEFAULT));
+        return newCachedAccessTokenResolver(resolver,
+                parseAuthenticationCache("access token", cacheConfig, CACHE_EXPIRATION_DEFAULT));
+    }
 
-        final PerItemEvictionStrategyCache<String, Promise<AccessTokenInfo, AccessTokenException>> cache =
-                new PerItemEvictionStrategyCache<>(executorService, expiration);
-        cache.setMaxTimeout(expiration);
-        return new CachingAccessTokenResolver(TimeService.SYSTEM, resolver, cache);
+    private AuthenticationCache parseAuthenticationCache(final String name, final JsonValue cacheConfig,
+            final String defaultExpiration) {
+        final Duration expiration =
+                parseCacheExpiration(cacheConfig.get(CACHE_EXPIRATION).defaultTo(defaultExpiration));
+        final int maxSize = cacheConfig.get(CACHE_MAX_SIZE).defaultTo(CACHE_MAX_SIZE_DEFAULT).asInteger();
+        final AuthenticationCache cache = newAuthenticationCache(expiration, maxSize);
+        closeOnStop(new Closeable() {
+            @Override
+            public void close() {
+                logger.info(INFO_REST2LDAP_AUTHENTICATION_CACHE_STATISTICS.get(
+                        name, cache.getHitCount(), cache.getMissCount(), cache.size()));
+            }
+        });
+        return cache;
     }
 
     @VisibleForTesting
@@ -448,7 +449,14 @@ public class Rest2LdapHttpApplication implements HttpApplication {
     private ConditionalFilter buildBasicFilter(final JsonValue config) {
         final String bind = config.get("bind").required().asString();
         final BindStrategy strategy = BindStrategy.valueOf(bind.toUpperCase().replace('-', '_'));
-        return newBasicAuthenticationFilter(buildBindStrategy(strategy, config.get(bind).required()),
+        final AuthenticationStrategy authenticationStrategy = buildBindStrategy(strategy, config.get(bind).required());
+        final JsonValue cacheConfig = config.get(BASIC_CACHE_CONFIG_OBJECT);
+        final boolean useCache = cacheConfig.get(CACHE_ENABLED).defaultTo(Boolean.FALSE).asBoolean();
+        return newBasicAuthenticationFilter(useCache
+                        ? newCachedAuthenticationStrategy(authenticationStrategy,
+                                                          parseAuthenticationCache("basic authentication", cacheConfig,
+                                                                                   BASIC_CACHE_EXPIRATION_DEFAULT))
+                        : authenticationStrategy,
                 config.get("supportAltAuthentication").defaultTo(Boolean.FALSE).asBoolean()
                         ? newCustomHeaderExtractor(
                                 config.get("altAuthenticationUsernameHeader").required().asString(),
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  *
  */
 package org.forgerock.opendj.rest2ldap;
@@ -369,11 +370,18 @@ public final class Rest2LdapJsonConfigurator {
             final String baseDN = mapper.get("baseDn").required().asString();
             final String primaryKey = mapper.get("primaryKey").required().asString();
             final PropertyMapper m = configurePropertyMapper(mapper.get("mapper").required(), primaryKey);
-            return reference(ldapAttribute, baseDN, primaryKey, m)
+            final ReferencePropertyMapper reference = reference(ldapAttribute, baseDN, primaryKey, m)
                     .isRequired(mapper.get("isRequired").defaultTo(false).asBoolean())
                     .isMultiValued(mapper.get("isMultiValued").defaultTo(false).asBoolean())
                     .searchFilter(mapper.get("searchFilter").defaultTo("(objectClass=*)").asString())
+                    .batchSize(mapper.get("batchSize").defaultTo(100).asInteger())
                     .writability(parseWritability(mapper));
+            final JsonValue cacheExpiration = mapper.get("cacheExpiration");
+            if (cacheExpiration.isNotNull()) {
+                reference.sharedCache(duration(cacheExpiration.asString()),
+                                      mapper.get("cacheMaxSize").defaultTo(10000).asInteger());
+            }
+            return reference;
         case "object":
             final JsonValue properties = mapper.get("properties");
             final ObjectPropertyMapper object = object();
@@ -0,0 +1,180 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.rest2ldap.authz;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.forgerock.util.Reject.checkNotNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.util.Reject;
+import org.forgerock.util.encode.Base64;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+
+/**
+ * A bounded cache of successful authentication outcomes, such as the identity of a user authenticated using HTTP Basic
+ * credentials or the result of an access token introspection. Credentials are never retained: cache entries are keyed
+ * by a SHA-256 hash of the credentials salted with a random value generated when the cache is created. Entries expire
+ * once the configured duration has elapsed, and may be invalidated earlier, for example when a password is changed.
+ * <p>
+ * The cache keeps track of the number of hits and misses, which may be used in order to assess its efficiency.
+ */
+public final class AuthenticationCache {
+    private static final int SALT_LENGTH = 16;
+
+    /** A cached authentication outcome. */
+    private static final class CacheEntry {
+        private final Object value;
+        private final long expirationTime;
+
+        private CacheEntry(final Object value, final long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    private final TimeService timeService;
+    private final long expirationMillis;
+    private final int maxSize;
+    private final byte[] salt = new byte[SALT_LENGTH];
+    private final ConcurrentMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    AuthenticationCache(final TimeService timeService, final Duration expiration, final int maxSize) {
+        Reject.ifTrue(expiration.isZero() || expiration.isUnlimited(), "expiration must be finite and non-zero");
+        Reject.ifTrue(maxSize < 1, "maxSize must be positive");
+        this.timeService = checkNotNull(timeService, "timeService cannot be null");
+        this.expirationMillis = expiration.to(TimeUnit.MILLISECONDS);
+        this.maxSize = maxSize;
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /**
+     * Returns the number of lookups which have been answered from this cache.
+     *
+     * @return The number of lookups which have been answered from this cache.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups which could not be answered from this cache, either because the credentials had
+     * not been seen before or because their cached outcome has expired.
+     *
+     * @return The number of lookups which could not be answered from this cache.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of authentication outcomes currently held by this cache, including those which have expired
+     * but have not been purged yet.
+     *
+     * @return The number of authentication outcomes currently held by this cache.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all the authentication outcomes held by this cache. This method should be called whenever credentials
+     * may have been changed or revoked.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the cache key associated with the provided credentials. The key is a salted hash which cannot be used in
+     * order to recover the credentials.
+     */
+    String keyOf(final String... credentials) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            for (final String credential : credentials) {
+                digest.update(credential != null ? credential.getBytes(UTF_8) : new byte[0]);
+                // Separate the credentials so that ("ab", "c") and ("a", "bc") do not collide.
+                digest.update((byte) 0);
+            }
+            return Base64.encode(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 is required to be supported by every Java platform.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Returns the authentication outcome associated with the provided key, or {@code null} if there is none. */
+    Object get(final String key) {
+        final CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expirationTime <= timeService.now()) {
+            entries.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Caches the provided successful authentication outcome until this cache's expiration duration has elapsed, or
+     * until the provided time if it is sooner. Use {@link Long#MAX_VALUE} if the outcome has no expiration time.
+     */
+    void put(final String key, final Object value, final long notAfter) {
+        final long now = timeService.now();
+        final long expirationTime = Math.min(now + expirationMillis, notAfter);
+        if (expirationTime <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        entries.put(key, new CacheEntry(value, expirationTime));
+    }
+
+    private void makeRoom(final long now) {
+        for (final Iterator<CacheEntry> i = entries.values().iterator(); i.hasNext();) {
+            if (i.next().expirationTime <= now) {
+                i.remove();
+            }
+        }
+        // Still full of live entries: evict arbitrary entries, they will simply be authenticated again.
+        for (final Iterator<CacheEntry> i = entries.values().iterator(); i.hasNext() && entries.size() >= maxSize;) {
+            i.next();
+            i.remove();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticationCache(hits=" + hits + ", misses=" + misses + ", size=" + entries.size() + ")";
+    }
+}
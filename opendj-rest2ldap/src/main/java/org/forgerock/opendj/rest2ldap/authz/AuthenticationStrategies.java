@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.rest2ldap.authz;
 
@@ -95,4 +96,27 @@ public final class AuthenticationStrategies {
                                                               String authcIdTemplate) {
         return new SaslPlainStrategy(connectionFactory, schema, authcIdTemplate);
     }
+
+    /**
+     * Creates an {@link AuthenticationStrategy} which caches the successful authentications performed by the provided
+     * strategy. Subsequent authentications presenting the same credentials are answered from the cache until they
+     * expire, avoiding LDAP round trips. Cached authentications are discarded whenever a password is changed through
+     * the HTTP Basic authentication filter using this strategy.
+     * <p>
+     * <b>Security note:</b> changes made directly in the directory are not detected. A user whose password has been
+     * changed or reset by another application, or whose account has been locked or disabled, is still authenticated
+     * using the cached credentials until they expire. The cache expiration should therefore be kept short.
+     *
+     * @param strategy
+     *            The {@link AuthenticationStrategy} used to authenticate users whose credentials are not cached.
+     * @param cache
+     *            The cache of successful authentications, see {@link Authorization#newAuthenticationCache}.
+     * @return a new caching {@link AuthenticationStrategy}
+     * @throws NullPointerException
+     *             If a parameter is null
+     */
+    public static AuthenticationStrategy newCachedAuthenticationStrategy(AuthenticationStrategy strategy,
+            AuthenticationCache cache) {
+        return new CachedAuthenticationStrategy(strategy, cache);
+    }
 }
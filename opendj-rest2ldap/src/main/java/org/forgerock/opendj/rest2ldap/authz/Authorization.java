@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.rest2ldap.authz;
 
@@ -50,6 +51,7 @@ import org.forgerock.util.Pair;
 import org.forgerock.util.Reject;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.time.Duration;
 import org.forgerock.util.time.TimeService;
 
 /** Factory methods to create {@link Filter} performing authentication and authorizations. */
@@ -164,6 +166,37 @@ public final class Authorization {
         return new CtsAccessTokenResolver(connectionFactory, ctsBaseDNTemplate);
     }
 
+    /**
+     * Creates a new cache of successful authentication outcomes which may be used by
+     * {@link AuthenticationStrategies#newCachedAuthenticationStrategy cached authentication strategies} and
+     * {@link #newCachedAccessTokenResolver cached access token resolvers}.
+     *
+     * @param expiration
+     *          The maximum duration during which an authentication outcome is cached. It must be neither zero nor
+     *          unlimited.
+     * @param maxSize
+     *          The maximum number of authentication outcomes held by the cache.
+     * @return A new authentication cache.
+     */
+    public static AuthenticationCache newAuthenticationCache(final Duration expiration, final int maxSize) {
+        return new AuthenticationCache(TimeService.SYSTEM, expiration, maxSize);
+    }
+
+    /**
+     * Creates a new {@link AccessTokenResolver} which caches the access tokens successfully resolved by the provided
+     * resolver. A token is cached until either the cache expiration or the token's own expiration time is reached.
+     *
+     * @param resolver
+     *          The {@link AccessTokenResolver} used to resolve the access tokens which are not cached.
+     * @param cache
+     *          The cache of successfully resolved access tokens.
+     * @return A new caching {@link AccessTokenResolver}.
+     */
+    public static AccessTokenResolver newCachedAccessTokenResolver(final AccessTokenResolver resolver,
+                                                                   final AuthenticationCache cache) {
+        return new CachedAccessTokenResolver(resolver, cache);
+    }
+
     /**
      * Creates a new file access token resolver which should only be used for test purpose.
      *
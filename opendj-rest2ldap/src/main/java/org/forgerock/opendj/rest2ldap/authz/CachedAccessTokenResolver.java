@@ -0,0 +1,58 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.rest2ldap.authz;
+
+import static org.forgerock.util.Reject.checkNotNull;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import org.forgerock.http.oauth2.AccessTokenException;
+import org.forgerock.http.oauth2.AccessTokenInfo;
+import org.forgerock.http.oauth2.AccessTokenResolver;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
+
+/**
+ * Remembers the access tokens successfully resolved by another {@link AccessTokenResolver}, so that subsequent requests
+ * presenting the same token do not need a new introspection round trip. A token is cached until either the cache
+ * expiration duration or the token's own expiration time is reached, whichever comes first. Tokens which could not be
+ * resolved are never cached.
+ */
+final class CachedAccessTokenResolver implements AccessTokenResolver {
+    private final AccessTokenResolver delegate;
+    private final AuthenticationCache cache;
+
+    CachedAccessTokenResolver(final AccessTokenResolver delegate, final AuthenticationCache cache) {
+        this.delegate = checkNotNull(delegate, "delegate cannot be null");
+        this.cache = checkNotNull(cache, "cache cannot be null");
+    }
+
+    @Override
+    public Promise<AccessTokenInfo, AccessTokenException> resolve(final Context context, final String token) {
+        final String key = cache.keyOf(token);
+        final AccessTokenInfo cachedToken = (AccessTokenInfo) cache.get(key);
+        if (cachedToken != null) {
+            return newResultPromise(cachedToken);
+        }
+        return delegate.resolve(context, token).thenOnResult(new ResultHandler<AccessTokenInfo>() {
+            @Override
+            public void handleResult(final AccessTokenInfo accessToken) {
+                final long expiresAt = accessToken.getExpiresAt();
+                cache.put(key, accessToken, expiresAt > 0 ? expiresAt : Long.MAX_VALUE);
+            }
+        });
+    }
+}
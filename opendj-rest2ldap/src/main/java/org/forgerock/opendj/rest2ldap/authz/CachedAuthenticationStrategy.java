@@ -0,0 +1,81 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.rest2ldap.authz;
+
+import static org.forgerock.util.Reject.checkNotNull;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.util.Map;
+
+import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.SecurityContext;
+import org.forgerock.util.Pair;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
+
+/**
+ * Remembers successful authentications performed by another {@link AuthenticationStrategy}, so that subsequent
+ * requests presenting the same credentials do not need to be authenticated against the LDAP server again. Failed
+ * authentications are never cached.
+ * <p>
+ * Cached authentications are only invalidated when a password is changed through the HTTP Basic authentication
+ * filter. Password changes, account lockouts and account deactivations performed directly in the directory take
+ * effect once the cached authentications have expired.
+ */
+final class CachedAuthenticationStrategy implements AuthenticationStrategy {
+    private final AuthenticationStrategy delegate;
+    private final AuthenticationCache cache;
+
+    /**
+     * Create a new CachedAuthenticationStrategy.
+     *
+     * @param delegate
+     *            The strategy used to authenticate users whose credentials are not cached.
+     * @param cache
+     *            The cache of successful authentications.
+     * @throws NullPointerException
+     *             If a parameter is null
+     */
+    CachedAuthenticationStrategy(final AuthenticationStrategy delegate, final AuthenticationCache cache) {
+        this.delegate = checkNotNull(delegate, "delegate cannot be null");
+        this.cache = checkNotNull(cache, "cache cannot be null");
+    }
+
+    @Override
+    public Promise<SecurityContext, LdapException> authenticate(final String username, final String password,
+            final Context parentContext) {
+        final String key = cache.keyOf(username, password);
+        @SuppressWarnings("unchecked")
+        final Pair<String, Map<String, Object>> identity = (Pair<String, Map<String, Object>>) cache.get(key);
+        if (identity != null) {
+            return newResultPromise(new SecurityContext(parentContext, identity.getFirst(), identity.getSecond()));
+        }
+        return delegate.authenticate(username, password, parentContext)
+                       .thenOnResult(new ResultHandler<SecurityContext>() {
+                           @Override
+                           public void handleResult(final SecurityContext securityContext) {
+                               cache.put(key, Pair.of(securityContext.getAuthenticationId(),
+                                                      securityContext.getAuthorization()), Long.MAX_VALUE);
+                           }
+                       });
+    }
+
+    /** Removes all cached authentications, for example because a password has been changed. */
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.opendj.rest2ldap.authz;
 
@@ -20,12 +21,14 @@ import static org.forgerock.util.Reject.checkNotNull;
 
 import org.forgerock.http.Filter;
 import org.forgerock.http.Handler;
+import org.forgerock.http.protocol.Form;
 import org.forgerock.http.protocol.Headers;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.opendj.ldap.EntryNotFoundException;
 import org.forgerock.opendj.ldap.LdapException;
 import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.rest2ldap.Action;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.context.SecurityContext;
 import org.forgerock.util.AsyncFunction;
@@ -33,12 +36,15 @@ import org.forgerock.util.Function;
 import org.forgerock.util.Pair;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
 
 /**
  * Inject a {@link SecurityContext} if the credentials provided in the {@link Request} headers have been successfully
  * verified.
  */
 final class HttpBasicAuthenticationFilter implements Filter {
+    /** The CREST query parameter identifying the action requested on a resource. */
+    private static final String ACTION_PARAMETER = "_action";
 
     private final AuthenticationStrategy authenticationStrategy;
     private final Function<Headers, Pair<String, String>, NeverThrowsException> credentialsExtractor;
@@ -71,7 +77,12 @@ final class HttpBasicAuthenticationFilter implements Filter {
                 .thenAsync(new AsyncFunction<SecurityContext, Response, NeverThrowsException>() {
                     @Override
                     public Promise<Response, NeverThrowsException> apply(final SecurityContext securityContext) {
-                        return next.handle(securityContext, request);
+                        final Promise<Response, NeverThrowsException> response = next.handle(securityContext, request);
+                        if (authenticationStrategy instanceof CachedAuthenticationStrategy
+                                && isPasswordChange(request)) {
+                            return response.thenOnResult(invalidateCacheOnSuccess());
+                        }
+                        return response;
                     }
                 }, new AsyncFunction<LdapException, Response, NeverThrowsException>() {
                     @Override
@@ -82,4 +93,24 @@ final class HttpBasicAuthenticationFilter implements Filter {
                     }
                 });
     }
+
+    private static boolean isPasswordChange(final Request request) {
+        if (!"POST".equals(request.getMethod())) {
+            return false;
+        }
+        final String action = new Form().fromRequestQuery(request).getFirst(ACTION_PARAMETER);
+        return Action.MODIFY_PASSWORD.toString().equals(action) || Action.RESET_PASSWORD.toString().equals(action);
+    }
+
+    private ResultHandler<Response> invalidateCacheOnSuccess() {
+        return new ResultHandler<Response>() {
+            @Override
+            public void handleResult(final Response response) {
+                // Credentials cached before the password change must not be accepted any more.
+                if (response.getStatus().isSuccessful()) {
+                    ((CachedAuthenticationStrategy) authenticationStrategy).invalidateAll();
+                }
+            }
+        };
+    }
 }
@@ -0,0 +1,300 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.rest2ldap;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.forgerock.json.resource.Requests.newQueryRequest;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.forgerock.json.resource.Resources.newInternalConnection;
+import static org.forgerock.opendj.ldap.Connections.newInternalConnectionFactory;
+import static org.forgerock.opendj.ldap.LdapException.newLdapException;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.collectionOf;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.object;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.reference;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.resource;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.rest2Ldap;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.simple;
+import static org.forgerock.opendj.rest2ldap.TestUtils.ctx;
+import static org.forgerock.util.Options.defaultOptions;
+import static org.forgerock.util.time.Duration.duration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.opendj.ldap.ConnectionFactory;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.IntermediateResponseHandler;
+import org.forgerock.opendj.ldap.LdapResultHandler;
+import org.forgerock.opendj.ldap.MemoryBackend;
+import org.forgerock.opendj.ldap.RequestContext;
+import org.forgerock.opendj.ldap.RequestHandler;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.AddRequest;
+import org.forgerock.opendj.ldap.requests.BindRequest;
+import org.forgerock.opendj.ldap.requests.CompareRequest;
+import org.forgerock.opendj.ldap.requests.DeleteRequest;
+import org.forgerock.opendj.ldap.requests.ExtendedRequest;
+import org.forgerock.opendj.ldap.requests.ModifyDNRequest;
+import org.forgerock.opendj.ldap.requests.ModifyRequest;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.responses.BindResult;
+import org.forgerock.opendj.ldap.responses.CompareResult;
+import org.forgerock.opendj.ldap.responses.ExtendedResult;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.opendj.ldif.LDIFEntryReader;
+import org.forgerock.services.context.Context;
+import org.forgerock.testng.ForgeRockTestCase;
+import org.forgerock.util.query.QueryFilter;
+import org.forgerock.util.time.Duration;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests the batched reads and the caches of {@link ReferencePropertyMapper}. */
+@SuppressWarnings({ "javadoc" })
+@Test
+public final class ReferencePropertyMapperTest extends ForgeRockTestCase {
+    private final List<SearchRequest> searches = new ArrayList<>();
+    private boolean denyOneLevelSearches;
+    private ConnectionFactory factory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        searches.clear();
+        denyOneLevelSearches = false;
+        // @formatter:off
+        final MemoryBackend backend = new MemoryBackend(new LDIFEntryReader(
+                "dn: dc=test",
+                "objectClass: domain",
+                "objectClass: top",
+                "dc: test",
+                "",
+                "dn: uid=test1,dc=test",
+                "objectClass: top",
+                "objectClass: person",
+                "uid: test1",
+                "cn: test user 1",
+                "sn: user 1",
+                "seeAlso: uid=test2,dc=test",
+                "seeAlso: uid=test3,dc=test",
+                "seeAlso: uid=missing,dc=test",
+                "",
+                "dn: uid=test2,dc=test",
+                "objectClass: top",
+                "objectClass: person",
+                "uid: test2",
+                "cn: test user 2",
+                "sn: user 2",
+                "seeAlso: uid=test3,dc=test",
+                "",
+                "dn: uid=test3,dc=test",
+                "objectClass: top",
+                "objectClass: person",
+                "uid: test3",
+                "cn: test user 3",
+                "sn: user 3"
+        ));
+        // @formatter:on
+        factory = newInternalConnectionFactory(recordSearches(backend));
+    }
+
+    @Test
+    public void testReferencesWithSameParentAreReadUsingOneSearch() throws Exception {
+        final Connection connection = newConnection(null);
+        final ResourceResponse resource = connection.read(newContext(), newReadRequest("/test1"));
+
+        assertThat(relatedIds(resource)).containsExactly("test2", "test3");
+        assertThat(countSearches(SearchScope.SINGLE_LEVEL, "dc=test", "uid=test2")).isEqualTo(1);
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test2,dc=test", null)).isEqualTo(0);
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test3,dc=test", null)).isEqualTo(0);
+        // Entries not returned by the batched search are read individually.
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=missing,dc=test", null)).isEqualTo(1);
+    }
+
+    @Test
+    public void testReferencesAreReadIndividuallyWhenParentCannotBeSearched() throws Exception {
+        denyOneLevelSearches = true;
+        final Connection connection = newConnection(null);
+        final ResourceResponse resource = connection.read(newContext(), newReadRequest("/test1"));
+
+        assertThat(relatedIds(resource)).containsExactly("test2", "test3");
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test2,dc=test", null)).isEqualTo(1);
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test3,dc=test", null)).isEqualTo(1);
+    }
+
+    @Test
+    public void testReferencesAreReadOncePerRequest() throws Exception {
+        final Connection connection = newConnection(null);
+        final List<ResourceResponse> resources = new ArrayList<>();
+        connection.query(newContext(), newQueryRequest("").setQueryFilter(QueryFilter.<JsonPointer> alwaysTrue()),
+                         resources);
+
+        assertThat(resources).hasSize(3);
+        assertThat(relatedIds(resources.get(0))).containsExactly("test2", "test3");
+        assertThat(relatedIds(resources.get(1))).containsExactly("test3");
+        assertThat(countSearches(null, null, "uid=test3")).isEqualTo(1);
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test3,dc=test", null)).isEqualTo(0);
+
+        // Each resource must receive its own copy of the shared referenced resource.
+        final Map<String, Object> reference1 = relatedObject(resources.get(0), 1);
+        final Map<String, Object> reference2 = relatedObject(resources.get(1), 0);
+        assertThat(reference1).isEqualTo(reference2);
+        assertThat(reference1).isNotSameAs(reference2);
+    }
+
+    @Test
+    public void testSharedCacheIsUsedAcrossRequests() throws Exception {
+        final Connection connection = newConnection(duration("1 minutes"));
+        final ResourceResponse resource1 = connection.read(newContext(), newReadRequest("/test2"));
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test3,dc=test", null)).isEqualTo(1);
+
+        // Altering a returned resource must not alter the cached resource.
+        relatedObject(resource1, 0).put("_id", "changed");
+        final ResourceResponse resource2 = connection.read(newContext(), newReadRequest("/test2"));
+        assertThat(relatedIds(resource2)).containsExactly("test3");
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test3,dc=test", null)).isEqualTo(1);
+    }
+
+    @Test
+    public void testSharedCacheIsDisabledByDefault() throws Exception {
+        final Connection connection = newConnection(null);
+        connection.read(newContext(), newReadRequest("/test2"));
+        connection.read(newContext(), newReadRequest("/test2"));
+        assertThat(countSearches(SearchScope.BASE_OBJECT, "uid=test3,dc=test", null)).isEqualTo(2);
+    }
+
+    private Connection newConnection(final Duration cacheExpiration) {
+        final ReferencePropertyMapper related =
+                reference("seeAlso", "dc=test", "uid", object().property("_id", simple("uid")))
+                        .isMultiValued(true);
+        if (cacheExpiration != null) {
+            related.sharedCache(cacheExpiration, 100);
+        }
+        return newInternalConnection(rest2Ldap(defaultOptions(),
+                resource("api").subResource(collectionOf("user").dnTemplate("dc=test").useClientDnNaming("uid")),
+                resource("user").objectClasses("top", "person")
+                                .property("_id", simple("uid").isRequired(true))
+                                .property("related", related)).newRequestHandlerFor("api"));
+    }
+
+    private Context newContext() throws Exception {
+        return new AuthenticatedConnectionContext(ctx(), factory.getConnection());
+    }
+
+    private static List<String> relatedIds(final ResourceResponse resource) {
+        final List<String> ids = new ArrayList<>();
+        final JsonValue related = resource.getContent().get("related");
+        if (related.isNotNull()) {
+            for (final JsonValue value : related) {
+                ids.add(value.get("_id").asString());
+            }
+        }
+        return ids;
+    }
+
+    private static Map<String, Object> relatedObject(final ResourceResponse resource, final int index) {
+        return resource.getContent().get("related").get(index).asMap();
+    }
+
+    /** Counts the recorded searches having the provided scope, base DN, and a filter containing the provided text. */
+    private int countSearches(final SearchScope scope, final String baseDn, final String filterText) {
+        int count = 0;
+        for (final SearchRequest search : searches) {
+            if ((scope == null || search.getScope().equals(scope))
+                    && (baseDn == null || search.getName().equals(DN.valueOf(baseDn)))
+                    && (filterText == null || search.getFilter().toString().contains(filterText))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private RequestHandler<RequestContext> recordSearches(final RequestHandler<RequestContext> handler) {
+        return new RequestHandler<RequestContext>() {
+            @Override
+            public void handleAdd(RequestContext requestContext, AddRequest request,
+                    IntermediateResponseHandler intermediateResponseHandler,
+                    LdapResultHandler<Result> resultHandler) {
+                handler.handleAdd(requestContext, request, intermediateResponseHandler, resultHandler);
+            }
+
+            @Override
+            public void handleBind(RequestContext requestContext, int version, BindRequest request,
+                    IntermediateResponseHandler intermediateResponseHandler,
+                    LdapResultHandler<BindResult> resultHandler) {
+                handler.handleBind(requestContext, version, request, intermediateResponseHandler, resultHandler);
+            }
+
+            @Override
+            public void handleCompare(RequestContext requestContext, CompareRequest request,
+                    IntermediateResponseHandler intermediateResponseHandler,
+                    LdapResultHandler<CompareResult> resultHandler) {
+                handler.handleCompare(requestContext, request, intermediateResponseHandler, resultHandler);
+            }
+
+            @Override
+            public void handleDelete(RequestContext requestContext, DeleteRequest request,
+                    IntermediateResponseHandler intermediateResponseHandler,
+                    LdapResultHandler<Result> resultHandler) {
+                handler.handleDelete(requestContext, request, intermediateResponseHandler, resultHandler);
+            }
+
+            @Override
+            public <R extends ExtendedResult> void handleExtendedRequest(
+                    RequestContext requestContext, ExtendedRequest<R> request,
+                    IntermediateResponseHandler intermediateResponseHandler,
+                    LdapResultHandler<R> resultHandler) {
+                handler.handleExtendedRequest(requestContext, request, intermediateResponseHandler, resultHandler);
+            }
+
+            @Override
+            public void handleModify(RequestContext requestContext, ModifyRequest request,
+                    IntermediateResponseHandler intermediateResponseHandler,
+                    LdapResultHandler<Result> resultHandler) {
+                handler.handleModify(requestContext, request, intermediateResponseHandler, resultHandler);
+            }
+
+            @Override
+            public void handleModifyDN(RequestContext requestContext, ModifyDNRequest request,
+                    IntermediateResponseHandler intermediateResponseHandler,
+                    LdapResultHandler<Result> resultHandler) {
+                handler.handleModifyDN(requestContext, request, intermediateResponseHandler, resultHandler);
+            }
+
+            @Override
+            public void handleSearch(RequestContext requestContext, SearchRequest request,
+                IntermediateResponseHandler intermediateResponseHandler, SearchResultHandler entryHandler,
+                LdapResultHandler<Result> resultHandler) {
+                searches.add(request);
+                if (denyOneLevelSearches && request.getScope().equals(SearchScope.SINGLE_LEVEL)
+                        && !request.getFilter().toString().contains("objectClass")) {
+                    // Simulate access controls preventing reference searches beneath the parent entry.
+                    resultHandler.handleException(newLdapException(ResultCode.INSUFFICIENT_ACCESS_RIGHTS));
+                    return;
+                }
+                handler.handleSearch(requestContext, request, intermediateResponseHandler, entryHandler,
+                    resultHandler);
+            }
+        };
+    }
+}
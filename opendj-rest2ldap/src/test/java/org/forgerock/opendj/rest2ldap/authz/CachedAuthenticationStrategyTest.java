@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.opendj.rest2ldap.authz;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.forgerock.util.time.Duration.duration;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.services.context.SecurityContext;
+import org.forgerock.testng.ForgeRockTestCase;
+import org.forgerock.util.promise.Promises;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+@Test
+public class CachedAuthenticationStrategyTest extends ForgeRockTestCase {
+    private TimeService timeService;
+    private AuthenticationStrategy delegate;
+    private AuthenticationCache cache;
+    private AuthenticationStrategy strategy;
+
+    @BeforeMethod
+    public void setUp() {
+        timeService = mock(TimeService.class);
+        when(timeService.now()).thenReturn(0L);
+        delegate = mock(AuthenticationStrategy.class);
+        when(delegate.authenticate(anyString(), anyString(), any(Context.class)))
+                .thenReturn(Promises.<SecurityContext, LdapException> newResultPromise(
+                        new SecurityContext(new RootContext(), "user", Collections.<String, Object> emptyMap())));
+        cache = new AuthenticationCache(timeService, duration(1, MINUTES), 10);
+        strategy = new CachedAuthenticationStrategy(delegate, cache);
+    }
+
+    @Test
+    public void testSuccessfulAuthenticationIsCached() throws Exception {
+        assertThat(strategy.authenticate("user", "password", new RootContext()).get().getAuthenticationId())
+                .isEqualTo("user");
+        assertThat(strategy.authenticate("user", "password", new RootContext()).get().getAuthenticationId())
+                .isEqualTo("user");
+
+        verify(delegate, times(1)).authenticate(anyString(), anyString(), any(Context.class));
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDifferentPasswordIsNotAnsweredFromCache() throws Exception {
+        strategy.authenticate("user", "password", new RootContext()).get();
+        strategy.authenticate("user", "other", new RootContext()).get();
+
+        verify(delegate, times(2)).authenticate(anyString(), anyString(), any(Context.class));
+    }
+
+    @Test
+    public void testFailedAuthenticationIsNotCached() throws Exception {
+        when(delegate.authenticate(anyString(), anyString(), any(Context.class)))
+                .thenReturn(Promises.<SecurityContext, LdapException> newExceptionPromise(
+                        LdapException.newLdapException(ResultCode.INVALID_CREDENTIALS)));
+        strategy.authenticate("user", "wrong", new RootContext());
+
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testCachedAuthenticationExpires() throws Exception {
+        strategy.authenticate("user", "password", new RootContext()).get();
+        when(timeService.now()).thenReturn(MINUTES.toMillis(1));
+        strategy.authenticate("user", "password", new RootContext()).get();
+
+        verify(delegate, times(2)).authenticate(anyString(), anyString(), any(Context.class));
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception {
+        strategy.authenticate("user", "password", new RootContext()).get();
+        cache.invalidateAll();
+        strategy.authenticate("user", "password", new RootContext()).get();
+
+        verify(delegate, times(2)).authenticate(anyString(), anyString(), any(Context.class));
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            strategy.authenticate("user" + i, "password", new RootContext()).get();
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
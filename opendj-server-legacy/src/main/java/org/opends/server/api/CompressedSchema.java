@@ -13,6 +13,7 @@
  *
  * Copyright 2009 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.api;
 
@@ -196,6 +197,27 @@ public class CompressedSchema
    */
   public final Attribute decodeAttribute(final ByteSequenceReader reader)
       throws DirectoryException
+  {
+    return decodeAttribute(reader, null);
+  }
+
+  /**
+   * Decodes the contents of the provided array as an attribute at the current
+   * position, unless its attribute type is not one of the provided attribute
+   * types. In this case, the values of the attribute are skipped without being
+   * copied.
+   *
+   * @param reader
+   *          The byte string reader containing the encoded entry.
+   * @param attributeTypes
+   *          The attribute types of the attributes to decode, or {@code null}
+   *          to decode any attribute.
+   * @return The decoded attribute, or {@code null} if it has been skipped.
+   * @throws DirectoryException
+   *           If the attribute could not be decoded properly for some reason.
+   */
+  public final Attribute decodeAttribute(final ByteSequenceReader reader,
+      final Set<AttributeType> attributeTypes) throws DirectoryException
   {
     // First decode the encoded attribute description id.
     final int adId = decodeId(reader);
@@ -214,6 +236,15 @@ public class CompressedSchema
     // Determine the number of values for the attribute.
     final int numValues = reader.readBERLength();
 
+    if (attributeTypes != null && !attributeTypes.contains(attrType))
+    {
+      for (int i = 0; i < numValues; i++)
+      {
+        reader.skip(reader.readBERLength());
+      }
+      return null;
+    }
+
     // For the common case of a single value with no options, generate less garbage.
     if (numValues == 1 && !ad.hasOptions())
     {
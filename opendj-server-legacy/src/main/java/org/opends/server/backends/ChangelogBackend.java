@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends;
 
@@ -27,6 +28,7 @@ import static org.opends.server.util.ServerConstants.*;
 import static org.opends.server.util.StaticUtils.*;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -81,6 +83,7 @@ import org.opends.server.replication.server.changelog.api.ChangeNumberIndexDB;
 import org.opends.server.replication.server.changelog.api.ChangeNumberIndexRecord;
 import org.opends.server.replication.server.changelog.api.ChangelogDB;
 import org.opends.server.replication.server.changelog.api.ChangelogException;
+import org.opends.server.replication.server.changelog.api.ChangelogSecondaryIndexes;
 import org.opends.server.replication.server.changelog.api.DBCursor;
 import org.opends.server.replication.server.changelog.api.DBCursor.CursorOptions;
 import org.opends.server.replication.server.changelog.api.ReplicaId;
@@ -168,6 +171,12 @@ public class ChangelogBackend extends LocalBackend<LocalBackendCfg>
 
   private static final long CHANGE_NUMBER_FOR_EMPTY_CURSOR = 0L;
 
+  /**
+   * The changelog secondary indexes are only used when they return less than one change number out of this number of
+   * change numbers in the searched range, otherwise reading the whole range is cheaper.
+   */
+  private static final int SECONDARY_INDEXES_SELECTIVITY_RATIO = 16;
+
   private static final String CHANGE_NUMBER_ATTR = "changeNumber";
   private static final String ENTRY_SENDER_ATTACHMENT = OID_ECL_COOKIE_EXCHANGE_CONTROL + ".entrySender";
 
@@ -520,8 +529,12 @@ public class ChangelogBackend extends LocalBackend<LocalBackendCfg>
       }
       else
       {
-        initialSearchFromChangeNumber(
-            getChangeNumberEntrySender(SearchPhase.INITIAL, searchOperation, range, isPersistentSearch));
+        final ChangeNumberEntrySender entrySender =
+            getChangeNumberEntrySender(SearchPhase.INITIAL, searchOperation, range, isPersistentSearch);
+        if (isPersistentSearch || !initialSearchFromSecondaryIndexes(entrySender))
+        {
+          initialSearchFromChangeNumber(entrySender);
+        }
       }
     }
     catch (ChangelogException e)
@@ -974,6 +987,246 @@ public class ChangelogBackend extends LocalBackend<LocalBackendCfg>
     }
   }
 
+  /**
+   * Runs the initial search phase of a change number based search by only reading the changes that the changelog
+   * secondary indexes return for the search filter.
+   *
+   * @return {@code true} if the search has been run, {@code false} if the secondary indexes cannot be used for this
+   *         search, which must then go through the whole change number range
+   */
+  private boolean initialSearchFromSecondaryIndexes(final ChangeNumberEntrySender entrySender)
+      throws ChangelogException, DirectoryException
+  {
+    final SearchOperation searchOp = entrySender.searchOp;
+    final ChangeNumberIndexDB cnIndexDB = getChangelogDB().getChangeNumberIndexDB();
+    final ChangelogSecondaryIndexes secondaryIndexes = cnIndexDB.getSecondaryIndexes();
+    if (secondaryIndexes == null || searchOp.getBaseDN().size() != 1)
+    {
+      return false;
+    }
+    final ChangeNumberIndexRecord oldestRecord = cnIndexDB.getOldestRecord();
+    final ChangeNumberIndexRecord newestRecord = cnIndexDB.getNewestRecord();
+    if (oldestRecord == null || newestRecord == null)
+    {
+      return false;
+    }
+    final long lowestChangeNumber = Math.max(entrySender.lowestChangeNumber, oldestRecord.getChangeNumber());
+    final long highestChangeNumber = entrySender.highestChangeNumber != -1
+        ? Math.min(entrySender.highestChangeNumber, newestRecord.getChangeNumber())
+        : newestRecord.getChangeNumber();
+    if (secondaryIndexes.getFirstIndexedChangeNumber() > lowestChangeNumber)
+    {
+      // older changes are still being indexed
+      return false;
+    }
+    final long[] changeNumbers = getCandidateChangeNumbers(secondaryIndexes, searchOp.getFilter());
+    if (changeNumbers == null)
+    {
+      return false;
+    }
+    final int from = insertionPoint(changeNumbers, lowestChangeNumber);
+    final int to = Math.max(from, insertionPoint(changeNumbers, highestChangeNumber + 1));
+    if ((long) (to - from) * SECONDARY_INDEXES_SELECTIVITY_RATIO > highestChangeNumber - lowestChangeNumber + 1)
+    {
+      return false;
+    }
+
+    if (!sendBaseChangelogEntry(searchOp))
+    { // only return the base entry: stop here
+      return true;
+    }
+    try
+    {
+      if (from < to)
+      {
+        sendChangeNumberEntries(entrySender, cnIndexDB, changeNumbers, from, to);
+      }
+    }
+    finally
+    {
+      entrySender.finalizeInitialSearch();
+    }
+    return true;
+  }
+
+  /**
+   * Sends the changelog entries having the provided sorted change numbers, unless they have been purged meanwhile.
+   * <p>
+   * A single cursor walks the change number index from the first candidate to the last one, so that the cookie is
+   * computed once and then kept up to date with every change, like when all the changes are sent.
+   */
+  private void sendChangeNumberEntries(final ChangeNumberEntrySender entrySender, final ChangeNumberIndexDB cnIndexDB,
+      final long[] changeNumbers, final int from, final int to) throws ChangelogException, DirectoryException
+  {
+    final MultiDomainServerState cookie = new MultiDomainServerState();
+    try (DBCursor<ChangeNumberIndexRecord> cnIndexDBCursor = cnIndexDB.getCursorFrom(changeNumbers[from]))
+    {
+      ChangeNumberIndexRecord cnIndexRecord = null;
+      for (int i = from; i < to; i++)
+      {
+        final long changeNumber = changeNumbers[i];
+        if (!entrySender.changeNumberIsInRange(changeNumber))
+        {
+          return;
+        }
+        while ((cnIndexRecord == null || cnIndexRecord.getChangeNumber() < changeNumber) && cnIndexDBCursor.next())
+        {
+          if (cnIndexRecord == null)
+          {
+            cnIndexRecord = cnIndexDBCursor.getRecord();
+            initializeCookieForChangeNumberMode(cookie, cnIndexRecord);
+          }
+          else
+          {
+            cnIndexRecord = cnIndexDBCursor.getRecord();
+            cookie.update(cnIndexRecord.getBaseDN(), cnIndexRecord.getCSN());
+          }
+        }
+        if (cnIndexRecord == null || cnIndexRecord.getChangeNumber() < changeNumber)
+        {
+          // no more records in the change number index
+          return;
+        }
+        if (cnIndexRecord.getChangeNumber() == changeNumber
+            && !sendChangeNumberEntry(entrySender, cnIndexRecord, cookie))
+        {
+          return;
+        }
+      }
+    }
+  }
+
+  /** Returns the index of the first element of the provided sorted array which is greater than or equal to a key. */
+  private static int insertionPoint(long[] sortedArray, long key)
+  {
+    final int index = Arrays.binarySearch(sortedArray, key);
+    return index >= 0 ? index : -(index + 1);
+  }
+
+  /**
+   * Returns the change numbers of the changelog entries which may match the provided filter, according to the
+   * changelog secondary indexes.
+   *
+   * @return the candidate change numbers sorted in ascending order, or {@code null} if the secondary indexes cannot
+   *         restrict the candidates for this filter
+   */
+  private static long[] getCandidateChangeNumbers(ChangelogSecondaryIndexes secondaryIndexes, SearchFilter filter)
+  {
+    switch (filter.getFilterType())
+    {
+    case EQUALITY:
+      return secondaryIndexes.isIndexed(filter.getAttributeType())
+          ? secondaryIndexes.getChangeNumbers(filter.getAttributeType(), filter.getAssertionValue())
+          : null;
+
+    case AND:
+      long[] intersection = null;
+      for (SearchFilter component : filter.getFilterComponents())
+      {
+        final long[] changeNumbers = getCandidateChangeNumbers(secondaryIndexes, component);
+        if (changeNumbers != null)
+        {
+          intersection = intersection == null ? changeNumbers : intersect(intersection, changeNumbers);
+        }
+      }
+      return intersection;
+
+    case OR:
+      long[] union = new long[0];
+      for (SearchFilter component : filter.getFilterComponents())
+      {
+        final long[] changeNumbers = getCandidateChangeNumbers(secondaryIndexes, component);
+        if (changeNumbers == null)
+        {
+          return null;
+        }
+        union = union(union, changeNumbers);
+      }
+      return union;
+
+    default:
+      return null;
+    }
+  }
+
+  private static long[] intersect(long[] sortedArray1, long[] sortedArray2)
+  {
+    final long[] result = new long[Math.min(sortedArray1.length, sortedArray2.length)];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < sortedArray1.length && j < sortedArray2.length)
+    {
+      if (sortedArray1[i] < sortedArray2[j])
+      {
+        i++;
+      }
+      else if (sortedArray1[i] > sortedArray2[j])
+      {
+        j++;
+      }
+      else
+      {
+        result[size++] = sortedArray1[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private static long[] union(long[] sortedArray1, long[] sortedArray2)
+  {
+    final long[] result = new long[sortedArray1.length + sortedArray2.length];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < sortedArray1.length || j < sortedArray2.length)
+    {
+      if (j == sortedArray2.length || (i < sortedArray1.length && sortedArray1[i] < sortedArray2[j]))
+      {
+        result[size++] = sortedArray1[i++];
+      }
+      else if (i == sortedArray1.length || sortedArray2[j] < sortedArray1[i])
+      {
+        result[size++] = sortedArray2[j++];
+      }
+      else
+      {
+        result[size++] = sortedArray1[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  /**
+   * Sends the changelog entry of the provided change number index record, unless its update message has been purged
+   * meanwhile.
+   *
+   * @return {@code true} if search should continue, {@code false} otherwise
+   */
+  private boolean sendChangeNumberEntry(final ChangeNumberEntrySender entrySender,
+      final ChangeNumberIndexRecord cnIndexRecord, final MultiDomainServerState cookie)
+      throws ChangelogException, DirectoryException
+  {
+    final CSN csn = cnIndexRecord.getCSN();
+    final UpdateMsg updateMsg;
+    final CursorOptions options = new CursorOptions(GREATER_THAN_OR_EQUAL_TO_KEY, ON_MATCHING_KEY);
+    try (DBCursor<UpdateMsg> replicaUpdatesCursor = getChangelogDB().getReplicationDomainDB().getCursorFrom(
+        cnIndexRecord.getBaseDN(), csn.getServerId(), csn, options))
+    {
+      if (!replicaUpdatesCursor.next() || !csn.equals(replicaUpdatesCursor.getRecord().getCSN()))
+      {
+        // the update message has been purged or its baseDN has been removed from the changelogDB
+        return true;
+      }
+      updateMsg = replicaUpdatesCursor.getRecord();
+    }
+    return entrySender.initialSearchSendEntry(cnIndexRecord, updateMsg, cookie);
+  }
+
   private ChangeNumberEntrySender getChangeNumberEntrySender(SearchPhase startPhase,
       final SearchOperation searchOperation, ChangeNumberRange range, boolean isPersistentSearch)
   {
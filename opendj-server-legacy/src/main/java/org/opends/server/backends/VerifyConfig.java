@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2008 Sun Microsystems, Inc.
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends;
 
@@ -33,6 +34,10 @@ public class VerifyConfig
   private ArrayList<String> completeList = new ArrayList<>();
   /** The names of indexes to be verified for cleanliness. */
   private ArrayList<String> cleanList = new ArrayList<>();
+  /** The number of threads used to verify the indexes, or 0 for the backend default. */
+  private int threadCount;
+  /** The path of the file used to checkpoint and resume the verification, or null. */
+  private String checkpointFile;
 
   /**
    * Get the base DN to be verified.
@@ -89,4 +94,49 @@ public class VerifyConfig
     Reject.ifNull(index);
     cleanList.add(index);
   }
+
+  /**
+   * Get the number of threads used to verify the indexes.
+   * @return The number of threads used to verify the indexes, or a value
+   *         less than or equal to zero to let the backend choose.
+   */
+  public int getThreadCount()
+  {
+    return threadCount;
+  }
+
+  /**
+   * Set the number of threads used to verify the indexes.
+   * @param threadCount The number of threads used to verify the indexes, or
+   *                    a value less than or equal to zero to let the backend
+   *                    choose.
+   */
+  public void setThreadCount(int threadCount)
+  {
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Get the path of the file used to checkpoint the progress of the
+   * verification, so that an interrupted verification can be resumed.
+   * @return The path of the checkpoint file, or {@code null} if the progress
+   *         of the verification is not checkpointed.
+   */
+  public String getCheckpointFile()
+  {
+    return checkpointFile;
+  }
+
+  /**
+   * Set the path of the file used to checkpoint the progress of the
+   * verification. If the file exists and was written by an identical
+   * verification, then the verification resumes where it was interrupted.
+   * @param checkpointFile The path of the checkpoint file, or {@code null} if
+   *                       the progress of the verification must not be
+   *                       checkpointed.
+   */
+  public void setCheckpointFile(String checkpointFile)
+  {
+    this.checkpointFile = checkpointFile;
+  }
 }
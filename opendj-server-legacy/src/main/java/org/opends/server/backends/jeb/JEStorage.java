@@ -12,7 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
- * Portions Copyright 2022 Wren Security
+ * Portions Copyright 2022-2026 Wren Security
  */
 package org.opends.server.backends.jeb;
 
@@ -1331,6 +1331,12 @@ public final class JEStorage implements Storage, Backupable, ConfigurationChange
     return storageStatus;
   }
 
+  @Override
+  public long getCacheSize()
+  {
+    return memQuota != null ? computeSize(config) : 0;
+  }
+
   @Override
   public void diskFullThresholdReached(File directory, long thresholdInBytes) {
     storageStatus = statusWhenDiskSpaceFull(directory, thresholdInBytes, config.getBackendId());
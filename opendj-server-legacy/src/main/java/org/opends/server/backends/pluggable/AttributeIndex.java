@@ -14,6 +14,7 @@
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
  * Portions Copyright 2014 Manuel Gaupp
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -610,7 +611,9 @@ class AttributeIndex implements ConfigurationChangeListener<BackendIndexCfg>, Cl
     // FIXME equivalent code exists in evaluateExtensibleFilter()
     LocalizableMessageBuilder debugMessage = monitor.isFilterUseEnabled() ? new LocalizableMessageBuilder() : null;
     StringBuilder indexNameOut = debugBuffer == null ? null : new StringBuilder();
+    final long startTime = System.nanoTime();
     EntryIDSet results = indexQuery.evaluate(debugMessage, indexNameOut);
+    final long evaluationTime = System.nanoTime() - startTime;
 
     if (debugBuffer != null)
     {
@@ -618,18 +621,18 @@ class AttributeIndex implements ConfigurationChangeListener<BackendIndexCfg>, Cl
       appendDebugUnindexedInformation(debugBuffer, filter.getAttributeType(), indexNameOut);
     }
 
-    updateStats(monitor, filter, results, debugMessage);
+    updateStats(monitor, filter, results, debugMessage, evaluationTime);
     return results;
   }
 
   private static void updateStats(BackendMonitor monitor, SearchFilter filter, EntryIDSet idSet,
-      LocalizableMessageBuilder debugMessage)
+      LocalizableMessageBuilder debugMessage, long evaluationTimeNanos)
   {
     if (monitor.isFilterUseEnabled())
     {
       if (idSet.isDefined())
       {
-        monitor.updateStats(filter, idSet.size());
+        monitor.updateStats(filter, idSet.size(), evaluationTimeNanos);
       }
       else
       {
@@ -1115,7 +1118,9 @@ class AttributeIndex implements ConfigurationChangeListener<BackendIndexCfg>, Cl
       final IndexQuery indexQuery = rule.getAssertion(filter.getAssertionValue()).createIndexQuery(indexQueryFactory);
       LocalizableMessageBuilder debugMessage = monitor.isFilterUseEnabled() ? new LocalizableMessageBuilder() : null;
       StringBuilder indexNameOut = debugBuffer == null ? null : new StringBuilder();
+      final long startTime = System.nanoTime();
       EntryIDSet results = indexQuery.evaluate(debugMessage, indexNameOut);
+      final long evaluationTime = System.nanoTime() - startTime;
 
       if (debugBuffer != null)
       {
@@ -1123,7 +1128,7 @@ class AttributeIndex implements ConfigurationChangeListener<BackendIndexCfg>, Cl
         appendDebugUnindexedInformation(debugBuffer, filter.getAttributeType(), indexNameOut);
       }
 
-      updateStats(monitor, filter, results, debugMessage);
+      updateStats(monitor, filter, results, debugMessage, evaluationTime);
       return results;
     }
     catch (DecodeException e)
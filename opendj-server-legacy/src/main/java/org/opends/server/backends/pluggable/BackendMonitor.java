@@ -13,59 +13,234 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
+import org.forgerock.util.annotations.VisibleForTesting;
 import org.opends.server.api.MonitorData;
 import org.opends.server.api.MonitorProvider;
+import org.opends.server.types.FilterType;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.util.TimeThread;
 
 /**
  * A monitor provider for high level backend statistics, such as filter stats and search counters.
+ * <p>
+ * Filter statistics are updated without locking: the most used search filters are kept in a concurrent map
+ * bounded by the maximum number of entries, and a count-min sketch estimates how often the other filters are used,
+ * so that a filter only replaces the least used one once it has been used more often. Only admitting a new filter
+ * takes a lock, and finds the least used filter with a min-heap.
  */
 class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
 {
   /** Represents the statistical information kept for each search filter. */
-  private static final class FilterStats implements Comparable<FilterStats>
+  private static final class FilterStats
   {
     private volatile LocalizableMessage failureReason = LocalizableMessage.EMPTY;
-    private long maxMatchingEntries = -1;
-    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicLong maxMatchingEntries = new AtomicLong(-1);
+    private final AtomicLong hits;
 
-    @Override
-    public int compareTo(FilterStats that)
+    private FilterStats(long hits)
     {
-      return this.hits.get() - that.hits.get();
+      this.hits = new AtomicLong(hits);
     }
 
-    private void update(int hitCount, LocalizableMessage failureReason)
+    private void update(LocalizableMessage failureReason)
     {
-      this.hits.getAndAdd(hitCount);
+      this.hits.getAndIncrement();
       this.failureReason = failureReason;
     }
 
-    private void update(int hitCount, long matchingEntries)
+    private void update(long matchingEntries)
     {
-      this.hits.getAndAdd(hitCount);
+      this.hits.getAndIncrement();
       this.failureReason = LocalizableMessage.EMPTY;
-      synchronized (this)
+      long max = maxMatchingEntries.get();
+      while (matchingEntries > max && !maxMatchingEntries.compareAndSet(max, matchingEntries))
+      {
+        max = maxMatchingEntries.get();
+      }
+    }
+  }
+
+  /**
+   * Distribution of the values recorded for a filter shape, using buckets whose bounds are powers of 2.
+   * The reported percentiles are the upper bounds of the buckets where they fall.
+   */
+  private static final class Histogram
+  {
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+    private final AtomicLong max = new AtomicLong();
+
+    private void record(long value)
+    {
+      final long v = Math.max(value, 0);
+      buckets.getAndIncrement(Long.SIZE - Long.numberOfLeadingZeros(v));
+      long currentMax = max.get();
+      while (v > currentMax && !max.compareAndSet(currentMax, v))
       {
-        if (matchingEntries > maxMatchingEntries)
+        currentMax = max.get();
+      }
+    }
+
+    private long percentile(long count, int percent)
+    {
+      final long rank = Math.max(1, (count * percent + 99) / 100);
+      long seen = 0;
+      for (int i = 0; i < buckets.length(); i++)
+      {
+        seen += buckets.get(i);
+        if (seen >= rank)
         {
-          maxMatchingEntries = matchingEntries;
+          return Math.min(i == 0 ? 0 : (1L << i) - 1, max.get());
         }
       }
+      return max.get();
+    }
+
+    private void toString(StringBuilder buffer, String name, long count)
+    {
+      buffer.append(' ').append(name).append("-p50:").append(percentile(count, 50));
+      buffer.append(' ').append(name).append("-p99:").append(percentile(count, 99));
+      buffer.append(' ').append(name).append("-max:").append(max.get());
+    }
+  }
+
+  /** Represents the statistical information kept for each filter shape, the filter without its assertion values. */
+  private static final class FilterShapeStats
+  {
+    private final AtomicLong count = new AtomicLong();
+    private final Histogram evaluationTimes = new Histogram();
+    private final Histogram candidateCounts = new Histogram();
+
+    private void update(long matchingEntries, long evaluationTimeNanos)
+    {
+      count.getAndIncrement();
+      evaluationTimes.record(TimeUnit.NANOSECONDS.toMicros(evaluationTimeNanos));
+      candidateCounts.record(matchingEntries);
+    }
+  }
+
+  /**
+   * Count-min sketch estimating how often the search filters are used. Counters are updated without locking and
+   * are aged incrementally so that the estimates favor recent usage: every {@link #AGING_INTERVAL} additions, the
+   * next counter in turn is halved. Each counter is thus halved once every {@code AGING_INTERVAL * size()}
+   * additions, without ever walking the whole table on a request thread.
+   */
+  @VisibleForTesting
+  static final class FrequencySketch
+  {
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+    /** The number of additions between two halvings of a counter. */
+    static final int AGING_INTERVAL = 2;
+
+    private final AtomicLongArray counters;
+    private final int mask;
+    private final AtomicLong additions = new AtomicLong();
+
+    FrequencySketch(int maxEntries)
+    {
+      final int width = Math.max(64, Integer.highestOneBit(Math.max(1, maxEntries) * 16 - 1) << 1);
+      this.counters = new AtomicLongArray(DEPTH * width);
+      this.mask = width - 1;
+    }
+
+    /** Returns the number of counters of this sketch. */
+    int size()
+    {
+      return counters.length();
+    }
+
+    private int indexOf(int hashCode, int row)
+    {
+      int h = hashCode * SEEDS[row];
+      h ^= h >>> 16;
+      return row * (mask + 1) + (h & mask);
+    }
+
+    /**
+     * Counts one more use of the filter having the provided hash code.
+     *
+     * @return the estimated number of uses of this filter, including this one
+     */
+    long increment(int hashCode)
+    {
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < DEPTH; row++)
+      {
+        estimate = Math.min(estimate, counters.incrementAndGet(indexOf(hashCode, row)));
+      }
+      final long count = additions.incrementAndGet();
+      if (count % AGING_INTERVAL == 0)
+      {
+        halve((int) ((count / AGING_INTERVAL) % counters.length()));
+      }
+      return estimate;
+    }
+
+    /**
+     * Returns the estimated number of uses of the filter having the provided hash code.
+     *
+     * @return the estimated number of uses of this filter
+     */
+    long estimate(int hashCode)
+    {
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < DEPTH; row++)
+      {
+        estimate = Math.min(estimate, counters.get(indexOf(hashCode, row)));
+      }
+      return estimate;
+    }
+
+    private void halve(int index)
+    {
+      long value;
+      do
+      {
+        value = counters.get(index);
+      }
+      while (!counters.compareAndSet(index, value, value >>> 1));
+    }
+  }
+
+  /**
+   * A filter kept in the statistics, with its number of hits when it was put in the min-heap. Hits only increase,
+   * so this number is a lower bound of its current number of hits.
+   */
+  private static final class FilterHits implements Comparable<FilterHits>
+  {
+    private final SearchFilter filter;
+    private final FilterStats stats;
+    private final long hits;
+
+    private FilterHits(SearchFilter filter, FilterStats stats, long hits)
+    {
+      this.filter = filter;
+      this.stats = stats;
+      this.hits = hits;
+    }
+
+    @Override
+    public int compareTo(FilterHits o)
+    {
+      return Long.compare(hits, o.hits);
     }
   }
 
@@ -74,10 +249,22 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
   /** The root container to be monitored. */
   private final RootContainer rootContainer;
 
-  private int maxEntries = 1024;
-  private boolean filterUseEnabled;
+  private volatile int maxEntries = 1024;
+  private volatile boolean filterUseEnabled;
   private String startTimeStamp;
-  private final HashMap<SearchFilter, FilterStats> filterToStats = new HashMap<>();
+  private final ConcurrentMap<SearchFilter, FilterStats> filterToStats = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, FilterShapeStats> shapeToStats = new ConcurrentHashMap<>();
+  private volatile FrequencySketch frequencySketch = new FrequencySketch(maxEntries);
+  /**
+   * The filters kept in the statistics, ordered by their number of hits when they were put in the heap. Guards the
+   * admission and removal of filters.
+   */
+  private final PriorityQueue<FilterHits> filtersByHits = new PriorityQueue<>();
+  /**
+   * The number of hits of the least used filter when the filter statistics were last full. Hits only increase, so
+   * this is a lower bound of the current number of hits of the least used filter.
+   */
+  private volatile long lowestHits;
   private final AtomicInteger indexedSearchCount = new AtomicInteger();
   private final AtomicInteger unindexedSearchCount = new AtomicInteger();
 
@@ -102,7 +289,7 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
   @Override
   public MonitorData getMonitorData()
   {
-    MonitorData monitorAttrs = new MonitorData(5);
+    MonitorData monitorAttrs = new MonitorData(6);
 
     Collection<String> needReindexValues = createNeedReindexValues();
     if (!needReindexValues.isEmpty())
@@ -116,6 +303,7 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
       monitorAttrs.add("filter-use", createFilterUseValues());
       monitorAttrs.add("filter-use-indexed", indexedSearchCount);
       monitorAttrs.add("filter-use-unindexed", unindexedSearchCount);
+      monitorAttrs.add("filter-shape-use", createFilterShapeUseValues());
     }
 
     return monitorAttrs;
@@ -137,21 +325,37 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
     return values;
   }
 
-  private List<String> createFilterUseValues()
+  @VisibleForTesting
+  List<String> createFilterUseValues()
   {
     List<String> values = new ArrayList<>();
     StringBuilder value = new StringBuilder();
-    synchronized (filterToStats)
+    for (Map.Entry<SearchFilter, FilterStats> entry : filterToStats.entrySet())
     {
-      for (Map.Entry<SearchFilter, FilterStats> entry : filterToStats.entrySet())
-      {
-        entry.getKey().toString(value);
-        value.append(" hits:").append(entry.getValue().hits.get());
-        value.append(" maxmatches:").append(entry.getValue().maxMatchingEntries);
-        value.append(" message:").append(entry.getValue().failureReason);
-        values.add(value.toString());
-        value.setLength(0);
-      }
+      entry.getKey().toString(value);
+      value.append(" hits:").append(entry.getValue().hits.get());
+      value.append(" maxmatches:").append(entry.getValue().maxMatchingEntries.get());
+      value.append(" message:").append(entry.getValue().failureReason);
+      values.add(value.toString());
+      value.setLength(0);
+    }
+    return values;
+  }
+
+  private List<String> createFilterShapeUseValues()
+  {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    for (Map.Entry<String, FilterShapeStats> entry : shapeToStats.entrySet())
+    {
+      final FilterShapeStats stats = entry.getValue();
+      final long count = stats.count.get();
+      value.append(entry.getKey());
+      value.append(" count:").append(count);
+      stats.evaluationTimes.toString(value, "time-us", count);
+      stats.candidateCounts.toString(value, "candidates", count);
+      values.add(value.toString());
+      value.setLength(0);
     }
     return values;
   }
@@ -170,22 +374,10 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
       return;
     }
 
-    FilterStats stats;
-    synchronized (filterToStats)
+    final FilterStats stats = getOrAdmitFilterStats(searchFilter);
+    if (stats != null)
     {
-      stats = filterToStats.get(searchFilter);
-
-      if (stats != null)
-      {
-        stats.update(1, failureMessage);
-      }
-      else
-      {
-        stats = new FilterStats();
-        stats.update(1, failureMessage);
-        removeLowestHit();
-        filterToStats.put(searchFilter, stats);
-      }
+      stats.update(failureMessage);
     }
   }
 
@@ -196,30 +388,75 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
    * @param searchFilter The search filter that was evaluated.
    * @param matchingEntries The number of entries matched by the successful
    *                        index lookup.
+   * @param evaluationTimeNanos The time spent evaluating the index lookup, in nanoseconds.
    */
-  void updateStats(SearchFilter searchFilter, long matchingEntries)
+  void updateStats(SearchFilter searchFilter, long matchingEntries, long evaluationTimeNanos)
   {
     if (!filterUseEnabled)
     {
       return;
     }
 
-    FilterStats stats;
-    synchronized (filterToStats)
+    final FilterStats stats = getOrAdmitFilterStats(searchFilter);
+    if (stats != null)
+    {
+      stats.update(matchingEntries);
+    }
+
+    final String shape = toShape(searchFilter, new StringBuilder()).toString();
+    FilterShapeStats shapeStats = shapeToStats.get(shape);
+    if (shapeStats == null)
+    {
+      if (shapeToStats.size() >= maxEntries)
+      {
+        return;
+      }
+      final FilterShapeStats newShapeStats = new FilterShapeStats();
+      shapeStats = shapeToStats.putIfAbsent(shape, newShapeStats);
+      if (shapeStats == null)
+      {
+        shapeStats = newShapeStats;
+      }
+    }
+    shapeStats.update(matchingEntries, evaluationTimeNanos);
+  }
+
+  /**
+   * Returns the statistics kept for the provided filter, creating them if the filter is used often enough to be
+   * kept.
+   *
+   * @return the statistics of the filter, or {@code null} if it is not used often enough
+   */
+  private FilterStats getOrAdmitFilterStats(SearchFilter searchFilter)
+  {
+    final FilterStats stats = filterToStats.get(searchFilter);
+    if (stats != null)
+    {
+      return stats;
+    }
+
+    // the first use is counted by the caller
+    final long estimatedHits = frequencySketch.increment(searchFilter.hashCode()) - 1;
+    if (filterToStats.size() >= maxEntries && estimatedHits <= lowestHits)
     {
-      stats = filterToStats.get(searchFilter);
+      return null;
+    }
 
-      if (stats != null)
+    synchronized (filtersByHits)
+    {
+      final FilterStats existingStats = filterToStats.get(searchFilter);
+      if (existingStats != null)
       {
-        stats.update(1, matchingEntries);
+        return existingStats;
       }
-      else
+      if (filterToStats.size() >= maxEntries && !removeLowestHit(estimatedHits))
       {
-        stats = new FilterStats();
-        stats.update(1, matchingEntries);
-        removeLowestHit();
-        filterToStats.put(searchFilter, stats);
+        return null;
       }
+      final FilterStats newStats = new FilterStats(estimatedHits);
+      filterToStats.put(searchFilter, newStats);
+      filtersByHits.add(new FilterHits(searchFilter, newStats, estimatedHits));
+      return newStats;
     }
   }
 
@@ -238,7 +475,14 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
     }
     else if (!enabled)
     {
-      filterToStats.clear();
+      synchronized (filtersByHits)
+      {
+        filterToStats.clear();
+        filtersByHits.clear();
+        lowestHits = 0;
+      }
+      shapeToStats.clear();
+      frequencySketch = new FrequencySketch(maxEntries);
     }
     filterUseEnabled = enabled;
   }
@@ -262,7 +506,11 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
    */
   void setMaxEntries(int maxEntries)
   {
-    this.maxEntries = maxEntries;
+    if (maxEntries != this.maxEntries)
+    {
+      this.maxEntries = maxEntries;
+      frequencySketch = new FrequencySketch(maxEntries);
+    }
   }
 
   /** Increments the statistics counter to include an indexed search. */
@@ -283,23 +531,109 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
     }
   }
 
-  private void removeLowestHit()
+  /**
+   * Removes the least used filters until there is room for a new one, unless the least used filter has more hits
+   * than the new one. The caller must hold the lock of {@link #filtersByHits}.
+   *
+   * @param newHits the estimated number of hits of the new filter
+   * @return {@code true} if there is room for the new filter, {@code false} otherwise
+   */
+  private boolean removeLowestHit(long newHits)
   {
-    while (!filterToStats.isEmpty() && filterToStats.size() > maxEntries)
+    while (filterToStats.size() >= maxEntries)
     {
-      Iterator<Map.Entry<SearchFilter, FilterStats>> it = filterToStats.entrySet().iterator();
-      Map.Entry<SearchFilter, FilterStats> lowest = it.next();
-      Map.Entry<SearchFilter, FilterStats> entry;
-      while (lowest.getValue().hits.get() > 1 && it.hasNext())
+      final FilterHits lowest = peekLowestHit();
+      if (lowest == null)
       {
-        entry = it.next();
-        if (entry.getValue().hits.get() < lowest.getValue().hits.get())
-        {
-          lowest = entry;
-        }
+        break;
+      }
+      lowestHits = lowest.hits;
+      if (lowest.hits >= newHits)
+      {
+        return false;
+      }
+      filtersByHits.poll();
+      filterToStats.remove(lowest.filter, lowest.stats);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the least used filter, with its current number of hits. The caller must hold the lock of
+   * {@link #filtersByHits}.
+   * <p>
+   * The heap is ordered by the number of hits of the filters when they were put in it: the filter at the top of the
+   * heap is put back with its current number of hits until it has not been used since. As hits only increase, it is
+   * then used less than all the other filters.
+   *
+   * @return the least used filter, or {@code null} if there are no filters
+   */
+  private FilterHits peekLowestHit()
+  {
+    FilterHits lowest;
+    while ((lowest = filtersByHits.peek()) != null)
+    {
+      final long hits = lowest.stats.hits.get();
+      if (hits == lowest.hits)
+      {
+        return lowest;
       }
+      filtersByHits.poll();
+      filtersByHits.add(new FilterHits(lowest.filter, lowest.stats, hits));
+    }
+    return null;
+  }
 
-      filterToStats.remove(lowest.getKey());
+  /** Appends the provided filter without its assertion values, so that filters having the same shape are grouped. */
+  private static StringBuilder toShape(SearchFilter filter, StringBuilder buffer)
+  {
+    switch (filter.getFilterType())
+    {
+    case AND:
+    case OR:
+      buffer.append(filter.getFilterType() == FilterType.AND ? "(&" : "(|");
+      for (SearchFilter component : filter.getFilterComponents())
+      {
+        toShape(component, buffer);
+      }
+      return buffer.append(')');
+    case NOT:
+      buffer.append("(!");
+      return toShape(filter.getNotComponent(), buffer).append(')');
+    case EQUALITY:
+      return appendAttribute(filter, buffer.append('(')).append("=?)");
+    case SUBSTRING:
+      return appendAttribute(filter, buffer.append('(')).append("=?*)");
+    case GREATER_OR_EQUAL:
+      return appendAttribute(filter, buffer.append('(')).append(">=?)");
+    case LESS_OR_EQUAL:
+      return appendAttribute(filter, buffer.append('(')).append("<=?)");
+    case PRESENT:
+      return appendAttribute(filter, buffer.append('(')).append("=*)");
+    case APPROXIMATE_MATCH:
+      return appendAttribute(filter, buffer.append('(')).append("~=?)");
+    case EXTENSIBLE_MATCH:
+      buffer.append('(');
+      if (filter.getAttributeType() != null)
+      {
+        appendAttribute(filter, buffer);
+      }
+      if (filter.getDNAttributes())
+      {
+        buffer.append(":dn");
+      }
+      if (filter.getMatchingRuleID() != null)
+      {
+        buffer.append(':').append(filter.getMatchingRuleID());
+      }
+      return buffer.append(":=?)");
+    default:
+      return buffer.append("(?)");
     }
   }
+
+  private static StringBuilder appendAttribute(SearchFilter filter, StringBuilder buffer)
+  {
+    return buffer.append(filter.getAttributeType().getNameOrOID());
+  }
 }
@@ -0,0 +1,302 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.backends.pluggable;
+
+import static org.forgerock.util.Utils.newThreadFactory;
+import static org.opends.messages.BackendMessages.*;
+import static org.opends.server.util.StaticUtils.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.opendj.ldap.ByteString;
+import org.opends.server.api.CompressedSchema;
+import org.opends.server.api.DirectoryThread;
+import org.opends.server.backends.pluggable.spi.Cursor;
+import org.opends.server.backends.pluggable.spi.ReadOperation;
+import org.opends.server.backends.pluggable.spi.ReadableTransaction;
+import org.opends.server.backends.pluggable.spi.Storage;
+import org.opends.server.types.Entry;
+
+/**
+ * Loads the data of a backend into the cache of its storage.
+ * <p>
+ * The whole trees are preloaded by scanning them in parallel, in the order of priority defined by
+ * {@link TreePreloadComparator}. The working set recorded when the backend was last finalized is reloaded by a
+ * background thread, so that the backend can serve requests meanwhile: it reads the entries by batches, each under
+ * its own lock and read transaction, so that neither updates of the entry containers nor the storage are held back
+ * for the whole reload. Both stop when their time limit is reached, when the amount of data read reaches the size of
+ * the storage cache, or when the backend is finalized.
+ */
+final class CachePreloader
+{
+  private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+  private static final String PRELOADER_THREAD_NAME = "PRELOADER-%d";
+  /** The number of working set entries reloaded under the same lock and read transaction. */
+  private static final int WORKING_SET_BATCH_SIZE = 256;
+  /** The time limit of the working set reload when no preload time limit is configured. */
+  private static final long DEFAULT_WORKING_SET_TIME_LIMIT = TimeUnit.MINUTES.toMillis(10);
+
+  private final String backendId;
+  private final Storage storage;
+  /** The maximum number of bytes to preload, which is the size of the storage cache. */
+  private final long maxBytes;
+  private final AtomicLong preloadedBytes = new AtomicLong();
+  private final AtomicLong preloadedRecords = new AtomicLong();
+  private volatile boolean stopped;
+  private DirectoryThread workingSetThread;
+
+  /**
+   * Creates a new cache preloader.
+   *
+   * @param backendId
+   *          the ID of the backend to preload
+   * @param storage
+   *          the storage of the backend
+   */
+  CachePreloader(String backendId, Storage storage)
+  {
+    this.backendId = backendId;
+    this.storage = storage;
+    final long cacheSize = storage.getCacheSize();
+    this.maxBytes = cacheSize > 0 ? cacheSize : Long.MAX_VALUE;
+  }
+
+  /**
+   * Preloads the provided trees, returning when they are all loaded or a limit is reached.
+   *
+   * @param trees
+   *          the trees to preload, in order of priority
+   * @param timeLimit
+   *          the time limit in milliseconds
+   */
+  void preloadTrees(List<Tree> trees, long timeLimit)
+  {
+    if (trees.isEmpty())
+    {
+      return;
+    }
+
+    final long startTime = System.currentTimeMillis();
+    final long deadline = startTime + timeLimit;
+    final int threadCount = Math.min(trees.size(), Runtime.getRuntime().availableProcessors());
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(threadCount, newThreadFactory(null, PRELOADER_THREAD_NAME, true));
+    try
+    {
+      final List<Future<Void>> futures = new ArrayList<>(trees.size());
+      for (final Tree tree : trees)
+      {
+        futures.add(executor.submit(new Callable<Void>()
+        {
+          @Override
+          public Void call() throws Exception
+          {
+            preloadTree(tree, deadline);
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures)
+      {
+        future.get();
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+    catch (Exception e)
+    {
+      // Stop the other trees as well
+      stopped = true;
+      final Throwable cause = e.getCause() != null ? e.getCause() : e;
+      logger.error(ERR_CACHE_PRELOAD, backendId, stackTraceToSingleLineString(cause));
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+    logger.info(NOTE_CACHE_PRELOAD_DONE, backendId, preloadedRecords.get(), preloadedBytes.get(),
+        System.currentTimeMillis() - startTime);
+  }
+
+  private void preloadTree(final Tree tree, final long deadline) throws Exception
+  {
+    storage.read(new ReadOperation<Void>()
+    {
+      @Override
+      public Void run(ReadableTransaction txn) throws Exception
+      {
+        try (Cursor<ByteString, ByteString> cursor = txn.openCursor(tree.getName()))
+        {
+          while (!isDone(deadline) && cursor.next())
+          {
+            recordPreloaded(cursor.getKey().length() + cursor.getValue().length());
+          }
+        }
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Starts reloading the working sets of the provided entry containers in the background.
+   *
+   * @param entryContainers
+   *          the entry containers whose working set must be reloaded
+   * @param compressedSchema
+   *          the compressed schema used to decode the entries
+   * @param timeLimit
+   *          the time limit in milliseconds, or {@code 0} for the default time limit of ten minutes
+   */
+  void preloadWorkingSets(final Collection<EntryContainer> entryContainers, final CompressedSchema compressedSchema,
+      long timeLimit)
+  {
+    final long startTime = System.currentTimeMillis();
+    final long deadline = startTime + (timeLimit > 0 ? timeLimit : DEFAULT_WORKING_SET_TIME_LIMIT);
+    workingSetThread = new DirectoryThread(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        long entryCount = 0;
+        for (EntryContainer ec : entryContainers)
+        {
+          try
+          {
+            entryCount += preloadWorkingSet(ec, compressedSchema, deadline);
+          }
+          catch (Exception e)
+          {
+            logger.traceException(e);
+            logger.error(ERR_CACHE_PRELOAD, backendId, stackTraceToSingleLineString(e));
+          }
+        }
+        logger.info(NOTE_WORKING_SET_PRELOAD_DONE, entryCount, backendId, System.currentTimeMillis() - startTime);
+      }
+    }, "Working Set Preloader " + backendId);
+    workingSetThread.setDaemon(true);
+    workingSetThread.start();
+  }
+
+  private long preloadWorkingSet(final EntryContainer ec, final CompressedSchema compressedSchema,
+      final long deadline) throws Exception
+  {
+    final long[] entryIDs = readWorkingSet(ec);
+    long entryCount = 0;
+    for (int from = 0; from < entryIDs.length && !isDone(deadline); from += WORKING_SET_BATCH_SIZE)
+    {
+      final int to = Math.min(from + WORKING_SET_BATCH_SIZE, entryIDs.length);
+      entryCount += preloadEntries(ec, compressedSchema, entryIDs, from, to, deadline);
+    }
+    return entryCount;
+  }
+
+  private long[] readWorkingSet(final EntryContainer ec) throws Exception
+  {
+    ec.sharedLock.lock();
+    try
+    {
+      final ByteString encodedWorkingSet = storage.read(new ReadOperation<ByteString>()
+      {
+        @Override
+        public ByteString run(ReadableTransaction txn) throws Exception
+        {
+          return txn.read(WorkingSet.TREE_NAME, ByteString.valueOfUtf8(ec.getTreePrefix()));
+        }
+      });
+      return encodedWorkingSet != null ? WorkingSet.decode(encodedWorkingSet) : new long[0];
+    }
+    finally
+    {
+      ec.sharedLock.unlock();
+    }
+  }
+
+  /** Reloads the entries of the working set between the provided indexes, under a single lock and transaction. */
+  private long preloadEntries(final EntryContainer ec, final CompressedSchema compressedSchema,
+      final long[] entryIDs, final int from, final int to, final long deadline) throws Exception
+  {
+    ec.sharedLock.lock();
+    try
+    {
+      return storage.read(new ReadOperation<Long>()
+      {
+        @Override
+        public Long run(ReadableTransaction txn) throws Exception
+        {
+          long entryCount = 0;
+          for (int i = from; i < to && !isDone(deadline); i++)
+          {
+            final ByteString value = txn.read(ec.getID2Entry().getName(), new EntryID(entryIDs[i]).toByteString());
+            if (value != null)
+            {
+              // Also load the path to the entry in dn2id
+              final Entry entry = ec.getID2Entry().entryFromDatabase(value, compressedSchema);
+              ec.getDN2ID().get(txn, entry.getName());
+              recordPreloaded(value.length());
+              entryCount++;
+            }
+          }
+          return entryCount;
+        }
+      });
+    }
+    finally
+    {
+      ec.sharedLock.unlock();
+    }
+  }
+
+  /** Stops preloading and waits for the background preload, if any, to terminate. */
+  void stop()
+  {
+    stopped = true;
+    if (workingSetThread != null)
+    {
+      try
+      {
+        workingSetThread.join();
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+      workingSetThread = null;
+    }
+  }
+
+  private boolean isDone(long deadline)
+  {
+    return stopped || preloadedBytes.get() >= maxBytes || System.currentTimeMillis() >= deadline;
+  }
+
+  private void recordPreloaded(long size)
+  {
+    preloadedRecords.incrementAndGet();
+    preloadedBytes.addAndGet(size);
+  }
+}
@@ -14,6 +14,7 @@
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
  * Portions copyright 2013 Manuel Gaupp
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -36,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -165,6 +167,9 @@ public class EntryContainer
    */
   private final String treePrefix;
 
+  /** The sample of the entries recently read from this entry container. */
+  private final WorkingSet workingSet = new WorkingSet();
+
   private final ServerContext serverContext;
 
   /**
@@ -517,6 +522,16 @@ public class EntryContainer
     return id2entry;
   }
 
+  /**
+   * Get the sample of the entries recently read from this entry container.
+   *
+   * @return The working set of this entry container.
+   */
+  WorkingSet getWorkingSet()
+  {
+    return workingSet;
+  }
+
   /**
    * Get the referral tree used by this entry container.
    * The entryContainer must have been opened.
@@ -1142,6 +1157,8 @@ public class EntryContainer
 
     int lookthroughCount = 0;
     int lookthroughLimit = searchOperation.getClientConnection().getLookthroughLimit();
+    final Set<AttributeType> attributeTypes =
+        SearchEntryProjection.getAttributeTypes(searchOperation, serverContext.getSchema());
 
     try (final Cursor<ByteString, ByteString> cursor = txn.openCursor(dn2id.getName()))
     {
@@ -1168,7 +1185,7 @@ public class EntryContainer
         if (isInScope)
         {
           // Process the candidate entry.
-          final Entry entry = getEntry(txn, entryID);
+          final Entry entry = getEntry(txn, entryID, searchOperation, attributeTypes);
           if (entry != null)
           {
             lookthroughCount++;
@@ -1227,12 +1244,19 @@ public class EntryContainer
    * @param txn a non null transaction
    * @param entryID
    *          the id of the entry to retrieve
+   * @param operation
+   *          the operation retrieving the entry
+   * @param attributeTypes
+   *          the attribute types to decode, or {@code null} to decode the whole entry
    * @return the entry corresponding to the provided entryID
    * @throws DirectoryException
    *           If an error occurs retrieving the entry
    */
-  private Entry getEntry(ReadableTransaction txn, EntryID entryID) throws DirectoryException
+  private Entry getEntry(ReadableTransaction txn, EntryID entryID, Operation operation,
+      Set<AttributeType> attributeTypes) throws DirectoryException
   {
+    workingSet.record(entryID);
+
     // Try the entry cache first.
     final EntryCache<?> entryCache = getEntryCache();
     final Entry cacheEntry = entryCache.getEntry(backendID, entryID.longValue());
@@ -1241,11 +1265,12 @@ public class EntryContainer
       return cacheEntry;
     }
 
-    final Entry entry = id2entry.get(txn, entryID);
-    if (entry != null)
+    final Entry entry = id2entry.get(txn, entryID, operation, attributeTypes);
+    if (entry != null && attributeTypes == null)
     {
       // Put the entry in the cache making sure not to overwrite a newer copy
       // that may have been inserted since the time we read the cache.
+      // Partially decoded entries must never be cached.
       entryCache.putEntryIfAbsent(entry, backendID, entryID.longValue());
     }
     return entry;
@@ -1319,13 +1344,15 @@ public class EntryContainer
     if (continueSearch)
     {
       final SearchFilter filter = searchOperation.getFilter();
+      final Set<AttributeType> attributeTypes =
+          SearchEntryProjection.getAttributeTypes(searchOperation, serverContext.getSchema());
       for (int i = findStartIndex(beginEntryID, entryIDReorderedSet); i < entryIDReorderedSet.length; i++)
       {
         EntryID entryID = new EntryID(entryIDReorderedSet[i]);
         Entry entry;
         try
         {
-          entry = getEntry(txn, entryID);
+          entry = getEntry(txn, entryID, searchOperation, attributeTypes);
         }
         catch (Exception e)
         {
@@ -1829,6 +1856,7 @@ public class EntryContainer
     {
       return null;
     }
+    workingSet.record(entryID);
 
     final Entry entry = id2entry.get(txn, entryID);
     if (entry != null && entryCache != null)
@@ -2553,7 +2581,7 @@ public class EntryContainer
     {
       try
       {
-        Entry e = getEntry(txn, id);
+        Entry e = getEntry(txn, id, searchOperation, null);
         if (e.matchesBaseAndScope(baseDN, scope) && filter.matchesEntry(e))
         {
           sortMap.put(encodeVLVKey(sortKeys, e, id.longValue()), id);
@@ -13,14 +13,27 @@
  *
  * Copyright 2006-2008 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
+import static org.forgerock.util.Utils.newThreadFactory;
+
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.i18n.slf4j.LocalizedLogger;
 import org.forgerock.opendj.ldap.ByteString;
@@ -29,6 +42,7 @@ import org.opends.server.backends.pluggable.spi.ReadOperation;
 import org.opends.server.backends.pluggable.spi.ReadableTransaction;
 import org.opends.server.backends.pluggable.spi.StorageRuntimeException;
 import org.forgerock.opendj.ldap.DN;
+import org.opends.server.core.DirectoryServer;
 import org.opends.server.types.Entry;
 import org.opends.server.types.LDIFExportConfig;
 import org.opends.server.util.LDIFException;
@@ -36,11 +50,27 @@ import org.opends.server.util.StaticUtils;
 
 import static org.opends.messages.BackendMessages.*;
 
-/** Export a backend to LDIF. */
+/**
+ * Export a backend to LDIF.
+ * <p>
+ * When several threads are available, the id2entry records are read
+ * sequentially by the thread owning the storage transaction and handed over
+ * in batches to worker threads, which decode, filter and format the entries.
+ * The formatted batches are then written in the order they were read, so that
+ * the resulting LDIF is identical to the one produced by a single thread.
+ */
 class ExportJob
 {
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
+  private static final String EXPORTER_THREAD_NAME = "EXPORTER-%d";
+
+  /** The default number of id2entry records handed over to a worker thread at once. */
+  private static final int BATCH_SIZE = 256;
+
+  /** The maximum number of batches read ahead of the writer, per worker thread. */
+  private static final int PENDING_BATCHES_PER_THREAD = 4;
+
   /** The requested LDIF export configuration. */
   private final LDIFExportConfig exportConfig;
 
@@ -48,10 +78,22 @@ class ExportJob
   private final long progressInterval = 10000;
 
   /** The current number of entries exported. */
-  private long exportedCount;
+  private volatile long exportedCount;
 
   /** The current number of entries skipped. */
-  private long skippedCount;
+  private volatile long skippedCount;
+
+  /** The current number of id2entry records read, including those not formatted yet. */
+  private volatile long readCount;
+
+  /** The current number of id2entry records decoded and formatted by the worker threads. */
+  private final AtomicLong formattedCount = new AtomicLong();
+
+  /** The number of threads decoding and formatting entries. */
+  private int threadCount;
+
+  /** The number of id2entry records handed over to a worker thread at once. */
+  private final int batchSize;
 
   /**
    * Create a new export job.
@@ -59,8 +101,20 @@ class ExportJob
    * @param exportConfig The requested LDIF export configuration.
    */
   ExportJob(LDIFExportConfig exportConfig)
+  {
+    this(exportConfig, BATCH_SIZE);
+  }
+
+  /**
+   * Create a new export job handing over batches of the provided size to the worker threads.
+   *
+   * @param exportConfig The requested LDIF export configuration.
+   * @param batchSize The number of id2entry records handed over to a worker thread at once.
+   */
+  ExportJob(LDIFExportConfig exportConfig, int batchSize)
   {
     this.exportConfig = exportConfig;
+    this.batchSize = batchSize;
   }
 
   /**
@@ -100,6 +154,12 @@ class ExportJob
       }
     }
 
+    threadCount = exportConfig.getThreadCount() > 0 ? exportConfig.getThreadCount() : getDefaultNumberOfThread();
+    logger.info(NOTE_EXPORT_THREAD_COUNT, threadCount);
+    final ExecutorService executor = threadCount > 1
+        ? Executors.newFixedThreadPool(threadCount, newThreadFactory(null, EXPORTER_THREAD_NAME, true))
+        : null;
+
     // Make a note of the time we started.
     long startTime = System.currentTimeMillis();
 
@@ -126,7 +186,14 @@ class ExportJob
             exportContainer.sharedLock.lock();
             try
             {
-              exportContainer(txn, exportContainer);
+              if (executor != null)
+              {
+                exportContainer(txn, exportContainer, executor);
+              }
+              else
+              {
+                exportContainer(txn, exportContainer);
+              }
             }
             finally
             {
@@ -144,6 +211,10 @@ class ExportJob
     finally
     {
       timer.cancel();
+      if (executor != null)
+      {
+        executor.shutdownNow();
+      }
     }
 
     long finishTime = System.currentTimeMillis();
@@ -236,6 +307,203 @@ class ExportJob
     }
   }
 
+  /**
+   * Export the entries in a single entry container using the provided worker
+   * threads to decode and format the entries. The entries are written in the
+   * same order as {@link #exportContainer(ReadableTransaction, EntryContainer)}
+   * would write them.
+   *
+   * @param entryContainer The entry container that holds the entries to be
+   *                       exported.
+   * @param executor The worker threads decoding and formatting the entries.
+   * @throws StorageRuntimeException If an error occurs in the storage.
+   * @throws IOException If an error occurs while writing an entry.
+   * @throws  LDIFException  If an error occurs while trying to determine
+   *                         whether to write an entry.
+   */
+  private void exportContainer(ReadableTransaction txn, EntryContainer entryContainer, ExecutorService executor)
+       throws StorageRuntimeException, IOException, LDIFException
+  {
+    final int maxPendingBatches = threadCount * PENDING_BATCHES_PER_THREAD;
+    final Deque<Future<FormattedBatch>> pendingBatches = new ArrayDeque<>(maxPendingBatches);
+    try (final Cursor<ByteString, ByteString> cursor = txn.openCursor(entryContainer.getID2Entry().getName()))
+    {
+      List<ByteString> keys = new ArrayList<>(batchSize);
+      List<ByteString> values = new ArrayList<>(batchSize);
+      while (cursor.next() && !exportConfig.isCancelled())
+      {
+        keys.add(cursor.getKey());
+        values.add(cursor.getValue());
+        readCount++;
+        if (keys.size() == batchSize)
+        {
+          if (pendingBatches.size() == maxPendingBatches)
+          {
+            writeBatch(pendingBatches.removeFirst());
+          }
+          pendingBatches.addLast(executor.submit(new FormatTask(entryContainer, keys, values)));
+          keys = new ArrayList<>(batchSize);
+          values = new ArrayList<>(batchSize);
+        }
+      }
+      if (!keys.isEmpty())
+      {
+        pendingBatches.addLast(executor.submit(new FormatTask(entryContainer, keys, values)));
+      }
+
+      while (!pendingBatches.isEmpty() && !exportConfig.isCancelled())
+      {
+        writeBatch(pendingBatches.removeFirst());
+      }
+    }
+    finally
+    {
+      for (Future<FormattedBatch> pendingBatch : pendingBatches)
+      {
+        pendingBatch.cancel(true);
+      }
+    }
+  }
+
+  private void writeBatch(Future<FormattedBatch> future) throws IOException, LDIFException
+  {
+    final FormattedBatch batch;
+    try
+    {
+      batch = future.get();
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new StorageRuntimeException(e);
+    }
+    catch (ExecutionException e)
+    {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException)
+      {
+        throw (IOException) cause;
+      }
+      else if (cause instanceof LDIFException)
+      {
+        throw (LDIFException) cause;
+      }
+      else if (cause instanceof StorageRuntimeException)
+      {
+        throw (StorageRuntimeException) cause;
+      }
+      throw new StorageRuntimeException(cause);
+    }
+
+    exportConfig.getWriter().write(batch.ldif);
+    exportedCount += batch.exportedCount;
+    skippedCount += batch.skippedCount;
+  }
+
+  private static int getDefaultNumberOfThread()
+  {
+    final int nbProcessors = Runtime.getRuntime().availableProcessors();
+    return Math.max(1, DirectoryServer.isRunning() ? nbProcessors / 2 : nbProcessors);
+  }
+
+  /** A batch of entries formatted as LDIF by a worker thread. */
+  private static final class FormattedBatch
+  {
+    private final String ldif;
+    private final int exportedCount;
+    private final int skippedCount;
+
+    private FormattedBatch(String ldif, int exportedCount, int skippedCount)
+    {
+      this.ldif = ldif;
+      this.exportedCount = exportedCount;
+      this.skippedCount = skippedCount;
+    }
+  }
+
+  /** Decodes, filters and formats a batch of id2entry records. */
+  private final class FormatTask implements Callable<FormattedBatch>
+  {
+    private final EntryContainer entryContainer;
+    private final List<ByteString> keys;
+    private final List<ByteString> values;
+
+    private FormatTask(EntryContainer entryContainer, List<ByteString> keys, List<ByteString> values)
+    {
+      this.entryContainer = entryContainer;
+      this.keys = keys;
+      this.values = values;
+    }
+
+    @Override
+    public FormattedBatch call() throws Exception
+    {
+      final ID2Entry id2entry = entryContainer.getID2Entry();
+      final StringWriter ldif = new StringWriter();
+      int exported = 0;
+      int skipped = 0;
+      try (BufferedWriter writer = new BufferedWriter(ldif))
+      {
+        for (int i = 0; i < keys.size(); i++)
+        {
+          final ByteString key = keys.get(i);
+          final EntryID entryID;
+          try
+          {
+            entryID = new EntryID(key);
+          }
+          catch (Exception e)
+          {
+            if (logger.isTraceEnabled())
+            {
+              logger.traceException(e);
+
+              logger.trace("Malformed id2entry ID %s.%n", StaticUtils.bytesToHex(key));
+            }
+            skipped++;
+            continue;
+          }
+
+          if (entryID.longValue() == 0)
+          {
+            // This is the stored entry count.
+            continue;
+          }
+
+          final ByteString value = values.get(i);
+          final Entry entry;
+          try
+          {
+            entry = id2entry.entryFromDatabase(value, entryContainer.getRootContainer().getCompressedSchema());
+          }
+          catch (Exception e)
+          {
+            if (logger.isTraceEnabled())
+            {
+              logger.traceException(e);
+
+              logger.trace("Malformed id2entry record for ID %d:%n%s%n",
+                         entryID, StaticUtils.bytesToHex(value));
+            }
+            skipped++;
+            continue;
+          }
+
+          if (entry.toLDIF(exportConfig, writer))
+          {
+            exported++;
+          }
+          else
+          {
+            skipped++;
+          }
+        }
+      }
+      formattedCount.addAndGet(keys.size());
+      return new FormattedBatch(ldif.toString(), exported, skipped);
+    }
+  }
+
   /** This class reports progress of the export job at fixed intervals. */
   private class ProgressTask extends TimerTask
   {
@@ -267,7 +535,15 @@ class ExportJob
 
       float rate = 1000f*deltaCount / deltaTime;
 
-      logger.info(NOTE_EXPORT_PROGRESS_REPORT, latestCount, skippedCount, rate);
+      if (threadCount > 1)
+      {
+        logger.info(NOTE_EXPORT_PARALLEL_PROGRESS_REPORT, latestCount, skippedCount, rate,
+            readCount, formattedCount.get());
+      }
+      else
+      {
+        logger.info(NOTE_EXPORT_PROGRESS_REPORT, latestCount, skippedCount, rate);
+      }
 
       previousCount = latestCount;
       previousTime = latestTime;
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -26,6 +27,7 @@ import static org.opends.server.core.DirectoryServer.*;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Set;
 import java.util.zip.DataFormatException;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
@@ -39,6 +41,7 @@ import org.forgerock.opendj.ldap.ByteSequenceReader;
 import org.forgerock.opendj.ldap.ByteString;
 import org.forgerock.opendj.ldap.ByteStringBuilder;
 import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.schema.AttributeType;
 import org.forgerock.util.Function;
 import org.forgerock.util.Reject;
 import org.opends.server.api.CompressedSchema;
@@ -52,6 +55,8 @@ import org.opends.server.types.CryptoManagerException;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
 import org.opends.server.types.LDAPException;
+import org.opends.server.types.Operation;
+import org.opends.server.types.OperationPhase;
 
 /**
  * Represents the tree containing the LDAP entries.
@@ -140,16 +145,16 @@ class ID2Entry extends AbstractTree
       compressedEntryBuffer.clearAndTruncate(maxBufferSize, BUFFER_INIT_SIZE);
     }
 
-    private Entry decode(ByteString bytes, CompressedSchema compressedSchema)
+    private Entry decode(ByteString bytes, CompressedSchema compressedSchema, Set<AttributeType> attributeTypes)
         throws DirectoryException, DecodeException, IOException
     {
       final byte formatVersion = bytes.byteAt(0);
       switch(formatVersion)
       {
       case FORMAT_VERSION:
-        return decodeV1(bytes, compressedSchema);
+        return decodeV1(bytes, compressedSchema, attributeTypes);
       case FORMAT_VERSION_V2:
-        return decodeV2(bytes, compressedSchema);
+        return decodeV2(bytes, compressedSchema, attributeTypes);
       default:
         throw DecodeException.error(ERR_INCOMPATIBLE_ENTRY_VERSION.get(formatVersion));
       }
@@ -180,13 +185,14 @@ class ID2Entry extends AbstractTree
      *
      * @param bytes A byte array containing the encoded tree value.
      * @param compressedSchema The compressed schema manager to use when decoding.
+     * @param attributeTypes The attribute types of the attributes to decode, or null to decode all of them.
      * @return The decoded entry.
      * @throws DecodeException If the data is not in the expected ASN.1 encoding
      * format.
      * @throws DirectoryException If a Directory Server error occurs.
      * @throws IOException if an error occurs while reading the ASN1 sequence.
      */
-    private Entry decodeV1(ByteString bytes, CompressedSchema compressedSchema)
+    private Entry decodeV1(ByteString bytes, CompressedSchema compressedSchema, Set<AttributeType> attributeTypes)
         throws DirectoryException, DecodeException, IOException
     {
       // Read the ASN1 sequence.
@@ -214,14 +220,14 @@ class ID2Entry extends AbstractTree
         // Since we are used the cached buffers (ByteStringBuilders),
         // the decoded attribute values will not refer back to the
         // original buffer.
-        return Entry.decode(entryBuffer.asReader(), compressedSchema);
+        return Entry.decode(entryBuffer.asReader(), compressedSchema, attributeTypes);
       }
       else
       {
         // Since we don't have to do any decompression, we can just decode
         // the entry directly.
         ByteString encodedEntry = reader.readOctetString();
-        return Entry.decode(encodedEntry.asReader(), compressedSchema);
+        return Entry.decode(encodedEntry.asReader(), compressedSchema, attributeTypes);
       }
     }
 
@@ -239,13 +245,14 @@ class ID2Entry extends AbstractTree
      *
      * @param bytes A byte array containing the encoded tree value.
      * @param compressedSchema The compressed schema manager to use when decoding.
+     * @param attributeTypes The attribute types of the attributes to decode, or null to decode all of them.
      * @return The decoded entry.
      * @throws DecodeException If the data is not in the expected ASN.1 encoding
      * format or a decryption error occurs.
      * @throws DirectoryException If a Directory Server error occurs.
      * @throws IOException if an error occurs while reading the ASN1 sequence.
      */
-    private Entry decodeV2(ByteString bytes, CompressedSchema compressedSchema)
+    private Entry decodeV2(ByteString bytes, CompressedSchema compressedSchema, Set<AttributeType> attributeTypes)
         throws DirectoryException, DecodeException, IOException
     {
       ByteSequenceReader reader = bytes.asReader();
@@ -257,7 +264,7 @@ class ID2Entry extends AbstractTree
       {
         if (format == PLAIN_ENTRY)
         {
-          return Entry.decode(reader, compressedSchema);
+          return Entry.decode(reader, compressedSchema, attributeTypes);
         }
         InputStream is = reader.asInputStream();
         if ((format & ENCRYPT_ENTRY) == ENCRYPT_ENTRY)
@@ -282,7 +289,7 @@ class ID2Entry extends AbstractTree
           position += readBytes;
           leftToRead -= readBytes;
         } while (leftToRead > 0 && readBytes > 0);
-        return Entry.decode(ByteString.wrap(data).asReader(), compressedSchema);
+        return Entry.decode(ByteString.wrap(data).asReader(), compressedSchema, attributeTypes);
       }
       catch (CryptoManagerException cme)
       {
@@ -384,11 +391,17 @@ class ID2Entry extends AbstractTree
   Entry entryFromDatabase(ByteString bytes,
       CompressedSchema compressedSchema) throws DirectoryException,
       DecodeException, LDAPException, DataFormatException, IOException
+  {
+    return entryFromDatabase(bytes, compressedSchema, null);
+  }
+
+  private Entry entryFromDatabase(ByteString bytes, CompressedSchema compressedSchema,
+      Set<AttributeType> attributeTypes) throws DirectoryException, DecodeException, IOException
   {
     EntryCodec codec = acquireEntryCodec();
     try
     {
-      return codec.decode(bytes, compressedSchema);
+      return codec.decode(bytes, compressedSchema, attributeTypes);
     }
     finally
     {
@@ -469,6 +482,38 @@ class ID2Entry extends AbstractTree
     }
   }
 
+  /**
+   * Fetch a record from the entry tree on behalf of an operation, accounting the time spent decoding the entry to
+   * the {@link OperationPhase#ENTRY_DECODING} phase of the operation.
+   *
+   * @param txn a non null transaction
+   * @param entryID The desired entry ID which forms the key.
+   * @param operation The operation fetching the entry.
+   * @param attributeTypes The attribute types of the attributes to decode, or null to decode the whole entry.
+   * @return The requested entry, or null if there is no such record.
+   * @throws DirectoryException If a problem occurs while getting the entry.
+   * @throws StorageRuntimeException If an error occurs in the storage.
+   */
+  Entry get(ReadableTransaction txn, EntryID entryID, Operation operation, Set<AttributeType> attributeTypes)
+       throws DirectoryException, StorageRuntimeException
+  {
+    final ByteString value = txn.read(getName(), entryID.toByteString());
+    final OperationPhase previousPhase = operation.enterPhase(OperationPhase.ENTRY_DECODING);
+    try
+    {
+      return get0(value, attributeTypes);
+    }
+    catch (Exception e)
+    {
+      throw new DirectoryException(
+          DirectoryServer.getCoreConfigManager().getServerErrorResultCode(), ERR_ENTRY_DATABASE_CORRUPT.get(entryID));
+    }
+    finally
+    {
+      operation.exitPhase(previousPhase);
+    }
+  }
+
   Cursor<EntryID, Entry> openCursor(ReadableTransaction txn)
   {
     return transformKeysAndValues(txn.openCursor(getName()), TO_ENTRY_ID, TO_ENTRY);
@@ -492,12 +537,18 @@ class ID2Entry extends AbstractTree
   }
 
   private Entry get0(ByteString value) throws Exception
+  {
+    return get0(value, null);
+  }
+
+  private Entry get0(ByteString value, Set<AttributeType> attributeTypes) throws Exception
   {
     if (value == null)
     {
       return null;
     }
-    final Entry entry = entryFromDatabase(value, dataConfig.getEntryEncodeConfig().getCompressedSchema());
+    final Entry entry =
+        entryFromDatabase(value, dataConfig.getEntryEncodeConfig().getCompressedSchema(), attributeTypes);
     entry.processVirtualAttributes();
     return entry;
   }
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -20,7 +21,9 @@ import static org.opends.server.util.StaticUtils.*;
 import static org.opends.messages.BackendMessages.ERR_IMPORT_DUPLICATE_ENTRY;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -81,10 +84,36 @@ final class ImportLDIFReader extends LDIFReader
     }
   }
 
+  /** The lines of an entry read from the LDIF source, and what has been determined about it so far. */
+  private static final class EntryLines
+  {
+    private final LinkedList<StringBuilder> lines;
+    private final long lineNumber;
+    private DN entryDN;
+    private EntryContainer entryContainer;
+    private EntryID entryID;
+
+    private EntryLines(LinkedList<StringBuilder> lines, long lineNumber)
+    {
+      this.lines = lines;
+      this.lineNumber = lineNumber;
+    }
+  }
+
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
+  /** The maximum number of entries read from the LDIF source while holding the reader lock. */
+  private static final int BATCH_SIZE = 64;
+
   private final RootContainer rootContainer;
 
+  /** Guards the assignment of entry IDs so that it follows the order of the LDIF source. */
+  private final Object sequenceLock = new Object();
+  /** The sequence number of the next batch of entries to be read, guarded by this reader. */
+  private long sequence;
+  /** The sequence number of the next batch of entries to be assigned IDs, guarded by {@link #sequenceLock}. */
+  private long nextSequence;
+
   /**
    * Creates a new LDIF reader that will read information from the specified file.
    *
@@ -103,10 +132,15 @@ final class ImportLDIFReader extends LDIFReader
   }
 
   /**
-   * Reads the next entry from the LDIF source.
+   * Reads the next batch of entries from the LDIF source.
+   * <p>
+   * Only the lines of the entries are read while holding the reader lock. Their DNs are decoded and the entries
+   * are created concurrently by the calling threads. Entry IDs are still assigned, and entries registered as
+   * pending, in the order in which they appear in the LDIF source: this guarantees that a parent entry is always
+   * registered as pending before any of its children can be returned.
    *
-   * @return The next entry information read from the LDIF source, or <CODE>null</CODE> if the end of the LDIF
-   *         data is reached of if the import has been cancelled.
+   * @return The next entries read from the LDIF source, in the order in which they appear in it, or
+   *         <CODE>null</CODE> if the end of the LDIF data is reached. The returned list is never empty.
    * @param suffixesMap
    *          A map of entry containers instances.
    * @throws IOException
@@ -114,87 +148,188 @@ final class ImportLDIFReader extends LDIFReader
    * @throws LDIFException
    *           If the information read cannot be parsed as an LDIF entry.
    */
-  public final EntryInformation readEntry(Map<DN, EntryContainer> suffixesMap) throws IOException, LDIFException
+  List<EntryInformation> readEntries(Map<DN, EntryContainer> suffixesMap) throws IOException, LDIFException
   {
     final boolean checkSchema = importConfig.validateSchema();
     while (true)
     {
-      LinkedList<StringBuilder> lines;
-      DN entryDN;
-      EntryID entryID;
-      final EntryContainer entryContainer;
+      final List<EntryLines> batch = new ArrayList<>(BATCH_SIZE);
+      final long batchSequence;
       synchronized (this)
       {
-        // Read the set of lines that make up the next entry.
-        lines = readEntryLines();
-        if (lines == null)
+        LinkedList<StringBuilder> lines;
+        while (batch.size() < BATCH_SIZE && (lines = readEntryLines()) != null)
+        {
+          batch.add(new EntryLines(lines, lastEntryLineNumber));
+        }
+        if (batch.isEmpty())
         {
           return null;
         }
-        lastEntryBodyLines = lines;
-        lastEntryHeaderLines = new LinkedList<>();
+        batchSequence = sequence++;
+      }
 
-        // Read the DN of the entry and see if it is one that should be included
-        // in the import.
-        try
+      final List<EntryLines> candidates = new ArrayList<>(batch.size());
+      boolean decoded = false;
+      try
+      {
+        for (EntryLines entryLines : batch)
         {
-          entryDN = readDN(lines);
+          if (readEntryDN(entryLines, suffixesMap))
+          {
+            candidates.add(entryLines);
+          }
         }
-        catch (LDIFException e)
+        decoded = true;
+      }
+      finally
+      {
+        // Always take our turn, otherwise the threads handling the next batches would wait forever.
+        // Do not register anything as pending if this batch is abandoned.
+        assignEntryIDs(batchSequence, decoded ? candidates : new ArrayList<EntryLines>(0));
+      }
+
+      final List<EntryInformation> entries = new ArrayList<>(candidates.size());
+      int processed = 0;
+      try
+      {
+        for (; processed < candidates.size(); processed++)
         {
-          logger.traceException(e);
-          continue;
+          // Create the entry and see if it is one that should be included in the import
+          final EntryLines entryLines = candidates.get(processed);
+          final LinkedList<StringBuilder> lines = entryLines.lines;
+          final Entry entry = createEntry(lines, entryLines.entryDN, checkSchema, entryLines.lineNumber);
+          if (entry == null
+              || !isIncludedInImport(entry, lines, entryLines.lineNumber)
+              || !invokeImportPlugins(entry, lines)
+              || (checkSchema && !isValidAgainstSchema(entry, lines, entryLines.lineNumber)))
+          {
+            removePending(entryLines.entryDN);
+            continue;
+          }
+          entries.add(new EntryInformation(entry, entryLines.entryID, entryLines.entryContainer));
         }
-
-        if (entryDN == null)
+      }
+      finally
+      {
+        if (processed < candidates.size())
         {
-          // This should only happen if the LDIF starts with the "version:" line
-          // and has a blank line immediately after that. In that case, simply
-          // read and return the next entry.
-          continue;
+          // An unchecked exception escaped: none of the entries of this batch will be returned, so they must not
+          // stay pending, otherwise the threads processing their children would wait forever
+          for (EntryInformation entryInfo : entries)
+          {
+            removePending(entryInfo.getEntry().getName());
+          }
+          for (int i = processed; i < candidates.size(); i++)
+          {
+            removePending(candidates.get(i).entryDN);
+          }
         }
+      }
+      if (!entries.isEmpty())
+      {
+        return entries;
+      }
+    }
+  }
 
-        entriesRead.incrementAndGet();
+  /**
+   * Decodes the DN of the provided entry and checks whether it should be included in the import.
+   *
+   * @return {@code true} if the entry should be imported, {@code false} if it must be skipped
+   */
+  private boolean readEntryDN(EntryLines entryLines, Map<DN, EntryContainer> suffixesMap)
+  {
+    final LinkedList<StringBuilder> lines = entryLines.lines;
+    final DN entryDN;
+    try
+    {
+      entryDN = readDN(lines, new LinkedList<StringBuilder>(), entryLines.lineNumber);
+    }
+    catch (LDIFException e)
+    {
+      logger.traceException(e);
+      return false;
+    }
+
+    if (entryDN == null)
+    {
+      // This should only happen if the LDIF starts with the "version:" line
+      // and has a blank line immediately after that. In that case, simply
+      // read and return the next entry.
+      return false;
+    }
+
+    entriesRead.incrementAndGet();
 
-        final Pair<Boolean, LocalizableMessage> includeResult = importConfig.includeEntry(entryDN);
-        if (!includeResult.getFirst())
+    final Pair<Boolean, LocalizableMessage> includeResult = importConfig.includeEntry(entryDN);
+    if (!includeResult.getFirst())
+    {
+      logToSkipWriter(lines, includeResult.getSecond());
+      return false;
+    }
+    final EntryContainer entryContainer = getEntryContainer(entryDN, suffixesMap);
+    if (entryContainer == null)
+    {
+      logger.trace("Skipping entry %s because the DN is not one that "
+          + "should be included based on a suffix match check.", entryDN);
+      logToSkipWriter(lines, ERR_LDIF_SKIP.get(entryDN));
+      return false;
+    }
+    entryLines.entryDN = entryDN;
+    entryLines.entryContainer = entryContainer;
+    return true;
+  }
+
+  /**
+   * Waits for the batches read before the provided one to be done, then assigns an entry ID to each provided entry
+   * and registers it as pending. Duplicate entries are skipped and removed from the provided list.
+   */
+  private void assignEntryIDs(long batchSequence, List<EntryLines> candidates)
+  {
+    synchronized (sequenceLock)
+    {
+      boolean interrupted = false;
+      while (nextSequence != batchSequence)
+      {
+        try
         {
-          logToSkipWriter(lines, includeResult.getSecond());
-          continue;
+          sequenceLock.wait();
         }
-        entryContainer = getEntryContainer(entryDN, suffixesMap);
-        if (entryContainer == null)
+        catch (InterruptedException e)
         {
-          logger.trace("Skipping entry %s because the DN is not one that "
-              + "should be included based on a suffix match check.", entryDN);
-          logToSkipWriter(lines, ERR_LDIF_SKIP.get(entryDN));
-          continue;
+          // Cannot give up our turn, the threads handling the next batches are waiting for it
+          interrupted = true;
         }
-        entryID = rootContainer.getNextEntryID();
-
-        if (!addPending(entryDN))
+      }
+      try
+      {
+        for (Iterator<EntryLines> it = candidates.iterator(); it.hasNext();)
         {
-          logger.trace("Skipping entry %s because the DN already exists.", entryDN);
-          logToSkipWriter(lines, ERR_IMPORT_DUPLICATE_ENTRY.get(entryDN));
-          continue;
+          final EntryLines entryLines = it.next();
+          if (!addPending(entryLines.entryDN))
+          {
+            logger.trace("Skipping entry %s because the DN already exists.", entryLines.entryDN);
+            logToSkipWriter(entryLines.lines, ERR_IMPORT_DUPLICATE_ENTRY.get(entryLines.entryDN));
+            it.remove();
+            continue;
+          }
+          entryLines.entryID = rootContainer.getNextEntryID();
         }
       }
-
-      // Create the entry and see if it is one that should be included in the import
-      final Entry entry = createEntry(lines, entryDN, checkSchema);
-      if (entry == null
-          || !isIncludedInImport(entry, lines)
-          || !invokeImportPlugins(entry, lines)
-          || (checkSchema && !isValidAgainstSchema(entry, lines)))
+      finally
       {
-        removePending(entryDN);
-        continue;
+        nextSequence++;
+        sequenceLock.notifyAll();
+        if (interrupted)
+        {
+          Thread.currentThread().interrupt();
+        }
       }
-      return new EntryInformation(entry, entryID, entryContainer);
     }
   }
 
-  private Entry createEntry(List<StringBuilder> lines, DN entryDN, boolean checkSchema)
+  private Entry createEntry(List<StringBuilder> lines, DN entryDN, boolean checkSchema, long lineNumber)
   {
     // Read the set of attributes from the entry.
     Map<ObjectClass, String> objectClasses = new HashMap<>();
@@ -204,7 +339,8 @@ final class ImportLDIFReader extends LDIFReader
     {
       for (StringBuilder line : lines)
       {
-        readAttribute(lines, line, entryDN, objectClasses, userAttrBuilders, operationalAttrBuilders, checkSchema);
+        readAttribute(lines, line, entryDN, objectClasses, userAttrBuilders, operationalAttrBuilders, checkSchema,
+            lineNumber);
       }
     }
     catch (LDIFException e)
@@ -223,7 +359,7 @@ final class ImportLDIFReader extends LDIFReader
     return entry;
   }
 
-  private boolean isIncludedInImport(Entry entry, LinkedList<StringBuilder> entryLines)
+  private boolean isIncludedInImport(Entry entry, LinkedList<StringBuilder> entryLines, long lineNumber)
   {
     final DN entryDN = entry.getName();
     try
@@ -239,7 +375,7 @@ final class ImportLDIFReader extends LDIFReader
     catch (Exception e)
     {
       logToSkipWriter(entryLines,
-          ERR_LDIF_COULD_NOT_EVALUATE_FILTERS_FOR_IMPORT.get(entryDN, lastEntryLineNumber, e));
+          ERR_LDIF_COULD_NOT_EVALUATE_FILTERS_FOR_IMPORT.get(entryDN, lineNumber, e));
       return false;
     }
   }
@@ -270,7 +406,7 @@ final class ImportLDIFReader extends LDIFReader
     return true;
   }
 
-  private boolean isValidAgainstSchema(Entry entry, LinkedList<StringBuilder> lines)
+  private boolean isValidAgainstSchema(Entry entry, LinkedList<StringBuilder> lines, long lineNumber)
   {
     final DN entryDN = entry.getName();
     addRDNAttributesIfNecessary(entryDN, entry.getUserAttributes(), entry.getOperationalAttributes());
@@ -280,7 +416,7 @@ final class ImportLDIFReader extends LDIFReader
     LocalizableMessageBuilder invalidReason = new LocalizableMessageBuilder();
     if (!entry.conformsToSchema(null, false, true, false, invalidReason))
     {
-      LocalizableMessage message = ERR_LDIF_SCHEMA_VIOLATION.get(entryDN, lastEntryLineNumber, invalidReason);
+      LocalizableMessage message = ERR_LDIF_SCHEMA_VIOLATION.get(entryDN, lineNumber, invalidReason);
       logToRejectWriter(lines, message);
       return false;
     }
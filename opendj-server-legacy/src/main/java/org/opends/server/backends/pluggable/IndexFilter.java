@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -237,10 +238,11 @@ class IndexFilter
         }
 
         final IndexQueryFactoryImpl indexQueryFactory = new IndexQueryFactoryImpl(txn, attributeIndex);
+        final long startTime = System.nanoTime();
         EntryIDSet set = attributeIndex.evaluateBoundedRange(indexQueryFactory, filter1, filter2, buffer, monitor);
         if(monitor.isFilterUseEnabled() && set.isDefined())
         {
-          monitor.updateStats(SearchFilter.createANDFilter(rangeList), set.size());
+          monitor.updateStats(SearchFilter.createANDFilter(rangeList), set.size(), System.nanoTime() - startTime);
         }
         results.retainAll(set);
         if (isBelowFilterThreshold(results))
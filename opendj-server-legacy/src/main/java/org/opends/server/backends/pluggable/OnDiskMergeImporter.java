@@ -14,6 +14,7 @@
  * Portions Copyright 2014 The Apache Software Foundation
  * Copyright 2015-2017 ForgeRock AS.
  * Portions Copyright 2022 Wren Security
+ * Portions Copyright 2026 Wren Security.
  *
  * Licensed to the Apache Software Foundation (ASF) under one or more
  * contributor license agreements.  See the NOTICE file distributed with
@@ -663,27 +664,34 @@ final class OnDiskMergeImporter {
                         @Override
                         public Void call() throws Exception {
                             checkThreadNotInterrupted();
-                            EntryInformation entryInfo;
-                            while ((entryInfo = reader.readEntry(entryContainers)) != null
-                                    && !importConfig.isCancelled()) {
-                                final EntryContainer entryContainer = entryInfo.getEntryContainer();
-                                final Entry entry = entryInfo.getEntry();
-                                final DN entryDN = entry.getName();
-                                final DN parentDN = entryContainer.getParentWithinBase(entryDN);
-
-                                if (parentDN != null) {
-                                    reader.waitIfPending(parentDN);
+                            List<EntryInformation> entries;
+                            while (!importConfig.isCancelled()
+                                    && (entries = reader.readEntries(entryContainers)) != null) {
+                                for (final EntryInformation entryInfo : entries) {
+                                    final EntryContainer entryContainer = entryInfo.getEntryContainer();
+                                    final Entry entry = entryInfo.getEntry();
+                                    final DN entryDN = entry.getName();
+                                    if (importConfig.isCancelled()) {
+                                        // Do not leave threads waiting for the children of this entry
+                                        reader.removePending(entryDN);
+                                        continue;
+                                    }
+                                    final DN parentDN = entryContainer.getParentWithinBase(entryDN);
+
+                                    if (parentDN != null) {
+                                        reader.waitIfPending(parentDN);
+                                    }
+                                    try {
+                                        entryProcessor.processEntry(entryContainer, entryInfo.getEntryID(), entry);
+                                    } catch (DirectoryException e) {
+                                        reader.rejectEntry(entry, e.getMessageObject());
+                                    } catch (Exception e) {
+                                        reader.rejectEntry(entry, ERR_EXECUTION_ERROR.get(e));
+                                    } finally {
+                                        reader.removePending(entryDN);
+                                    }
+                                    checkThreadNotInterrupted();
                                 }
-                                try {
-                                    entryProcessor.processEntry(entryContainer, entryInfo.getEntryID(), entry);
-                                } catch (DirectoryException e) {
-                                    reader.rejectEntry(entry, e.getMessageObject());
-                                } catch (Exception e) {
-                                    reader.rejectEntry(entry, ERR_EXECUTION_ERROR.get(e));
-                                } finally {
-                                    reader.removePending(entry.getName());
-                                }
-                                checkThreadNotInterrupted();
                             }
                             return null;
                         }
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -32,6 +33,7 @@ import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.i18n.slf4j.LocalizedLogger;
 import org.forgerock.opendj.config.server.ConfigChangeResult;
 import org.forgerock.opendj.config.server.ConfigException;
+import org.forgerock.opendj.ldap.ByteString;
 import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.config.server.ConfigurationChangeListener;
 import org.forgerock.opendj.server.config.server.PluggableBackendCfg;
@@ -79,6 +81,10 @@ public class RootContainer implements ConfigurationChangeListener<PluggableBacke
 
   /** The compressed schema manager for this backend. */
   private PersistentCompressedSchema compressedSchema;
+  /** Specifies how the storage has been opened, {@code null} until it is opened. */
+  private AccessMode accessMode;
+  /** Preloads the storage cache, {@code null} when there is no preload in progress. */
+  private CachePreloader preloader;
 
   private final ServerContext serverContext;
 
@@ -131,6 +137,7 @@ public class RootContainer implements ConfigurationChangeListener<PluggableBacke
     try
     {
       storage.open(accessMode);
+      this.accessMode = accessMode;
       storage.write(new WriteOperation()
       {
         @Override
@@ -138,6 +145,10 @@ public class RootContainer implements ConfigurationChangeListener<PluggableBacke
         {
           compressedSchema = new PersistentCompressedSchema(serverContext, storage, txn, accessMode);
           openAndRegisterEntryContainers(txn, config.getBaseDN(), accessMode);
+          if (isWarmRestartEnabled())
+          {
+            txn.openTree(WorkingSet.TREE_NAME, true);
+          }
         }
       });
     }
@@ -270,15 +281,21 @@ public class RootContainer implements ConfigurationChangeListener<PluggableBacke
   }
 
   /**
-   * Preload the tree cache. There is no preload if the configured preload
-   * time limit is zero.
+   * Preload the tree cache. When warm restart is enabled and a working set
+   * was recorded, the working set is reloaded in the background. Otherwise
+   * the trees are preloaded, unless the configured preload time limit is zero.
    *
    * @param timeLimit
    *          The time limit for the preload process.
    */
   void preload(long timeLimit)
   {
-    if (timeLimit > 0)
+    if (isWarmRestartEnabled() && hasWorkingSets())
+    {
+      preloader = new CachePreloader(backendId, storage);
+      preloader.preloadWorkingSets(entryContainers.values(), compressedSchema, timeLimit);
+    }
+    else if (timeLimit > 0)
     {
       // Get a list of all the tree used by the backend.
       final List<Tree> trees = new ArrayList<>();
@@ -298,16 +315,62 @@ public class RootContainer implements ConfigurationChangeListener<PluggableBacke
       // Sort the list in order of priority.
       Collections.sort(trees, new TreePreloadComparator());
 
-      // Preload each tree until we reach the time limit or the cache is filled.
-      try
+      // Preload the trees until we reach the time limit or the cache is filled.
+      new CachePreloader(backendId, storage).preloadTrees(trees, timeLimit);
+    }
+  }
+
+  private boolean isWarmRestartEnabled()
+  {
+    return accessMode != null && accessMode.isWriteable() && config.isWarmRestartEnabled();
+  }
+
+  private boolean hasWorkingSets()
+  {
+    try
+    {
+      return storage.read(new ReadOperation<Boolean>()
       {
-        throw new UnsupportedOperationException("Not implemented exception");
-      }
-      catch (StorageRuntimeException e)
+        @Override
+        public Boolean run(ReadableTransaction txn) throws Exception
+        {
+          return txn.getRecordCount(WorkingSet.TREE_NAME) > 0;
+        }
+      });
+    }
+    catch (Exception e)
+    {
+      logger.traceException(e);
+      return false;
+    }
+  }
+
+  /** Records the working sets of the entry containers, so that they can be reloaded on the next startup. */
+  private void saveWorkingSets()
+  {
+    try
+    {
+      storage.write(new WriteOperation()
       {
-        logger.error(ERR_CACHE_PRELOAD, backendId,
-            stackTraceToSingleLineString(e.getCause() != null ? e.getCause() : e));
-      }
+        @Override
+        public void run(WriteableTransaction txn) throws Exception
+        {
+          for (EntryContainer ec : entryContainers.values())
+          {
+            final ByteString encodedWorkingSet = ec.getWorkingSet().encode();
+            // Keep the previous working set if no entries were read
+            if (encodedWorkingSet.length() > 0)
+            {
+              txn.put(WorkingSet.TREE_NAME, ByteString.valueOfUtf8(ec.getTreePrefix()), encodedWorkingSet);
+            }
+          }
+        }
+      });
+    }
+    catch (Exception e)
+    {
+      logger.traceException(e);
+      logger.error(ERR_WORKING_SET_SAVE, backendId, stackTraceToSingleLineString(e));
     }
   }
 
@@ -319,6 +382,16 @@ public class RootContainer implements ConfigurationChangeListener<PluggableBacke
    */
   void close() throws StorageRuntimeException
   {
+    if (preloader != null)
+    {
+      preloader.stop();
+      preloader = null;
+    }
+    if (isWarmRestartEnabled())
+    {
+      saveWorkingSets();
+    }
+
     for (DN baseDN : entryContainers.keySet())
     {
       EntryContainer ec = unregisterEntryContainer(baseDN);
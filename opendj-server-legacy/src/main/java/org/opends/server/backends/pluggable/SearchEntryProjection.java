@@ -0,0 +1,154 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.backends.pluggable;
+
+import static org.opends.server.util.ServerConstants.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.forgerock.opendj.ldap.schema.AttributeType;
+import org.forgerock.opendj.ldap.schema.Schema;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.core.SearchOperation;
+import org.opends.server.types.Privilege;
+import org.opends.server.types.SearchFilter;
+import org.opends.server.types.VirtualAttributeRule;
+
+/**
+ * Computes the attribute types of the candidate entries of a search which must be decoded from the database.
+ * <p>
+ * Decoding only these attribute types avoids materializing the values of the attributes that are neither
+ * evaluated by the search filter nor returned to the client. This is only possible when nothing else in the search
+ * processing may need the whole entry: access control, virtual attributes and collective attributes all evaluate
+ * arbitrary attributes of the entries, so the projection is disabled as soon as one of them may be involved.
+ */
+final class SearchEntryProjection
+{
+  private SearchEntryProjection()
+  {
+    // Utility class
+  }
+
+  /**
+   * Returns the attribute types of the candidate entries which must be decoded to process the provided search.
+   * Object classes are always decoded.
+   *
+   * @param searchOperation
+   *          the search operation
+   * @param schema
+   *          the schema used to resolve the attribute types
+   * @return the attribute types which must be decoded, or {@code null} if the whole entries must be decoded
+   */
+  static Set<AttributeType> getAttributeTypes(SearchOperation searchOperation, Schema schema)
+  {
+    if (searchOperation.isIncludeUsableControl()
+        || !searchOperation.getClientConnection().hasPrivilege(Privilege.BYPASS_ACL, searchOperation)
+        || DirectoryServer.getSubentryManager().hasCollectiveSubentries())
+    {
+      return null;
+    }
+
+    final Set<AttributeType> requestedTypes = new HashSet<>();
+    for (String attribute : searchOperation.getAttributes())
+    {
+      if ("*".equals(attribute) || "+".equals(attribute) || attribute.startsWith("@"))
+      {
+        return null;
+      }
+      if (!"1.1".equals(attribute) && !addAttributeType(requestedTypes, attribute, schema))
+      {
+        return null;
+      }
+    }
+    if (requestedTypes.isEmpty() && searchOperation.getAttributes().isEmpty())
+    {
+      // No attribute list means all user attributes
+      return null;
+    }
+    if (!addFilterAttributeTypes(requestedTypes, searchOperation.getFilter())
+        || !addAttributeType(requestedTypes, ATTR_REFERRAL_URL, schema))
+    {
+      return null;
+    }
+
+    // Requesting a supertype also returns the values of its subtypes
+    final Set<AttributeType> attributeTypes = new HashSet<>(requestedTypes);
+    for (AttributeType attributeType : schema.getAttributeTypes())
+    {
+      for (AttributeType requestedType : requestedTypes)
+      {
+        if (attributeType.isSubTypeOf(requestedType))
+        {
+          attributeTypes.add(attributeType);
+          break;
+        }
+      }
+    }
+
+    for (VirtualAttributeRule rule : DirectoryServer.getVirtualAttributes())
+    {
+      if (attributeTypes.contains(rule.getAttributeType()))
+      {
+        return null;
+      }
+    }
+    return attributeTypes;
+  }
+
+  private static boolean addAttributeType(Set<AttributeType> attributeTypes, String attribute, Schema schema)
+  {
+    final int semicolonPos = attribute.indexOf(';');
+    final String name = semicolonPos < 0 ? attribute : attribute.substring(0, semicolonPos);
+    final AttributeType attributeType = schema.getAttributeType(name);
+    if (attributeType.isPlaceHolder())
+    {
+      return false;
+    }
+    attributeTypes.add(attributeType);
+    return true;
+  }
+
+  private static boolean addFilterAttributeTypes(Set<AttributeType> attributeTypes, SearchFilter filter)
+  {
+    switch (filter.getFilterType())
+    {
+    case AND:
+    case OR:
+      for (SearchFilter component : filter.getFilterComponents())
+      {
+        if (!addFilterAttributeTypes(attributeTypes, component))
+        {
+          return false;
+        }
+      }
+      return true;
+
+    case NOT:
+      return addFilterAttributeTypes(attributeTypes, filter.getNotComponent());
+
+    default:
+      final AttributeType attributeType = filter.getAttributeType();
+      if (attributeType == null || attributeType.isPlaceHolder())
+      {
+        // Extensible match filters without an attribute type match any attribute
+        return false;
+      }
+      attributeTypes.add(attributeType);
+      return true;
+    }
+  }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -470,6 +471,12 @@ final class TracedStorage implements Storage
     return storage.getStorageStatus();
   }
 
+  @Override
+  public long getCacheSize()
+  {
+    return storage.getCacheSize();
+  }
+
   @Override
   public void open(AccessMode accessMode) throws Exception
   {
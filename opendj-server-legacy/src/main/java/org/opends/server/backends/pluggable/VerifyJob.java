@@ -13,30 +13,49 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
+import static java.nio.file.StandardCopyOption.*;
+
+import static org.forgerock.util.Utils.newThreadFactory;
 import static org.opends.messages.BackendMessages.*;
 import static org.opends.server.backends.pluggable.DnKeyFormat.*;
 import static org.opends.server.backends.pluggable.SuffixContainer.*;
 import static org.opends.server.backends.pluggable.VLVIndex.*;
 import static org.opends.server.util.StaticUtils.*;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.i18n.slf4j.LocalizedLogger;
 import org.forgerock.opendj.ldap.ByteSequence;
@@ -58,33 +77,43 @@ import org.opends.server.types.Entry;
 import org.opends.server.util.ServerConstants;
 import org.opends.server.util.StaticUtils;
 
-/** This class is used to run an index verification process on the backend. */
+/**
+ * This class is used to run an index verification process on the backend.
+ * <p>
+ * The verification is split into units of work: ranges of entry IDs when
+ * checking the completeness of the indexes against id2entry, and whole index
+ * trees when checking their cleanliness. Units of work are verified
+ * concurrently by several threads, each with its own read transaction, and
+ * their results are aggregated into the final report. When a checkpoint file
+ * is configured, the units of work which have been fully verified are recorded
+ * in it, so that an interrupted verification may be resumed.
+ */
 class VerifyJob
 {
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
+  private static final String VERIFIER_THREAD_NAME = "VERIFIER-%d";
+
+  /** The default number of consecutive entry IDs checked by a unit of work when verifying id2entry. */
+  private static final long ID_RANGE_SIZE = 65536;
+
   /** The verify configuration. */
   private final VerifyConfig verifyConfig;
   /** The root container used for the verify job. */
   private final RootContainer rootContainer;
+  /** The number of consecutive entry IDs checked by a unit of work when verifying id2entry. */
+  private final long idRangeSize;
 
   /** The number of milliseconds between job progress reports. */
   private final long progressInterval = 10000;
-  /** The number of index keys processed. */
-  private long keyCount;
-  /** The number of errors found. */
-  private long errorCount;
-  /** The number of records that have exceeded the entry limit. */
-  private long entryLimitExceededCount;
-  /** The number of records that reference more than one entry. */
-  private long multiReferenceCount;
-  /** The total number of entry references. */
-  private long entryReferencesCount;
-  /** The maximum number of references per record. */
-  private long maxEntryPerValue;
-
-  /** This map is used to gather some statistics about values that have exceeded the entry limit. */
-  private IdentityHashMap<Index, HashMap<ByteString, Long>> entryLimitMap = new IdentityHashMap<>();
+  /** The aggregated results of the units of work which have been verified. */
+  private final Verifier totals = new Verifier();
+  /** The verifiers of the units of work in progress, guarded by this job. */
+  private final Set<Verifier> activeVerifiers = new HashSet<>();
+  /** The checkpoint of the verification, or {@code null} if it is not checkpointed. */
+  private Checkpoint checkpoint;
+  /** The number of threads verifying units of work. */
+  private int threadCount;
 
   /** Indicates whether dn2id is to be verified. */
   private boolean verifyDN2ID;
@@ -110,9 +139,22 @@ class VerifyJob
    * @param verifyConfig The verify configuration.
    */
   VerifyJob(RootContainer rootContainer, VerifyConfig verifyConfig)
+  {
+    this(rootContainer, verifyConfig, ID_RANGE_SIZE);
+  }
+
+  /**
+   * Construct a VerifyJob splitting id2entry into ranges of the provided size.
+   *
+   * @param rootContainer The root container.
+   * @param verifyConfig The verify configuration.
+   * @param idRangeSize The number of consecutive entry IDs checked by a unit of work when verifying id2entry.
+   */
+  VerifyJob(RootContainer rootContainer, VerifyConfig verifyConfig, long idRangeSize)
   {
     this.rootContainer = rootContainer;
     this.verifyConfig = verifyConfig;
+    this.idRangeSize = idRangeSize;
   }
 
   /**
@@ -136,7 +178,7 @@ class VerifyJob
         }
       });
     }
-    catch (StorageRuntimeException e)
+    catch (StorageRuntimeException | DirectoryException e)
     {
       throw e;
     }
@@ -146,7 +188,7 @@ class VerifyJob
     }
   }
 
-  private long verifyBackend0(ReadableTransaction txn) throws StorageRuntimeException, DirectoryException
+  private long verifyBackend0(ReadableTransaction txn) throws Exception
   {
     EntryContainer entryContainer = rootContainer.getEntryContainer(verifyConfig.getBaseDN());
 
@@ -227,8 +269,6 @@ class VerifyJob
         }
       }
 
-      entryLimitMap = new IdentityHashMap<>(attrIndexList.size());
-
       // We will be updating these files independently of the indexes
       // so we need direct access to them rather than going through
       // the entry entryContainer methods.
@@ -236,6 +276,18 @@ class VerifyJob
       dn2id = entryContainer.getDN2ID();
       id2childrenCount = entryContainer.getID2ChildrenCount();
 
+      final long highestID = entryContainer.getHighestEntryID(txn).longValue();
+      final List<VerifyUnit> units = cleanMode ? getIndexUnits() : getID2EntryUnits(highestID);
+
+      threadCount = verifyConfig.getThreadCount() > 0 ? verifyConfig.getThreadCount() : getDefaultNumberOfThread();
+      logger.info(NOTE_VERIFY_THREAD_COUNT, threadCount);
+
+      if (verifyConfig.getCheckpointFile() != null)
+      {
+        checkpoint = new Checkpoint(new File(verifyConfig.getCheckpointFile()), getSignature(cleanMode, highestID));
+        checkpoint.resume(totals, units.size());
+      }
+
       // Make a note of the time we started.
       long startTime = System.currentTimeMillis();
 
@@ -247,65 +299,76 @@ class VerifyJob
       // Iterate through the index keys.
       try
       {
-        if (cleanMode)
-        {
-          iterateIndex(txn);
-        }
-        else
+        verifyUnits(txn, units);
+      }
+      catch (Exception e)
+      {
+        if (checkpoint != null)
         {
-          iterateID2Entry(txn);
-
-          // Make sure the vlv indexes are in correct order.
-          for(VLVIndex vlvIndex : vlvIndexList)
-          {
-            iterateVLVIndex(txn, vlvIndex, false);
-          }
+          checkpoint.flush();
         }
+        throw e;
       }
       finally
       {
         timer.cancel();
       }
 
+      if (!cleanMode)
+      {
+        long storedEntryCount = id2entry.getRecordCount(txn);
+        if (totals.keyCount.get() != storedEntryCount)
+        {
+          totals.errorCount.incrementAndGet();
+          logger.error(ERR_VERIFY_WRONG_ENTRY_COUNT, storedEntryCount, totals.keyCount.get());
+        }
+      }
+
+      if (checkpoint != null)
+      {
+        checkpoint.delete();
+      }
+
       long finishTime = System.currentTimeMillis();
       long totalTime = finishTime - startTime;
 
       float rate = 0;
       if (totalTime > 0)
       {
-        rate = 1000f*keyCount / totalTime;
+        rate = 1000f*totals.keyCount.get() / totalTime;
       }
 
       if (cleanMode)
       {
-        logger.info(NOTE_VERIFY_CLEAN_FINAL_STATUS, keyCount, errorCount, totalTime/1000, rate);
+        logger.info(NOTE_VERIFY_CLEAN_FINAL_STATUS, totals.keyCount.get(), totals.errorCount.get(),
+            totalTime/1000, rate);
 
-        if (multiReferenceCount > 0)
+        if (totals.multiReferenceCount > 0)
         {
           float averageEntryReferences = 0;
-          if (keyCount > 0)
+          if (totals.keyCount.get() > 0)
           {
-            averageEntryReferences = entryReferencesCount/keyCount;
+            averageEntryReferences = totals.entryReferencesCount/totals.keyCount.get();
           }
 
           if (logger.isDebugEnabled())
           {
-            logger.debug(INFO_VERIFY_MULTIPLE_REFERENCE_COUNT, multiReferenceCount);
-            logger.debug(INFO_VERIFY_ENTRY_LIMIT_EXCEEDED_COUNT, entryLimitExceededCount);
+            logger.debug(INFO_VERIFY_MULTIPLE_REFERENCE_COUNT, totals.multiReferenceCount);
+            logger.debug(INFO_VERIFY_ENTRY_LIMIT_EXCEEDED_COUNT, totals.entryLimitExceededCount);
             logger.debug(INFO_VERIFY_AVERAGE_REFERENCE_COUNT, averageEntryReferences);
-            logger.debug(INFO_VERIFY_MAX_REFERENCE_COUNT, maxEntryPerValue);
+            logger.debug(INFO_VERIFY_MAX_REFERENCE_COUNT, totals.maxEntryPerValue);
           }
         }
       }
       else
       {
-        logger.info(NOTE_VERIFY_FINAL_STATUS, keyCount, errorCount, totalTime/1000, rate);
-        if (!entryLimitMap.isEmpty())
+        logger.info(NOTE_VERIFY_FINAL_STATUS, totals.keyCount.get(), totals.errorCount.get(), totalTime/1000, rate);
+        if (!totals.entryLimitMap.isEmpty())
         {
           logger.debug(INFO_VERIFY_ENTRY_LIMIT_STATS_HEADER);
 
           for (Map.Entry<Index,HashMap<ByteString,Long>> mapEntry :
-              entryLimitMap.entrySet())
+              totals.entryLimitMap.entrySet())
           {
             Index index = mapEntry.getKey();
             Long[] values = mapEntry.getValue().values().toArray(new Long[0]);
@@ -333,621 +396,870 @@ class VerifyJob
     {
       entryContainer.sharedLock.unlock();
     }
-    return errorCount;
+    return totals.errorCount.get();
   }
 
   /**
-   * Iterate through the entries in id2entry to perform a check for
-   * index completeness. We check that the ID for the entry is indeed
-   * present in the indexes for the appropriate values.
-   *
-   * @throws StorageRuntimeException If an error occurs in the storage.
+   * Returns the units of work checking the completeness of the indexes: each
+   * of them iterates through a range of entries in id2entry and checks that the
+   * ID of each entry is indeed present in the indexes for the appropriate
+   * values.
    */
-  private void iterateID2Entry(ReadableTransaction txn) throws StorageRuntimeException
+  private List<VerifyUnit> getID2EntryUnits(long highestID)
   {
-    try(final Cursor<ByteString, ByteString> cursor = txn.openCursor(id2entry.getName()))
+    final List<VerifyUnit> units = new ArrayList<>();
+    for (long fromID = 0; fromID <= highestID; fromID += idRangeSize)
     {
-      long storedEntryCount = id2entry.getRecordCount(txn);
-      while (cursor.next())
+      final long rangeFromID = fromID;
+      // The last range is unbounded so that no record can be missed.
+      final long rangeToID = fromID + idRangeSize > highestID ? Long.MAX_VALUE : fromID + idRangeSize;
+      units.add(new VerifyUnit(id2entry.getName() + "#" + rangeFromID)
       {
-        ByteString key = cursor.getKey();
-        ByteString value = cursor.getValue();
-
-        EntryID entryID;
-        try
-        {
-          entryID = new EntryID(key);
-        }
-        catch (Exception e)
-        {
-          errorCount++;
-          if (logger.isTraceEnabled())
-          {
-            logger.traceException(e);
-
-            logger.trace("Malformed id2entry ID %s.%n", StaticUtils.bytesToHex(key));
-          }
-          continue;
-        }
-
-        keyCount++;
-
-        Entry entry;
-        try
-        {
-          entry = id2entry.entryFromDatabase(value, rootContainer.getCompressedSchema());
-        }
-        catch (Exception e)
+        @Override
+        void verify(Verifier verifier, ReadableTransaction txn) throws Exception
         {
-          errorCount++;
-          if (logger.isTraceEnabled())
-          {
-            logger.traceException(e);
-
-            logger.trace("Malformed id2entry record for ID %d:%n%s%n", entryID, StaticUtils.bytesToHex(value));
-          }
-          continue;
+          verifier.iterateID2Entry(txn, rangeFromID, rangeToID);
         }
-
-        verifyEntry(txn, entryID, entry);
-      }
-      if (keyCount != storedEntryCount)
-      {
-        errorCount++;
-        logger.error(ERR_VERIFY_WRONG_ENTRY_COUNT, storedEntryCount, keyCount);
-      }
+      });
     }
+    return units;
   }
 
   /**
-   * Iterate through the entries in an index to perform a check for
-   * index cleanliness. For each ID in the index we check that the
-   * entry it refers to does indeed contain the expected value.
-   *
-   * @throws StorageRuntimeException If an error occurs in the storage.
-   * @throws DirectoryException If an error occurs reading values in the index.
+   * Returns the units of work checking the cleanliness of an index: for each
+   * ID in the index they check that the entry it refers to does indeed contain
+   * the expected value.
    */
-  private void iterateIndex(ReadableTransaction txn) throws StorageRuntimeException, DirectoryException
+  private List<VerifyUnit> getIndexUnits()
   {
+    final List<VerifyUnit> units = new ArrayList<>();
     if (verifyDN2ID)
     {
-      iterateDN2ID(txn);
+      // The children counts are computed while walking dn2id in order: it cannot be split.
+      units.add(new VerifyUnit(dn2id.getName().toString())
+      {
+        @Override
+        void verify(Verifier verifier, ReadableTransaction txn) throws Exception
+        {
+          verifier.iterateDN2ID(txn);
+        }
+      });
     }
     else if (verifyID2ChildrenCount)
     {
-      iterateID2ChildrenCount(txn);
+      units.add(new VerifyUnit(id2childrenCount.getName().toString())
+      {
+        @Override
+        void verify(Verifier verifier, ReadableTransaction txn) throws Exception
+        {
+          verifier.iterateID2ChildrenCount(txn);
+        }
+      });
     }
     else if (!attrIndexList.isEmpty())
     {
       AttributeIndex attrIndex = attrIndexList.get(0);
-      for (MatchingRuleIndex index : attrIndex.getNameToIndexes().values())
+      for (final MatchingRuleIndex index : attrIndex.getNameToIndexes().values())
       {
-        iterateAttrIndex(txn, index);
+        units.add(new VerifyUnit(index.getName().toString())
+        {
+          @Override
+          void verify(Verifier verifier, ReadableTransaction txn) throws Exception
+          {
+            verifier.iterateAttrIndex(txn, index);
+          }
+        });
       }
     }
     else if (!vlvIndexList.isEmpty())
     {
-      iterateVLVIndex(txn, vlvIndexList.get(0), true);
+      final VLVIndex vlvIndex = vlvIndexList.get(0);
+      units.add(new VerifyUnit(vlvIndex.getName().toString())
+      {
+        @Override
+        void verify(Verifier verifier, ReadableTransaction txn) throws Exception
+        {
+          verifier.iterateVLVIndex(txn, vlvIndex);
+        }
+      });
     }
+    return units;
   }
 
   /**
-   * Iterate through the entries in DN2ID to perform a check for
-   * index cleanliness.
-   *
-   * @throws StorageRuntimeException If an error occurs in the storage.
+   * Returns a string identifying the verification, so that a checkpoint is only resumed by the same verification,
+   * splitting id2entry into the same units of work.
    */
-  private void iterateDN2ID(ReadableTransaction txn) throws StorageRuntimeException
+  String getSignature(boolean cleanMode, long highestID)
+  {
+    final StringBuilder signature = new StringBuilder();
+    signature.append(cleanMode ? "clean " : "complete ").append(verifyConfig.getBaseDN());
+    signature.append(" highest-id=").append(highestID);
+    signature.append(" id-range-size=").append(idRangeSize);
+    for (String index : cleanMode ? verifyConfig.getCleanList() : verifyConfig.getCompleteList())
+    {
+      signature.append(' ').append(index.toLowerCase());
+    }
+    return signature.toString();
+  }
+
+  private static int getDefaultNumberOfThread()
   {
-    final Deque<ChildrenCount> childrenCounters = new LinkedList<>();
-    ChildrenCount currentNode = null;
+    final int nbProcessors = Runtime.getRuntime().availableProcessors();
+    return Math.max(1, DirectoryServer.isRunning() ? nbProcessors / 2 : nbProcessors);
+  }
 
-    try(final Cursor<ByteString, ByteString> cursor = txn.openCursor(dn2id.getName()))
+  /**
+   * Verifies the provided units of work which have not been verified yet, using
+   * the provided transaction when a single thread is used, or a read transaction
+   * per unit of work otherwise.
+   */
+  private void verifyUnits(ReadableTransaction txn, List<VerifyUnit> units) throws Exception
+  {
+    final List<VerifyUnit> pendingUnits = new ArrayList<>(units.size());
+    for (VerifyUnit unit : units)
     {
-      while (cursor.next())
+      if (checkpoint == null || !checkpoint.isCompleted(unit))
       {
-        keyCount++;
-
-        final ByteString key = cursor.getKey();
-        final EntryID entryID;
-        try
-        {
-          entryID =  new EntryID(cursor.getValue());
-        }
-        catch (Exception e)
-        {
-          errorCount++;
-          logger.trace("File dn2id has malformed ID for DN <%s>", key, e);
-          continue;
-        }
+        pendingUnits.add(unit);
+      }
+    }
 
-        currentNode = verifyID2ChildrenCount(txn, childrenCounters, key, entryID);
+    if (threadCount == 1)
+    {
+      for (VerifyUnit unit : pendingUnits)
+      {
+        verifyUnit(unit, txn);
+      }
+      return;
+    }
 
-        final Entry entry;
-        try
-        {
-          entry = id2entry.get(txn, entryID);
-        }
-        catch (Exception e)
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(threadCount, newThreadFactory(null, VERIFIER_THREAD_NAME, true));
+    try
+    {
+      final List<Future<Void>> futures = new ArrayList<>(pendingUnits.size());
+      for (final VerifyUnit unit : pendingUnits)
+      {
+        futures.add(executor.submit(new Callable<Void>()
         {
-          errorCount++;
-          logger.traceException(e);
-          continue;
-        }
-
-        if (entry == null)
+          @Override
+          public Void call() throws Exception
+          {
+            return rootContainer.getStorage().read(new ReadOperation<Void>()
+            {
+              @Override
+              public Void run(ReadableTransaction txn) throws Exception
+              {
+                verifyUnit(unit, txn);
+                return null;
+              }
+            });
+          }
+        }));
+      }
+      for (Future<Void> future : futures)
+      {
+        try
         {
-          errorCount++;
-          logger.error(ERR_VERIFY_DN2ID_UNKNOWN_ID, key, entryID.longValue());
+          future.get();
         }
-        else if (!key.equals(dnToDNKey(entry.getName(), verifyConfig.getBaseDN().size())))
+        catch (ExecutionException e)
         {
-          errorCount++;
-          logger.error(ERR_VERIFY_DN2ID_WRONG_ENTRY, key, entry.getName());
+          if (e.getCause() instanceof Exception)
+          {
+            throw (Exception) e.getCause();
+          }
+          throw e;
         }
       }
-
-      while ((currentNode = childrenCounters.pollLast()) != null)
-      {
-        verifyID2ChildrenCount(txn, currentNode);
-      }
+    }
+    finally
+    {
+      executor.shutdownNow();
     }
   }
 
-  private ChildrenCount verifyID2ChildrenCount(ReadableTransaction txn, final Deque<ChildrenCount> childrenCounters,
-      final ByteString key, final EntryID entryID)
+  private void verifyUnit(VerifyUnit unit, ReadableTransaction txn) throws Exception
   {
-    ChildrenCount currentParent = childrenCounters.peekLast();
-    while (currentParent != null && !DnKeyFormat.isChild(currentParent.baseDN, key))
+    final Verifier verifier = new Verifier();
+    synchronized (this)
     {
-      // This subtree is fully processed, pop the counter of the parent DN from the stack and verify it's value
-      verifyID2ChildrenCount(txn, childrenCounters.removeLast());
-      currentParent = childrenCounters.getLast();
+      activeVerifiers.add(verifier);
     }
-    if (currentParent != null)
+    try
     {
-      currentParent.numberOfChildren++;
+      unit.verify(verifier, txn);
     }
-    final ChildrenCount node = new ChildrenCount(key, entryID);
-    childrenCounters.addLast(node);
-    return node;
-  }
-
-  private void verifyID2ChildrenCount(ReadableTransaction txn, ChildrenCount parent) {
-    final long expected = parent.numberOfChildren;
-    final long currentValue = id2childrenCount.getCount(txn, parent.entryID);
-    if (expected != currentValue)
+    catch (Exception e)
     {
-      errorCount++;
-      logger.error(ERR_VERIFY_ID2COUNT_WRONG_COUNT, parent.baseDN, currentValue, expected);
+      synchronized (this)
+      {
+        activeVerifiers.remove(verifier);
+      }
+      throw e;
     }
-  }
 
-  private void iterateID2ChildrenCount(ReadableTransaction txn) throws StorageRuntimeException
-  {
-    try (final SequentialCursor<EntryID, Void> cursor = id2childrenCount.openCursor(txn))
+    synchronized (this)
     {
-      while (cursor.next())
+      activeVerifiers.remove(verifier);
+      totals.add(verifier);
+      if (checkpoint != null)
       {
-        final EntryID entryID = cursor.getKey();
-        if (!id2entry.containsEntryID(txn, entryID))
-        {
-          logger.error(ERR_VERIFY_ID2COUNT_WRONG_ID, entryID.longValue());
-          errorCount++;
-        }
+        checkpoint.completed(unit, totals);
       }
     }
   }
 
-  /**
-   * Increment the counter for a key that has exceeded the
-   * entry limit. The counter gives the number of entries that have
-   * referenced the key.
-   *
-   * @param index The index containing the key.
-   * @param key A key that has exceeded the entry limit.
-   */
-  private void incrEntryLimitStats(Index index, ByteString key)
+  /** Returns the number of records processed so far, including those of the units of work in progress. */
+  private synchronized long getKeyCount()
   {
-    HashMap<ByteString,Long> hashMap = entryLimitMap.get(index);
-    if (hashMap == null)
-    {
-      hashMap = new HashMap<>();
-      entryLimitMap.put(index, hashMap);
-    }
-    Long counter = hashMap.get(key);
-    if (counter != null)
+    long keyCount = totals.keyCount.get();
+    for (Verifier verifier : activeVerifiers)
     {
-      counter++;
+      keyCount += verifier.keyCount.get();
     }
-    else
-    {
-      counter = 1L;
-    }
-    hashMap.put(key, counter);
+    return keyCount;
   }
 
-  /**
-   * Update the statistical information for an index record.
-   *
-   * @param entryIDSet The set of entry IDs for the index record.
-   */
-  private void updateIndexStats(EntryIDSet entryIDSet)
+  /** Returns the number of errors found so far, including those of the units of work in progress. */
+  private synchronized long getErrorCount()
   {
-    if (!entryIDSet.isDefined())
-    {
-      entryLimitExceededCount++;
-      multiReferenceCount++;
-    }
-    else
+    long errorCount = totals.errorCount.get();
+    for (Verifier verifier : activeVerifiers)
     {
-      if (entryIDSet.size() > 1)
-      {
-        multiReferenceCount++;
-      }
-      entryReferencesCount += entryIDSet.size();
-      maxEntryPerValue = Math.max(maxEntryPerValue, entryIDSet.size());
+      errorCount += verifier.errorCount.get();
     }
+    return errorCount;
   }
 
   /**
-   * Iterate through the entries in a VLV index to perform a check for index
-   * cleanliness.
-   *
-   * @param vlvIndex The VLV index to perform the check against.
-   * @param verifyID True to verify the IDs against id2entry.
-   * @throws StorageRuntimeException If an error occurs in the storage.
-   * @throws DirectoryException If an error occurs reading values in the index.
+   * Verifies units of work and accumulates their results. Each unit of work is
+   * verified by its own verifier, whose results are then added to the totals of
+   * the job.
    */
-  private void iterateVLVIndex(ReadableTransaction txn, VLVIndex vlvIndex, boolean verifyID)
-      throws StorageRuntimeException, DirectoryException
+  private final class Verifier
   {
-    if(vlvIndex == null || !verifyID)
-    {
-      return;
-    }
+    /** The number of index keys processed, also read by the progress report thread. */
+    private final AtomicLong keyCount = new AtomicLong();
+    /** The number of errors found, also read by the progress report thread. */
+    private final AtomicLong errorCount = new AtomicLong();
+    /** The number of records that have exceeded the entry limit. */
+    private long entryLimitExceededCount;
+    /** The number of records that reference more than one entry. */
+    private long multiReferenceCount;
+    /** The total number of entry references. */
+    private long entryReferencesCount;
+    /** The maximum number of references per record. */
+    private long maxEntryPerValue;
+
+    /** This map is used to gather some statistics about values that have exceeded the entry limit. */
+    private final IdentityHashMap<Index, HashMap<ByteString, Long>> entryLimitMap = new IdentityHashMap<>();
 
-    try(final Cursor<ByteString, ByteString> cursor = txn.openCursor(vlvIndex.getName()))
+    /**
+     * Adds the results of another verifier to the results of this verifier.
+     *
+     * @param other The verifier whose results must be added.
+     */
+    private void add(Verifier other)
     {
-      while (cursor.next())
+      keyCount.addAndGet(other.keyCount.get());
+      errorCount.addAndGet(other.errorCount.get());
+      entryLimitExceededCount += other.entryLimitExceededCount;
+      multiReferenceCount += other.multiReferenceCount;
+      entryReferencesCount += other.entryReferencesCount;
+      maxEntryPerValue = Math.max(maxEntryPerValue, other.maxEntryPerValue);
+      for (Map.Entry<Index, HashMap<ByteString, Long>> mapEntry : other.entryLimitMap.entrySet())
       {
-        ByteString key = cursor.getKey();
-        EntryID id = new EntryID(decodeEntryIDFromVLVKey(key));
-        Entry entry;
-        try
-        {
-          entry = id2entry.get(txn, id);
-        }
-        catch (Exception e)
-        {
-          logger.traceException(e);
-          errorCount++;
-          continue;
-        }
-
-        if (entry == null)
-        {
-          errorCount++;
-          logger.error(ERR_VERIFY_UNKNOWN_ID, id, keyDump(vlvIndex, key));
-          continue;
-        }
-
-        ByteString expectedKey = vlvIndex.toKey(entry, id);
-        if (expectedKey.compareTo(key) != 0)
+        for (Map.Entry<ByteString, Long> counter : mapEntry.getValue().entrySet())
         {
-          errorCount++;
-          logger.error(ERR_VERIFY_ENTRY_NON_MATCHING_KEY, id, keyDump(vlvIndex, expectedKey));
+          incrEntryLimitStats(mapEntry.getKey(), counter.getKey(), counter.getValue());
         }
       }
     }
-  }
-
-  /**
-   * Iterate through the entries in an attribute index to perform a check for
-   * index cleanliness.
-   * @param index The index tree to be checked.
-   * @throws StorageRuntimeException If an error occurs in the storage.
-   */
-  private void iterateAttrIndex(ReadableTransaction txn, MatchingRuleIndex index) throws StorageRuntimeException
-  {
-    if (index == null)
-    {
-      return;
-    }
 
-    try(final Cursor<ByteString,EntryIDSet> cursor = index.openCursor(txn))
+    /**
+     * Iterate through a range of entries in id2entry to perform a check for
+     * index completeness. We check that the ID for the entry is indeed
+     * present in the indexes for the appropriate values.
+     *
+     * @param fromID The first entry ID of the range, inclusive.
+     * @param toID The last entry ID of the range, exclusive.
+     * @throws StorageRuntimeException If an error occurs in the storage.
+     */
+    private void iterateID2Entry(ReadableTransaction txn, long fromID, long toID) throws StorageRuntimeException
     {
-      while (cursor.next())
+      try(final Cursor<ByteString, ByteString> cursor = txn.openCursor(id2entry.getName()))
       {
-        keyCount++;
-
-        final ByteString key = cursor.getKey();
-
-        EntryIDSet entryIDSet;
-        try
+        boolean found = cursor.positionToKeyOrNext(new EntryID(fromID).toByteString());
+        for (; found; found = cursor.next())
         {
-          entryIDSet = cursor.getValue();
-          if (entryIDSet.size() == 0)
+          ByteString key = cursor.getKey();
+          ByteString value = cursor.getValue();
+
+          EntryID entryID;
+          try
           {
-            errorCount++;
-            logger.error(ERR_VERIFY_EMPTY_IDSET, keyDump(index, key));
+            entryID = new EntryID(key);
           }
-        }
-        catch (Exception e)
-        {
-          errorCount++;
-          logger.traceException(e);
-          logger.trace("Malformed ID list: %n%s", keyDump(index, key));
-          continue;
-        }
-
-        updateIndexStats(entryIDSet);
-
-        if (entryIDSet.isDefined())
-        {
-          EntryID prevID = null;
-
-          for (EntryID id : entryIDSet)
+          catch (Exception e)
           {
-            if (prevID != null && id.equals(prevID) && logger.isTraceEnabled())
-            {
-              logger.error(ERR_VERIFY_DUPLICATE_REFERENCE, id.longValue(), keyDump(index, key));
-            }
-            prevID = id;
-
-            Entry entry;
-            try
-            {
-              entry = id2entry.get(txn, id);
-            }
-            catch (Exception e)
+            errorCount.incrementAndGet();
+            if (logger.isTraceEnabled())
             {
               logger.traceException(e);
-              errorCount++;
-              continue;
-            }
 
-            if (entry == null)
-            {
-              errorCount++;
-              logger.error(ERR_VERIFY_UNKNOWN_REFERENCE, id.longValue(), keyDump(index, key));
-              continue;
+              logger.trace("Malformed id2entry ID %s.%n", StaticUtils.bytesToHex(key));
             }
+            continue;
+          }
 
-            // As an optimization avoid passing in a real set and wasting time
-            // hashing and comparing a potentially large set of values, as well
-            // as using up memory. Instead just intercept the add() method and
-            // detect when an equivalent value has been added.
-
-            // We need to use an AtomicBoolean here since anonymous classes
-            // require referenced external variables to be final.
-            final AtomicBoolean foundMatchingKey = new AtomicBoolean(false);
+          if (entryID.longValue() >= toID)
+          {
+            break;
+          }
+          keyCount.incrementAndGet();
 
-            Set<ByteString> dummySet = new AbstractSet<ByteString>()
+          Entry entry;
+          try
+          {
+            entry = id2entry.entryFromDatabase(value, rootContainer.getCompressedSchema());
+          }
+          catch (Exception e)
+          {
+            errorCount.incrementAndGet();
+            if (logger.isTraceEnabled())
             {
-              @Override
-              public Iterator<ByteString> iterator()
-              {
-                // The set is always empty.
-                return Collections.<ByteString> emptySet().iterator();
-              }
-
-              @Override
-              public int size()
-              {
-                // The set is always empty.
-                return 0;
-              }
-
-              @Override
-              public boolean add(ByteString e)
-              {
-                if (key.equals(e))
-                {
-                  // We could terminate processing at this point by throwing an
-                  // UnsupportedOperationException, but this optimization is
-                  // already ugly enough.
-                  foundMatchingKey.set(true);
-                }
-                return true;
-              }
-
-            };
-
-            index.indexEntry(entry, dummySet);
+              logger.traceException(e);
 
-            if (!foundMatchingKey.get())
-            {
-              errorCount++;
-              logger.error(ERR_VERIFY_UNEXPECTED_REFERENCE, entry.getName(), keyDump(index, key));
+              logger.trace("Malformed id2entry record for ID %d:%n%s%n", entryID, StaticUtils.bytesToHex(value));
             }
+            continue;
           }
+
+          verifyEntry(txn, entryID, entry);
         }
       }
     }
-  }
 
-  /**
-   * Check that an index is complete for a given entry.
-   *
-   * @param entryID The entry ID.
-   * @param entry The entry to be checked.
-   */
-  private void verifyEntry(ReadableTransaction txn, EntryID entryID, Entry entry)
-  {
-    if (verifyDN2ID)
+    /**
+     * Iterate through the entries in DN2ID to perform a check for
+     * index cleanliness.
+     *
+     * @throws StorageRuntimeException If an error occurs in the storage.
+     */
+    private void iterateDN2ID(ReadableTransaction txn) throws StorageRuntimeException
     {
-      verifyDN2ID(txn, entryID, entry);
-    }
-    verifyIndex(txn, entryID, entry);
-  }
-
-  /**
-   * Check that the DN2ID index is complete for a given entry.
-   *
-   * @param entryID The entry ID.
-   * @param entry The entry to be checked.
-   */
-  private void verifyDN2ID(ReadableTransaction txn, EntryID entryID, Entry entry)
-  {
-    DN dn = entry.getName();
+      final Deque<ChildrenCount> childrenCounters = new LinkedList<>();
+      ChildrenCount currentNode = null;
 
-    // Check the ID is in dn2id with the correct DN.
-    try
+      try(final Cursor<ByteString, ByteString> cursor = txn.openCursor(dn2id.getName()))
+      {
+        while (cursor.next())
+        {
+          keyCount.incrementAndGet();
+
+          final ByteString key = cursor.getKey();
+          final EntryID entryID;
+          try
+          {
+            entryID =  new EntryID(cursor.getValue());
+          }
+          catch (Exception e)
+          {
+            errorCount.incrementAndGet();
+            logger.trace("File dn2id has malformed ID for DN <%s>", key, e);
+            continue;
+          }
+
+          currentNode = verifyID2ChildrenCount(txn, childrenCounters, key, entryID);
+
+          final Entry entry;
+          try
+          {
+            entry = id2entry.get(txn, entryID);
+          }
+          catch (Exception e)
+          {
+            errorCount.incrementAndGet();
+            logger.traceException(e);
+            continue;
+          }
+
+          if (entry == null)
+          {
+            errorCount.incrementAndGet();
+            logger.error(ERR_VERIFY_DN2ID_UNKNOWN_ID, key, entryID.longValue());
+          }
+          else if (!key.equals(dnToDNKey(entry.getName(), verifyConfig.getBaseDN().size())))
+          {
+            errorCount.incrementAndGet();
+            logger.error(ERR_VERIFY_DN2ID_WRONG_ENTRY, key, entry.getName());
+          }
+        }
+
+        while ((currentNode = childrenCounters.pollLast()) != null)
+        {
+          verifyID2ChildrenCount(txn, currentNode);
+        }
+      }
+    }
+
+    private ChildrenCount verifyID2ChildrenCount(ReadableTransaction txn, final Deque<ChildrenCount> childrenCounters,
+        final ByteString key, final EntryID entryID)
     {
-      EntryID id = dn2id.get(txn, dn);
-      if (id == null)
+      ChildrenCount currentParent = childrenCounters.peekLast();
+      while (currentParent != null && !DnKeyFormat.isChild(currentParent.baseDN, key))
       {
-        logger.error(ERR_VERIFY_DN2ID_MISSING_KEY, dn);
-        errorCount++;
+        // This subtree is fully processed, pop the counter of the parent DN from the stack and verify it's value
+        verifyID2ChildrenCount(txn, childrenCounters.removeLast());
+        currentParent = childrenCounters.getLast();
       }
-      else if (!id.equals(entryID))
+      if (currentParent != null)
       {
-        logger.error(ERR_VERIFY_DN2ID_WRONG_ID, id.longValue(), entryID.longValue(), dn);
-        errorCount++;
+        currentParent.numberOfChildren++;
       }
+      final ChildrenCount node = new ChildrenCount(key, entryID);
+      childrenCounters.addLast(node);
+      return node;
     }
-    catch (Exception e)
+
+    private void verifyID2ChildrenCount(ReadableTransaction txn, ChildrenCount parent) {
+      final long expected = parent.numberOfChildren;
+      final long currentValue = id2childrenCount.getCount(txn, parent.entryID);
+      if (expected != currentValue)
+      {
+        errorCount.incrementAndGet();
+        logger.error(ERR_VERIFY_ID2COUNT_WRONG_COUNT, parent.baseDN, currentValue, expected);
+      }
+    }
+
+    private void iterateID2ChildrenCount(ReadableTransaction txn) throws StorageRuntimeException
     {
-      if (logger.isTraceEnabled())
+      try (final SequentialCursor<EntryID, Void> cursor = id2childrenCount.openCursor(txn))
       {
-        logger.traceException(e);
-        logger.trace("File dn2id has error reading key %s: %s.%n", dn, e.getMessage());
+        while (cursor.next())
+        {
+          final EntryID entryID = cursor.getKey();
+          if (!id2entry.containsEntryID(txn, entryID))
+          {
+            logger.error(ERR_VERIFY_ID2COUNT_WRONG_ID, entryID.longValue());
+            errorCount.incrementAndGet();
+          }
+        }
       }
-      errorCount++;
     }
 
-    // Check the parent DN is in dn2id.
-    DN parentDN = getParent(dn);
-    if (parentDN != null)
+    /**
+     * Increment the counter for a key that has exceeded the
+     * entry limit. The counter gives the number of entries that have
+     * referenced the key.
+     *
+     * @param index The index containing the key.
+     * @param key A key that has exceeded the entry limit.
+     * @param increment The number of entries to add to the counter.
+     */
+    private void incrEntryLimitStats(Index index, ByteString key, long increment)
     {
-      try
+      HashMap<ByteString,Long> hashMap = entryLimitMap.get(index);
+      if (hashMap == null)
       {
-        EntryID id = dn2id.get(txn, parentDN);
-        if (id == null)
+        hashMap = new HashMap<>();
+        entryLimitMap.put(index, hashMap);
+      }
+      Long counter = hashMap.get(key);
+      if (counter != null)
+      {
+        counter += increment;
+      }
+      else
+      {
+        counter = increment;
+      }
+      hashMap.put(key, counter);
+    }
+
+    /**
+     * Update the statistical information for an index record.
+     *
+     * @param entryIDSet The set of entry IDs for the index record.
+     */
+    private void updateIndexStats(EntryIDSet entryIDSet)
+    {
+      if (!entryIDSet.isDefined())
+      {
+        entryLimitExceededCount++;
+        multiReferenceCount++;
+      }
+      else
+      {
+        if (entryIDSet.size() > 1)
         {
-          logger.error(ERR_VERIFY_DN2ID_MISSING_KEY, parentDN);
-          errorCount++;
+          multiReferenceCount++;
         }
+        entryReferencesCount += entryIDSet.size();
+        maxEntryPerValue = Math.max(maxEntryPerValue, entryIDSet.size());
       }
-      catch (Exception e)
+    }
+
+    /**
+     * Iterate through the entries in a VLV index to perform a check for index
+     * cleanliness.
+     *
+     * @param vlvIndex The VLV index to perform the check against.
+     * @throws StorageRuntimeException If an error occurs in the storage.
+     * @throws DirectoryException If an error occurs reading values in the index.
+     */
+    private void iterateVLVIndex(ReadableTransaction txn, VLVIndex vlvIndex)
+        throws StorageRuntimeException, DirectoryException
+    {
+      if(vlvIndex == null)
       {
-        if (logger.isTraceEnabled())
+        return;
+      }
+
+      try(final Cursor<ByteString, ByteString> cursor = txn.openCursor(vlvIndex.getName()))
+      {
+        while (cursor.next())
         {
-          logger.traceException(e);
-          logger.trace("File dn2id has error reading key %s: %s.%n", parentDN, e.getMessage());
+          ByteString key = cursor.getKey();
+          EntryID id = new EntryID(decodeEntryIDFromVLVKey(key));
+          Entry entry;
+          try
+          {
+            entry = id2entry.get(txn, id);
+          }
+          catch (Exception e)
+          {
+            logger.traceException(e);
+            errorCount.incrementAndGet();
+            continue;
+          }
+
+          if (entry == null)
+          {
+            errorCount.incrementAndGet();
+            logger.error(ERR_VERIFY_UNKNOWN_ID, id, keyDump(vlvIndex, key));
+            continue;
+          }
+
+          ByteString expectedKey = vlvIndex.toKey(entry, id);
+          if (expectedKey.compareTo(key) != 0)
+          {
+            errorCount.incrementAndGet();
+            logger.error(ERR_VERIFY_ENTRY_NON_MATCHING_KEY, id, keyDump(vlvIndex, expectedKey));
+          }
         }
-        errorCount++;
       }
     }
-  }
 
-  /**
-   * Construct a printable string from a raw key value.
-   *
-   * @param indexName
-   *          The name of the index tree containing the key value.
-   * @param key
-   *          The bytes of the key.
-   * @return A string that may be logged or printed.
-   */
-  private static String keyDump(Tree index, ByteSequence key)
-  {
-    StringBuilder buffer = new StringBuilder(128);
-    buffer.append("Index: ").append(index).append(ServerConstants.EOL);
-    buffer.append("Key:").append(ServerConstants.EOL);
-    StaticUtils.byteArrayToHexPlusAscii(buffer, key.toByteArray(), 6);
-    return buffer.toString();
-  }
+    /**
+     * Iterate through the entries in an attribute index to perform a check for
+     * index cleanliness.
+     * @param index The index tree to be checked.
+     * @throws StorageRuntimeException If an error occurs in the storage.
+     */
+    private void iterateAttrIndex(ReadableTransaction txn, MatchingRuleIndex index) throws StorageRuntimeException
+    {
+      if (index == null)
+      {
+        return;
+      }
 
-  /**
-   * Check that an attribute index is complete for a given entry.
-   *
-   * @param entryID
-   *          The entry ID.
-   * @param entry
-   *          The entry to be checked.
-   */
-  private void verifyIndex(ReadableTransaction txn, EntryID entryID, Entry entry)
-  {
-    for (AttributeIndex attrIndex : attrIndexList)
+      try(final Cursor<ByteString,EntryIDSet> cursor = index.openCursor(txn))
+      {
+        while (cursor.next())
+        {
+          keyCount.incrementAndGet();
+
+          final ByteString key = cursor.getKey();
+
+          EntryIDSet entryIDSet;
+          try
+          {
+            entryIDSet = cursor.getValue();
+            if (entryIDSet.size() == 0)
+            {
+              errorCount.incrementAndGet();
+              logger.error(ERR_VERIFY_EMPTY_IDSET, keyDump(index, key));
+            }
+          }
+          catch (Exception e)
+          {
+            errorCount.incrementAndGet();
+            logger.traceException(e);
+            logger.trace("Malformed ID list: %n%s", keyDump(index, key));
+            continue;
+          }
+
+          updateIndexStats(entryIDSet);
+
+          if (entryIDSet.isDefined())
+          {
+            EntryID prevID = null;
+
+            for (EntryID id : entryIDSet)
+            {
+              if (prevID != null && id.equals(prevID) && logger.isTraceEnabled())
+              {
+                logger.error(ERR_VERIFY_DUPLICATE_REFERENCE, id.longValue(), keyDump(index, key));
+              }
+              prevID = id;
+
+              Entry entry;
+              try
+              {
+                entry = id2entry.get(txn, id);
+              }
+              catch (Exception e)
+              {
+                logger.traceException(e);
+                errorCount.incrementAndGet();
+                continue;
+              }
+
+              if (entry == null)
+              {
+                errorCount.incrementAndGet();
+                logger.error(ERR_VERIFY_UNKNOWN_REFERENCE, id.longValue(), keyDump(index, key));
+                continue;
+              }
+
+              // As an optimization avoid passing in a real set and wasting time
+              // hashing and comparing a potentially large set of values, as well
+              // as using up memory. Instead just intercept the add() method and
+              // detect when an equivalent value has been added.
+
+              // We need to use an AtomicBoolean here since anonymous classes
+              // require referenced external variables to be final.
+              final AtomicBoolean foundMatchingKey = new AtomicBoolean(false);
+
+              Set<ByteString> dummySet = new AbstractSet<ByteString>()
+              {
+                @Override
+                public Iterator<ByteString> iterator()
+                {
+                  // The set is always empty.
+                  return Collections.<ByteString> emptySet().iterator();
+                }
+
+                @Override
+                public int size()
+                {
+                  // The set is always empty.
+                  return 0;
+                }
+
+                @Override
+                public boolean add(ByteString e)
+                {
+                  if (key.equals(e))
+                  {
+                    // We could terminate processing at this point by throwing an
+                    // UnsupportedOperationException, but this optimization is
+                    // already ugly enough.
+                    foundMatchingKey.set(true);
+                  }
+                  return true;
+                }
+
+              };
+
+              index.indexEntry(entry, dummySet);
+
+              if (!foundMatchingKey.get())
+              {
+                errorCount.incrementAndGet();
+                logger.error(ERR_VERIFY_UNEXPECTED_REFERENCE, entry.getName(), keyDump(index, key));
+              }
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * Check that an index is complete for a given entry.
+     *
+     * @param entryID The entry ID.
+     * @param entry The entry to be checked.
+     */
+    private void verifyEntry(ReadableTransaction txn, EntryID entryID, Entry entry)
     {
-      verifyAttribute(txn, entryID, entry, attrIndex);
+      if (verifyDN2ID)
+      {
+        verifyDN2ID(txn, entryID, entry);
+      }
+      verifyIndex(txn, entryID, entry);
     }
 
-    for (VLVIndex vlvIndex : vlvIndexList)
+    /**
+     * Check that the DN2ID index is complete for a given entry.
+     *
+     * @param entryID The entry ID.
+     * @param entry The entry to be checked.
+     */
+    private void verifyDN2ID(ReadableTransaction txn, EntryID entryID, Entry entry)
     {
+      DN dn = entry.getName();
+
+      // Check the ID is in dn2id with the correct DN.
       try
       {
-        if (vlvIndex.verifyEntry(txn, entryID, entry))
+        EntryID id = dn2id.get(txn, dn);
+        if (id == null)
+        {
+          logger.error(ERR_VERIFY_DN2ID_MISSING_KEY, dn);
+          errorCount.incrementAndGet();
+        }
+        else if (!id.equals(entryID))
         {
-          logger.error(ERR_VERIFY_MISSING_ENTRY_VLV, entry.getName(), vlvIndex.getName());
-          errorCount++;
+          logger.error(ERR_VERIFY_DN2ID_WRONG_ID, id.longValue(), entryID.longValue(), dn);
+          errorCount.incrementAndGet();
         }
       }
-      catch (DirectoryException e)
+      catch (Exception e)
       {
         if (logger.isTraceEnabled())
         {
           logger.traceException(e);
-          logger.trace("Error checking entry %s against filter or base DN for VLV index %s: %s",
-                     entry.getName(), vlvIndex.getName(), e.getMessageObject());
+          logger.trace("File dn2id has error reading key %s: %s.%n", dn, e.getMessage());
         }
-        errorCount++;
+        errorCount.incrementAndGet();
       }
-      catch (StorageRuntimeException e)
+
+      // Check the parent DN is in dn2id.
+      DN parentDN = getParent(dn);
+      if (parentDN != null)
       {
-        if (logger.isTraceEnabled())
+        try
         {
-          logger.traceException(e);
-          logger.trace("Error reading VLV index %s for entry %s: %s",
-              vlvIndex.getName(), entry.getName(), StaticUtils.getBacktrace(e));
+          EntryID id = dn2id.get(txn, parentDN);
+          if (id == null)
+          {
+            logger.error(ERR_VERIFY_DN2ID_MISSING_KEY, parentDN);
+            errorCount.incrementAndGet();
+          }
+        }
+        catch (Exception e)
+        {
+          if (logger.isTraceEnabled())
+          {
+            logger.traceException(e);
+            logger.trace("File dn2id has error reading key %s: %s.%n", parentDN, e.getMessage());
+          }
+          errorCount.incrementAndGet();
         }
-        errorCount++;
       }
     }
-  }
 
-  /** Check that an attribute index is complete for a given attribute. */
-  private void verifyAttribute(ReadableTransaction txn, EntryID entryID, Entry entry, AttributeIndex attrIndex)
-  {
-    for (MatchingRuleIndex index : attrIndex.getNameToIndexes().values())
+    /**
+     * Check that an attribute index is complete for a given entry.
+     *
+     * @param entryID
+     *          The entry ID.
+     * @param entry
+     *          The entry to be checked.
+     */
+    private void verifyIndex(ReadableTransaction txn, EntryID entryID, Entry entry)
     {
-      for (ByteString key : index.indexEntry(entry))
+      for (AttributeIndex attrIndex : attrIndexList)
       {
-        verifyAttributeInIndex(index, txn, key, entryID);
+        verifyAttribute(txn, entryID, entry, attrIndex);
       }
-    }
-  }
 
-  private void verifyAttributeInIndex(Index index, ReadableTransaction txn,
-      ByteString key, EntryID entryID)
-  {
-    try
-    {
-      ConditionResult cr = indexContainsID(index, txn, key, entryID);
-      if (cr == ConditionResult.FALSE)
+      for (VLVIndex vlvIndex : vlvIndexList)
       {
-        logger.error(ERR_VERIFY_MISSING_ID, entryID.longValue(), keyDump(index, key));
-        errorCount++;
+        try
+        {
+          if (vlvIndex.verifyEntry(txn, entryID, entry))
+          {
+            logger.error(ERR_VERIFY_MISSING_ENTRY_VLV, entry.getName(), vlvIndex.getName());
+            errorCount.incrementAndGet();
+          }
+        }
+        catch (DirectoryException e)
+        {
+          if (logger.isTraceEnabled())
+          {
+            logger.traceException(e);
+            logger.trace("Error checking entry %s against filter or base DN for VLV index %s: %s",
+                       entry.getName(), vlvIndex.getName(), e.getMessageObject());
+          }
+          errorCount.incrementAndGet();
+        }
+        catch (StorageRuntimeException e)
+        {
+          if (logger.isTraceEnabled())
+          {
+            logger.traceException(e);
+            logger.trace("Error reading VLV index %s for entry %s: %s",
+                vlvIndex.getName(), entry.getName(), StaticUtils.getBacktrace(e));
+          }
+          errorCount.incrementAndGet();
+        }
       }
-      else if (cr == ConditionResult.UNDEFINED)
+    }
+
+    /** Check that an attribute index is complete for a given attribute. */
+    private void verifyAttribute(ReadableTransaction txn, EntryID entryID, Entry entry, AttributeIndex attrIndex)
+    {
+      for (MatchingRuleIndex index : attrIndex.getNameToIndexes().values())
       {
-        incrEntryLimitStats(index, key);
+        for (ByteString key : index.indexEntry(entry))
+        {
+          verifyAttributeInIndex(index, txn, key, entryID);
+        }
       }
     }
-    catch (StorageRuntimeException e)
+
+    private void verifyAttributeInIndex(Index index, ReadableTransaction txn,
+        ByteString key, EntryID entryID)
     {
-      if (logger.isTraceEnabled())
+      try
       {
-        logger.traceException(e);
+        ConditionResult cr = indexContainsID(index, txn, key, entryID);
+        if (cr == ConditionResult.FALSE)
+        {
+          logger.error(ERR_VERIFY_MISSING_ID, entryID.longValue(), keyDump(index, key));
+          errorCount.incrementAndGet();
+        }
+        else if (cr == ConditionResult.UNDEFINED)
+        {
+          incrEntryLimitStats(index, key, 1L);
+        }
+      }
+      catch (StorageRuntimeException e)
+      {
+        if (logger.isTraceEnabled())
+        {
+          logger.traceException(e);
 
-        logger.trace("Error reading tree: %s%n%s", e.getMessage(), keyDump(index, key));
+          logger.trace("Error reading tree: %s%n%s", e.getMessage(), keyDump(index, key));
+        }
+        errorCount.incrementAndGet();
       }
-      errorCount++;
     }
   }
 
+  /**
+   * Construct a printable string from a raw key value.
+   *
+   * @param indexName
+   *          The name of the index tree containing the key value.
+   * @param key
+   *          The bytes of the key.
+   * @return A string that may be logged or printed.
+   */
+  private static String keyDump(Tree index, ByteSequence key)
+  {
+    StringBuilder buffer = new StringBuilder(128);
+    buffer.append("Index: ").append(index).append(ServerConstants.EOL);
+    buffer.append("Key:").append(ServerConstants.EOL);
+    StaticUtils.byteArrayToHexPlusAscii(buffer, key.toByteArray(), 6);
+    return buffer.toString();
+  }
+
   private static ConditionResult indexContainsID(Index index, ReadableTransaction txn, ByteString key, EntryID entryID)
   {
     EntryIDSet entryIDSet = index.get(txn, key);
@@ -985,6 +1297,232 @@ class VerifyJob
     }
   }
 
+  /** A unit of work of the verification, which is verified by a single thread. */
+  private abstract static class VerifyUnit
+  {
+    /** The name of this unit of work, unique within the verification. */
+    private final String name;
+
+    private VerifyUnit(String name)
+    {
+      this.name = name;
+    }
+
+    /**
+     * Verifies this unit of work.
+     *
+     * @param verifier The verifier accumulating the results of this unit of work.
+     * @param txn The transaction to use for reading the storage.
+     * @throws Exception If an error occurs while verifying this unit of work.
+     */
+    abstract void verify(Verifier verifier, ReadableTransaction txn) throws Exception;
+  }
+
+  /**
+   * Records the units of work which have been fully verified, along with their
+   * aggregated results, so that an interrupted verification may be resumed.
+   * The checkpoint file is rewritten at most once per progress interval.
+   */
+  private final class Checkpoint
+  {
+    private static final String SIGNATURE = "signature";
+    private static final String KEY_COUNT = "key-count";
+    private static final String ERROR_COUNT = "error-count";
+    private static final String ENTRY_LIMIT_EXCEEDED_COUNT = "entry-limit-exceeded-count";
+    private static final String MULTI_REFERENCE_COUNT = "multi-reference-count";
+    private static final String ENTRY_REFERENCES_COUNT = "entry-references-count";
+    private static final String MAX_ENTRY_PER_VALUE = "max-entry-per-value";
+    private static final String COMPLETED_PREFIX = "completed.";
+    /** Prefix of the entry limit statistics, whose values are: the hex key, its counter and the index name. */
+    private static final String ENTRY_LIMIT_PREFIX = "entry-limit.";
+
+    private final File file;
+    private final String signature;
+    private final Set<String> completedUnits = new HashSet<>();
+    private long lastSaveTime;
+
+    private Checkpoint(File file, String signature)
+    {
+      this.file = file;
+      this.signature = signature;
+    }
+
+    /**
+     * Restores the results of the units of work verified by a previous
+     * identical verification, if any.
+     *
+     * @param totals The aggregated results of the verification.
+     * @param nbUnits The number of units of work of the verification.
+     */
+    private void resume(Verifier totals, int nbUnits)
+    {
+      if (!file.exists())
+      {
+        return;
+      }
+
+      final Properties properties = new Properties();
+      final Verifier restored = new Verifier();
+      try (InputStream in = new FileInputStream(file))
+      {
+        properties.load(in);
+        if (!signature.equals(properties.getProperty(SIGNATURE)))
+        {
+          logger.info(NOTE_VERIFY_IGNORING_CHECKPOINT, file);
+          return;
+        }
+        restored.keyCount.set(Long.parseLong(properties.getProperty(KEY_COUNT)));
+        restored.errorCount.set(Long.parseLong(properties.getProperty(ERROR_COUNT)));
+        restored.entryLimitExceededCount = Long.parseLong(properties.getProperty(ENTRY_LIMIT_EXCEEDED_COUNT));
+        restored.multiReferenceCount = Long.parseLong(properties.getProperty(MULTI_REFERENCE_COUNT));
+        restored.entryReferencesCount = Long.parseLong(properties.getProperty(ENTRY_REFERENCES_COUNT));
+        restored.maxEntryPerValue = Long.parseLong(properties.getProperty(MAX_ENTRY_PER_VALUE));
+        if (!restoreEntryLimitStats(properties, restored))
+        {
+          logger.info(NOTE_VERIFY_IGNORING_CHECKPOINT, file);
+          return;
+        }
+      }
+      catch (IOException | RuntimeException e)
+      {
+        logger.traceException(e);
+        logger.warn(WARN_VERIFY_CHECKPOINT_IO_ERROR, file, stackTraceToSingleLineString(e));
+        return;
+      }
+
+      totals.add(restored);
+      for (String name : properties.stringPropertyNames())
+      {
+        if (name.startsWith(COMPLETED_PREFIX))
+        {
+          completedUnits.add(name.substring(COMPLETED_PREFIX.length()));
+        }
+      }
+      logger.info(NOTE_VERIFY_RESUMING_FROM_CHECKPOINT, file, completedUnits.size(), nbUnits,
+          totals.keyCount.get(), totals.errorCount.get());
+    }
+
+    /**
+     * Restores the statistics about the keys which have exceeded the entry limit.
+     *
+     * @return {@code false} if they refer to an index which is not verified, in which case the
+     *         checkpoint must not be resumed.
+     */
+    private boolean restoreEntryLimitStats(Properties properties, Verifier restored)
+    {
+      final Map<String, Index> indexes = new HashMap<>();
+      for (AttributeIndex attrIndex : attrIndexList)
+      {
+        for (MatchingRuleIndex index : attrIndex.getNameToIndexes().values())
+        {
+          indexes.put(index.getName().toString(), index);
+        }
+      }
+
+      for (String name : properties.stringPropertyNames())
+      {
+        if (name.startsWith(ENTRY_LIMIT_PREFIX))
+        {
+          final String[] stat = properties.getProperty(name).split(" ", 3);
+          final Index index = indexes.get(stat[2]);
+          if (index == null)
+          {
+            return false;
+          }
+          restored.incrEntryLimitStats(index, ByteString.valueOfHex(stat[0]), Long.parseLong(stat[1]));
+        }
+      }
+      return true;
+    }
+
+    private boolean isCompleted(VerifyUnit unit)
+    {
+      return completedUnits.contains(unit.name);
+    }
+
+    /**
+     * Records that a unit of work has been fully verified. The caller must
+     * hold the lock of the job.
+     *
+     * @param unit The unit of work which has been verified.
+     * @param totals The aggregated results of the verification, including those of the unit of work.
+     */
+    private void completed(VerifyUnit unit, Verifier totals)
+    {
+      completedUnits.add(unit.name);
+      final long now = System.currentTimeMillis();
+      if (now - lastSaveTime >= progressInterval)
+      {
+        save(totals);
+        lastSaveTime = now;
+      }
+    }
+
+    private void save(Verifier totals)
+    {
+      final Properties properties = new Properties();
+      properties.setProperty(SIGNATURE, signature);
+      properties.setProperty(KEY_COUNT, Long.toString(totals.keyCount.get()));
+      properties.setProperty(ERROR_COUNT, Long.toString(totals.errorCount.get()));
+      properties.setProperty(ENTRY_LIMIT_EXCEEDED_COUNT, Long.toString(totals.entryLimitExceededCount));
+      properties.setProperty(MULTI_REFERENCE_COUNT, Long.toString(totals.multiReferenceCount));
+      properties.setProperty(ENTRY_REFERENCES_COUNT, Long.toString(totals.entryReferencesCount));
+      properties.setProperty(MAX_ENTRY_PER_VALUE, Long.toString(totals.maxEntryPerValue));
+      int i = 0;
+      for (Map.Entry<Index, HashMap<ByteString, Long>> mapEntry : totals.entryLimitMap.entrySet())
+      {
+        for (Map.Entry<ByteString, Long> counter : mapEntry.getValue().entrySet())
+        {
+          properties.setProperty(ENTRY_LIMIT_PREFIX + i++,
+              counter.getKey().toHexString() + " " + counter.getValue() + " " + mapEntry.getKey().getName());
+        }
+      }
+      for (String name : completedUnits)
+      {
+        properties.setProperty(COMPLETED_PREFIX + name, "true");
+      }
+
+      // Write a new file and rename it, so that an interruption cannot leave a corrupted checkpoint.
+      final File tmpFile = new File(file.getPath() + ".tmp");
+      try
+      {
+        try (OutputStream out = new FileOutputStream(tmpFile))
+        {
+          properties.store(out, null);
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+      }
+      catch (IOException e)
+      {
+        logger.traceException(e);
+        logger.warn(WARN_VERIFY_CHECKPOINT_IO_ERROR, file, stackTraceToSingleLineString(e));
+      }
+    }
+
+    /** Saves the units of work verified so far, for example because the verification failed. */
+    private void flush()
+    {
+      synchronized (VerifyJob.this)
+      {
+        save(totals);
+      }
+    }
+
+    /** Removes the checkpoint file once the verification has completed. */
+    private void delete()
+    {
+      try
+      {
+        Files.deleteIfExists(file.toPath());
+      }
+      catch (IOException e)
+      {
+        logger.traceException(e);
+        logger.warn(WARN_VERIFY_CHECKPOINT_IO_ERROR, file, stackTraceToSingleLineString(e));
+      }
+    }
+  }
+
   /** This class reports progress of the verify job at fixed intervals. */
   private final class ProgressTask extends TimerTask
   {
@@ -1048,7 +1586,7 @@ class VerifyJob
     @Override
     public void run()
     {
-      long latestCount = keyCount;
+      long latestCount = getKeyCount();
       long deltaCount = latestCount - previousCount;
       long latestTime = System.currentTimeMillis();
       long deltaTime = latestTime - previousTime;
@@ -1060,7 +1598,7 @@ class VerifyJob
 
       float rate = 1000f*deltaCount / deltaTime;
 
-      logger.info(NOTE_VERIFY_PROGRESS_REPORT, latestCount, totalCount, errorCount, rate);
+      logger.info(NOTE_VERIFY_PROGRESS_REPORT, latestCount, totalCount, getErrorCount(), rate);
 
       try
       {
@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.backends.pluggable;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.forgerock.opendj.ldap.ByteSequenceReader;
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ByteStringBuilder;
+import org.opends.server.backends.pluggable.spi.TreeName;
+
+/**
+ * A sample of the entries recently read from an entry container.
+ * <p>
+ * The sample is recorded when the backend is finalized and reloaded into the storage cache when it is initialized
+ * again, so that a restarted server does not serve requests with a cold cache.
+ * <p>
+ * Only one out of {@value #SAMPLING_RATE} reads is sampled, into a ring buffer holding the most recent samples. Lost
+ * updates between threads recording concurrently are harmless, so the buffer is not synchronized.
+ */
+final class WorkingSet
+{
+  /** The tree holding the working sets recorded when the backend was finalized, keyed by tree prefix. */
+  static final TreeName TREE_NAME = new TreeName("working_set", "hot_entries");
+
+  /** Maximum number of sampled entry IDs, must be a power of two. */
+  private static final int CAPACITY = 1 << 15;
+  /** One out of this number of reads is sampled, must be a power of two. */
+  private static final int SAMPLING_RATE = 4;
+
+  private final long[] entryIDs = new long[CAPACITY];
+  private int next;
+
+  /**
+   * Records that an entry was read.
+   *
+   * @param entryID
+   *          the ID of the entry read
+   */
+  void record(EntryID entryID)
+  {
+    if ((ThreadLocalRandom.current().nextInt() & (SAMPLING_RATE - 1)) == 0)
+    {
+      entryIDs[next++ & (CAPACITY - 1)] = entryID.longValue();
+    }
+  }
+
+  /**
+   * Encodes the sampled entry IDs, sorted and without duplicates, as compact deltas.
+   *
+   * @return the encoded working set
+   */
+  ByteString encode()
+  {
+    final long[] sortedIDs = entryIDs.clone();
+    Arrays.sort(sortedIDs);
+    final ByteStringBuilder builder = new ByteStringBuilder();
+    long previousID = 0;
+    for (long entryID : sortedIDs)
+    {
+      // Entry IDs start at 1, so empty slots are skipped
+      if (entryID > previousID)
+      {
+        builder.appendCompactUnsigned(entryID - previousID);
+        previousID = entryID;
+      }
+    }
+    return builder.toByteString();
+  }
+
+  /**
+   * Decodes a working set encoded with {@link #encode()}.
+   *
+   * @param encoded
+   *          the encoded working set
+   * @return the entry IDs of the working set, in ascending order
+   */
+  static long[] decode(ByteString encoded)
+  {
+    long[] decodedIDs = new long[Math.max(encoded.length() / 2, 16)];
+    int count = 0;
+    long entryID = 0;
+    final ByteSequenceReader reader = encoded.asReader();
+    while (reader.remaining() > 0)
+    {
+      entryID += reader.readCompactUnsignedLong();
+      if (count == decodedIDs.length)
+      {
+        decodedIDs = Arrays.copyOf(decodedIDs, count * 2);
+      }
+      decodedIDs[count++] = entryID;
+    }
+    return Arrays.copyOf(decodedIDs, count);
+  }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable.spi;
 
@@ -94,6 +95,13 @@ public interface Storage extends Closeable
    */
   StorageStatus getStorageStatus();
 
+  /**
+   * Returns the size of the cache of the storage, which bounds the amount of data worth pre-loading.
+   *
+   * @return the size of the cache of the storage in bytes, or {@code 0} if it is unknown
+   */
+  long getCacheSize();
+
   /**
    * Returns {@code true} if this storage supports backup and restore.
    *
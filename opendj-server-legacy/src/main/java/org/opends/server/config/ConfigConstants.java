@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.config;
 
@@ -4143,6 +4144,13 @@ public final class ConfigConstants
   public static final String ATTR_TASK_EXPORT_INCLUDE_OPERATIONAL_ATTRIBUTES =
        NAME_PREFIX_TASK + "export-include-operational-attributes";
 
+  /**
+   * The name of the attribute in an export task definition that specifies the
+   * thread count to be used during the export.
+   */
+  public static final String ATTR_TASK_EXPORT_THREAD_COUNT =
+       NAME_PREFIX_TASK + "export-thread-count";
+
 
   /**
    * The name of the attribute in an export task definition that specifies
@@ -4361,6 +4369,14 @@ public final class ConfigConstants
   public static final String ATTR_TASK_SET_GENERATION_ID_NEW_VALUE =
     OC_RESET_GENERATION_ID_TASK + "-new-value";
 
+  /**
+   * The name of the attribute indicating whether the generation ID should be
+   * recomputed from the data of the replication domain to which applies the
+   * task, rather than reusing the stored one.
+   */
+  public static final String ATTR_TASK_SET_GENERATION_ID_RECOMPUTE =
+    OC_RESET_GENERATION_ID_TASK + "-recompute";
+
   /**
    * The name of the attribute in an import task definition that specifies
    * whether the backend should be cleared before the import.
@@ -13,10 +13,12 @@
  *
  * Copyright 2006-2008 Sun Microsystems, Inc.
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.core;
 
 import static org.forgerock.opendj.ldap.ResultCode.*;
+import static org.forgerock.util.Utils.newThreadFactory;
 import static org.opends.messages.ConfigMessages.*;
 import static org.opends.messages.CoreMessages.*;
 import static org.opends.server.core.BackendConfigManager.NamingContextFilter.*;
@@ -33,8 +35,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.forgerock.i18n.LocalizableMessage;
@@ -196,6 +204,8 @@ public class BackendConfigManager implements
    */
   public void initializeBackends(Collection<String> backendIDsToStart, RootCfg root) throws ConfigException
   {
+    final List<BackendToOpen> backendsToOpen = new ArrayList<>();
+    final int threadCount;
     writeLock.lock();
     try
     {
@@ -246,13 +256,186 @@ public class BackendConfigManager implements
           continue;
         }
 
-        initializeBackend(backend, backendCfg);
+        backendsToOpen.add(new BackendToOpen(backend, backendCfg));
+      }
+
+      threadCount = Math.min(root.getGlobalConfiguration().getBackendInitializationThreads(), backendsToOpen.size());
+      if (threadCount <= 1)
+      {
+        for (BackendToOpen backendToOpen : backendsToOpen)
+        {
+          initializeBackend(backendToOpen.backend, backendToOpen.cfg);
+        }
+        return;
       }
     }
     finally
     {
       writeLock.unlock();
     }
+
+    // Backends are opened without holding the write lock, which is only
+    // taken to register each of them once it is open
+    initializeBackendsInParallel(backendsToOpen, threadCount);
+  }
+
+  /**
+   * Opens the provided backends concurrently. The backends are opened by hierarchy level: a backend is only opened
+   * once all the backends holding a base DN superior to one of its base DNs are open. Backends are registered in
+   * configuration order as soon as their level is open.
+   */
+  private void initializeBackendsInParallel(List<BackendToOpen> backendsToOpen, int threadCount)
+  {
+    final long startTime = System.currentTimeMillis();
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(threadCount, newThreadFactory(null, "Backend Initializer %d", true));
+    try
+    {
+      for (List<BackendToOpen> level : groupByHierarchyLevel(backendsToOpen))
+      {
+        final List<Future<Boolean>> futures = new ArrayList<>(level.size());
+        for (final BackendToOpen backendToOpen : level)
+        {
+          backendToOpen.backend.setBackendID(backendToOpen.cfg.getBackendId());
+          setLocalBackendWritabilityMode(backendToOpen.backend, backendToOpen.cfg);
+          futures.add(executor.submit(new Callable<Boolean>()
+          {
+            @Override
+            public Boolean call()
+            {
+              return backendToOpen.open();
+            }
+          }));
+        }
+
+        for (int i = 0; i < level.size(); i++)
+        {
+          final BackendToOpen backendToOpen = level.get(i);
+          if (isOpen(futures.get(i), backendToOpen))
+          {
+            writeLock.lock();
+            try
+            {
+              if (registerBackend(backendToOpen.backend, backendToOpen.cfg, backendToOpen.ccr))
+              {
+                logger.info(NOTE_CONFIG_BACKEND_OPENED, backendToOpen.cfg.getBackendId(), backendToOpen.openTime);
+              }
+            }
+            finally
+            {
+              writeLock.unlock();
+            }
+          }
+          for (LocalizableMessage msg : backendToOpen.ccr.getMessages())
+          {
+            logger.error(msg);
+          }
+        }
+      }
+    }
+    catch (InterruptedException e)
+    {
+      logger.traceException(e);
+      Thread.currentThread().interrupt();
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+    logger.info(NOTE_CONFIG_BACKENDS_OPENED_IN_PARALLEL,
+        backendsToOpen.size(), threadCount, System.currentTimeMillis() - startTime);
+  }
+
+  private boolean isOpen(Future<Boolean> future, BackendToOpen backendToOpen) throws InterruptedException
+  {
+    try
+    {
+      return future.get();
+    }
+    catch (ExecutionException e)
+    {
+      logger.traceException(e);
+      final BackendCfg cfg = backendToOpen.cfg;
+      backendToOpen.ccr.setResultCode(DirectoryServer.getCoreConfigManager().getServerErrorResultCode());
+      backendToOpen.ccr.addMessage(ERR_CONFIG_BACKEND_CANNOT_INITIALIZE.get(
+          cfg.getJavaClass(), cfg.dn(), stackTraceToSingleLineString(e.getCause())));
+      if (backendToOpen.sharedLockAcquired)
+      {
+        releaseSharedLock(WARN_CONFIG_BACKEND_CANNOT_RELEASE_SHARED_LOCK, backendToOpen.backend, cfg.getBackendId());
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Groups the provided backends by hierarchy level, preserving their order within a level. The level of a backend is
+   * the number of other backends holding a base DN superior to one of its base DNs, so any backend superior to it
+   * belongs to a lower level.
+   */
+  private static Collection<List<BackendToOpen>> groupByHierarchyLevel(List<BackendToOpen> backendsToOpen)
+  {
+    final Map<Integer, List<BackendToOpen>> levels = new TreeMap<>();
+    for (BackendToOpen backendToOpen : backendsToOpen)
+    {
+      int level = 0;
+      for (BackendToOpen other : backendsToOpen)
+      {
+        if (other != backendToOpen && isSuperior(other.cfg, backendToOpen.cfg))
+        {
+          level++;
+        }
+      }
+      List<BackendToOpen> backendsOfLevel = levels.get(level);
+      if (backendsOfLevel == null)
+      {
+        backendsOfLevel = new ArrayList<>();
+        levels.put(level, backendsOfLevel);
+      }
+      backendsOfLevel.add(backendToOpen);
+    }
+    return levels.values();
+  }
+
+  /** Returns whether a base DN of the first backend is strictly superior to a base DN of the second backend. */
+  private static boolean isSuperior(BackendCfg cfg, BackendCfg subordinateCfg)
+  {
+    for (DN baseDN : cfg.getBaseDN())
+    {
+      for (DN subordinateBaseDN : subordinateCfg.getBaseDN())
+      {
+        if (subordinateBaseDN.isSubordinateOrEqualTo(baseDN) && !subordinateBaseDN.equals(baseDN))
+        {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** A backend to open during the server startup. */
+  private final class BackendToOpen
+  {
+    private final Backend<? extends BackendCfg> backend;
+    private final BackendCfg cfg;
+    private final ConfigChangeResult ccr = new ConfigChangeResult();
+    private long openTime;
+    /** Whether the shared lock was acquired, so that it must be released if opening the backend throws. */
+    private boolean sharedLockAcquired;
+
+    private BackendToOpen(Backend<? extends BackendCfg> backend, BackendCfg cfg)
+    {
+      this.backend = backend;
+      this.cfg = cfg;
+    }
+
+    private boolean open()
+    {
+      final long startTime = System.currentTimeMillis();
+      sharedLockAcquired = acquireSharedLock(backend, cfg.getBackendId(), ccr);
+      final boolean isOpen = sharedLockAcquired && configureAndOpenBackend(backend, cfg, ccr);
+      openTime = System.currentTimeMillis() - startTime;
+      return isOpen;
+    }
   }
 
   private void initializeBackend(Backend<? extends BackendCfg> backend, BackendCfg backendCfg)
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.core;
 
@@ -132,6 +133,8 @@ public class CoreConfigManager implements ConfigurationChangeListener<GlobalCfg>
     private boolean saveConfigOnSuccessfulStartup;
     /** Whether to use collect operation processing times in nanosecond resolution. */
     private boolean useNanoTime;
+    /** Whether to collect the time spent in each processing phase of the operations. */
+    private boolean etimeBreakdown;
     /** The maximum number of connections that will be allowed at any given time. */
     private long maxAllowedConnections;
     /** The maximum number of concurrent persistent searches. */
@@ -215,6 +218,7 @@ public class CoreConfigManager implements ConfigurationChangeListener<GlobalCfg>
     core.saveConfigOnSuccessfulStartup = globalConfig.isSaveConfigOnSuccessfulStartup();
 
     core.useNanoTime= globalConfig.getEtimeResolution() == GlobalCfgDefn.EtimeResolution.NANOSECONDS;
+    core.etimeBreakdown = globalConfig.isEtimeBreakdown();
     long maxAllowedConnections = globalConfig.getMaxAllowedClientConnections();
     core.maxAllowedConnections = (maxAllowedConnections > 0) ? maxAllowedConnections : -1;
     core.maxPSearches = globalConfig.getMaxPsearches();
@@ -850,6 +854,16 @@ public class CoreConfigManager implements ConfigurationChangeListener<GlobalCfg>
     return coreAttributes.useNanoTime;
   }
 
+  /**
+   * Retrieves whether the time spent in each processing phase of the operations should be collected.
+   *
+   * @return {@code true} if the time spent in each processing phase is collected, {@code false} otherwise
+   */
+  public boolean isEtimeBreakdown()
+  {
+    return coreAttributes.etimeBreakdown;
+  }
+
   /**
    * Indicates whether configuration should be saved on successful startup of the server.
    *
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2010-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.core;
 
@@ -145,6 +146,7 @@ import org.opends.server.types.LDIFExportConfig;
 import org.opends.server.types.LDIFImportConfig;
 import org.opends.server.types.LockManager;
 import org.opends.server.types.Operation;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.Privilege;
 import org.opends.server.types.RestoreConfig;
 import org.opends.server.types.VirtualAttributeRule;
@@ -3634,6 +3636,7 @@ public final class DirectoryServer
       throws DirectoryException
   {
     checkCanEnqueueRequest(operation, false);
+    operation.enterPhase(OperationPhase.WORK_QUEUE);
     directoryServer.workQueue.submitOperation(operation);
   }
 
@@ -3652,6 +3655,7 @@ public final class DirectoryServer
       throws DirectoryException
   {
     checkCanEnqueueRequest(operation, false);
+    operation.enterPhase(OperationPhase.WORK_QUEUE);
     return directoryServer.workQueue.trySubmitOperation(operation);
   }
 
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2008 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.core;
 
@@ -34,6 +35,7 @@ import org.opends.server.types.DirectoryException;
 import org.opends.server.types.DisconnectReason;
 import org.opends.server.types.Entry;
 import org.opends.server.types.Operation;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.OperationType;
 
 /**
@@ -247,6 +249,24 @@ public class OperationWrapper<W extends Operation> implements Operation
     return operation.getProcessingNanoTime();
   }
 
+  @Override
+  public OperationPhase enterPhase(OperationPhase phase)
+  {
+    return operation.enterPhase(phase);
+  }
+
+  @Override
+  public void exitPhase(OperationPhase previousPhase)
+  {
+    operation.exitPhase(previousPhase);
+  }
+
+  @Override
+  public long getPhaseNanoTime(OperationPhase phase)
+  {
+    return operation.getPhaseNanoTime(phase);
+  }
+
   @Override
   public List<String> getReferralURLs()
   {
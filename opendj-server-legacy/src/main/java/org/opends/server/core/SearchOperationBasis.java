@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.core;
 
@@ -49,6 +50,7 @@ import org.opends.server.types.CanceledOperationException;
 import org.opends.server.types.Control;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.OperationType;
 import org.opends.server.types.RawFilter;
 import org.opends.server.types.SearchFilter;
@@ -561,7 +563,7 @@ public class SearchOperationBasis
 
     // Check to see if the entry can be read by the client.
     SearchResultEntry unfilteredSearchEntry = new SearchResultEntry(entry, controls);
-    if (evaluateAci && !getACIHandler().maySend(this, unfilteredSearchEntry))
+    if (evaluateAci && !maySend(unfilteredSearchEntry))
     {
       return true;
     }
@@ -659,7 +661,7 @@ public class SearchOperationBasis
     // values that the client is not permitted to see.
     if (evaluateAci)
     {
-      getACIHandler().filterEntry(this, unfilteredSearchEntry, filteredSearchEntry);
+      filterEntry(unfilteredSearchEntry, filteredSearchEntry);
     }
 
     // Invoke any search entry plugins that may be registered with the server.
@@ -696,6 +698,32 @@ public class SearchOperationBasis
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
 
+  private boolean maySend(SearchResultEntry unfilteredSearchEntry)
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      return getACIHandler().maySend(this, unfilteredSearchEntry);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
+
+  private void filterEntry(SearchResultEntry unfilteredSearchEntry, SearchResultEntry filteredSearchEntry)
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      getACIHandler().filterEntry(this, unfilteredSearchEntry, filteredSearchEntry);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
+
   @Override
   public final boolean returnReference(DN dn, SearchResultReference reference)
   {
@@ -942,14 +970,30 @@ public class SearchOperationBasis
   public void sendSearchEntry(SearchResultEntry searchEntry)
       throws DirectoryException
   {
-    getClientConnection().sendSearchEntry(this, searchEntry);
+    final OperationPhase previousPhase = enterPhase(OperationPhase.RESPONSE_WRITE);
+    try
+    {
+      getClientConnection().sendSearchEntry(this, searchEntry);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
   }
 
   @Override
   public boolean sendSearchReference(SearchResultReference searchReference)
       throws DirectoryException
   {
-    return getClientConnection().sendSearchReference(this, searchReference);
+    final OperationPhase previousPhase = enterPhase(OperationPhase.RESPONSE_WRITE);
+    try
+    {
+      return getClientConnection().sendSearchReference(this, searchReference);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
   }
 
   @Override
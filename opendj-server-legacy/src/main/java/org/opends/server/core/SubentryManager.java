@@ -13,6 +13,7 @@
  *
  * Copyright 2009-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.core;
 
@@ -25,6 +26,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -92,6 +94,48 @@ public class SubentryManager extends InternalDirectoryServerPlugin
 
   /** Dummy configuration DN for Subentry Manager. */
   private static final String CONFIG_DN = "cn=Subentry Manager,cn=config";
+  /** The maximum number of parent DNs for which child candidates are cached. */
+  private static final int MAX_CACHED_PARENTS = 10000;
+
+  /**
+   * A subentry which may apply to the children of an entry, along with the
+   * children which are excluded from its scope.
+   */
+  private static final class ChildCandidate
+  {
+    private final SubEntry subEntry;
+    private final Set<DN> excludedChildren;
+
+    private ChildCandidate(SubEntry subEntry, Set<DN> excludedChildren)
+    {
+      this.subEntry = subEntry;
+      this.excludedChildren = excludedChildren;
+    }
+
+    private boolean isDNWithinScope(DN childDN)
+    {
+      return excludedChildren.isEmpty() || !excludedChildren.contains(childDN);
+    }
+
+    private boolean isWithinScope(Entry child)
+    {
+      return isDNWithinScope(child.getName())
+          && subEntry.getSubTreeSpecification().isWithinRefinements(child);
+    }
+  }
+
+  /** The subentries which may apply to the children of an entry, ordered from the closest ancestor. */
+  private static final class ChildCandidates
+  {
+    private final long version;
+    private final List<ChildCandidate> candidates;
+
+    private ChildCandidates(long version, List<ChildCandidate> candidates)
+    {
+      this.version = version;
+      this.candidates = candidates;
+    }
+  }
 
   /** A mapping between the DNs and applicable subentries. */
   private final Map<DN, List<SubEntry>> dn2SubEntry = new HashMap<>();
@@ -101,6 +145,18 @@ public class SubentryManager extends InternalDirectoryServerPlugin
   private final DITCacheMap<SubEntry> dit2SubEntry = new DITCacheMap<>();
   /** Internal search all operational attributes. */
   private final Set<String> requestAttrs = newLinkedHashSet("*", "+");
+  /**
+   * A mapping between parent DNs and the subentries which may apply to their
+   * children, see {@link #getChildCandidates(Map, DN)}.
+   */
+  private final Map<DN, ChildCandidates> parent2SubEntry = new ConcurrentHashMap<>();
+  /** A mapping between parent DNs and the collective subentries which may apply to their children. */
+  private final Map<DN, ChildCandidates> parent2CollectiveSubEntry = new ConcurrentHashMap<>();
+  /**
+   * The version of the subentry maps, incremented whenever a subentry is added
+   * or removed so that stale child candidates are recomputed.
+   */
+  private long version;
   /** Lock to protect internal data structures. */
   private final ReadWriteLock lock = new ReentrantReadWriteLock();
   /** The set of change notification listeners. */
@@ -195,6 +251,7 @@ public class SubentryManager extends InternalDirectoryServerPlugin
       }
       dit2SubEntry.put(entry.getName(), subEntry);
       subList.add(subEntry);
+      version++;
     }
     finally
     {
@@ -247,6 +304,7 @@ public class SubentryManager extends InternalDirectoryServerPlugin
           {
             subEntryListsIt.remove();
           }
+          version++;
           return true;
         }
       }
@@ -425,7 +483,7 @@ public class SubentryManager extends InternalDirectoryServerPlugin
 
   private List<SubEntry> getSubentries(Map<DN, List<SubEntry>> subEntryMap, DN dn)
   {
-    if (subEntryMap.isEmpty())
+    if (subEntryMap.isEmpty() || dn.isRootDN())
     {
       return Collections.emptyList();
     }
@@ -434,21 +492,26 @@ public class SubentryManager extends InternalDirectoryServerPlugin
     try
     {
       List<SubEntry> subentries = new ArrayList<>();
-      for (DN subDN = dn; subDN != null && !subDN.isRootDN(); subDN = subDN.parent())
+      // Subentries whose subtree starts at the target entry itself.
+      List<SubEntry> subList = subEntryMap.get(dn);
+      if (subList != null)
       {
-        List<SubEntry> subList = subEntryMap.get(subDN);
-        if (subList != null)
+        for (SubEntry subEntry : subList)
         {
-          for (SubEntry subEntry : subList)
+          if (subEntry.getSubTreeSpecification().isDNWithinScope(dn))
           {
-            SubtreeSpecification subSpec = subEntry.getSubTreeSpecification();
-            if (subSpec.isDNWithinScope(dn))
-            {
-              subentries.add(subEntry);
-            }
+            subentries.add(subEntry);
           }
         }
       }
+      // Subentries whose subtree starts at one of its ancestors.
+      for (ChildCandidate candidate : getChildCandidates(subEntryMap, dn.parent()))
+      {
+        if (candidate.isDNWithinScope(dn))
+        {
+          subentries.add(candidate.subEntry);
+        }
+      }
       return subentries;
     }
     finally
@@ -472,7 +535,8 @@ public class SubentryManager extends InternalDirectoryServerPlugin
 
   private List<SubEntry> getSubentries(Map<DN, List<SubEntry>> subEntryMap, Entry entry)
   {
-    if (subEntryMap.isEmpty())
+    final DN dn = entry.getName();
+    if (subEntryMap.isEmpty() || dn.isRootDN())
     {
       return Collections.emptyList();
     }
@@ -481,21 +545,26 @@ public class SubentryManager extends InternalDirectoryServerPlugin
     try
     {
       List<SubEntry> subentries = new ArrayList<>();
-      for (DN subDN = entry.getName(); subDN != null && !subDN.isRootDN(); subDN = subDN.parent())
+      // Subentries whose subtree starts at the target entry itself.
+      List<SubEntry> subList = subEntryMap.get(dn);
+      if (subList != null)
       {
-        List<SubEntry> subList = subEntryMap.get(subDN);
-        if (subList != null)
+        for (SubEntry subEntry : subList)
         {
-          for (SubEntry subEntry : subList)
+          if (subEntry.getSubTreeSpecification().isWithinScope(entry))
           {
-            SubtreeSpecification subSpec = subEntry.getSubTreeSpecification();
-            if (subSpec.isWithinScope(entry))
-            {
-              subentries.add(subEntry);
-            }
+            subentries.add(subEntry);
           }
         }
       }
+      // Subentries whose subtree starts at one of its ancestors.
+      for (ChildCandidate candidate : getChildCandidates(subEntryMap, dn.parent()))
+      {
+        if (candidate.isWithinScope(entry))
+        {
+          subentries.add(candidate.subEntry);
+        }
+      }
       return subentries;
     }
     finally
@@ -504,6 +573,52 @@ public class SubentryManager extends InternalDirectoryServerPlugin
     }
   }
 
+  /**
+   * Returns the subentries which may apply to the children of the provided
+   * entry, ordered from the closest ancestor. The DN scope of each subentry is
+   * resolved once for all the children, so that only exclusions and
+   * specification filters remain to be evaluated for each child. The result is
+   * cached until the next subentry change. The caller must hold the read lock.
+   */
+  private List<ChildCandidate> getChildCandidates(Map<DN, List<SubEntry>> subEntryMap, DN parentDN)
+  {
+    if (parentDN == null || parentDN.isRootDN())
+    {
+      return Collections.emptyList();
+    }
+
+    final Map<DN, ChildCandidates> cache =
+        subEntryMap == dn2CollectiveSubEntry ? parent2CollectiveSubEntry : parent2SubEntry;
+    ChildCandidates childCandidates = cache.get(parentDN);
+    if (childCandidates == null || childCandidates.version != version)
+    {
+      List<ChildCandidate> candidates = new ArrayList<>();
+      for (DN subDN = parentDN; subDN != null && !subDN.isRootDN(); subDN = subDN.parent())
+      {
+        List<SubEntry> subList = subEntryMap.get(subDN);
+        if (subList != null)
+        {
+          for (SubEntry subEntry : subList)
+          {
+            Set<DN> excludedChildren = subEntry.getSubTreeSpecification().getChildrenExcludedFromScope(parentDN);
+            if (excludedChildren != null)
+            {
+              candidates.add(new ChildCandidate(subEntry, excludedChildren));
+            }
+          }
+        }
+      }
+
+      if (cache.size() >= MAX_CACHED_PARENTS)
+      {
+        cache.clear();
+      }
+      childCandidates = new ChildCandidates(version, candidates);
+      cache.put(parentDN, childCandidates);
+    }
+    return childCandidates.candidates;
+  }
+
   /**
    * Return collective subentries applicable to specific DN.
    * Note that this getter will skip any regular subentries,
@@ -530,6 +645,26 @@ public class SubentryManager extends InternalDirectoryServerPlugin
     return getSubentries(dn2CollectiveSubEntry, entry);
   }
 
+  /**
+   * Indicates whether any collective subentry is registered, in which case
+   * collective attributes may apply to any entry.
+   *
+   * @return {@code true} if at least one collective subentry is registered,
+   *         {@code false} otherwise.
+   */
+  public boolean hasCollectiveSubentries()
+  {
+    lock.readLock().lock();
+    try
+    {
+      return !dn2CollectiveSubEntry.isEmpty();
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
   /**
    * {@inheritDoc}  In this case, the server will de-register
    * all subentries associated with the provided backend.
@@ -563,6 +698,7 @@ public class SubentryManager extends InternalDirectoryServerPlugin
         {
           dit2SubEntry.remove(subEntry.getDN());
           subEntriesIt.remove();
+          version++;
           notifySubentryDeleted(subEntry.getEntry());
         }
       }
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.loggers;
 
@@ -60,6 +61,7 @@ import org.opends.server.types.DisconnectReason;
 import org.opends.server.types.FilePermission;
 import org.opends.server.types.InitializationException;
 import org.opends.server.types.Operation;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.util.StaticUtils;
 import org.opends.server.util.TimeThread;
 
@@ -72,6 +74,8 @@ public final class TextAccessLogPublisher extends
   private static final String CATEGORY_RESPONSE = "RES";
   /** The category to use when logging requests. */
   private static final String CATEGORY_REQUEST = "REQ";
+  /** The operation processing phases, in the order they are logged. */
+  private static final OperationPhase[] PHASES = OperationPhase.values();
 
   /**
    * Returns an instance of the text access log publisher that will print all
@@ -915,6 +919,26 @@ public final class TextAccessLogPublisher extends
       etime = operation.getProcessingTime();
     }
     buffer.append(etime);
+    appendEtimeBreakdown(buffer, operation);
+  }
+
+  /** Appends the time spent in each processing phase in nanoseconds, when the etime breakdown is enabled. */
+  private void appendEtimeBreakdown(final StringBuilder buffer, final Operation operation)
+  {
+    if (operation.getPhaseNanoTime(OperationPhase.WORK_QUEUE) < 0)
+    {
+      return;
+    }
+    buffer.append(" etimeBreakdown=\"");
+    for (OperationPhase phase : PHASES)
+    {
+      if (phase.ordinal() > 0)
+      {
+        buffer.append(' ');
+      }
+      buffer.append(phase.getName()).append('=').append(operation.getPhaseNanoTime(phase));
+    }
+    buffer.append('\"');
   }
 
   /** Appends the common log header information to the provided buffer. */
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.monitors;
 
@@ -30,6 +31,8 @@ import org.opends.server.api.LocalBackend;
 import org.opends.server.api.MonitorData;
 import org.opends.server.api.MonitorProvider;
 import org.opends.server.core.DirectoryServer;
+import org.opends.server.monitors.MetricsRegistry.Histogram;
+import org.opends.server.types.OperationType;
 
 /**
  * This class implements a monitor provider that will report generic information
@@ -44,6 +47,8 @@ public class LocalBackendMonitor
 
   /** The name for this monitor. */
   private String monitorName;
+  /** The duration histograms of the operations, indexed by the ordinal of the operation types. */
+  private Histogram[] operationDurations;
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
   /**
@@ -62,6 +67,32 @@ public class LocalBackendMonitor
   public void initializeMonitorProvider(MonitorProviderCfg configuration)
   {
     monitorName = backend.getBackendID() + " Backend";
+    operationDurations = MetricsRegistry.getInstance().operationHistograms("backend_operation_duration_seconds",
+        "Duration of the operations processed by the backend", "backend", backend.getBackendID());
+  }
+
+  @Override
+  public void finalizeMonitorProvider()
+  {
+    super.finalizeMonitorProvider();
+    MetricsRegistry.getInstance().removeMetrics("backend", backend.getBackendID());
+  }
+
+  /**
+   * Records the duration of an operation processed by the backend in its metrics.
+   *
+   * @param type
+   *          the type of the operation
+   * @param durationNanos
+   *          the time spent processing the operation in the backend, in nanoseconds
+   */
+  public void updateOperationDuration(OperationType type, long durationNanos)
+  {
+    final Histogram[] histograms = operationDurations;
+    if (histograms != null)
+    {
+      histograms[type.ordinal()].record(durationNanos);
+    }
   }
 
   @Override
@@ -0,0 +1,482 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.monitors;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.opends.server.types.OperationType;
+
+/**
+ * Registry of the metrics published in the OpenMetrics text format by the metrics HTTP endpoint.
+ * <p>
+ * Unlike the monitor providers, which build their monitor data each time the monitor backend is searched, the
+ * metrics are updated in place by the server components: counters and histograms are striped so that updating them
+ * neither locks nor allocates, and gauges read the current value of existing statistics when the metrics are
+ * exported. Components register their metrics with labels identifying them, for example the backend ID, and remove
+ * them using the same labels when they are finalized.
+ */
+public final class MetricsRegistry
+{
+  /** The prefix of the names of all the metrics. */
+  private static final String PREFIX = "ds_";
+
+  /** The single instance of the registry. */
+  private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+  /** Provides the current value of a metric when the metrics are exported. */
+  public interface Gauge
+  {
+    /**
+     * Returns the current value of the metric.
+     *
+     * @return the current value of the metric
+     */
+    long getValue();
+  }
+
+  /** A monotonically increasing counter. */
+  public static final class Counter implements Gauge
+  {
+    private final LongAdder value = new LongAdder();
+
+    /** Increments this counter. */
+    public void increment()
+    {
+      value.increment();
+    }
+
+    /**
+     * Adds the provided amount to this counter.
+     *
+     * @param amount
+     *          the amount to add, which must not be negative
+     */
+    public void add(long amount)
+    {
+      value.add(amount);
+    }
+
+    @Override
+    public long getValue()
+    {
+      return value.sum();
+    }
+  }
+
+  /**
+   * A histogram of durations. Durations are counted in buckets whose upper bounds double from 16 microseconds to
+   * about 16 seconds, so that the bucket of a duration is found from the position of its highest bit.
+   */
+  public static final class Histogram
+  {
+    /** The number of buckets with an upper bound. */
+    private static final int NB_BOUNDED_BUCKETS = 21;
+    /** Log2 of the upper bound, in microseconds, of the first bucket. */
+    private static final int FIRST_BUCKET_SHIFT = 4;
+    /** The upper bounds of the buckets, in seconds, as written in the "le" label. */
+    private static final String[] UPPER_BOUNDS = new String[NB_BOUNDED_BUCKETS + 1];
+    static
+    {
+      for (int i = 0; i < NB_BOUNDED_BUCKETS; i++)
+      {
+        UPPER_BOUNDS[i] = BigDecimal.valueOf(1L << (FIRST_BUCKET_SHIFT + i), 6).stripTrailingZeros().toPlainString();
+      }
+      UPPER_BOUNDS[NB_BOUNDED_BUCKETS] = "+Inf";
+    }
+
+    private final LongAdder[] buckets = new LongAdder[NB_BOUNDED_BUCKETS + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    private Histogram()
+    {
+      for (int i = 0; i < buckets.length; i++)
+      {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param durationNanos
+     *          the duration, in nanoseconds
+     */
+    public void record(long durationNanos)
+    {
+      final long nanos = Math.max(durationNanos, 0);
+      final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+      final int index = micros <= 1L << FIRST_BUCKET_SHIFT
+          ? 0
+          : Long.SIZE - Long.numberOfLeadingZeros((micros - 1) >>> FIRST_BUCKET_SHIFT);
+      buckets[Math.min(index, NB_BOUNDED_BUCKETS)].increment();
+      sumNanos.add(nanos);
+    }
+
+    private void write(StringBuilder buffer, String name, String labels)
+    {
+      long count = 0;
+      for (int i = 0; i < buckets.length; i++)
+      {
+        count += buckets[i].sum();
+        buffer.append(name).append("_bucket");
+        appendLabels(buffer, labels, "le=\"" + UPPER_BOUNDS[i] + "\"");
+        buffer.append(' ').append(count).append('\n');
+      }
+      buffer.append(name).append("_count");
+      appendLabels(buffer, labels, null);
+      buffer.append(' ').append(count).append('\n');
+      buffer.append(name).append("_sum");
+      appendLabels(buffer, labels, null);
+      buffer.append(' ').append(sumNanos.sum() / 1e9).append('\n');
+    }
+  }
+
+  /** The types of metrics. */
+  private enum MetricType
+  {
+    COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+
+    private final String name;
+
+    MetricType(String name)
+    {
+      this.name = name;
+    }
+  }
+
+  /** A metric with the names and values of its labels. */
+  private static final class LabeledMetric
+  {
+    private final String[] labels;
+    private final Object metric;
+
+    private LabeledMetric(String[] labels, Object metric)
+    {
+      this.labels = labels;
+      this.metric = metric;
+    }
+
+    private boolean hasLabel(String labelName, String labelValue)
+    {
+      for (int i = 0; i < labels.length; i += 2)
+      {
+        if (labels[i].equals(labelName) && labels[i + 1].equals(labelValue))
+        {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** The metrics having the same name, which only differ by their labels. */
+  private static final class MetricFamily
+  {
+    private final MetricType type;
+    private final String help;
+    /** Maps the labels, formatted as in the exported metrics, to the metrics. */
+    private final ConcurrentMap<String, LabeledMetric> metrics = new ConcurrentHashMap<>();
+
+    private MetricFamily(MetricType type, String help)
+    {
+      this.type = type;
+      this.help = help;
+    }
+  }
+
+  private final ConcurrentSkipListMap<String, MetricFamily> families = new ConcurrentSkipListMap<>();
+
+  private MetricsRegistry()
+  {
+    // Singleton
+  }
+
+  /**
+   * Returns the metrics registry of the server.
+   *
+   * @return the metrics registry of the server
+   */
+  public static MetricsRegistry getInstance()
+  {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the counter having the provided name and labels, creating it if needed.
+   *
+   * @param name
+   *          the name of the counter, without the "_total" suffix
+   * @param help
+   *          the description of the counter
+   * @param labels
+   *          the names and values of the labels of the counter
+   * @return the counter
+   */
+  public Counter counter(String name, String help, String... labels)
+  {
+    return (Counter) getOrRegister(MetricType.COUNTER, name, help, labels, new Counter());
+  }
+
+  /**
+   * Returns the duration histogram having the provided name and labels, creating it if needed.
+   *
+   * @param name
+   *          the name of the histogram, which should end with "_seconds"
+   * @param help
+   *          the description of the histogram
+   * @param labels
+   *          the names and values of the labels of the histogram
+   * @return the histogram
+   */
+  public Histogram histogram(String name, String help, String... labels)
+  {
+    return (Histogram) getOrRegister(MetricType.HISTOGRAM, name, help, labels, new Histogram());
+  }
+
+  /**
+   * Returns the duration histograms of each operation type, labeled with the provided label and the operation type.
+   *
+   * @param name
+   *          the name of the histograms, which should end with "_seconds"
+   * @param help
+   *          the description of the histograms
+   * @param labelName
+   *          the name of the label identifying the component processing the operations
+   * @param labelValue
+   *          the value of the label identifying the component processing the operations
+   * @return the histograms, indexed by the ordinal of the operation types
+   */
+  public Histogram[] operationHistograms(String name, String help, String labelName, String labelValue)
+  {
+    final OperationType[] types = OperationType.values();
+    final Histogram[] histograms = new Histogram[types.length];
+    for (OperationType type : types)
+    {
+      histograms[type.ordinal()] =
+          histogram(name, help, labelName, labelValue, "operation", type.getOperationName().toLowerCase());
+    }
+    return histograms;
+  }
+
+  /**
+   * Registers a gauge, replacing any gauge having the same name and labels.
+   *
+   * @param name
+   *          the name of the gauge
+   * @param help
+   *          the description of the gauge
+   * @param gauge
+   *          provides the value of the gauge
+   * @param labels
+   *          the names and values of the labels of the gauge
+   */
+  public void registerGauge(String name, String help, Gauge gauge, String... labels)
+  {
+    register(MetricType.GAUGE, name, help, labels, gauge);
+  }
+
+  /**
+   * Registers a counter whose value is maintained by an existing statistic, replacing any counter having the same
+   * name and labels.
+   *
+   * @param name
+   *          the name of the counter, without the "_total" suffix
+   * @param help
+   *          the description of the counter
+   * @param value
+   *          provides the value of the counter, which must never decrease
+   * @param labels
+   *          the names and values of the labels of the counter
+   */
+  public void registerCounter(String name, String help, Gauge value, String... labels)
+  {
+    register(MetricType.COUNTER, name, help, labels, value);
+  }
+
+  /**
+   * Removes all the metrics having the provided label, whose value must be exactly the provided value.
+   *
+   * @param labelName
+   *          the name of the label
+   * @param labelValue
+   *          the value of the label
+   */
+  public void removeMetrics(String labelName, String labelValue)
+  {
+    for (MetricFamily family : families.values())
+    {
+      for (Iterator<LabeledMetric> it = family.metrics.values().iterator(); it.hasNext();)
+      {
+        if (it.next().hasLabel(labelName, labelValue))
+        {
+          it.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes all the metrics in the OpenMetrics text format.
+   *
+   * @param buffer
+   *          the buffer where to write the metrics
+   */
+  public void writeOpenMetrics(StringBuilder buffer)
+  {
+    for (Map.Entry<String, MetricFamily> entry : families.entrySet())
+    {
+      final String name = entry.getKey();
+      final MetricFamily family = entry.getValue();
+      if (family.metrics.isEmpty())
+      {
+        continue;
+      }
+
+      buffer.append("# TYPE ").append(name).append(' ').append(family.type.name).append('\n');
+      buffer.append("# HELP ").append(name).append(' ');
+      appendEscaped(buffer, family.help);
+      buffer.append('\n');
+      for (Map.Entry<String, LabeledMetric> metric : family.metrics.entrySet())
+      {
+        final String labels = metric.getKey();
+        final Object value = metric.getValue().metric;
+        switch (family.type)
+        {
+        case HISTOGRAM:
+          ((Histogram) value).write(buffer, name, labels);
+          break;
+        case COUNTER:
+          buffer.append(name).append("_total").append(labels).append(' ');
+          buffer.append(((Gauge) value).getValue()).append('\n');
+          break;
+        default:
+          buffer.append(name).append(labels).append(' ');
+          buffer.append(((Gauge) value).getValue()).append('\n');
+          break;
+        }
+      }
+    }
+    buffer.append("# EOF\n");
+  }
+
+  private Object getOrRegister(MetricType type, String name, String help, String[] labels, Object newMetric)
+  {
+    final MetricFamily family = getFamily(type, name, help);
+    final LabeledMetric metric =
+        family.metrics.putIfAbsent(formatLabels(labels), new LabeledMetric(labels.clone(), newMetric));
+    return metric != null ? metric.metric : newMetric;
+  }
+
+  private void register(MetricType type, String name, String help, String[] labels, Object metric)
+  {
+    getFamily(type, name, help).metrics.put(formatLabels(labels), new LabeledMetric(labels.clone(), metric));
+  }
+
+  private MetricFamily getFamily(MetricType type, String name, String help)
+  {
+    final String fullName = PREFIX + name;
+    MetricFamily family = families.get(fullName);
+    if (family == null)
+    {
+      final MetricFamily newFamily = new MetricFamily(type, help);
+      family = families.putIfAbsent(fullName, newFamily);
+      if (family == null)
+      {
+        family = newFamily;
+      }
+    }
+    if (family.type != type)
+    {
+      throw new IllegalArgumentException("Metric " + fullName + " is a " + family.type.name + ", not a " + type.name);
+    }
+    return family;
+  }
+
+  private static String formatLabels(String[] labels)
+  {
+    if (labels.length % 2 != 0)
+    {
+      throw new IllegalArgumentException("Labels must be provided as name and value pairs");
+    }
+    if (labels.length == 0)
+    {
+      return "";
+    }
+    final StringBuilder buffer = new StringBuilder("{");
+    for (int i = 0; i < labels.length; i += 2)
+    {
+      if (i > 0)
+      {
+        buffer.append(',');
+      }
+      buffer.append(formatLabel(labels[i], labels[i + 1]));
+    }
+    return buffer.append('}').toString();
+  }
+
+  private static String formatLabel(String name, String value)
+  {
+    final StringBuilder buffer = new StringBuilder(name).append("=\"");
+    appendEscaped(buffer, value);
+    return buffer.append('"').toString();
+  }
+
+  private static void appendLabels(StringBuilder buffer, String labels, String extraLabel)
+  {
+    if (extraLabel == null)
+    {
+      buffer.append(labels);
+    }
+    else if (labels.isEmpty())
+    {
+      buffer.append('{').append(extraLabel).append('}');
+    }
+    else
+    {
+      buffer.append(labels, 0, labels.length() - 1).append(',').append(extraLabel).append('}');
+    }
+  }
+
+  private static void appendEscaped(StringBuilder buffer, String value)
+  {
+    for (int i = 0; i < value.length(); i++)
+    {
+      final char c = value.charAt(i);
+      switch (c)
+      {
+      case '\\':
+        buffer.append("\\\\");
+        break;
+      case '\n':
+        buffer.append("\\n");
+        break;
+      case '"':
+        buffer.append("\\\"");
+        break;
+      default:
+        buffer.append(c);
+        break;
+      }
+    }
+  }
+}
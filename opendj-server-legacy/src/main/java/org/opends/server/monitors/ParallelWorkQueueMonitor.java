@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.monitors;
 
@@ -22,6 +23,7 @@ import org.forgerock.opendj.config.server.ConfigException;
 import org.opends.server.api.MonitorData;
 import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
 import org.opends.server.api.MonitorProvider;
+import org.opends.server.monitors.MetricsRegistry.Gauge;
 import org.opends.server.extensions.ParallelWorkQueue;
 import org.opends.server.types.InitializationException;
 
@@ -84,6 +86,38 @@ public class ParallelWorkQueueMonitor
     totalBacklog = 0;
     numPolls     = 0;
     scheduleUpdate(this, 0, 10, TimeUnit.SECONDS);
+    registerMetrics();
+  }
+
+  private void registerMetrics()
+  {
+    final MetricsRegistry registry = MetricsRegistry.getInstance();
+    final String label = "work_queue";
+    registry.registerGauge("work_queue_backlog", "Number of requests waiting in the work queue", new Gauge()
+    {
+      @Override
+      public long getValue()
+      {
+        return workQueue.size();
+      }
+    }, label, "parallel");
+    registry.registerGauge("work_queue_worker_threads", "Number of worker threads of the work queue", new Gauge()
+    {
+      @Override
+      public long getValue()
+      {
+        return workQueue.getNumWorkerThreads();
+      }
+    }, label, "parallel");
+    registry.registerCounter("work_queue_requests_submitted", "Number of requests submitted to the work queue",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return workQueue.getOpsSubmitted();
+          }
+        }, label, "parallel");
   }
 
 
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.protocols.http;
 
@@ -27,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.http.MutableUri;
@@ -326,6 +328,9 @@ final class HTTPClientConnection extends ClientConnection
     {
       this.statTracker.updateRequestMonitoringData(method, time);
       this.statTracker.updateOperationMonitoringData(operation.getOperationType(), time);
+      this.statTracker.updateOperationDuration(operation.getOperationType(),
+          useNanoTime ? time : TimeUnit.MILLISECONDS.toNanos(time));
+      this.statTracker.updatePhaseDurations(operation);
     }
 
     OperationWithPromise op = this.operationsInProgress.get(operation.getMessageID());
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.protocols.http;
 
@@ -297,6 +298,7 @@ public class HTTPConnectionHandler extends ConnectionHandler<HTTPConnectionHandl
     if (statTracker != null)
     {
       DirectoryServer.deregisterMonitorProvider(statTracker);
+      statTracker.deregisterMetrics();
     }
   }
 
@@ -440,6 +442,7 @@ public class HTTPConnectionHandler extends ConnectionHandler<HTTPConnectionHandl
     // Create and register monitors.
     statTracker = new HTTPStatistics(handlerName + " Statistics");
     DirectoryServer.registerMonitorProvider(statTracker);
+    statTracker.registerMetrics(handlerName);
 
     connMonitor = new ClientConnectionMonitorProvider(this);
     DirectoryServer.registerMonitorProvider(connMonitor);
@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.protocols.http;
+
+import org.forgerock.http.Handler;
+import org.forgerock.http.HttpApplication;
+import org.forgerock.http.HttpApplicationException;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.opendj.server.config.server.MetricsEndpointCfg;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.opends.server.api.HttpEndpoint;
+import org.opends.server.core.ServerContext;
+import org.opends.server.monitors.MetricsRegistry;
+import org.opends.server.types.InitializationException;
+
+/**
+ * An HTTP endpoint publishing the metrics of the {@link MetricsRegistry} in the OpenMetrics text format, so that
+ * they can be scraped by monitoring systems such as Prometheus without searching the monitoring backend.
+ */
+public final class MetricsEndpoint extends HttpEndpoint<MetricsEndpointCfg>
+{
+  /** The content type of the OpenMetrics text format. */
+  private static final String OPENMETRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  /**
+   * Create a new MetricsEndpoint with the supplied configuration.
+   *
+   * @param configuration
+   *          Configuration to use for the {@link HttpApplication}
+   * @param serverContext
+   *          Server of this LDAP server
+   */
+  public MetricsEndpoint(MetricsEndpointCfg configuration, ServerContext serverContext)
+  {
+    super(configuration, serverContext);
+  }
+
+  @Override
+  public HttpApplication newHttpApplication() throws InitializationException
+  {
+    return new MetricsHttpApplication();
+  }
+
+  /** {@link HttpApplication} writing the metrics of the server. */
+  private static final class MetricsHttpApplication implements HttpApplication
+  {
+    @Override
+    public Handler start() throws HttpApplicationException
+    {
+      return new Handler()
+      {
+        @Override
+        public Promise<Response, NeverThrowsException> handle(Context context, Request request)
+        {
+          if (!"GET".equals(request.getMethod()))
+          {
+            return Response.newResponsePromise(new Response(Status.METHOD_NOT_ALLOWED));
+          }
+
+          final StringBuilder metrics = new StringBuilder(64 * 1024);
+          MetricsRegistry.getInstance().writeOpenMetrics(metrics);
+          final Response response = new Response(Status.OK).setEntity(metrics.toString());
+          response.getHeaders().put("Content-Type", OPENMETRICS_CONTENT_TYPE);
+          return Response.newResponsePromise(response);
+        }
+      };
+    }
+
+    @Override
+    public void stop()
+    {
+      // Nothing to do
+    }
+
+    @Override
+    public Factory<Buffer> getBufferFactory()
+    {
+      return null;
+    }
+  }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2010-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.protocols.ldap;
 
@@ -40,6 +41,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -664,14 +666,19 @@ public final class LDAPClientConnection extends ClientConnection implements
 
     if (keepStats) {
         long time;
+        long nanoTime;
         if (useNanoTime) {
             time = operation.getProcessingNanoTime();
+            nanoTime = time;
         } else {
             time = operation.getProcessingTime();
+            nanoTime = TimeUnit.MILLISECONDS.toNanos(time);
         }
         this.statTracker.updateOperationMonitoringData(
                 operation.getOperationType(),
                 time);
+        this.statTracker.updateOperationDuration(operation.getOperationType(), nanoTime);
+        this.statTracker.updatePhaseDurations(operation);
     }
 
     // Avoid sending the response if one has already been sent. This may happen
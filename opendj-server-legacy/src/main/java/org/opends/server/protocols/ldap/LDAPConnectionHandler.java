@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.protocols.ldap;
 
@@ -346,6 +347,7 @@ public final class LDAPConnectionHandler extends
     if (statTracker != null)
     {
       DirectoryServer.deregisterMonitorProvider(statTracker);
+      statTracker.deregisterMetrics();
     }
 
     DirectoryServer.deregisterSupportedLDAPVersion(2, this);
@@ -673,6 +675,7 @@ public final class LDAPConnectionHandler extends
     // Create and register monitors.
     statTracker = new LDAPStatistics(handlerName + " Statistics");
     DirectoryServer.registerMonitorProvider(statTracker);
+    statTracker.registerMetrics(handlerName);
 
     connMonitor = new ClientConnectionMonitorProvider(this);
     DirectoryServer.registerMonitorProvider(connMonitor);
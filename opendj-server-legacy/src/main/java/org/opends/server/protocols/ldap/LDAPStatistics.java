@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.protocols.ldap;
 
@@ -29,6 +30,11 @@ import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
 import org.opends.server.api.MonitorData;
 import org.opends.server.api.MonitorProvider;
 import org.opends.server.core.DirectoryServer;
+import org.opends.server.monitors.MetricsRegistry;
+import org.opends.server.monitors.MetricsRegistry.Gauge;
+import org.opends.server.monitors.MetricsRegistry.Histogram;
+import org.opends.server.types.Operation;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.OperationType;
 
 /**
@@ -116,6 +122,16 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
   private AtomicLong extOperationCount = new AtomicLong(0);
   private AtomicLong extOperationTime = new AtomicLong(0);
 
+  /** The operation processing phases. */
+  private static final OperationPhase[] PHASES = OperationPhase.values();
+
+  /** The label identifying the metrics of the connection handler, or {@code null} if they are not registered. */
+  private volatile String metricsLabel;
+  /** The duration histograms of the operations, indexed by the ordinal of the operation types. */
+  private volatile Histogram[] operationDurations;
+  /** The duration histograms of the operation processing phases, indexed by the ordinal of the phases. */
+  private volatile Histogram[] phaseDurations;
+
   /**
    * Creates a new instance of this class with the specified parent.
    *
@@ -809,6 +825,136 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
       return unbindRequests.get();
   }
 
+  /**
+   * Registers the metrics of the connection handler using these statistics in the {@link MetricsRegistry}.
+   *
+   * @param connectionHandlerName
+   *          the name of the connection handler, used to label its metrics
+   */
+  public void registerMetrics(String connectionHandlerName)
+  {
+    final MetricsRegistry registry = MetricsRegistry.getInstance();
+    final String label = "connection_handler";
+    metricsLabel = connectionHandlerName;
+    operationDurations = registry.operationHistograms("connection_handler_operation_duration_seconds",
+        "Duration of the operations processed by the connection handler", label, connectionHandlerName);
+    final Histogram[] phaseHistograms = new Histogram[PHASES.length];
+    for (OperationPhase phase : PHASES)
+    {
+      phaseHistograms[phase.ordinal()] = registry.histogram("connection_handler_operation_phase_duration_seconds",
+          "Time spent by the operations processed by the connection handler in each processing phase",
+          label, connectionHandlerName, "phase", phase.getName());
+    }
+    phaseDurations = phaseHistograms;
+    registry.registerCounter("connection_handler_connections_established", "Number of connections established",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return getConnectionsEstablished();
+          }
+        }, label, connectionHandlerName);
+    registry.registerCounter("connection_handler_connections_closed", "Number of connections closed",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return getConnectionsClosed();
+          }
+        }, label, connectionHandlerName);
+    registry.registerCounter("connection_handler_bytes_read", "Number of bytes read from the clients",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return getBytesRead();
+          }
+        }, label, connectionHandlerName);
+    registry.registerCounter("connection_handler_bytes_written", "Number of bytes written to the clients",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return getBytesWritten();
+          }
+        }, label, connectionHandlerName);
+    registry.registerCounter("connection_handler_operations_abandoned", "Number of operations abandoned",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return getOperationsAbandoned();
+          }
+        }, label, connectionHandlerName);
+    registry.registerCounter("connection_handler_search_result_entries", "Number of search result entries returned",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return getSearchResultEntries();
+          }
+        }, label, connectionHandlerName);
+  }
+
+  /** Removes the metrics registered by {@link #registerMetrics(String)} from the {@link MetricsRegistry}. */
+  public void deregisterMetrics()
+  {
+    final String label = metricsLabel;
+    if (label != null)
+    {
+      operationDurations = null;
+      phaseDurations = null;
+      metricsLabel = null;
+      MetricsRegistry.getInstance().removeMetrics("connection_handler", label);
+    }
+  }
+
+  /**
+   * Records the duration of an operation in the metrics of the connection handler.
+   *
+   * @param type
+   *          the type of the operation
+   * @param durationNanos
+   *          the processing time of the operation, in nanoseconds
+   */
+  public void updateOperationDuration(OperationType type, long durationNanos)
+  {
+    final Histogram[] histograms = operationDurations;
+    if (histograms != null)
+    {
+      histograms[type.ordinal()].record(durationNanos);
+    }
+  }
+
+  /**
+   * Records the time spent by an operation in each processing phase in the metrics of the connection handler. Only
+   * the phases the operation went through are recorded, and nothing is recorded when the etime breakdown is disabled.
+   *
+   * @param operation
+   *          the completed operation
+   */
+  public void updatePhaseDurations(Operation operation)
+  {
+    final Histogram[] histograms = phaseDurations;
+    if (histograms != null && operation.getPhaseNanoTime(OperationPhase.WORK_QUEUE) >= 0)
+    {
+      for (OperationPhase phase : PHASES)
+      {
+        final long phaseNanos = operation.getPhaseNanoTime(phase);
+        if (phaseNanos > 0)
+        {
+          histograms[phase.ordinal()].record(phaseNanos);
+        }
+      }
+    }
+  }
+
   /**
    * Update the operation counters and times depending on the OperationType.
    * @param type of the operation.
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.plugin;
 
@@ -21,6 +22,7 @@ import static org.opends.messages.ReplicationMessages.*;
 import static org.opends.server.replication.plugin.HistAttrModificationKey.*;
 import static org.opends.server.util.CollectionUtils.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -468,6 +470,49 @@ public class EntryHistorical
     this.purgeDelayInMillisec = purgeDelay;
   }
 
+  /**
+   * Returns the modifications removing from the provided entry the historical
+   * values older than the provided date, in other words the values that
+   * {@link #encodeAndPurge()} would not encode anymore. Unlike replacing the
+   * whole historical attribute, these modifications do not lose the
+   * historical values added to the entry after it was read.
+   *
+   * @param entry
+   *          the entry containing the historical information
+   * @param purgeDate
+   *          the date (in ms) up to which historical values must be purged
+   * @return the modifications deleting the values to purge, empty if the
+   *         entry has no historical value to purge
+   */
+  public static List<Modification> getPurgeModifications(Entry entry, long purgeDate)
+  {
+    final List<Modification> mods = new ArrayList<>();
+    for (Attribute histAttr : getHistoricalAttr(entry))
+    {
+      final AttributeBuilder builder = new AttributeBuilder(histAttr.getAttributeDescription());
+      for (ByteString value : histAttr)
+      {
+        try
+        {
+          if (new HistoricalAttributeValue(value.toString()).getCSN().getTime() <= purgeDate)
+          {
+            builder.add(value);
+          }
+        }
+        catch (RuntimeException e)
+        {
+          // leave the values that cannot be decoded untouched
+          logger.traceException(e);
+        }
+      }
+      if (!builder.isEmpty())
+      {
+        mods.add(new Modification(ModificationType.DELETE, builder.toAttribute()));
+      }
+    }
+    return mods;
+  }
+
   /**
    * Indicates if the Entry was renamed or added after the CSN that is given as
    * a parameter.
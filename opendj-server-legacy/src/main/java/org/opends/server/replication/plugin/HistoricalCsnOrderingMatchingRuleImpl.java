@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.plugin;
 
@@ -40,7 +41,7 @@ import static org.opends.server.util.StaticUtils.*;
 /** Matching rule used to establish an order between historical information and index them. */
 public final class HistoricalCsnOrderingMatchingRuleImpl implements MatchingRuleImpl
 {
-  private static final String ORDERING_ID = "changeSequenceNumberOrderingMatch";
+  static final String ORDERING_ID = "changeSequenceNumberOrderingMatch";
 
   private final Collection<? extends Indexer> indexers = Collections.singleton(new HistoricalIndexer());
 
@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.replication.plugin;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.forgerock.opendj.ldap.Assertion;
+import org.forgerock.opendj.ldap.ByteSequence;
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ByteStringBuilder;
+import org.forgerock.opendj.ldap.ConditionResult;
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.schema.MatchingRuleImpl;
+import org.forgerock.opendj.ldap.schema.Schema;
+import org.forgerock.opendj.ldap.spi.IndexQueryFactory;
+import org.forgerock.opendj.ldap.spi.Indexer;
+import org.forgerock.opendj.ldap.spi.IndexingOptions;
+
+import static org.forgerock.opendj.ldap.Assertion.*;
+import static org.opends.server.replication.plugin.HistoricalCsnOrderingMatchingRuleImpl.*;
+
+/**
+ * Extensible matching rule used to find the historical information older than a purge date. The assertion value is
+ * a historical value whose CSN is the most recent CSN to match: only the historical values generated by the same
+ * replica with an older or equal CSN match the assertion.
+ * <p>
+ * It shares the normalization and the index of the {@link HistoricalCsnOrderingMatchingRuleImpl}. Since the keys of
+ * this index start with the serverId, the values to purge for a replica are a single range of keys.
+ */
+public final class HistoricalCsnPurgeMatchingRuleImpl implements MatchingRuleImpl
+{
+  /** Size of the serverId prefix of the normalized values. */
+  private static final int SERVER_ID_LENGTH = 2;
+  /** Size of the normalized values. */
+  private static final int NORMALIZED_LENGTH = 14;
+
+  private final HistoricalCsnOrderingMatchingRuleImpl orderingMatchingRule =
+      new HistoricalCsnOrderingMatchingRuleImpl();
+
+  @Override
+  public ByteString normalizeAttributeValue(Schema schema, ByteSequence value) throws DecodeException
+  {
+    return orderingMatchingRule.normalizeAttributeValue(schema, value);
+  }
+
+  @Override
+  public Assertion getAssertion(final Schema schema, final ByteSequence value) throws DecodeException
+  {
+    final ByteString upperBound = normalizeAttributeValue(schema, value);
+    final ByteString lowerBound = new ByteStringBuilder(NORMALIZED_LENGTH)
+        .appendBytes(upperBound.subSequence(0, SERVER_ID_LENGTH))
+        .appendBytes(new byte[NORMALIZED_LENGTH - SERVER_ID_LENGTH])
+        .toByteString();
+    return new Assertion()
+    {
+      @Override
+      public ConditionResult matches(final ByteSequence normalizedAttributeValue)
+      {
+        return ConditionResult.valueOf(normalizedAttributeValue.compareTo(lowerBound) >= 0
+            && normalizedAttributeValue.compareTo(upperBound) <= 0);
+      }
+
+      @Override
+      public <T> T createIndexQuery(IndexQueryFactory<T> factory) throws DecodeException
+      {
+        return factory.createRangeMatchQuery(ORDERING_ID, lowerBound, upperBound, true, true);
+      }
+    };
+  }
+
+  @Override
+  public Assertion getSubstringAssertion(Schema schema, ByteSequence subInitial,
+      List<? extends ByteSequence> subAnyElements, ByteSequence subFinal) throws DecodeException
+  {
+    return UNDEFINED_ASSERTION;
+  }
+
+  @Override
+  public Assertion getGreaterOrEqualAssertion(Schema schema, ByteSequence value) throws DecodeException
+  {
+    return UNDEFINED_ASSERTION;
+  }
+
+  @Override
+  public Assertion getLessOrEqualAssertion(Schema schema, ByteSequence value) throws DecodeException
+  {
+    return UNDEFINED_ASSERTION;
+  }
+
+  @Override
+  public Collection<? extends Indexer> createIndexers(IndexingOptions options)
+  {
+    return orderingMatchingRule.createIndexers(options);
+  }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.plugin;
 
@@ -54,6 +55,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.DataFormatException;
 
@@ -99,6 +101,8 @@ import org.opends.server.core.ModifyDNOperationBasis;
 import org.opends.server.core.ModifyOperation;
 import org.opends.server.core.ModifyOperationBasis;
 import org.opends.server.core.ServerContext;
+import org.opends.server.monitors.MetricsRegistry;
+import org.opends.server.monitors.MetricsRegistry.Gauge;
 import org.opends.server.protocols.internal.InternalClientConnection;
 import org.opends.server.protocols.internal.InternalSearchListener;
 import org.opends.server.protocols.internal.InternalSearchOperation;
@@ -349,8 +353,26 @@ public final class LDAPReplicationDomain extends ReplicationDomain
 
   private final ServerStateFlush flushThread;
 
+  /** The thread purging in the background the historical information older than the purge delay. */
+  private final HistoricalPurger historicalPurger;
+  /** The interval (in ms) between two background sweeps of the historical information. */
+  private static final long HISTORICAL_PURGE_SWEEP_INTERVAL = 60 * 1000;
+  /** The number of entries of the current background purge page which remain to be purged. */
+  private final AtomicInteger historicalPurgePendingEntries = new AtomicInteger();
+  /** The number of entries whose historical information has been purged, in the background or on modifications. */
+  private final AtomicLong historicalPurgedEntries = new AtomicLong();
+  /** The number of historical values purged, in the background or on modifications. */
+  private final AtomicLong historicalPurgedValues = new AtomicLong();
+  /** The number of background sweeps of the historical information completed. */
+  private final AtomicLong historicalPurgeSweeps = new AtomicLong();
+
   /** The attribute name used to store the generation id in the backend. */
   private static final String REPLICATION_GENERATION_ID = "ds-sync-generation-id";
+  /**
+   * The number of entries, in export order, checksummed together with the total number of entries to compute the
+   * generation id. Changing it would make this server compute generation ids different from the other servers.
+   */
+  private static final int GENERATION_ID_SAMPLE_SIZE = 1000;
   /** The attribute name used to store the fractional include configuration in the backend. */
   static final String REPLICATION_FRACTIONAL_INCLUDE = "ds-sync-fractional-include";
   /** The attribute name used to store the fractional exclude configuration in the backend. */
@@ -462,6 +484,82 @@ public final class LDAPReplicationDomain extends ReplicationDomain
     }
   }
 
+  /**
+   * The thread purging the historical information older than the purge delay, so that entries which are not
+   * modified anymore do not keep their historical information forever. Entries are purged at the configured
+   * rate to limit the impact on the other operations.
+   */
+  private class HistoricalPurger extends DirectoryThread
+  {
+    /** The time (in ns) before which the next entry must not be purged. */
+    private long nextPurgeTime = System.nanoTime();
+
+    protected HistoricalPurger()
+    {
+      super("Replica DS(" + getServerId() + ") historical purger for domain \"" + getBaseDN() + "\"");
+    }
+
+    @Override
+    public void run()
+    {
+      while (!isShutdownInitiated())
+      {
+        try
+        {
+          if (canPurge())
+          {
+            purgeHistoricalInBackground();
+          }
+          synchronized (this)
+          {
+            if (!isShutdownInitiated())
+            {
+              wait(HISTORICAL_PURGE_SWEEP_INTERVAL);
+            }
+          }
+        }
+        catch (InterruptedException e)
+        {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        catch (DirectoryException e)
+        {
+          logger.traceException(e);
+        }
+      }
+    }
+
+    private boolean canPurge()
+    {
+      return !isShutdownInitiated() && !disabled && !ieRunning() && config.getConflictsHistoricalPurgeRate() > 0;
+    }
+
+    /**
+     * Waits until the next entry can be purged according to the configured rate.
+     *
+     * @return {@code true} if the next entry can be purged, {@code false} if the purge must stop
+     * @throws InterruptedException
+     *           if the thread was interrupted while waiting
+     */
+    private synchronized boolean pace() throws InterruptedException
+    {
+      while (canPurge())
+      {
+        final long now = System.nanoTime();
+        final long waitTime = nextPurgeTime - now;
+        if (waitTime <= 0)
+        {
+          nextPurgeTime = Math.max(nextPurgeTime, now - 1000000000L)
+              + 1000000000L / config.getConflictsHistoricalPurgeRate();
+          return true;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, waitTime);
+      }
+      return false;
+    }
+  }
+
   /**
    * The thread that is responsible to update the RS to which this domain is
    * connected in case it is late and there is no RS which is up to date.
@@ -578,6 +676,7 @@ public final class LDAPReplicationDomain extends ReplicationDomain
     state = new PersistentServerState(getBaseDN(), getServerId(),
         getServerState());
     flushThread = new ServerStateFlush();
+    historicalPurger = new HistoricalPurger();
 
     /*
      * CSNGenerator is used to create new unique CSNs for each operation done on
@@ -2242,7 +2341,16 @@ public final class LDAPReplicationDomain extends ReplicationDomain
           flushThread.notify();
         }
       }
+      if (historicalPurger != null)
+      {
+        historicalPurger.initiateShutdown();
+        synchronized (historicalPurger)
+        {
+          historicalPurger.notify();
+        }
+      }
 
+      MetricsRegistry.getInstance().removeMetrics("replication_domain", getBaseDN().toString());
       DirectoryServer.deregisterAlertGenerator(this);
       getServerContext().getBackendConfigManager()
         .deregisterLocalBackendInitializationListener(this);
@@ -3181,9 +3289,30 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
     disabled = false;
   }
 
+  /**
+   * Recomputes the generationId from the data currently present in the backend
+   * for this domain and stores it in the backend, in place of the one computed
+   * when the data was first imported or initialized.
+   * <p>
+   * The generationId is otherwise only computed when none is stored in the
+   * backend, or after a failed import.
+   *
+   * @return The recomputed generationId.
+   * @throws DirectoryException When an error occurs.
+   */
+  public long recomputeGenerationId() throws DirectoryException
+  {
+    final long genId = computeGenerationId();
+    generationId = genId;
+    saveGenerationId(genId);
+    return genId;
+  }
+
   /**
    * Compute the data generationId associated with the current data present
-   * in the backend for this domain.
+   * in the backend for this domain. Only the number of entries and the first
+   * entries of the domain are checksummed, so the cost does not depend on the
+   * size of the domain.
    * @return The computed generationId.
    * @throws DirectoryException When an error occurs.
    */
@@ -3415,7 +3544,7 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
     }
 
     long numberOfEntries = backend.getNumberOfEntriesInBaseDN(getBaseDN());
-    long entryCount = Math.min(numberOfEntries, 1000);
+    long entryCount = Math.min(numberOfEntries, GENERATION_ID_SAMPLE_SIZE);
     OutputStream os;
     ReplLDIFOutputStream ros = null;
     if (checksumOutput)
@@ -3451,6 +3580,10 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
       }
       exportConfig.setIncludeAttributes(includeAttributes);
     }
+    // Total update is kept sequential: the entries are streamed to the remote
+    // replica (or, for the checksum, only a sample of them is read), so reading
+    // and formatting entries ahead on several threads would be wasted work
+    exportConfig.setThreadCount(1);
 
     //  Launch the export.
     long genID = 0;
@@ -3802,6 +3935,12 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
 
     solveConflictFlag = isSolveConflict(configuration);
 
+    // the purge rate may have changed
+    synchronized (historicalPurger)
+    {
+      historicalPurger.notify();
+    }
+
     final ConfigChangeResult ccr = new ConfigChangeResult();
     try
     {
@@ -3866,10 +4005,71 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
   {
     // Create the ServerStateFlush thread
     flushThread.start();
+    historicalPurger.start();
+    registerMetrics();
 
     startListenService();
   }
 
+  /** Registers the metrics of this domain in the {@link MetricsRegistry}. */
+  private void registerMetrics()
+  {
+    final MetricsRegistry registry = MetricsRegistry.getInstance();
+    final String label = "replication_domain";
+    final String domain = getBaseDN().toString();
+    registry.registerGauge("replication_domain_pending_updates", "Number of local updates not sent yet",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return pendingChanges.size();
+          }
+        }, label, domain);
+    registry.registerGauge("replication_domain_remote_pending_changes", "Number of remote updates not replayed yet",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return remotePendingChanges.getQueueSize();
+          }
+        }, label, domain);
+    registry.registerCounter("replication_domain_replayed_updates", "Number of remote updates replayed",
+        newGauge(numReplayedPostOpCalled), label, domain);
+    registry.registerCounter("replication_domain_resolved_modify_conflicts", "Number of modify conflicts resolved",
+        newGauge(numResolvedModifyConflicts), label, domain);
+    registry.registerCounter("replication_domain_resolved_naming_conflicts", "Number of naming conflicts resolved",
+        newGauge(numResolvedNamingConflicts), label, domain);
+    registry.registerCounter("replication_domain_unresolved_naming_conflicts",
+        "Number of naming conflicts which could not be resolved", newGauge(numUnresolvedNamingConflicts),
+        label, domain);
+    registry.registerGauge("replication_domain_historical_purge_pending_entries",
+        "Number of entries of the current background purge page whose historical information remains to be purged",
+        newGauge(historicalPurgePendingEntries), label, domain);
+    registry.registerCounter("replication_domain_historical_purged_values", "Number of historical values purged",
+        new Gauge()
+        {
+          @Override
+          public long getValue()
+          {
+            return historicalPurgedValues.get();
+          }
+        }, label, domain);
+  }
+
+  private static Gauge newGauge(final AtomicInteger value)
+  {
+    return new Gauge()
+    {
+      @Override
+      public long getValue()
+      {
+        return value.get();
+      }
+    };
+  }
+
   /** Remove the configuration of the external changelog from this domain configuration. */
   private void removeECLDomainCfg()
   {
@@ -4306,6 +4506,10 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
     attributes.add("remote-pending-changes-size", remotePendingChanges.getQueueSize());
     attributes.add("dependent-changes-size", remotePendingChanges.getDependentChangesSize());
     attributes.add("changes-in-progress-size", remotePendingChanges.changesInProgressSize());
+    attributes.add("historical-purge-pending-entries", historicalPurgePendingEntries.get());
+    attributes.add("historical-purged-entries", historicalPurgedEntries.get());
+    attributes.add("historical-purged-values", historicalPurgedValues.get());
+    attributes.add("historical-purge-completed-sweeps", historicalPurgeSweeps.get());
   }
 
   /**
@@ -4901,6 +5105,134 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
     return config.getConflictsHistoricalPurgeDelay() * 60 * 1000;
   }
 
+  /**
+   * Records that historical values were purged from an entry while it was being modified.
+   *
+   * @param purgedValuesCount
+   *          the number of historical values purged from the entry
+   */
+  void historicalPurged(int purgedValuesCount)
+  {
+    if (purgedValuesCount > 0)
+    {
+      historicalPurgedEntries.incrementAndGet();
+      historicalPurgedValues.addAndGet(purgedValuesCount);
+    }
+  }
+
+  /**
+   * Purges, at the configured rate, the historical information older than the purge delay on all the entries of
+   * this domain.
+   * <p>
+   * The entries are found with the historicalCsnPurgeMatch matching rule: since the keys of the historical index
+   * start with the serverId, the values of each replica older than the purge date are a single range of the index
+   * and the entries having only recent historical values are not returned.
+   *
+   * @throws DirectoryException
+   *           if the entries to purge could not be searched
+   * @throws InterruptedException
+   *           if the thread was interrupted while waiting for the purge rate
+   */
+  private void purgeHistoricalInBackground() throws DirectoryException, InterruptedException
+  {
+    final long purgeDelay = getHistoricalPurgeDelay();
+    if (purgeDelay <= 0)
+    {
+      return;
+    }
+    final long purgeDate = TimeThread.getTime() - purgeDelay;
+
+    for (int serverId : getServerState().getServerIdToCSNMap().keySet())
+    {
+      final String filter = "(" + HISTORICAL_ATTRIBUTE_NAME + ":historicalCsnPurgeMatch:=dummy:"
+          + new CSN(purgeDate, Integer.MAX_VALUE, serverId) + ")";
+      ByteString pagingCookie = null;
+      boolean finished = false;
+      while (!finished)
+      {
+        final SearchRequest request = Requests.newSearchRequest(getBaseDN(), SearchScope.WHOLE_SUBTREE, filter)
+            .addAttribute(HISTORICAL_ATTRIBUTE_NAME)
+            .addControl(new PagedResultsControl(false, ConfigConstants.DEFAULT_SIZE_LIMIT, pagingCookie))
+            .setSizeLimit(ConfigConstants.DEFAULT_SIZE_LIMIT + 1);
+        final InternalSearchOperation searchOp = conn.processSearch(request);
+        if (searchOp.getResultCode() != ResultCode.SUCCESS)
+        {
+          throw new DirectoryException(searchOp.getResultCode(), searchOp.getErrorMessage().toMessage());
+        }
+
+        finished = true;
+        for (Control c : searchOp.getResponseControls())
+        {
+          if (c.getOID().equals(OID_PAGED_RESULTS_CONTROL))
+          {
+            final ByteString newPagingCookie = ((PagedResultsControl) c).getCookie();
+            if (newPagingCookie != null && newPagingCookie.length() > 0 && !newPagingCookie.equals(pagingCookie))
+            {
+              pagingCookie = newPagingCookie;
+              finished = false;
+            }
+          }
+        }
+
+        final List<SearchResultEntry> entries = searchOp.getSearchEntries();
+        historicalPurgePendingEntries.set(entries.size());
+        try
+        {
+          for (SearchResultEntry entry : entries)
+          {
+            if (!historicalPurger.pace())
+            {
+              return;
+            }
+            purgeHistorical(entry, purgeDate);
+            historicalPurgePendingEntries.decrementAndGet();
+          }
+        }
+        finally
+        {
+          historicalPurgePendingEntries.set(0);
+        }
+      }
+    }
+    historicalPurgeSweeps.incrementAndGet();
+  }
+
+  /**
+   * Deletes from the provided entry the historical values older than the purge date. Only the purged values are
+   * deleted so that the historical values added concurrently to the entry are not lost.
+   *
+   * @param entry
+   *          the entry, as read from the backend
+   * @param purgeDate
+   *          the date (in ms) up to which historical values must be purged
+   */
+  private void purgeHistorical(Entry entry, long purgeDate)
+  {
+    final List<Modification> mods = EntryHistorical.getPurgeModifications(entry, purgeDate);
+    if (mods.isEmpty())
+    {
+      return;
+    }
+
+    final ModifyOperation newOp = new ModifyOperationBasis(
+        conn, nextOperationID(), nextMessageID(), new ArrayList<Control>(0), entry.getName(), mods);
+    runAsSynchronizedOperation(newOp);
+    if (newOp.getResultCode() == ResultCode.SUCCESS)
+    {
+      int purgedValuesCount = 0;
+      for (Modification mod : mods)
+      {
+        purgedValuesCount += mod.getAttribute().size();
+      }
+      historicalPurged(purgedValuesCount);
+    }
+    else if (newOp.getResultCode() != ResultCode.NO_SUCH_ATTRIBUTE)
+    {
+      // NO_SUCH_ATTRIBUTE: the historical information was purged by a concurrent modification of the entry
+      logger.error(ERR_CANNOT_ADD_CONFLICT_ATTRIBUTE, newOp, newOp.getResultCode());
+    }
+  }
+
   /**
    * Check and purge the historical attribute on all eligible entries under this domain.
    *
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.plugin;
 
@@ -464,6 +465,7 @@ public class MultimasterReplication
     }
     historicalInformation.setPurgeDelay(domain.getHistoricalPurgeDelay());
     historicalInformation.setHistoricalAttrToOperation(modifyOperation);
+    domain.historicalPurged(historicalInformation.getLastPurgedValuesCount());
 
     if (modifyOperation.getModifications().isEmpty())
     {
@@ -515,6 +517,7 @@ public class MultimasterReplication
 
     // Add to the operation the historical attribute : "dn:changeNumber:moddn"
     historicalInformation.setHistoricalAttrToOperation(modifyDNOperation);
+    domain.historicalPurged(historicalInformation.getLastPurgedValuesCount());
 
     return new SynchronizationProviderResult.ContinueProcessing();
   }
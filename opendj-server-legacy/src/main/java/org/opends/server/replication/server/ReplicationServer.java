@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.server;
 
@@ -888,6 +889,11 @@ public class ReplicationServer
       }
     }
 
+    if (config.isChangelogSecondaryIndexesEnabled() != oldConfig.isChangelogSecondaryIndexesEnabled())
+    {
+      this.changelogDB.setChangelogSecondaryIndexesEnabled(config.isChangelogSecondaryIndexesEnabled());
+    }
+
     cryptoSuite.newParameters(config.getCipherTransformation(), config.getCipherKeyLength(),
         config.isConfidentialityEnabled());
 
@@ -1348,6 +1354,15 @@ public class ReplicationServer
     return config.isComputeChangeNumber();
   }
 
+  /**
+   * Returns whether secondary indexes are maintained over the change numbers of this RS.
+   * @return true if secondary indexes are maintained over the change numbers of this RS.
+   */
+  public boolean isChangelogSecondaryIndexesEnabled()
+  {
+    return config.isChangelogSecondaryIndexesEnabled();
+  }
+
   /**
    * Returns whether the external change-log contains data from at least a domain.
    * @return whether the external change-log contains data from at least a domain
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.server.changelog.api;
 
@@ -90,6 +91,14 @@ public interface ChangeNumberIndexDB
   DBCursor<ChangeNumberIndexRecord> getCursorFrom(long startChangeNumber)
       throws ChangelogException;
 
+  /**
+   * Returns the secondary indexes maintained over the records of this DB.
+   *
+   * @return the secondary indexes maintained over the records of this DB, or
+   *         {@code null} if they are disabled
+   */
+  ChangelogSecondaryIndexes getSecondaryIndexes();
+
   /**
    * Resets ChangeNumber index to the given number and CSN.
    * @param newFirstCN
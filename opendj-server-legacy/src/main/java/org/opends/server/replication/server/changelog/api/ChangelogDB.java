@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.server.changelog.api;
 
@@ -58,6 +59,17 @@ public interface ChangelogDB
   void setComputeChangeNumber(boolean computeChangeNumber)
       throws ChangelogException;
 
+  /**
+   * Sets whether secondary indexes must be maintained over the change numbers
+   * computed for replicated changes, so that change number based searches on
+   * some attributes of the external changelog entries do not have to go
+   * through the whole external changelog.
+   *
+   * @param enabled
+   *          whether to maintain secondary indexes over the change numbers
+   */
+  void setChangelogSecondaryIndexesEnabled(boolean enabled);
+
   /**
    * Shutdown the replication database.
    *
@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.replication.server.changelog.api;
+
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.schema.AttributeType;
+import org.opends.server.replication.protocol.UpdateMsg;
+
+/**
+ * Secondary indexes over the records of the {@link ChangeNumberIndexDB}. They link the values of some attributes of
+ * the external changelog entries (for example targetDN, targetEntryUUID, changeType or changeInitiatorsName) to the
+ * change numbers of the entries having these values, so that change number based searches on these attributes do
+ * not have to go through the whole changelog.
+ * <p>
+ * The indexes only cover the records from {@link #getFirstIndexedChangeNumber()} onwards: records older than this
+ * change number may exist in the {@link ChangeNumberIndexDB} without being indexed yet.
+ */
+public interface ChangelogSecondaryIndexes
+{
+  /**
+   * Indexes the provided change which has just been added to the {@link ChangeNumberIndexDB}.
+   *
+   * @param changeNumber
+   *          the change number assigned to the change, which must be greater than any change number indexed so far
+   * @param updateMsg
+   *          the change
+   */
+  void addRecord(long changeNumber, UpdateMsg updateMsg);
+
+  /**
+   * Indexes a record older than the ones covered by these indexes. Records must be provided in ascending change
+   * number order, starting from the oldest record of the {@link ChangeNumberIndexDB}. They are only covered once the
+   * record immediately preceding the first covered one has been provided. A record provided out of sequence discards
+   * the older records provided so far and indexing restarts from it.
+   *
+   * @param changeNumber
+   *          the change number of the record
+   * @param updateMsg
+   *          the change, or {@code null} if it could not be found in the replica DBs
+   */
+  void addOlderRecord(long changeNumber, UpdateMsg updateMsg);
+
+  /**
+   * Returns the change number of the next older record expected by {@link #addOlderRecord(long, UpdateMsg)}.
+   *
+   * @return the change number of the next older record expected, or -1 if no older record has been provided yet
+   */
+  long getNextOlderChangeNumber();
+
+  /**
+   * Returns whether the provided attribute is indexed.
+   *
+   * @param attributeType
+   *          the attribute type of the external changelog entries
+   * @return {@code true} if the provided attribute is indexed, {@code false} otherwise
+   */
+  boolean isIndexed(AttributeType attributeType);
+
+  /**
+   * Returns the change number of the oldest record covered by these indexes. All the records having this change
+   * number or a greater one are indexed.
+   *
+   * @return the change number of the oldest record covered by these indexes
+   */
+  long getFirstIndexedChangeNumber();
+
+  /**
+   * Returns the change numbers of the indexed records whose attribute has a value matching the provided assertion
+   * value for equality.
+   *
+   * @param attributeType
+   *          the indexed attribute type
+   * @param assertionValue
+   *          the assertion value
+   * @return the change numbers of the matching records, sorted in ascending order, or {@code null} if the attribute
+   *         is not indexed or the assertion value cannot be normalized
+   */
+  long[] getChangeNumbers(AttributeType attributeType, ByteString assertionValue);
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.server.changelog.file;
 
@@ -28,10 +29,13 @@ import org.opends.server.replication.common.ServerState;
 import org.opends.server.replication.protocol.ReplicaOfflineMsg;
 import org.opends.server.replication.protocol.UpdateMsg;
 import org.opends.server.replication.server.changelog.api.AbortedChangelogCursorException;
+import org.opends.server.replication.server.changelog.api.ChangeNumberIndexDB;
 import org.opends.server.replication.server.changelog.api.ChangeNumberIndexRecord;
 import org.opends.server.replication.server.changelog.api.ChangelogDB;
 import org.opends.server.replication.server.changelog.api.ChangelogException;
+import org.opends.server.replication.server.changelog.api.ChangelogSecondaryIndexes;
 import org.opends.server.replication.server.changelog.api.ChangelogStateProvider;
+import org.opends.server.replication.server.changelog.api.DBCursor;
 import org.opends.server.replication.server.changelog.api.DBCursor.CursorOptions;
 import org.opends.server.replication.server.changelog.api.ReplicationDomainDB;
 import org.forgerock.opendj.ldap.DN;
@@ -55,6 +59,9 @@ public class ChangeNumberIndexer extends DirectoryThread
   /** The tracer object for the debug logger. */
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
+  /** Maximum number of older records indexed in the secondary indexes each time this thread is idle. */
+  private static final int SECONDARY_INDEXES_CATCH_UP_BATCH_SIZE = 1000;
+
   /**
    * If it contains nothing, then the run method executes normally.
    * Otherwise, the {@link #run()} method must clear its state
@@ -403,6 +410,12 @@ public class ChangeNumberIndexer extends DirectoryThread
           final UpdateMsg msg = nextChangeForInsertDBCursor.getRecord();
           if (msg == null)
           {
+            if (catchUpSecondaryIndexes())
+            {
+              // loop to check whether new changes have arrived meanwhile
+              moveToNextChange();
+              continue;
+            }
             synchronized (this)
             {
               if (isShutdownInitiated())
@@ -448,8 +461,13 @@ public class ChangeNumberIndexer extends DirectoryThread
 
           // OK, the oldest change is older than the medium consistency point
           // let's publish it to the CNIndexDB.
-          final long changeNumber = changelogDB.getChangeNumberIndexDB()
-              .addRecord(new ChangeNumberIndexRecord(baseDN, csn));
+          final ChangeNumberIndexDB cnIndexDB = changelogDB.getChangeNumberIndexDB();
+          final long changeNumber = cnIndexDB.addRecord(new ChangeNumberIndexRecord(baseDN, csn));
+          final ChangelogSecondaryIndexes secondaryIndexes = cnIndexDB.getSecondaryIndexes();
+          if (secondaryIndexes != null)
+          {
+            secondaryIndexes.addRecord(changeNumber, msg);
+          }
           if (!cookie.update(baseDN, csn))
           {
             throw new IllegalStateException("It was expected that change (baseDN=" + baseDN + ", csn=" + csn
@@ -484,6 +502,80 @@ public class ChangeNumberIndexer extends DirectoryThread
     }
   }
 
+  /**
+   * Indexes in the secondary indexes a batch of the records which were already in the CNIndexDB when the indexes
+   * were enabled, starting from the oldest one.
+   *
+   * @return {@code true} if some records have been indexed, {@code false} if there was nothing to do
+   */
+  private boolean catchUpSecondaryIndexes() throws ChangelogException
+  {
+    final ChangeNumberIndexDB cnIndexDB = changelogDB.getChangeNumberIndexDB();
+    final ChangelogSecondaryIndexes secondaryIndexes = cnIndexDB.getSecondaryIndexes();
+    if (secondaryIndexes == null)
+    {
+      return false;
+    }
+    final ChangeNumberIndexRecord oldestRecord = cnIndexDB.getOldestRecord();
+    if (oldestRecord == null)
+    {
+      return false;
+    }
+    final long firstIndexedChangeNumber = secondaryIndexes.getFirstIndexedChangeNumber();
+    final long startChangeNumber =
+        Math.max(secondaryIndexes.getNextOlderChangeNumber(), oldestRecord.getChangeNumber());
+    if (startChangeNumber >= firstIndexedChangeNumber)
+    {
+      return false;
+    }
+
+    MultiDomainDBCursor replicaUpdatesCursor = null;
+    try (DBCursor<ChangeNumberIndexRecord> cnIndexDBCursor = cnIndexDB.getCursorFrom(startChangeNumber))
+    {
+      int nbRecords = 0;
+      while (nbRecords < SECONDARY_INDEXES_CATCH_UP_BATCH_SIZE && cnIndexDBCursor.next())
+      {
+        final ChangeNumberIndexRecord cnIndexRecord = cnIndexDBCursor.getRecord();
+        if (cnIndexRecord.getChangeNumber() >= firstIndexedChangeNumber)
+        {
+          break;
+        }
+        if (replicaUpdatesCursor == null)
+        {
+          final MultiDomainServerState state = new MultiDomainServerState();
+          state.update(cnIndexRecord.getBaseDN(), cnIndexRecord.getCSN());
+          replicaUpdatesCursor = changelogDB.getReplicationDomainDB().getCursorFrom(
+              state, new CursorOptions(GREATER_THAN_OR_EQUAL_TO_KEY, ON_MATCHING_KEY));
+          replicaUpdatesCursor.next();
+        }
+        secondaryIndexes.addOlderRecord(cnIndexRecord.getChangeNumber(),
+            findReplicaUpdateMessage(replicaUpdatesCursor, cnIndexRecord.getCSN()));
+        nbRecords++;
+      }
+      return nbRecords > 0;
+    }
+    finally
+    {
+      close(replicaUpdatesCursor);
+    }
+  }
+
+  /**
+   * Returns the update message having the provided CSN, or {@code null} if it was purged or its domain was removed.
+   * The cursor is left on the first update message which is not older than the provided CSN.
+   */
+  private UpdateMsg findReplicaUpdateMessage(MultiDomainDBCursor replicaUpdatesCursor, CSN csn)
+      throws ChangelogException
+  {
+    UpdateMsg updateMsg = replicaUpdatesCursor.getRecord();
+    while (updateMsg != null && updateMsg.getCSN().isOlderThan(csn))
+    {
+      replicaUpdatesCursor.next();
+      updateMsg = replicaUpdatesCursor.getRecord();
+    }
+    return updateMsg != null && updateMsg.getCSN().equals(csn) ? updateMsg : null;
+  }
+
   private void moveToNextChange() throws ChangelogException
   {
     try
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.server.changelog.file;
 
@@ -110,6 +111,9 @@ class FileChangeNumberIndexDB implements ChangeNumberIndexDB
 
   private final FileChangelogDB changelogDB;
 
+  /** The secondary indexes over the records of this DB, or {@code null} if they are disabled. */
+  private volatile MemoryChangelogSecondaryIndexes secondaryIndexes;
+
   /**
    * Creates a new JEChangeNumberIndexDB associated to a given LDAP server.
    *
@@ -244,6 +248,41 @@ class FileChangeNumberIndexDB implements ChangeNumberIndexDB
     return new FileChangeNumberIndexDBCursor(log.getCursor(startChangeNumber));
   }
 
+  @Override
+  public MemoryChangelogSecondaryIndexes getSecondaryIndexes()
+  {
+    return secondaryIndexes;
+  }
+
+  /**
+   * Enables or disables the secondary indexes over the records of this DB. When enabled, the indexes initially only
+   * cover the records added afterwards, the older records being indexed by the {@link ChangeNumberIndexer} when it
+   * is idle.
+   *
+   * @param enabled
+   *          whether the secondary indexes must be maintained
+   */
+  void setSecondaryIndexesEnabled(boolean enabled)
+  {
+    if (!enabled)
+    {
+      secondaryIndexes = null;
+    }
+    else if (secondaryIndexes == null)
+    {
+      secondaryIndexes = new MemoryChangelogSecondaryIndexes(getLastGeneratedChangeNumber() + 1);
+    }
+  }
+
+  private void clearSecondaryIndexes()
+  {
+    final MemoryChangelogSecondaryIndexes indexes = secondaryIndexes;
+    if (indexes != null)
+    {
+      indexes.clear(lastGeneratedChangeNumber.get() + 1);
+    }
+  }
+
   /**
    * Shutdown this DB.
    */
@@ -277,6 +316,11 @@ class FileChangeNumberIndexDB implements ChangeNumberIndexDB
     if (purgeChangeNumber != null)
     {
       final Record<Long, ChangeNumberIndexRecord> record = log.purgeUpTo(purgeChangeNumber);
+      final MemoryChangelogSecondaryIndexes indexes = secondaryIndexes;
+      if (record != null && indexes != null)
+      {
+        indexes.purgeUpTo(record.getKey());
+      }
       return record != null ? record.getValue().getCSN() : null;
     }
     return null;
@@ -356,6 +400,7 @@ class FileChangeNumberIndexDB implements ChangeNumberIndexDB
   {
     log.clear();
     newestChangeNumber = NO_KEY;
+    clearSecondaryIndexes();
   }
 
   /**
@@ -370,6 +415,7 @@ class FileChangeNumberIndexDB implements ChangeNumberIndexDB
     try{
       clear();
       lastGeneratedChangeNumber.set(newStart - 1);
+      clearSecondaryIndexes();
     }
     finally
     {
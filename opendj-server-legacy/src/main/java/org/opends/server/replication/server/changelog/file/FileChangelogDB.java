@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.server.changelog.file;
 
@@ -615,6 +616,18 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
     }
   }
 
+  @Override
+  public void setChangelogSecondaryIndexesEnabled(final boolean enabled)
+  {
+    synchronized (cnIndexDBLock)
+    {
+      if (cnIndexDB != null)
+      {
+        cnIndexDB.setSecondaryIndexesEnabled(enabled);
+      }
+    }
+  }
+
   void resetChangeNumberIndex(long newFirstCN, DN baseDN, CSN newFirstCSN) throws ChangelogException
   {
     if (!replicationServer.isChangeNumberEnabled())
@@ -663,6 +676,7 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
         try
         {
           cnIndexDB = new FileChangeNumberIndexDB(this, replicationEnv);
+          cnIndexDB.setSecondaryIndexesEnabled(replicationServer.isChangelogSecondaryIndexesEnabled());
         }
         catch (Exception e)
         {
@@ -0,0 +1,403 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.replication.server.changelog.file;
+
+import static org.forgerock.opendj.ldap.schema.CoreSchema.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.ModificationType;
+import org.forgerock.opendj.ldap.schema.AttributeType;
+import org.forgerock.opendj.ldap.schema.MatchingRule;
+import org.forgerock.opendj.ldap.schema.Schema;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.replication.protocol.AddMsg;
+import org.opends.server.replication.protocol.DeleteMsg;
+import org.opends.server.replication.protocol.LDAPUpdateMsg;
+import org.opends.server.replication.protocol.ModifyCommonMsg;
+import org.opends.server.replication.protocol.ModifyDNMsg;
+import org.opends.server.replication.protocol.UpdateMsg;
+import org.opends.server.replication.server.changelog.api.ChangelogSecondaryIndexes;
+import org.opends.server.types.Attribute;
+import org.opends.server.types.Modification;
+
+/**
+ * Secondary indexes over the change number index DB kept in memory.
+ * <p>
+ * The targetDN, targetEntryUUID, changeType and changeInitiatorsName attributes of the external changelog entries
+ * are indexed. New changes are indexed by the {@link ChangeNumberIndexer} as soon as they get a change number.
+ * Changes which were already in the change number index DB when the indexes were created are indexed afterwards,
+ * from the oldest one, and only become visible once all of them have been indexed. The indexes are purged together
+ * with the change number index DB.
+ */
+final class MemoryChangelogSecondaryIndexes implements ChangelogSecondaryIndexes
+{
+  private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+  private final AttributeType targetDNType;
+  private final AttributeType targetEntryUUIDType;
+  private final AttributeType changeTypeType;
+  private final AttributeType changeInitiatorsNameType;
+
+  /** Change numbers of the covered records, by indexed attribute OID then normalized value. */
+  private Map<String, Map<ByteString, ChangeNumbers>> indexes;
+  /** All the records having this change number or a greater one are covered. */
+  private long firstIndexedChangeNumber;
+
+  /** Change numbers of the records older than the covered ones indexed so far. */
+  private Map<String, Map<ByteString, ChangeNumbers>> olderIndexes;
+  /** The change number of the first record in {@link #olderIndexes}, or -1 if it is empty. */
+  private long olderFirstChangeNumber;
+  /** The change number of the next record expected in {@link #olderIndexes}. */
+  private long olderNextChangeNumber;
+
+  /**
+   * Creates empty secondary indexes.
+   *
+   * @param nextChangeNumber
+   *          the change number that the next record added to the change number index DB will get
+   */
+  MemoryChangelogSecondaryIndexes(long nextChangeNumber)
+  {
+    final Schema schema = DirectoryServer.getInstance().getServerContext().getSchema();
+    targetDNType = schema.getAttributeType("targetDN");
+    targetEntryUUIDType = schema.getAttributeType("targetEntryUUID");
+    changeTypeType = schema.getAttributeType("changeType");
+    changeInitiatorsNameType = schema.getAttributeType("changeInitiatorsName");
+    clear(nextChangeNumber);
+  }
+
+  private Map<String, Map<ByteString, ChangeNumbers>> newIndexes()
+  {
+    final Map<String, Map<ByteString, ChangeNumbers>> newIndexes = new HashMap<>();
+    for (AttributeType attributeType : Arrays.asList(
+        targetDNType, targetEntryUUIDType, changeTypeType, changeInitiatorsNameType))
+    {
+      newIndexes.put(attributeType.getOID(), new HashMap<ByteString, ChangeNumbers>());
+    }
+    return newIndexes;
+  }
+
+  @Override
+  public synchronized void addRecord(long changeNumber, UpdateMsg updateMsg)
+  {
+    if (changeNumber >= firstIndexedChangeNumber)
+    {
+      index(indexes, changeNumber, updateMsg);
+    }
+  }
+
+  @Override
+  public synchronized void addOlderRecord(long changeNumber, UpdateMsg updateMsg)
+  {
+    if (changeNumber >= firstIndexedChangeNumber)
+    {
+      return;
+    }
+    if (olderFirstChangeNumber == -1 || changeNumber != olderNextChangeNumber)
+    {
+      olderIndexes = newIndexes();
+      olderFirstChangeNumber = changeNumber;
+    }
+    if (updateMsg != null)
+    {
+      index(olderIndexes, changeNumber, updateMsg);
+    }
+    olderNextChangeNumber = changeNumber + 1;
+
+    if (olderNextChangeNumber == firstIndexedChangeNumber)
+    {
+      // the older records join the covered ones
+      for (Map.Entry<String, Map<ByteString, ChangeNumbers>> index : indexes.entrySet())
+      {
+        final Map<ByteString, ChangeNumbers> olderIndex = olderIndexes.get(index.getKey());
+        for (Map.Entry<ByteString, ChangeNumbers> entry : index.getValue().entrySet())
+        {
+          final ChangeNumbers olderChangeNumbers = olderIndex.get(entry.getKey());
+          if (olderChangeNumbers != null)
+          {
+            olderChangeNumbers.addAll(entry.getValue());
+          }
+          else
+          {
+            olderIndex.put(entry.getKey(), entry.getValue());
+          }
+        }
+      }
+      indexes = olderIndexes;
+      firstIndexedChangeNumber = olderFirstChangeNumber;
+      olderIndexes = newIndexes();
+      olderFirstChangeNumber = -1;
+    }
+  }
+
+  @Override
+  public synchronized long getNextOlderChangeNumber()
+  {
+    return olderFirstChangeNumber != -1 ? olderNextChangeNumber : -1;
+  }
+
+  private void index(Map<String, Map<ByteString, ChangeNumbers>> indexes, long changeNumber, UpdateMsg updateMsg)
+  {
+    if (!(updateMsg instanceof LDAPUpdateMsg))
+    {
+      return;
+    }
+    final LDAPUpdateMsg msg = (LDAPUpdateMsg) updateMsg;
+    add(indexes, targetDNType, msg.getDN().toString(), changeNumber);
+    add(indexes, targetEntryUUIDType, msg.getEntryUUID(), changeNumber);
+    add(indexes, changeTypeType, getChangeType(msg), changeNumber);
+    add(indexes, changeInitiatorsNameType, getChangeInitiatorsName(msg), changeNumber);
+  }
+
+  private void add(Map<String, Map<ByteString, ChangeNumbers>> indexes, AttributeType attributeType, String value,
+      long changeNumber)
+  {
+    if (value == null)
+    {
+      return;
+    }
+    final ByteString key = normalize(attributeType, ByteString.valueOfUtf8(value));
+    if (key == null)
+    {
+      return;
+    }
+    final Map<ByteString, ChangeNumbers> index = indexes.get(attributeType.getOID());
+    ChangeNumbers changeNumbers = index.get(key);
+    if (changeNumbers == null)
+    {
+      changeNumbers = new ChangeNumbers();
+      index.put(key, changeNumbers);
+    }
+    changeNumbers.add(changeNumber);
+  }
+
+  /** Returns the value of the changeType attribute of the external changelog entry built for the provided change. */
+  private static String getChangeType(LDAPUpdateMsg msg)
+  {
+    if (msg instanceof AddMsg)
+    {
+      return "add";
+    }
+    else if (msg instanceof ModifyDNMsg)
+    {
+      return "modrdn";
+    }
+    else if (msg instanceof ModifyCommonMsg)
+    {
+      return "modify";
+    }
+    else if (msg instanceof DeleteMsg)
+    {
+      return "delete";
+    }
+    return null;
+  }
+
+  /**
+   * Returns the value of the changeInitiatorsName attribute of the external changelog entry built for the provided
+   * change.
+   */
+  private static String getChangeInitiatorsName(LDAPUpdateMsg msg)
+  {
+    try
+    {
+      if (msg instanceof AddMsg)
+      {
+        for (Attribute attr : ((AddMsg) msg).getAttributes())
+        {
+          if (!attr.isEmpty()
+              && attr.getAttributeDescription().getAttributeType().equals(getCreatorsNameAttributeType()))
+          {
+            return attr.iterator().next().toString();
+          }
+        }
+      }
+      else if (msg instanceof ModifyCommonMsg)
+      {
+        String modifiersName = null;
+        for (Modification mod : ((ModifyCommonMsg) msg).getMods())
+        {
+          final Attribute attr = mod.getAttribute();
+          if (mod.getModificationType() == ModificationType.REPLACE
+              && !attr.isEmpty()
+              && attr.getAttributeDescription().getAttributeType().equals(getModifiersNameAttributeType()))
+          {
+            modifiersName = attr.iterator().next().toString();
+          }
+        }
+        return modifiersName;
+      }
+      else if (msg instanceof DeleteMsg)
+      {
+        return ((DeleteMsg) msg).getInitiatorsName();
+      }
+    }
+    catch (Exception e)
+    {
+      // the change will not be found by searches on changeInitiatorsName, as it will not have this attribute
+      logger.traceException(e);
+    }
+    return null;
+  }
+
+  private static ByteString normalize(AttributeType attributeType, ByteString value)
+  {
+    final MatchingRule equalityMatchingRule = attributeType.getEqualityMatchingRule();
+    if (equalityMatchingRule == null)
+    {
+      return null;
+    }
+    try
+    {
+      return equalityMatchingRule.normalizeAttributeValue(value);
+    }
+    catch (DecodeException e)
+    {
+      logger.traceException(e);
+      return null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isIndexed(AttributeType attributeType)
+  {
+    return indexes.containsKey(attributeType.getOID());
+  }
+
+  @Override
+  public synchronized long getFirstIndexedChangeNumber()
+  {
+    return firstIndexedChangeNumber;
+  }
+
+  @Override
+  public synchronized long[] getChangeNumbers(AttributeType attributeType, ByteString assertionValue)
+  {
+    final Map<ByteString, ChangeNumbers> index = indexes.get(attributeType.getOID());
+    if (index == null)
+    {
+      return null;
+    }
+    final ByteString key = normalize(attributeType, assertionValue);
+    if (key == null)
+    {
+      return null;
+    }
+    final ChangeNumbers changeNumbers = index.get(key);
+    return changeNumbers != null ? changeNumbers.toArray() : new long[0];
+  }
+
+  /**
+   * Removes the records older than the provided change number from the indexes.
+   *
+   * @param oldestChangeNumber
+   *          the change number of the oldest record remaining in the change number index DB
+   */
+  synchronized void purgeUpTo(long oldestChangeNumber)
+  {
+    purgeUpTo(indexes, oldestChangeNumber);
+    purgeUpTo(olderIndexes, oldestChangeNumber);
+    firstIndexedChangeNumber = Math.max(firstIndexedChangeNumber, oldestChangeNumber);
+    if (olderFirstChangeNumber != -1 && olderFirstChangeNumber < oldestChangeNumber)
+    {
+      olderFirstChangeNumber = Math.min(oldestChangeNumber, olderNextChangeNumber);
+    }
+  }
+
+  private static void purgeUpTo(Map<String, Map<ByteString, ChangeNumbers>> indexes, long oldestChangeNumber)
+  {
+    for (Map<ByteString, ChangeNumbers> index : indexes.values())
+    {
+      for (Iterator<ChangeNumbers> it = index.values().iterator(); it.hasNext();)
+      {
+        if (it.next().removeUpTo(oldestChangeNumber))
+        {
+          it.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all the records from the indexes.
+   *
+   * @param nextChangeNumber
+   *          the change number that the next record added to the change number index DB will get
+   */
+  synchronized void clear(long nextChangeNumber)
+  {
+    indexes = newIndexes();
+    olderIndexes = newIndexes();
+    olderFirstChangeNumber = -1;
+    firstIndexedChangeNumber = nextChangeNumber;
+  }
+
+  @Override
+  public synchronized String toString()
+  {
+    return getClass().getSimpleName() + ", firstIndexedChangeNumber=" + firstIndexedChangeNumber;
+  }
+
+  /** Change numbers sorted in ascending order, to which greater change numbers can be appended. */
+  private static final class ChangeNumbers
+  {
+    private long[] values = new long[4];
+    private int start;
+    private int end;
+
+    private void add(long changeNumber)
+    {
+      if (end == values.length)
+      {
+        final int size = end - start;
+        final long[] newValues = size < values.length / 2 ? values : new long[values.length * 2];
+        System.arraycopy(values, start, newValues, 0, size);
+        values = newValues;
+        start = 0;
+        end = size;
+      }
+      values[end++] = changeNumber;
+    }
+
+    private void addAll(ChangeNumbers changeNumbers)
+    {
+      for (int i = changeNumbers.start; i < changeNumbers.end; i++)
+      {
+        add(changeNumbers.values[i]);
+      }
+    }
+
+    /** Removes the change numbers lower than the provided one and returns whether none are left. */
+    private boolean removeUpTo(long changeNumber)
+    {
+      final int pos = Arrays.binarySearch(values, start, end, changeNumber);
+      start = pos >= 0 ? pos : -pos - 1;
+      return start == end;
+    }
+
+    private long[] toArray()
+    {
+      return Arrays.copyOfRange(values, start, end);
+    }
+  }
+}
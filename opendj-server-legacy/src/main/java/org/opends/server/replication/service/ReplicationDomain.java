@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.service;
 
@@ -25,6 +26,7 @@ import static org.opends.server.util.CollectionUtils.*;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.util.Arrays;
@@ -231,6 +233,24 @@ public abstract class ReplicationDomain
   private ServerStatus status = ServerStatus.NOT_CONNECTED_STATUS;
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
+  /**
+   * Size of the buffer used to group the exported entries into the EntryMsg sent during a total update. Bigger
+   * messages mean fewer messages to send, route and acknowledge for the same amount of data.
+   */
+  static final int TOTAL_UPDATE_MSG_SIZE = 64 * 1024;
+
+  /**
+   * Size of the EntryMsg the initialization window size is expressed in: the size of the default export buffer
+   * used before the EntryMsg grew to {@link #TOTAL_UPDATE_MSG_SIZE}.
+   */
+  static final int INIT_WINDOW_MSG_SIZE = 8 * 1024;
+
+  /**
+   * Maximum time (in milliseconds) the exporter waits for acknowledgements from the slowest importer before checking
+   * again the state of the connections.
+   */
+  private static final long TOTAL_UPDATE_ACK_WAIT_MILLIS = 100;
+
   /** The configuration of the replication domain. */
   protected volatile ReplicationDomainCfg config;
   /**
@@ -553,6 +573,23 @@ public abstract class ReplicationDomain
     return config.getInitializationWindowSize();
   }
 
+  /**
+   * Returns the window, in EntryMsg of {@link #TOTAL_UPDATE_MSG_SIZE} bytes, which keeps the same amount of data in
+   * flight during a total update as the provided initialization window, expressed in EntryMsg of
+   * {@link #INIT_WINDOW_MSG_SIZE} bytes.
+   * <p>
+   * The importer acknowledges every half window, hence the window is never smaller than 2 messages.
+   *
+   * @param initWindow
+   *          the initialization window requested for the total update
+   * @return the window to use for the EntryMsg sent during the total update
+   */
+  static int getTotalUpdateWindow(int initWindow)
+  {
+    final long windowBytes = (long) initWindow * INIT_WINDOW_MSG_SIZE;
+    return (int) Math.max(2, windowBytes / TOTAL_UPDATE_MSG_SIZE);
+  }
+
   /**
    * Tells if assured replication is enabled for this domain.
    * @return True if assured replication is enabled for this domain.
@@ -1134,6 +1171,7 @@ public abstract class ReplicationDomain
 
     /**
      * Flow control during initialization: Map of remote serverId to number of messages received.
+     * It is updated by the listener thread and read by the export thread, both synchronized on this context.
      */
     private final Map<Integer, Integer> ackVals = new HashMap<>();
     /** ServerId of the slowest server (the one with the smallest non null counter). */
@@ -1197,6 +1235,26 @@ public abstract class ReplicationDomain
       return entryLeftCount;
     }
 
+    /**
+     * Returns the window, in EntryMsg, used for the flow control of this total update.
+     *
+     * @return The window, in EntryMsg, used for the flow control of this total update.
+     */
+    int getInitWindow()
+    {
+      return initWindow;
+    }
+
+    /**
+     * Returns the number of EntryMsg sent or received so far by this total update.
+     *
+     * @return The number of EntryMsg sent or received so far by this total update.
+     */
+    int getMsgCnt()
+    {
+      return msgCnt;
+    }
+
     /**
      * Initializes the import/export counters with the provider value.
      * @param total Total number of entries to be processed.
@@ -1310,7 +1368,7 @@ public abstract class ReplicationDomain
      * @param serverId serverId of the acknowledger/receiver/importer server.
      * @param numAck   id of the message received.
      */
-    private void setAckVal(int serverId, int numAck)
+    private synchronized void setAckVal(int serverId, int numAck)
     {
       if (logger.isTraceEnabled())
       {
@@ -1331,6 +1389,42 @@ public abstract class ReplicationDomain
           minMsgReceived = nbMsgReceived;
         }
       }
+      // wake up the export thread which may be waiting for this ack
+      notifyAll();
+    }
+
+    /**
+     * Returns the id of the last EntryMsg acknowledged by the provided
+     * receiver (importer) server.
+     * @param serverId serverId of the acknowledger/receiver/importer server.
+     * @return the id of the last message acknowledged by this server.
+     */
+    private synchronized int getAckVal(int serverId)
+    {
+      return ackVals.get(serverId);
+    }
+
+    /**
+     * Waits until the slowest receiver (importer) server has acknowledged
+     * enough messages for the export to go on within the initialization
+     * window, or until the provided timeout expires.
+     * @param timeoutMillis maximum time to wait, in milliseconds.
+     * @return true if the export can go on, false if the timeout expired.
+     * @throws InterruptedException if the export thread is interrupted.
+     */
+    private synchronized boolean waitForSlowestServer(long timeoutMillis)
+        throws InterruptedException
+    {
+      if (!isWithinInitWindow())
+      {
+        wait(timeoutMillis);
+      }
+      return isWithinInitWindow();
+    }
+
+    private boolean isWithinInitWindow()
+    {
+      return msgCnt - ackVals.get(slowestServerId) <= initWindow;
     }
 
     /**
@@ -1339,7 +1433,7 @@ public abstract class ReplicationDomain
      * @return serverId of the server with latest acknowledge.
      *                  0 when no ack has been received yet.
      */
-    public int getSlowestServer()
+    public synchronized int getSlowestServer()
     {
       if (logger.isTraceEnabled())
       {
@@ -1492,12 +1586,13 @@ public abstract class ReplicationDomain
         ieCtx.initializeCounters(countEntries());
         ieCtx.msgCnt = 0;
         ieCtx.initNumLostConnections = broker.getNumLostConnections();
-        ieCtx.initWindow = initWindow;
+        // the importers use the window sent in the InitializeTargetMsg to acknowledge the EntryMsg
+        ieCtx.initWindow = getTotalUpdateWindow(initWindow);
 
         // Send start message to the peer
         InitializeTargetMsg initTargetMsg = new InitializeTargetMsg(
             getBaseDN(), getServerId(), serverToInitialize,
-            serverRunningTheTask, ieCtx.entryCount, initWindow);
+            serverRunningTheTask, ieCtx.entryCount, ieCtx.initWindow);
 
         broker.publish(initTargetMsg);
 
@@ -1513,7 +1608,7 @@ public abstract class ReplicationDomain
               ERR_INIT_NO_SUCCESS_START_FROM_SERVERS.get(getBaseDN(), ieCtx.failureList));
         }
 
-        exportBackend(new BufferedOutputStream(new ReplOutputStream(this)));
+        exportBackend(new BufferedOutputStream(new ReplOutputStream(this), TOTAL_UPDATE_MSG_SIZE));
 
         // Notify the peer of the success
         broker.publish(
@@ -2071,26 +2166,32 @@ public abstract class ReplicationDomain
             ieCtx.getException());
       }
 
-      int ourLastExportedCnt = ieCtx.msgCnt;
-      int slowestCnt = ieCtx.ackVals.get(slowestServerId);
-
       if (logger.isTraceEnabled())
       {
         logger.trace("[IE] Entering exportLDIFEntry waiting " +
-            " our=" + ourLastExportedCnt + " slowest=" + slowestCnt);
+            " our=" + ieCtx.msgCnt + " slowest=" + ieCtx.getAckVal(slowestServerId));
       }
 
-      if (ourLastExportedCnt - slowestCnt > ieCtx.initWindow)
+      // if our export is too far beyond the slowest importer, wait for its
+      // acknowledgements: the listener thread wakes us up as soon as one arrives
+      boolean canExport;
+      try
+      {
+        canExport = ieCtx.waitForSlowestServer(TOTAL_UPDATE_ACK_WAIT_MILLIS);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(e.getMessage());
+      }
+
+      if (!canExport)
       {
         if (logger.isTraceEnabled())
         {
           logger.trace("[IE] Entering exportLDIFEntry waiting");
         }
 
-        // our export is too far beyond the slowest importer - let's wait
-        try { Thread.sleep(100); }
-        catch(Exception e) { /* do nothing */ }
-
         // process any connection error
         if (broker.hasConnectionError()
           || broker.getNumLostConnections() != ieCtx.initNumLostConnections)
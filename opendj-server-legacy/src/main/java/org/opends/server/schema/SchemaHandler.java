@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.schema;
 
@@ -46,6 +47,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.opends.server.api.AlertGenerator;
 import org.opends.server.core.ServerContext;
 import org.opends.server.replication.plugin.HistoricalCsnOrderingMatchingRuleImpl;
+import org.opends.server.replication.plugin.HistoricalCsnPurgeMatchingRuleImpl;
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.i18n.slf4j.LocalizedLogger;
 import org.forgerock.opendj.adapter.server3x.Converters;
@@ -243,6 +245,7 @@ public final class SchemaHandler
       addSubtreeSpecificationSyntax(schemaBuilder);
 
       addHistoricalCsnOrderingMatchingRule(schemaBuilder);
+      addHistoricalCsnPurgeMatchingRule(schemaBuilder);
       addAuthPasswordEqualityMatchingRule(schemaBuilder);
       addUserPasswordEqualityMatchingRule(schemaBuilder);
       addJsonSyntaxesAndMatchingRulesToSchema(schemaBuilder);
@@ -281,6 +284,16 @@ public final class SchemaHandler
       .addToSchema();
   }
 
+  private static void addHistoricalCsnPurgeMatchingRule(SchemaBuilder builder)
+  {
+    builder
+      .buildMatchingRule("1.3.6.1.4.1.36733.2.1.4.3")
+      .names("historicalCsnPurgeMatch")
+      .syntaxOID("1.3.6.1.4.1.1466.115.121.1.40")
+      .implementation(new HistoricalCsnPurgeMatchingRuleImpl())
+      .addToSchema();
+  }
+
   private static void addAuthPasswordEqualityMatchingRule(SchemaBuilder builder)
   {
     builder.buildMatchingRule(EMR_AUTH_PASSWORD_OID)
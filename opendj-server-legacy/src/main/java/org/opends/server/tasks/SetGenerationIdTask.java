@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.tasks;
 
@@ -28,7 +29,6 @@ import org.opends.messages.TaskMessages;
 import org.opends.server.backends.task.Task;
 import org.opends.server.backends.task.TaskState;
 import org.opends.server.replication.plugin.LDAPReplicationDomain;
-import org.opends.server.replication.service.ReplicationDomain;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
 
@@ -41,8 +41,9 @@ public class SetGenerationIdTask extends Task
 {
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
   private String  domainString;
-  private ReplicationDomain domain;
+  private LDAPReplicationDomain domain;
   private Long generationId;
+  private boolean recompute;
 
   /** {@inheritDoc} */
   @Override
@@ -79,6 +80,13 @@ public class SetGenerationIdTask extends Task
       }
     }
 
+    recompute = getBoolean(taskEntry.getAllAttributes(ATTR_TASK_SET_GENERATION_ID_RECOMPUTE), false);
+    if (recompute && generationId != null)
+    {
+      throw new DirectoryException(ResultCode.CLIENT_SIDE_PARAM_ERROR,
+          TaskMessages.ERR_TASK_SET_GENERATION_ID_CONFLICTING_OPTIONS.get());
+    }
+
     // Retrieves the replication domain
     domainString = getSingleValueString(taskEntry.getAllAttributes(ATTR_TASK_SET_GENERATION_ID_DOMAIN_DN));
 
@@ -106,6 +114,10 @@ public class SetGenerationIdTask extends Task
 
     try
     {
+      if (recompute)
+      {
+        generationId = domain.recomputeGenerationId();
+      }
       domain.resetGenerationId(generationId);
     }
     catch(DirectoryException de)
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.tools;
 
@@ -112,6 +113,7 @@ public class ExportLDIF extends TaskTool {
   private BooleanArgument encryptLDIF;
   private BooleanArgument excludeOperationalAttrs;
   private BooleanArgument signHash;
+  private IntegerArgument threadCount;
   private IntegerArgument wrapColumn;
   private StringArgument  backendID;
   private StringArgument  configFile;
@@ -221,6 +223,13 @@ public class ExportLDIF extends TaskTool {
                       .defaultValue(0)
                       .valuePlaceholder(INFO_WRAP_COLUMN_PLACEHOLDER.get())
                       .buildAndAddToParser(argParser);
+      threadCount =
+              IntegerArgument.builder("threadCount")
+                      .description(INFO_LDIFEXPORT_DESCRIPTION_THREAD_COUNT.get())
+                      .lowerBound(0)
+                      .defaultValue(1)
+                      .valuePlaceholder(INFO_LDIFIMPORT_THREAD_COUNT_PLACEHOLDER.get())
+                      .buildAndAddToParser(argParser);
       compressLDIF =
               BooleanArgument.builder(OPTION_LONG_COMPRESS)
                       .shortIdentifier(OPTION_SHORT_COMPRESS)
@@ -312,6 +321,7 @@ public class ExportLDIF extends TaskTool {
     addAttribute(attributes, ATTR_TASK_EXPORT_INCLUDE_BRANCH, includeBranchStrings.getValues());
     addAttribute(attributes, ATTR_TASK_EXPORT_EXCLUDE_BRANCH, excludeBranchStrings.getValues());
     addAttribute(attributes, ATTR_TASK_EXPORT_WRAP_COLUMN, wrapColumn);
+    addAttribute(attributes, ATTR_TASK_EXPORT_THREAD_COUNT, threadCount);
 
     if (excludeOperationalAttrs.isPresent())
     {
@@ -568,6 +578,16 @@ public class ExportLDIF extends TaskTool {
       return 1;
     }
 
+    try
+    {
+      exportConfig.setThreadCount(threadCount.getIntValue());
+    }
+    catch (ArgumentException ae)
+    {
+      logger.error(ERR_LDIFEXPORT_CANNOT_PARSE_THREAD_COUNT, threadCount.getValue(), ae.getMessage());
+      return 1;
+    }
+
 
     // Get the set of base DNs for the backend as an array.
     DN[] baseDNs = new DN[baseDNList.size()];
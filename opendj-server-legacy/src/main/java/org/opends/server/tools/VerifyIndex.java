@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2008 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.tools;
 
@@ -45,6 +46,7 @@ import org.opends.server.util.BuildVersion;
 import com.forgerock.opendj.cli.ArgumentException;
 import com.forgerock.opendj.cli.ArgumentParser;
 import com.forgerock.opendj.cli.BooleanArgument;
+import com.forgerock.opendj.cli.IntegerArgument;
 import com.forgerock.opendj.cli.StringArgument;
 
 /**
@@ -92,6 +94,8 @@ public class VerifyIndex
     StringArgument  indexList               = null;
     BooleanArgument cleanMode               = null;
     BooleanArgument countErrors             = null;
+    IntegerArgument threadCount             = null;
+    StringArgument  checkpointFile          = null;
     BooleanArgument displayUsage            = null;
 
 
@@ -137,6 +141,18 @@ public class VerifyIndex
               BooleanArgument.builder("countErrors")
                       .description(INFO_VERIFYINDEX_DESCRIPTION_COUNT_ERRORS.get())
                       .buildAndAddToParser(argParser);
+      threadCount =
+              IntegerArgument.builder("threadCount")
+                      .description(INFO_VERIFYINDEX_DESCRIPTION_THREAD_COUNT.get())
+                      .lowerBound(0)
+                      .defaultValue(0)
+                      .valuePlaceholder(INFO_LDIFIMPORT_THREAD_COUNT_PLACEHOLDER.get())
+                      .buildAndAddToParser(argParser);
+      checkpointFile =
+              StringArgument.builder("checkpointFile")
+                      .description(INFO_VERIFYINDEX_DESCRIPTION_CHECKPOINT_FILE.get())
+                      .valuePlaceholder(INFO_FILE_PLACEHOLDER.get())
+                      .buildAndAddToParser(argParser);
 
       displayUsage = showUsageArgument();
       argParser.addArgument(displayUsage);
@@ -267,6 +283,16 @@ public class VerifyIndex
         verifyConfig.addCompleteIndex(s);
       }
     }
+    verifyConfig.setCheckpointFile(checkpointFile.getValue());
+    try
+    {
+      verifyConfig.setThreadCount(threadCount.getIntValue());
+    }
+    catch (ArgumentException ae)
+    {
+      printWrappedText(err, ERR_VERIFYINDEX_CANNOT_PARSE_THREAD_COUNT.get(threadCount.getValue(), ae.getMessage()));
+      return 1;
+    }
 
 
     // Acquire a shared lock for the backend.
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -136,6 +137,13 @@ public abstract class AbstractOperation
   /** The time that processing ended on this operation in nanoseconds. */
   private long processingStopNanoTime;
 
+  /** The time spent in each processing phase in nanoseconds, or {@code null} if the etime breakdown is disabled. */
+  private final long[] phaseNanoTimes;
+  /** The processing phase in progress, if any. */
+  private OperationPhase currentPhase;
+  /** The time at which the last phase change occurred in nanoseconds. */
+  private long phaseChangeNanoTime;
+
   /** The callbacks to be invoked once a response has been sent. */
   private List<Runnable> postResponseCallbacks;
 
@@ -159,6 +167,8 @@ public abstract class AbstractOperation
     this.operationID      = operationID;
     this.messageID        = messageID;
     this.useNanoTime = DirectoryServer.getCoreConfigManager().isUseNanoTime();
+    this.phaseNanoTimes =
+        DirectoryServer.getCoreConfigManager().isEtimeBreakdown() ? new long[OperationPhase.values().length] : null;
     this.requestControls = requestControls != null ? requestControls : new ArrayList<Control>(0);
     authorizationEntry = clientConnection.getAuthenticationInfo().getAuthorizationEntry();
   }
@@ -583,6 +593,10 @@ public abstract class AbstractOperation
     {
       processingStartNanoTime = System.nanoTime();
     }
+    if (currentPhase == OperationPhase.WORK_QUEUE)
+    {
+      exitPhase(null);
+    }
   }
 
   @Override
@@ -621,6 +635,44 @@ public abstract class AbstractOperation
     return -1;
   }
 
+  @Override
+  public final OperationPhase enterPhase(OperationPhase phase)
+  {
+    if (phaseNanoTimes == null)
+    {
+      return null;
+    }
+    final OperationPhase previousPhase = currentPhase;
+    changePhase(phase);
+    return previousPhase;
+  }
+
+  @Override
+  public final void exitPhase(OperationPhase previousPhase)
+  {
+    if (phaseNanoTimes != null)
+    {
+      changePhase(previousPhase);
+    }
+  }
+
+  private void changePhase(OperationPhase newPhase)
+  {
+    final long now = System.nanoTime();
+    if (currentPhase != null)
+    {
+      phaseNanoTimes[currentPhase.ordinal()] += now - phaseChangeNanoTime;
+    }
+    currentPhase = newPhase;
+    phaseChangeNanoTime = now;
+  }
+
+  @Override
+  public final long getPhaseNanoTime(OperationPhase phase)
+  {
+    return phaseNanoTimes != null ? phaseNanoTimes[phase.ordinal()] : -1;
+  }
+
   @Override
   public final void registerPostResponseCallback(Runnable callback)
   {
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -192,6 +193,43 @@ public final class AttributeBuilder implements Iterable<ByteString>
       }
     }
 
+    /**
+     * Indicates whether this attribute has a value matching the provided pre-built assertion.
+     *
+     * @param matchingRule
+     *          the matching rule used to normalize the attribute values
+     * @param assertion
+     *          the assertion built with the provided matching rule
+     * @return the result of the match
+     */
+    private ConditionResult matchesAssertion(MatchingRule matchingRule, Assertion assertion)
+    {
+      // Values normalized with the equality matching rule are cached
+      final boolean isEqualityMatchingRule = matchingRule.equals(getAttributeType().getEqualityMatchingRule());
+      ConditionResult result = ConditionResult.FALSE;
+      for (AttributeValue value : values)
+      {
+        try
+        {
+          final ByteString normalizedValue = isEqualityMatchingRule
+              ? value.getNormalizedValue()
+              : matchingRule.normalizeAttributeValue(value.getValue());
+          if (assertion.matches(normalizedValue).toBoolean())
+          {
+            return ConditionResult.TRUE;
+          }
+        }
+        catch (Exception e)
+        {
+          logger.traceException(e);
+          // We could not normalize one of the attribute values.
+          // If we cannot find a definite match, then we should return "undefined".
+          result = ConditionResult.UNDEFINED;
+        }
+      }
+      return result;
+    }
+
     @Override
     public AttributeDescription getAttributeDescription()
     {
@@ -515,6 +553,30 @@ public final class AttributeBuilder implements Iterable<ByteString>
     return builder.toAttribute();
   }
 
+  /**
+   * Indicates whether the provided attribute has a value matching a pre-built assertion, which avoids building the
+   * assertion again for every evaluated attribute.
+   * <p>
+   * This method is only intended for use by the {@link SearchFilterMatcher} class.
+   *
+   * @param attribute
+   *          The attribute to evaluate.
+   * @param matchingRule
+   *          The matching rule used to normalize the attribute values.
+   * @param assertion
+   *          The assertion built with the provided matching rule.
+   * @return The result of the match, or {@code null} if the provided
+   *         attribute was not created by an attribute builder.
+   */
+  static ConditionResult matchesAssertion(Attribute attribute, MatchingRule matchingRule, Assertion assertion)
+  {
+    if (attribute instanceof RealAttribute)
+    {
+      return ((RealAttribute) attribute).matchesAssertion(matchingRule, assertion);
+    }
+    return null;
+  }
+
   /** The attribute description for this attribute. */
   private AttributeDescription attributeDescription;
   /** The set of attribute values, which are lazily normalized. */
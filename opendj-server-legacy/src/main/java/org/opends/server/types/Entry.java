@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -3342,6 +3343,35 @@ public class Entry
   public static Entry decode(ByteSequenceReader entryBuffer,
                              CompressedSchema compressedSchema)
          throws DirectoryException
+  {
+    return decode(entryBuffer, compressedSchema, null);
+  }
+
+  /**
+   * Decodes the provided byte array as an entry, only keeping the
+   * attributes having one of the provided attribute types. The values
+   * of the other attributes are skipped without being copied, which
+   * makes decoding cheaper when only a few attributes are needed. The
+   * object classes are always decoded.
+   *
+   * @param  entryBuffer       The byte buffer containing the data to
+   *                           be decoded.
+   * @param  compressedSchema  The compressed schema manager to use
+   *                           when decoding tokenized schema
+   *                           elements.
+   * @param  attributeTypes    The attribute types of the attributes to
+   *                           decode, or {@code null} to decode all
+   *                           the attributes.
+   *
+   * @return  The decoded entry.
+   *
+   * @throws  DirectoryException  If the provided byte array cannot be
+   *                              decoded as an entry.
+   */
+  public static Entry decode(ByteSequenceReader entryBuffer,
+                             CompressedSchema compressedSchema,
+                             Set<AttributeType> attributeTypes)
+         throws DirectoryException
   {
     try
     {
@@ -3400,9 +3430,9 @@ public class Entry
       // Now, we should iterate through the user and operational attributes and
       // decode each one.
       Map<AttributeType, List<Attribute>> userAttributes =
-          decodeAttributes(version, entryBuffer, config);
+          decodeAttributes(version, entryBuffer, config, attributeTypes);
       Map<AttributeType, List<Attribute>> operationalAttributes =
-          decodeAttributes(version, entryBuffer, config);
+          decodeAttributes(version, entryBuffer, config, attributeTypes);
 
 
       // We've got everything that we need, so create and return the entry.
@@ -3523,6 +3553,9 @@ public class Entry
    *                     entry.
    * @param  config  The configuration that may be used to control how
    *                 the entry is encoded.
+   * @param  attributeTypes  The attribute types of the attributes to
+   *                         decode, or {@code null} to decode all the
+   *                         attributes.
    *
    * @return  A map of the decoded object classes.
    * @throws  DirectoryException  If a problem occurs while attempting
@@ -3530,7 +3563,7 @@ public class Entry
    */
   private static Map<AttributeType, List<Attribute>>
   decodeAttributes(Byte ver, ByteSequenceReader entryBuffer,
-                   EntryEncodeConfig config) throws DirectoryException
+                   EntryEncodeConfig config, Set<AttributeType> attributeTypes) throws DirectoryException
   {
     // Next is the total number of attributes.  It may be a
     // single byte or multiple bytes.
@@ -3549,7 +3582,11 @@ public class Entry
           entryBuffer.readBERLength();
         }
         // Decode the attribute.
-        Attribute a = config.getCompressedSchema().decodeAttribute(entryBuffer);
+        Attribute a = config.getCompressedSchema().decodeAttribute(entryBuffer, attributeTypes);
+        if (a == null)
+        {
+          continue;
+        }
         AttributeType attrType = a.getAttributeDescription().getAttributeType();
         List<Attribute> attrList = attributes.get(attrType);
         if (attrList == null)
@@ -3575,11 +3612,21 @@ public class Entry
         String name = entryBuffer.readStringUtf8(endPos - startPos);
         entryBuffer.skip(1);
 
-        final AttributeBuilder builder = new AttributeBuilder(name);
+        final AttributeDescription attrDesc = AttributeDescription.valueOf(name);
 
         // Next, we have the number of values.
         int numValues = entryBuffer.readBERLength();
 
+        if (attributeTypes != null && !attributeTypes.contains(attrDesc.getAttributeType()))
+        {
+          for (int j=0; j < numValues; j++)
+          {
+            entryBuffer.skip(entryBuffer.readBERLength());
+          }
+          continue;
+        }
+        final AttributeBuilder builder = new AttributeBuilder(attrDesc);
+
         // Next, we have the sequence of length-value pairs.
         for (int j=0; j < numValues; j++)
         {
@@ -3679,6 +3726,33 @@ public class Entry
    */
   public boolean toLDIF(LDIFExportConfig exportConfig)
          throws IOException, LDIFException
+  {
+    return toLDIF(exportConfig, exportConfig.getWriter());
+  }
+
+
+  /**
+   * Writes this entry in LDIF form according to the provided
+   * configuration, but to the provided writer rather than to the
+   * writer of the configuration. This makes it possible to format
+   * several entries concurrently before writing them in order.
+   *
+   * @param  exportConfig  The configuration that specifies how the
+   *                       entry should be written.
+   * @param  writer        The writer to which the entry should be
+   *                       written.
+   *
+   * @return  {@code true} if the entry is actually written, or
+   *          {@code false} if it is not for some reason.
+   *
+   * @throws  IOException  If a problem occurs while writing the
+   *                       information.
+   *
+   * @throws  LDIFException  If a problem occurs while trying to
+   *                         determine whether to write the entry.
+   */
+  public boolean toLDIF(LDIFExportConfig exportConfig, BufferedWriter writer)
+         throws IOException, LDIFException
   {
     // See if this entry should be included in the export at all.
     try
@@ -3712,7 +3786,6 @@ public class Entry
 
 
     // Get the information necessary to write the LDIF.
-    BufferedWriter writer     = exportConfig.getWriter();
     int            wrapColumn = exportConfig.getWrapColumn();
     boolean        wrapLines  = wrapColumn > 1;
 
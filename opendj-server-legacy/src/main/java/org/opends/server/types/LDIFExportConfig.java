@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -88,6 +89,12 @@ public final class LDIFExportConfig extends OperationConfig
   /** The column number at which long lines should be wrapped. */
   private int wrapColumn;
 
+  /**
+   * The number of threads used to decode and format the entries, or 0 for the backend default.
+   * Exports are sequential unless requested otherwise.
+   */
+  private int threadCount = 1;
+
   /** The set of base DNs to exclude from the export. */
   private List<DN> excludeBranches;
   /** The set of base DNs to include from the export. */
@@ -452,6 +459,34 @@ public final class LDIFExportConfig extends OperationConfig
     this.wrapColumn = wrapColumn;
   }
 
+  /**
+   * Retrieves the number of threads that should be used to decode and
+   * format the entries during the export. The default is 1, that is a
+   * sequential export. Backends which do not support parallel exports
+   * ignore this setting.
+   *
+   * @return  The number of threads that should be used to decode and
+   *          format the entries, or a value less than or equal to zero
+   *          to let the backend choose.
+   */
+  public int getThreadCount()
+  {
+    return threadCount;
+  }
+
+  /**
+   * Specifies the number of threads that should be used to decode and
+   * format the entries during the export. A value less than or equal to
+   * zero lets the backend choose.
+   *
+   * @param  threadCount  The number of threads that should be used to
+   *                      decode and format the entries.
+   */
+  public void setThreadCount(int threadCount)
+  {
+    this.threadCount = threadCount;
+  }
+
   /**
    * Retrieves the set of base DNs that specify the set of entries to
    * exclude from the export.  The list that is returned may be
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -555,6 +556,40 @@ public interface Operation extends Runnable
    */
   long getProcessingNanoTime();
 
+  /**
+   * Enters the provided processing phase, if the etime breakdown is enabled. The time elapsed since the previous
+   * phase change is accounted to the phase in progress, if any. The phase in progress must be restored with
+   * {@link #exitPhase(OperationPhase)} once the provided phase is over, typically in a {@code finally} block.
+   * <p>
+   * Phases are tracked without synchronization and are therefore only meaningful for operations processed by a
+   * single thread at a time.
+   *
+   * @param phase
+   *          the phase entered
+   * @return the phase in progress before entering the provided one, or {@code null} if there is none or the etime
+   *         breakdown is disabled
+   */
+  OperationPhase enterPhase(OperationPhase phase);
+
+  /**
+   * Exits the phase in progress and restores the one returned by the matching call to
+   * {@link #enterPhase(OperationPhase)}.
+   *
+   * @param previousPhase
+   *          the phase in progress before entering the phase being exited, may be {@code null}
+   */
+  void exitPhase(OperationPhase previousPhase);
+
+  /**
+   * Retrieves the length of time in nanoseconds that the server spent in the provided phase while processing this
+   * operation.
+   *
+   * @param phase
+   *          the phase
+   * @return the length of time in nanoseconds spent in the provided phase, or -1 if the etime breakdown is disabled
+   */
+  long getPhaseNanoTime(OperationPhase phase);
+
   /**
    * Indicates that processing on this operation has completed
    * successfully and that the client should perform any associated
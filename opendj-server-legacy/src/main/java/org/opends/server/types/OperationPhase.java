@@ -0,0 +1,64 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.types;
+
+/**
+ * The phases of the processing of an operation whose elapsed time is tracked when the etime breakdown is enabled.
+ * <p>
+ * Phases are exclusive: when a phase is entered while another one is in progress, the time spent in the new phase
+ * is not accounted to the enclosing one. For example the time spent decoding entries during a search is accounted
+ * to {@link #ENTRY_DECODING} and not to {@link #BACKEND}.
+ *
+ * @see Operation#enterPhase(OperationPhase)
+ */
+public enum OperationPhase
+{
+  /** Waiting in the work queue for a worker thread. */
+  WORK_QUEUE("queue"),
+  /** Waiting for the entry locks. */
+  LOCK("lock"),
+  /** Evaluating access control. */
+  ACCESS_CONTROL("aci"),
+  /** Reading or writing the backend, excluding entry decoding. */
+  BACKEND("backend"),
+  /** Decoding entries read from the backend. */
+  ENTRY_DECODING("decode"),
+  /** Writing search result entries and references to the client. */
+  RESPONSE_WRITE("write");
+
+  private final String name;
+
+  private OperationPhase(String name)
+  {
+    this.name = name;
+  }
+
+  /**
+   * Returns the short name of this phase, as used in the access log and the metrics.
+   *
+   * @return the short name of this phase
+   */
+  public String getName()
+  {
+    return name;
+  }
+
+  @Override
+  public String toString()
+  {
+    return name;
+  }
+}
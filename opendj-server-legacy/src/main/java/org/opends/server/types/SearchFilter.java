@@ -14,6 +14,7 @@
  * Copyright 2006-2009 Sun Microsystems, Inc.
  * Portions Copyright 2014-2016 ForgeRock AS.
  * Portions Copyright 2013-2014 Manuel Gaupp
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -89,6 +90,8 @@ public final class SearchFilter
 
   /** The matching rule ID for this search filter. */
   private final String matchingRuleID;
+  /** The compiled form of this filter, lazily built on its first evaluation. */
+  private volatile SearchFilterMatcher matcher;
 
   private SearchFilter(FilterType filterType,
                       Collection<SearchFilter> filterComponents,
@@ -2049,6 +2052,19 @@ public final class SearchFilter
 
 
 
+  /**
+   * Retrieves the attribute description for this filter.
+   *
+   * @return  The attribute description for this filter, or
+   *          <CODE>null</CODE> if there is none.
+   */
+  AttributeDescription getAttributeDescription()
+  {
+    return attributeDescription;
+  }
+
+
+
   /**
    * Retrieves the assertion value for this filter.
    *
@@ -2140,7 +2156,10 @@ public final class SearchFilter
   public boolean matchesEntry(Entry entry)
          throws DirectoryException
   {
-    ConditionResult result = matchesEntryInternal(this, entry, 0);
+    final SearchFilterMatcher compiledMatcher = getMatcher();
+    ConditionResult result = compiledMatcher != null
+        ? compiledMatcher.matches(entry)
+        : matchesEntryInternal(this, entry, 0);
     switch (result)
     {
       case TRUE:
@@ -2156,6 +2175,33 @@ public final class SearchFilter
 
 
 
+  /**
+   * Returns the compiled form of this filter, compiling it on first use.
+   *
+   * @return  The compiled form of this filter, or <CODE>null</CODE>
+   *          if this filter must be interpreted, either because it is
+   *          invalid or because tracing is enabled.
+   */
+  private SearchFilterMatcher getMatcher()
+  {
+    if (logger.isTraceEnabled())
+    {
+      // Only the interpreted evaluation traces the result of each component
+      return null;
+    }
+
+    final Schema schema = getSchema();
+    SearchFilterMatcher compiledMatcher = matcher;
+    if (compiledMatcher == null || !compiledMatcher.isCompiledWith(schema))
+    {
+      compiledMatcher = SearchFilterMatcher.getMatcher(this, schema);
+      matcher = compiledMatcher;
+    }
+    return compiledMatcher;
+  }
+
+
+
   /**
    * Indicates whether the this filter matches the provided entry.
    *
@@ -2280,6 +2326,9 @@ public final class SearchFilter
         throw new DirectoryException(DirectoryServer.getCoreConfigManager().getServerErrorResultCode(), message);
       }
 
+      // A FALSE component makes the whole filter FALSE, even after an
+      // UNDEFINED one, as in the compiled form of the filter.
+      ConditionResult andResult = ConditionResult.TRUE;
       for (SearchFilter f : filterComponents)
       {
         ConditionResult result =
@@ -2304,7 +2353,8 @@ public final class SearchFilter
              "Undefined result for AND component %s in filter " +
              "%s for entry %s", f, completeFilter, entry.getName());
             }
-            return result;
+            andResult = ConditionResult.UNDEFINED;
+            break;
           default:
             LocalizableMessage message =
                 ERR_SEARCH_FILTER_INVALID_RESULT_TYPE.
@@ -2313,15 +2363,15 @@ public final class SearchFilter
         }
       }
 
-      // If we have gotten here, then all the components must have
-      // matched.
+      // If we have gotten here, then none of the components was
+      // FALSE.
       if (logger.isTraceEnabled())
       {
         logger.trace(
-            "Returning TRUE for AND component %s in filter %s " +
-            "for entry %s", this, completeFilter, entry.getName());
+            "Returning %s for AND component %s in filter %s " +
+            "for entry %s", andResult, this, completeFilter, entry.getName());
       }
-      return ConditionResult.TRUE;
+      return andResult;
     }
   }
 
@@ -0,0 +1,616 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.types;
+
+import static org.opends.server.util.ServerConstants.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.opendj.ldap.AVA;
+import org.forgerock.opendj.ldap.Assertion;
+import org.forgerock.opendj.ldap.AttributeDescription;
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ConditionResult;
+import org.forgerock.opendj.ldap.RDN;
+import org.forgerock.opendj.ldap.schema.AttributeType;
+import org.forgerock.opendj.ldap.schema.MatchingRule;
+import org.forgerock.opendj.ldap.schema.MatchingRuleUse;
+import org.forgerock.opendj.ldap.schema.Schema;
+import org.forgerock.opendj.ldap.schema.UnknownSchemaElementException;
+
+/**
+ * An immutable tree of matchers compiled from a {@link SearchFilter}.
+ * <p>
+ * Compiling a filter resolves its matching rules and builds its assertions once, instead of once per evaluated
+ * attribute of every candidate entry. The components of AND and OR filters are reordered so that the cheapest and
+ * most discriminating ones are evaluated first. Since AND and OR filters are evaluated according to the three-valued
+ * logic of RFC 4511, this reordering never changes the result of the evaluation.
+ * <p>
+ * Compiled matchers of the most recently evaluated filters are cached, so that filters sent again and again by
+ * applications, or evaluated by access control and groups, are only compiled once.
+ */
+abstract class SearchFilterMatcher
+{
+  private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+  /** The maximum number of cached matchers, after which the cache is cleared. */
+  private static final int MAX_CACHED_MATCHERS = 1024;
+  /** The matchers of the most recently compiled filters. */
+  private static final ConcurrentHashMap<SearchFilter, SearchFilterMatcher> CACHE = new ConcurrentHashMap<>();
+
+  /** Evaluation costs of the filter components, used to order the components of AND and OR filters. */
+  private static final int COST_PRESENT = 1;
+  private static final int COST_EQUALITY = 2;
+  private static final int COST_ORDERING = 4;
+  private static final int COST_SUBSTRING = 6;
+  private static final int COST_EXTENSIBLE = 8;
+  /** Added to the cost of filters on the object class, which rarely discriminate between candidate entries. */
+  private static final int COST_OBJECT_CLASS = 4;
+
+  private static final Comparator<SearchFilterMatcher> BY_COST = new Comparator<SearchFilterMatcher>()
+  {
+    @Override
+    public int compare(SearchFilterMatcher m1, SearchFilterMatcher m2)
+    {
+      return Integer.compare(m1.cost, m2.cost);
+    }
+  };
+
+  /** The estimated cost of evaluating this matcher. */
+  private final int cost;
+  /** The schema this matcher was compiled with, only set on the root matcher. */
+  private Schema schema;
+
+  private SearchFilterMatcher(int cost)
+  {
+    this.cost = cost;
+  }
+
+  /**
+   * Returns the compiled matcher for the provided filter, compiling it if it is not cached yet.
+   *
+   * @param filter
+   *          the filter to compile
+   * @param schema
+   *          the schema used to resolve the matching rules
+   * @return the compiled matcher, or {@code null} if the filter is invalid and cannot be compiled
+   */
+  static SearchFilterMatcher getMatcher(SearchFilter filter, Schema schema)
+  {
+    SearchFilterMatcher matcher = CACHE.get(filter);
+    if (matcher != null && matcher.isCompiledWith(schema))
+    {
+      return matcher;
+    }
+
+    matcher = compile(filter, schema, 0);
+    if (matcher != null)
+    {
+      matcher.schema = schema;
+      if (CACHE.size() >= MAX_CACHED_MATCHERS)
+      {
+        CACHE.clear();
+      }
+      CACHE.put(filter, matcher);
+    }
+    return matcher;
+  }
+
+  /**
+   * Indicates whether this matcher was compiled with the provided schema.
+   *
+   * @param schema
+   *          the current schema
+   * @return {@code true} if this matcher was compiled with the provided schema
+   */
+  boolean isCompiledWith(Schema schema)
+  {
+    return this.schema == schema;
+  }
+
+  /**
+   * Indicates whether the provided entry matches the compiled filter.
+   *
+   * @param entry
+   *          the entry to evaluate
+   * @return {@code TRUE} if the entry matches, {@code FALSE} if it does not, or {@code UNDEFINED} if the result is
+   *         undefined
+   */
+  abstract ConditionResult matches(Entry entry);
+
+  private static SearchFilterMatcher compile(SearchFilter filter, Schema schema, int depth)
+  {
+    switch (filter.getFilterType())
+    {
+    case AND:
+    case OR:
+      if (filter.getFilterComponents() == null || depth >= MAX_NESTED_FILTER_DEPTH)
+      {
+        return null;
+      }
+      final List<SearchFilterMatcher> components = new ArrayList<>(filter.getFilterComponents().size());
+      int cost = 0;
+      for (SearchFilter component : filter.getFilterComponents())
+      {
+        final SearchFilterMatcher matcher = compile(component, schema, depth + 1);
+        if (matcher == null)
+        {
+          return null;
+        }
+        components.add(matcher);
+        cost += matcher.cost;
+      }
+      Collections.sort(components, BY_COST);
+      final SearchFilterMatcher[] array = components.toArray(new SearchFilterMatcher[components.size()]);
+      return filter.getFilterType() == FilterType.AND ? new AndMatcher(array, cost) : new OrMatcher(array, cost);
+
+    case NOT:
+      if (filter.getNotComponent() == null || depth >= MAX_NESTED_FILTER_DEPTH)
+      {
+        return null;
+      }
+      final SearchFilterMatcher notMatcher = compile(filter.getNotComponent(), schema, depth + 1);
+      return notMatcher != null ? new NotMatcher(notMatcher) : null;
+
+    case PRESENT:
+      return filter.getAttributeType() != null
+          ? new PresenceMatcher(filter.getAttributeDescription(), getCost(filter, COST_PRESENT))
+          : null;
+
+    case EQUALITY:
+    case GREATER_OR_EQUAL:
+    case LESS_OR_EQUAL:
+    case APPROXIMATE_MATCH:
+      if (filter.getAttributeType() == null || filter.getAssertionValue() == null)
+      {
+        return null;
+      }
+      return new AssertionMatcher(filter, getMatchingRule(filter), getCost(filter,
+          filter.getFilterType() == FilterType.EQUALITY ? COST_EQUALITY : COST_ORDERING));
+
+    case SUBSTRING:
+      if (filter.getAttributeType() == null
+          || (filter.getSubInitialElement() == null
+              && filter.getSubFinalElement() == null
+              && (filter.getSubAnyElements() == null || filter.getSubAnyElements().isEmpty())))
+      {
+        return null;
+      }
+      return new AssertionMatcher(filter, getMatchingRule(filter), getCost(filter, COST_SUBSTRING));
+
+    case EXTENSIBLE_MATCH:
+      return compileExtensibleMatch(filter, schema);
+
+    default:
+      return null;
+    }
+  }
+
+  private static int getCost(SearchFilter filter, int cost)
+  {
+    return filter.getAttributeType().isObjectClass() ? cost + COST_OBJECT_CLASS : cost;
+  }
+
+  private static MatchingRule getMatchingRule(SearchFilter filter)
+  {
+    final AttributeType attributeType = filter.getAttributeType();
+    switch (filter.getFilterType())
+    {
+    case EQUALITY:
+      return attributeType.getEqualityMatchingRule();
+    case GREATER_OR_EQUAL:
+    case LESS_OR_EQUAL:
+      return attributeType.getOrderingMatchingRule();
+    case APPROXIMATE_MATCH:
+      return attributeType.getApproximateMatchingRule();
+    case SUBSTRING:
+      return attributeType.getSubstringMatchingRule();
+    default:
+      return null;
+    }
+  }
+
+  private static Assertion getAssertion(SearchFilter filter, MatchingRule matchingRule)
+  {
+    try
+    {
+      switch (filter.getFilterType())
+      {
+      case GREATER_OR_EQUAL:
+        return matchingRule.getGreaterOrEqualAssertion(filter.getAssertionValue());
+      case LESS_OR_EQUAL:
+        return matchingRule.getLessOrEqualAssertion(filter.getAssertionValue());
+      case SUBSTRING:
+        return matchingRule.getSubstringAssertion(
+            filter.getSubInitialElement(), filter.getSubAnyElements(), filter.getSubFinalElement());
+      default:
+        return matchingRule.getAssertion(filter.getAssertionValue());
+      }
+    }
+    catch (Exception e)
+    {
+      logger.traceException(e);
+      // The assertion value cannot be normalized, so the result will be undefined
+      return null;
+    }
+  }
+
+  private static SearchFilterMatcher compileExtensibleMatch(SearchFilter filter, Schema schema)
+  {
+    if (filter.getAssertionValue() == null)
+    {
+      return null;
+    }
+
+    final AttributeType attributeType = filter.getAttributeType();
+    final MatchingRule matchingRule;
+    if (filter.getMatchingRuleID() != null)
+    {
+      try
+      {
+        matchingRule = schema.getMatchingRule(filter.getMatchingRuleID());
+      }
+      catch (UnknownSchemaElementException e)
+      {
+        return new ConstantMatcher(ConditionResult.UNDEFINED);
+      }
+    }
+    else if (attributeType == null)
+    {
+      return null;
+    }
+    else
+    {
+      matchingRule = attributeType.getEqualityMatchingRule();
+      if (matchingRule == null)
+      {
+        return new ConstantMatcher(ConditionResult.UNDEFINED);
+      }
+    }
+
+    // Check that the matching rule use of the matching rule, if any, allows the attribute type
+    if (attributeType != null)
+    {
+      try
+      {
+        final MatchingRuleUse mru = schema.getMatchingRuleUse(matchingRule);
+        if (!mru.hasAttribute(attributeType))
+        {
+          return new ConstantMatcher(ConditionResult.UNDEFINED);
+        }
+      }
+      catch (UnknownSchemaElementException ignored)
+      {
+        // No matching rule use, every attribute type is allowed
+      }
+    }
+
+    try
+    {
+      final Assertion assertion = matchingRule.getAssertion(filter.getAssertionValue());
+      final int cost = attributeType != null ? COST_EXTENSIBLE : 2 * COST_EXTENSIBLE;
+      return new ExtensibleMatcher(filter, matchingRule, assertion, cost);
+    }
+    catch (Exception e)
+    {
+      // We can't normalize the assertion value, so the result must be undefined.
+      return new ConstantMatcher(ConditionResult.UNDEFINED);
+    }
+  }
+
+  /** Matcher of AND filters. */
+  private static final class AndMatcher extends SearchFilterMatcher
+  {
+    private final SearchFilterMatcher[] components;
+
+    private AndMatcher(SearchFilterMatcher[] components, int cost)
+    {
+      super(cost + 1);
+      this.components = components;
+    }
+
+    @Override
+    ConditionResult matches(Entry entry)
+    {
+      // An AND filter with no elements like "(&)" is always true as per RFC 4526
+      ConditionResult result = ConditionResult.TRUE;
+      for (SearchFilterMatcher component : components)
+      {
+        switch (component.matches(entry))
+        {
+        case FALSE:
+          return ConditionResult.FALSE;
+        case UNDEFINED:
+          result = ConditionResult.UNDEFINED;
+          break;
+        default:
+          break;
+        }
+      }
+      return result;
+    }
+  }
+
+  /** Matcher of OR filters. */
+  private static final class OrMatcher extends SearchFilterMatcher
+  {
+    private final SearchFilterMatcher[] components;
+
+    private OrMatcher(SearchFilterMatcher[] components, int cost)
+    {
+      super(cost + 1);
+      this.components = components;
+    }
+
+    @Override
+    ConditionResult matches(Entry entry)
+    {
+      // An OR filter with no elements like "(|)" is always false as per RFC 4526
+      ConditionResult result = ConditionResult.FALSE;
+      for (SearchFilterMatcher component : components)
+      {
+        switch (component.matches(entry))
+        {
+        case TRUE:
+          return ConditionResult.TRUE;
+        case UNDEFINED:
+          result = ConditionResult.UNDEFINED;
+          break;
+        default:
+          break;
+        }
+      }
+      return result;
+    }
+  }
+
+  /** Matcher of NOT filters. */
+  private static final class NotMatcher extends SearchFilterMatcher
+  {
+    private final SearchFilterMatcher component;
+
+    private NotMatcher(SearchFilterMatcher component)
+    {
+      super(component.cost + 1);
+      this.component = component;
+    }
+
+    @Override
+    ConditionResult matches(Entry entry)
+    {
+      return ConditionResult.not(component.matches(entry));
+    }
+  }
+
+  /** Matcher of presence filters. */
+  private static final class PresenceMatcher extends SearchFilterMatcher
+  {
+    private final AttributeDescription attributeDescription;
+
+    private PresenceMatcher(AttributeDescription attributeDescription, int cost)
+    {
+      super(cost);
+      this.attributeDescription = attributeDescription;
+    }
+
+    @Override
+    ConditionResult matches(Entry entry)
+    {
+      return ConditionResult.valueOf(entry.hasAttribute(attributeDescription));
+    }
+  }
+
+  /** Matcher of filters with a constant result. */
+  private static final class ConstantMatcher extends SearchFilterMatcher
+  {
+    private final ConditionResult result;
+
+    private ConstantMatcher(ConditionResult result)
+    {
+      super(0);
+      this.result = result;
+    }
+
+    @Override
+    ConditionResult matches(Entry entry)
+    {
+      return result;
+    }
+  }
+
+  /** Matcher of equality, ordering, approximate and substring filters. */
+  private static final class AssertionMatcher extends SearchFilterMatcher
+  {
+    private final SearchFilter filter;
+    private final AttributeDescription attributeDescription;
+    /** The matching rule of the filter, {@code null} if the attribute type does not define one. */
+    private final MatchingRule matchingRule;
+    /** The assertion of the filter, {@code null} if the assertion value cannot be normalized. */
+    private final Assertion assertion;
+
+    private AssertionMatcher(SearchFilter filter, MatchingRule matchingRule, int cost)
+    {
+      super(cost);
+      this.filter = filter;
+      this.attributeDescription = filter.getAttributeDescription();
+      this.matchingRule = matchingRule;
+      this.assertion = matchingRule != null ? getAssertion(filter, matchingRule) : null;
+    }
+
+    @Override
+    ConditionResult matches(Entry entry)
+    {
+      ConditionResult result = ConditionResult.FALSE;
+      for (Attribute a : entry.getAllAttributes(attributeDescription))
+      {
+        switch (matches(a))
+        {
+        case TRUE:
+          return ConditionResult.TRUE;
+        case UNDEFINED:
+          result = ConditionResult.UNDEFINED;
+          break;
+        default:
+          break;
+        }
+      }
+      return result;
+    }
+
+    private ConditionResult matches(Attribute a)
+    {
+      if (assertion != null)
+      {
+        final ConditionResult result = AttributeBuilder.matchesAssertion(a, matchingRule, assertion);
+        if (result != null)
+        {
+          return result;
+        }
+      }
+      else if (!a.isVirtual() || (matchingRule == null && filter.getFilterType() == FilterType.EQUALITY))
+      {
+        // No matching rule or invalid assertion value
+        return ConditionResult.UNDEFINED;
+      }
+
+      // Virtual attributes may compute the result without generating their values
+      switch (filter.getFilterType())
+      {
+      case EQUALITY:
+        return a.matchesEqualityAssertion(filter.getAssertionValue());
+      case GREATER_OR_EQUAL:
+        return a.greaterThanOrEqualTo(filter.getAssertionValue());
+      case LESS_OR_EQUAL:
+        return a.lessThanOrEqualTo(filter.getAssertionValue());
+      case APPROXIMATE_MATCH:
+        return a.approximatelyEqualTo(filter.getAssertionValue());
+      default:
+        return a.matchesSubstring(
+            filter.getSubInitialElement(), filter.getSubAnyElements(), filter.getSubFinalElement());
+      }
+    }
+  }
+
+  /** Matcher of extensible match filters. */
+  private static final class ExtensibleMatcher extends SearchFilterMatcher
+  {
+    /** The attribute description of the filter, {@code null} to match all the attributes of the entries. */
+    private final AttributeDescription attributeDescription;
+    private final boolean dnAttributes;
+    private final MatchingRule matchingRule;
+    private final Assertion assertion;
+
+    private ExtensibleMatcher(SearchFilter filter, MatchingRule matchingRule, Assertion assertion, int cost)
+    {
+      super(cost);
+      this.attributeDescription = filter.getAttributeDescription();
+      this.dnAttributes = filter.getDNAttributes();
+      this.matchingRule = matchingRule;
+      this.assertion = assertion;
+    }
+
+    @Override
+    ConditionResult matches(Entry entry)
+    {
+      ConditionResult result = ConditionResult.FALSE;
+      if (attributeDescription == null)
+      {
+        for (Attribute a : entry.getAllAttributes())
+        {
+          result = matches(a, result);
+          if (result == ConditionResult.TRUE)
+          {
+            return result;
+          }
+        }
+        result = matches(entry.getObjectClassAttribute(), result);
+      }
+      else
+      {
+        for (Attribute a : entry.getAllAttributes(attributeDescription))
+        {
+          result = matches(a, result);
+          if (result == ConditionResult.TRUE)
+          {
+            return result;
+          }
+        }
+      }
+      if (result == ConditionResult.TRUE || !dnAttributes)
+      {
+        return result;
+      }
+
+      final AttributeType attributeType = attributeDescription != null ? attributeDescription.getAttributeType() : null;
+      for (RDN rdn : entry.getName())
+      {
+        for (AVA ava : rdn)
+        {
+          if (attributeType == null || attributeType.equals(ava.getAttributeType()))
+          {
+            result = matches(ava.getAttributeValue(), result);
+            if (result == ConditionResult.TRUE)
+            {
+              return result;
+            }
+          }
+        }
+      }
+      return result;
+    }
+
+    private ConditionResult matches(Iterable<ByteString> values, ConditionResult result)
+    {
+      for (ByteString value : values)
+      {
+        result = matches(value, result);
+        if (result == ConditionResult.TRUE)
+        {
+          return result;
+        }
+      }
+      return result;
+    }
+
+    private ConditionResult matches(ByteString value, ConditionResult result)
+    {
+      try
+      {
+        switch (assertion.matches(matchingRule.normalizeAttributeValue(value)))
+        {
+        case TRUE:
+          return ConditionResult.TRUE;
+        case UNDEFINED:
+          return ConditionResult.UNDEFINED;
+        default:
+          return result;
+        }
+      }
+      catch (Exception e)
+      {
+        logger.traceException(e);
+        // We couldn't normalize one of the values.
+        // If we don't find a definite match, then we should return undefined.
+        return ConditionResult.UNDEFINED;
+      }
+    }
+  }
+}
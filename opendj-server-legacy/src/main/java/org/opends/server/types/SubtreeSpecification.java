@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -1322,6 +1323,81 @@ public final class SubtreeSpecification
     return true;
   }
 
+  /**
+   * Determine which children of the specified entry are within the
+   * scope of the subtree specification, ignoring any specification
+   * filter refinements. Since the depth and exclusion constraints of
+   * a child only depend on its parent, this allows the scope of the
+   * subtree specification to be evaluated once for all the children
+   * of an entry.
+   *
+   * @param parentDN
+   *          The distinguished name of the parent entry.
+   * @return Returns <code>null</code> if none of the children of the
+   *         parent entry are within the scope of the subtree
+   *         specification, or otherwise the (possibly empty) set of
+   *         the distinguished names of the children which are
+   *         excluded from its scope.
+   */
+  public Set<DN> getChildrenExcludedFromScope(final DN parentDN)
+  {
+    if (!parentDN.isSubordinateOrEqualTo(baseDN))
+    {
+      return null;
+    }
+
+    // Check minimum and maximum depths.
+    final int childDepth = parentDN.size() + 1 - baseDN.size();
+    if ((minimumDepth > 0 && childDepth < minimumDepth)
+        || (maximumDepth >= 0 && childDepth > maximumDepth))
+    {
+      return null;
+    }
+
+    // Check exclusions.
+    Set<DN> excludedChildren = Collections.emptySet();
+    for (final DN chopBeforeDN : chopBefore.keySet())
+    {
+      if (parentDN.isSubordinateOrEqualTo(chopBeforeDN))
+      {
+        return null;
+      }
+      else if (parentDN.equals(chopBeforeDN.parent()))
+      {
+        if (excludedChildren.isEmpty())
+        {
+          excludedChildren = new HashSet<>();
+        }
+        excludedChildren.add(chopBeforeDN);
+      }
+    }
+
+    for (final DN chopAfterDN : chopAfter.keySet())
+    {
+      if (parentDN.isSubordinateOrEqualTo(chopAfterDN))
+      {
+        return null;
+      }
+    }
+    return excludedChildren;
+  }
+
+  /**
+   * Determine if an entry matches the specification filter
+   * refinements of the subtree specification, regardless of whether
+   * its DN is within its scope.
+   *
+   * @param entry
+   *          The entry.
+   * @return {@code true} if the subtree specification has no
+   *         refinements or if the entry matches them, or
+   *         {@code false} if not.
+   */
+  public boolean isWithinRefinements(final Entry entry)
+  {
+    return refinements == null || refinements.matches(entry);
+  }
+
   /**
    * Determine if an entry is within the scope of the subtree
    * specification.
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2010 Sun Microsystems, Inc.
  * Portions Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.util;
 
@@ -520,6 +521,29 @@ public class LDIFReader implements Closeable
    *                         occurs while trying to parse it.
    */
   protected DN readDN(LinkedList<StringBuilder> lines) throws LDIFException
+  {
+    return readDN(lines, lastEntryHeaderLines, lastEntryLineNumber);
+  }
+
+  /**
+   * Reads the DN of the entry from the provided list of lines, moving the
+   * header lines that have been consumed to the provided list rather than to
+   * the list of header lines of the last entry read. This allows subclasses to
+   * decode the DN of several entries concurrently.
+   *
+   * @param  lines        The set of lines from which the DN should be read.
+   * @param  headerLines  The list to which the header lines are moved.
+   * @param  lineNumber   The starting line number of the entry, reported in
+   *                      error messages.
+   *
+   * @return  The decoded entry DN.
+   *
+   * @throws  LDIFException  If DN is not the first element in the list (or the
+   *                         second after the LDIF version), or if a problem
+   *                         occurs while trying to parse it.
+   */
+  protected DN readDN(LinkedList<StringBuilder> lines, List<StringBuilder> headerLines, long lineNumber)
+      throws LDIFException
   {
     if (lines.isEmpty())
     {
@@ -530,26 +554,26 @@ public class LDIFReader implements Closeable
     }
 
     StringBuilder line = lines.remove();
-    lastEntryHeaderLines.add(line);
+    headerLines.add(line);
     int colonPos = line.indexOf(":");
     if (colonPos <= 0)
     {
-      LocalizableMessage message = ERR_LDIF_NO_ATTR_NAME.get(lastEntryLineNumber, line);
+      LocalizableMessage message = ERR_LDIF_NO_ATTR_NAME.get(lineNumber, line);
       logToRejectWriter(lines, message);
-      throw new LDIFException(message, lastEntryLineNumber, true);
+      throw new LDIFException(message, lineNumber, true);
     }
 
     String attrName = toLowerCase(line.substring(0, colonPos));
     if (attrName.equals("version"))
     {
       // This is the version line, and we can skip it.
-      return readDN(lines);
+      return readDN(lines, headerLines, lineNumber);
     }
     else if (! attrName.equals("dn"))
     {
-      LocalizableMessage message = ERR_LDIF_NO_DN.get(lastEntryLineNumber, line);
+      LocalizableMessage message = ERR_LDIF_NO_DN.get(lineNumber, line);
       logToRejectWriter(lines, message);
-      throw new LDIFException(message, lastEntryLineNumber, true);
+      throw new LDIFException(message, lineNumber, true);
     }
 
 
@@ -561,18 +585,19 @@ public class LDIFReader implements Closeable
       return DN.rootDN();
     }
 
-    String dn = readValue(line, colonPos, lines);
-    return decodeDN(dn, lines, line);
+    String dn = readValue(line, colonPos, lines, lineNumber);
+    return decodeDN(dn, lines, line, lineNumber);
   }
 
-  private String readValue(StringBuilder line, int colonPos, List<StringBuilder> lines) throws LDIFException
+  private String readValue(StringBuilder line, int colonPos, List<StringBuilder> lines, long lineNumber)
+      throws LDIFException
   {
     if (line.charAt(colonPos + 1) == ':')
     {
       // The value is base64-encoded. Find the first non-blank character
       // and take the rest of the line, and base64-decode it.
       int pos = findFirstNonSpaceCharPosition(line, colonPos + 2);
-      return base64Decode(line.substring(pos), lines, line);
+      return base64Decode(line.substring(pos), lines, line, lineNumber);
     }
     else
     {
@@ -595,7 +620,7 @@ public class LDIFReader implements Closeable
   }
 
   private String base64Decode(String encodedStr, List<StringBuilder> lines,
-      StringBuilder line) throws LDIFException
+      StringBuilder line, long lineNumber) throws LDIFException
   {
     try
     {
@@ -613,14 +638,14 @@ public class LDIFReader implements Closeable
       }
 
       LocalizableMessage message = ERR_LDIF_COULD_NOT_BASE64_DECODE_DN.get(
-          lastEntryLineNumber, line, stackTrace);
+          lineNumber, line, stackTrace);
       logToRejectWriter(lines, message);
-      throw new LDIFException(message, lastEntryLineNumber, true, e);
+      throw new LDIFException(message, lineNumber, true, e);
     }
   }
 
   private DN decodeDN(String dnString, List<StringBuilder> lines,
-      StringBuilder line) throws LDIFException
+      StringBuilder line, long lineNumber) throws LDIFException
   {
     try
     {
@@ -629,9 +654,9 @@ public class LDIFReader implements Closeable
     catch (Exception e)
     {
       logger.trace("DN decode failed for: ", dnString, e);
-      LocalizableMessage message = ERR_LDIF_INVALID_DN.get(lastEntryLineNumber, line, getExceptionMessage(e));
+      LocalizableMessage message = ERR_LDIF_INVALID_DN.get(lineNumber, line, getExceptionMessage(e));
       logToRejectWriter(lines, message);
-      throw new LDIFException(message, lastEntryLineNumber, true, e);
+      throw new LDIFException(message, lineNumber, true, e);
     }
   }
 
@@ -686,7 +711,7 @@ public class LDIFReader implements Closeable
       throw new LDIFException(message, lastEntryLineNumber, false );
     }
 
-    return readValue(line, colonPos, lines);
+    return readValue(line, colonPos, lines, lastEntryLineNumber);
   }
 
   /**
@@ -716,15 +741,51 @@ public class LDIFReader implements Closeable
        Map<AttributeType,List<AttributeBuilder>> operationalAttrBuilders,
        boolean checkSchema)
           throws LDIFException
+  {
+    readAttribute(lines, line, entryDN, objectClasses, userAttrBuilders, operationalAttrBuilders, checkSchema,
+        lastEntryLineNumber);
+  }
+
+  /**
+   * Decodes the provided line as an LDIF attribute and adds it to the
+   * appropriate hash, reporting the provided line number in error messages.
+   * This allows subclasses to decode the attributes of several entries
+   * concurrently.
+   *
+   * @param  lines                  The full set of lines that comprise the
+   *                                entry (used for writing reject information).
+   * @param  line                   The line to decode.
+   * @param  entryDN                The DN of the entry being decoded.
+   * @param  objectClasses          The set of objectclasses decoded so far for
+   *                                the current entry.
+   * @param userAttrBuilders        The map of user attribute builders decoded
+   *                                so far for the current entry.
+   * @param  operationalAttrBuilders  The map of operational attribute builders
+   *                                  decoded so far for the current entry.
+   * @param  checkSchema            Indicates whether to perform schema
+   *                                validation for the attribute.
+   * @param  lineNumber             The starting line number of the entry,
+   *                                reported in error messages.
+   *
+   * @throws  LDIFException  If a problem occurs while trying to decode the
+   *                         attribute contained in the provided entry.
+   */
+  protected void readAttribute(List<StringBuilder> lines,
+       StringBuilder line, DN entryDN,
+       Map<ObjectClass,String> objectClasses,
+       Map<AttributeType,List<AttributeBuilder>> userAttrBuilders,
+       Map<AttributeType,List<AttributeBuilder>> operationalAttrBuilders,
+       boolean checkSchema, long lineNumber)
+          throws LDIFException
   {
     // Parse the attribute type description.
-    int colonPos = parseColonPosition(lines, line);
+    int colonPos = parseColonPosition(lines, line, lineNumber);
     String attrDescStr = line.substring(0, colonPos);
     final AttributeDescription attrDesc = parseAttrDescription(attrDescStr);
     final AttributeType attrType = attrDesc.getAttributeType();
 
     // Now parse the attribute value.
-    ByteString value = parseSingleValue(lines, line, entryDN, colonPos, attrDescStr);
+    ByteString value = parseSingleValue(lines, line, entryDN, colonPos, attrDescStr, lineNumber);
 
     // See if this is an objectclass or an attribute.  Then get the
     // corresponding definition and add the value to the appropriate hash.
@@ -740,7 +801,7 @@ public class LDIFReader implements Closeable
       ObjectClass objectClass = DirectoryServer.getInstance().getServerContext().getSchema().getObjectClass(ocName);
       if (objectClasses.containsKey(objectClass))
       {
-        logger.warn(WARN_LDIF_DUPLICATE_OBJECTCLASS, entryDN, lastEntryLineNumber, ocName);
+        logger.warn(WARN_LDIF_DUPLICATE_OBJECTCLASS, entryDN, lineNumber, ocName);
       }
       else
       {
@@ -760,9 +821,9 @@ public class LDIFReader implements Closeable
           && !attrType.getSyntax().isBEREncodingRequired()
           && attrDesc.hasOption("binary"))
       {
-        LocalizableMessage message = ERR_LDIF_INVALID_ATTR_OPTION.get(entryDN, lastEntryLineNumber, attrDescStr);
+        LocalizableMessage message = ERR_LDIF_INVALID_ATTR_OPTION.get(entryDN, lineNumber, attrDescStr);
         logToRejectWriter(lines, message);
-        throw new LDIFException(message, lastEntryLineNumber,true);
+        throw new LDIFException(message, lineNumber,true);
       }
       if (checkSchema &&
           DirectoryServer.getCoreConfigManager().getSyntaxEnforcementPolicy() != AcceptRejectWarn.ACCEPT)
@@ -771,7 +832,7 @@ public class LDIFReader implements Closeable
         if (! attrType.getSyntax().valueIsAcceptable(value, invalidReason))
         {
           LocalizableMessage message = WARN_LDIF_VALUE_VIOLATES_SYNTAX.get(
-              entryDN, lastEntryLineNumber, value, attrDescStr, invalidReason);
+              entryDN, lineNumber, value, attrDescStr, invalidReason);
           if (DirectoryServer.getCoreConfigManager().getSyntaxEnforcementPolicy() == AcceptRejectWarn.WARN)
           {
             logger.error(message);
@@ -779,7 +840,7 @@ public class LDIFReader implements Closeable
           else
           {
             logToRejectWriter(lines, message);
-            throw new LDIFException(message, lastEntryLineNumber, true);
+            throw new LDIFException(message, lineNumber, true);
           }
         }
       }
@@ -813,16 +874,16 @@ public class LDIFReader implements Closeable
           if (!a.add(attributeValue) && checkSchema)
           {
             LocalizableMessage message = WARN_LDIF_DUPLICATE_ATTR.get(
-                entryDN, lastEntryLineNumber, attrDescStr, value);
+                entryDN, lineNumber, attrDescStr, value);
             logToRejectWriter(lines, message);
-            throw new LDIFException(message, lastEntryLineNumber, true);
+            throw new LDIFException(message, lineNumber, true);
           }
           if (attrType.isSingleValue() && a.size() > 1 && checkSchema)
           {
             LocalizableMessage message = ERR_LDIF_MULTIPLE_VALUES_FOR_SINGLE_VALUED_ATTR
-                    .get(entryDN, lastEntryLineNumber, attrDescStr);
+                    .get(entryDN, lineNumber, attrDescStr);
             logToRejectWriter(lines, message);
-            throw new LDIFException(message, lastEntryLineNumber, true);
+            throw new LDIFException(message, lineNumber, true);
           }
 
           return;
@@ -861,7 +922,7 @@ public class LDIFReader implements Closeable
        String attributeName) throws LDIFException
   {
     // Parse the attribute type description.
-    int colonPos = parseColonPosition(lines, line);
+    int colonPos = parseColonPosition(lines, line, lastEntryLineNumber);
     String attrDescStr = line.substring(0, colonPos);
     AttributeDescription attrDesc = parseAttrDescription(attrDescStr);
 
@@ -876,7 +937,7 @@ public class LDIFReader implements Closeable
     }
 
     //  Now parse the attribute value.
-    ByteString value = parseSingleValue(lines, line, entryDN, colonPos, attrDescStr);
+    ByteString value = parseSingleValue(lines, line, entryDN, colonPos, attrDescStr, lastEntryLineNumber);
 
     AttributeBuilder builder = new AttributeBuilder(attrDesc);
     builder.add(value);
@@ -1315,19 +1376,21 @@ public class LDIFReader implements Closeable
    *          The current set of lines.
    * @param line
    *          The current line.
+   * @param lineNumber
+   *          The starting line number of the entry, reported in error messages.
    * @return The colon position.
    * @throws LDIFException
    *           If the colon was badly placed or not found.
    */
   private int parseColonPosition(List<StringBuilder> lines,
-      StringBuilder line) throws LDIFException {
+      StringBuilder line, long lineNumber) throws LDIFException {
     int colonPos = line.indexOf(":");
     if (colonPos <= 0)
     {
       LocalizableMessage message = ERR_LDIF_NO_ATTR_NAME.get(
-              lastEntryLineNumber, line);
+              lineNumber, line);
       logToRejectWriter(lines, message);
-      throw new LDIFException(message, lastEntryLineNumber, true);
+      throw new LDIFException(message, lineNumber, true);
     }
     return colonPos;
   }
@@ -1347,6 +1410,8 @@ public class LDIFReader implements Closeable
    *          The position of the separator colon in the line.
    * @param attrName
    *          The name of the attribute being parsed.
+   * @param lineNumber
+   *          The starting line number of the entry, reported in error messages.
    * @return The parsed attribute value.
    * @throws LDIFException
    *           If an error occurred when parsing the attribute value.
@@ -1356,7 +1421,8 @@ public class LDIFReader implements Closeable
       StringBuilder line,
       DN entryDN,
       int colonPos,
-      String attrName) throws LDIFException {
+      String attrName,
+      long lineNumber) throws LDIFException {
 
     // Look at the character immediately after the colon. If there is
     // none, then assume an attribute with an empty value. If it is another
@@ -1387,9 +1453,9 @@ public class LDIFReader implements Closeable
           logger.traceException(e);
 
           LocalizableMessage message = ERR_LDIF_COULD_NOT_BASE64_DECODE_ATTR.get(
-              entryDN, lastEntryLineNumber, line, e);
+              entryDN, lineNumber, line, e);
           logToRejectWriter(lines, message);
-          throw new LDIFException(message, lastEntryLineNumber, true, e);
+          throw new LDIFException(message, lineNumber, true, e);
         }
       }
       else if (c == '<')
@@ -1409,9 +1475,9 @@ public class LDIFReader implements Closeable
           logger.traceException(e);
 
           LocalizableMessage message = ERR_LDIF_INVALID_URL.get(
-              entryDN, lastEntryLineNumber, attrName, e);
+              entryDN, lineNumber, attrName, e);
           logToRejectWriter(lines, message);
-          throw new LDIFException(message, lastEntryLineNumber, true, e);
+          throw new LDIFException(message, lineNumber, true, e);
         }
 
 
@@ -1431,9 +1497,9 @@ public class LDIFReader implements Closeable
           logger.traceException(e);
 
           LocalizableMessage message = ERR_LDIF_URL_IO_ERROR.get(
-              entryDN, lastEntryLineNumber, attrName, contentURL, e);
+              entryDN, lineNumber, attrName, contentURL, e);
           logToRejectWriter(lines, message);
-          throw new LDIFException(message, lastEntryLineNumber, true, e);
+          throw new LDIFException(message, lineNumber, true, e);
         }
         finally
         {
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -69,6 +70,7 @@ import org.opends.server.types.Control;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
 import org.opends.server.types.LockManager.DNLock;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.Privilege;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.types.operation.PostOperationAddOperation;
@@ -222,7 +224,7 @@ public class LocalBackendAddOperation
     // always released when exiting this method, no matter what. Since
     // the entry shouldn't exist yet, locking earlier than necessary
     // shouldn't cause a problem.
-    final DNLock entryLock = DirectoryServer.getLockManager().tryWriteLockEntry(entryDN);
+    final DNLock entryLock = LocalBackendWorkflowElement.tryWriteLockEntry(this, entryDN);
     try
     {
       if (entryLock == null)
@@ -406,7 +408,7 @@ public class LocalBackendAddOperation
       // sensitive information to the client.
       try
       {
-        if (!getAccessControlHandler().isAllowed(this))
+        if (!isAllowedByAccessControl())
         {
           setResultCodeAndMessageNoInfoDisclosure(entryDN,
               ResultCode.INSUFFICIENT_ACCESS_RIGHTS,
@@ -462,7 +464,15 @@ public class LocalBackendAddOperation
           }
         }
 
-        backend.addEntry(entry, this);
+        final OperationPhase previousPhase = enterPhase(OperationPhase.BACKEND);
+        try
+        {
+          backend.addEntry(entry, this);
+        }
+        finally
+        {
+          exitPhase(previousPhase);
+        }
       }
 
       LocalBackendWorkflowElement.addPostReadResponse(this, postReadRequest,
@@ -969,4 +979,17 @@ public class LocalBackendAddOperation
   {
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
+
+  private boolean isAllowedByAccessControl() throws DirectoryException
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      return getAccessControlHandler().isAllowed(this);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
 }
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -369,7 +370,7 @@ public class LocalBackendBindOperation
     Entry userEntry;
     try
     {
-      userEntry = backend.getEntry(bindDN);
+      userEntry = LocalBackendWorkflowElement.getEntry(this, backend, bindDN);
     }
     catch (DirectoryException de)
     {
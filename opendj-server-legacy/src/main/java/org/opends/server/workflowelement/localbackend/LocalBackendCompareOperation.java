@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2009 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -46,6 +47,7 @@ import org.opends.server.types.CanceledOperationException;
 import org.opends.server.types.Control;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.Privilege;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.types.operation.PostOperationCompareOperation;
@@ -205,7 +207,7 @@ public class LocalBackendCompareOperation
       // have already exposed sensitive information to the client.
       try
       {
-        if (!getAccessControlHandler().isAllowed(this))
+        if (!isAllowedByAccessControl())
         {
           setResultCodeAndMessageNoInfoDisclosure(entry, entryDN,
               ResultCode.INSUFFICIENT_ACCESS_RIGHTS,
@@ -358,4 +360,17 @@ public class LocalBackendCompareOperation
   {
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
+
+  private boolean isAllowedByAccessControl() throws DirectoryException
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      return getAccessControlHandler().isAllowed(this);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
 }
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2009 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -39,6 +40,7 @@ import org.forgerock.opendj.ldap.DN;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
 import org.opends.server.types.LockManager.DNLock;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.types.SynchronizationProviderResult;
 import org.opends.server.types.operation.PostOperationDeleteOperation;
@@ -198,7 +200,7 @@ public class LocalBackendDeleteOperation
      * Grab a write lock on the entry and its subtree in order to prevent concurrent updates to
      * subordinate entries.
      */
-    final DNLock subtreeLock = DirectoryServer.getLockManager().tryWriteLockSubtree(entryDN);
+    final DNLock subtreeLock = LocalBackendWorkflowElement.tryWriteLockSubtree(this, entryDN);
     try
     {
       if (subtreeLock == null)
@@ -209,7 +211,7 @@ public class LocalBackendDeleteOperation
       }
 
       // Get the entry to delete. If it doesn't exist, then fail.
-      entry = backend.getEntry(entryDN);
+      entry = LocalBackendWorkflowElement.getEntry(this, backend, entryDN);
       if (entry == null)
       {
         setResultCode(ResultCode.NO_SUCH_OBJECT);
@@ -238,7 +240,7 @@ public class LocalBackendDeleteOperation
       // have already exposed sensitive information to the client.
       try
       {
-        if (!getAccessControlHandler().isAllowed(this))
+        if (!isAllowedByAccessControl())
         {
           setResultCodeAndMessageNoInfoDisclosure(entry,
               ResultCode.INSUFFICIENT_ACCESS_RIGHTS,
@@ -295,7 +297,15 @@ public class LocalBackendDeleteOperation
         {
           return;
         }
-        backend.deleteEntry(entryDN, this);
+        final OperationPhase previousPhase = enterPhase(OperationPhase.BACKEND);
+        try
+        {
+          backend.deleteEntry(entryDN, this);
+        }
+        finally
+        {
+          exitPhase(previousPhase);
+        }
       }
 
       LocalBackendWorkflowElement.addPreReadResponse(this, preReadRequest, entry);
@@ -326,6 +336,19 @@ public class LocalBackendDeleteOperation
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
 
+  private boolean isAllowedByAccessControl() throws DirectoryException
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      return getAccessControlHandler().isAllowed(this);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
+
   private DirectoryException newDirectoryException(Entry entry,
       ResultCode resultCode, LocalizableMessage message) throws DirectoryException
   {
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -52,6 +53,7 @@ import org.opends.server.types.Entry;
 import org.opends.server.types.LockManager.DNLock;
 import org.opends.server.types.Modification;
 import org.forgerock.opendj.ldap.RDN;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.types.operation.PostOperationModifyDNOperation;
 import org.opends.server.types.operation.PostResponseModifyDNOperation;
@@ -300,13 +302,13 @@ public class LocalBackendModifyDNOperation
     {
       if (entryDN.compareTo(newDN) < 0)
       {
-        currentLock = DirectoryServer.getLockManager().tryWriteLockSubtree(entryDN);
-        newLock = DirectoryServer.getLockManager().tryWriteLockSubtree(newDN);
+        currentLock = LocalBackendWorkflowElement.tryWriteLockSubtree(this, entryDN);
+        newLock = LocalBackendWorkflowElement.tryWriteLockSubtree(this, newDN);
       }
       else
       {
-        newLock = DirectoryServer.getLockManager().tryWriteLockSubtree(newDN);
-        currentLock = DirectoryServer.getLockManager().tryWriteLockSubtree(entryDN);
+        newLock = LocalBackendWorkflowElement.tryWriteLockSubtree(this, newDN);
+        currentLock = LocalBackendWorkflowElement.tryWriteLockSubtree(this, entryDN);
       }
 
       if (currentLock == null)
@@ -328,7 +330,7 @@ public class LocalBackendModifyDNOperation
 
       // Get the current entry from the appropriate backend. If it doesn't
       // exist, then fail.
-      currentEntry = currentBackend.getEntry(entryDN);
+      currentEntry = LocalBackendWorkflowElement.getEntry(this, currentBackend, entryDN);
 
       if (getOriginalEntry() == null)
       {
@@ -356,7 +358,7 @@ public class LocalBackendModifyDNOperation
       // to the client.
       try
       {
-        if (!getAccessControlHandler().isAllowed(this))
+        if (!isAllowedByAccessControl())
         {
           setResultCodeAndMessageNoInfoDisclosure(currentEntry, entryDN,
               ResultCode.INSUFFICIENT_ACCESS_RIGHTS,
@@ -437,7 +439,15 @@ public class LocalBackendModifyDNOperation
         {
           return;
         }
-        currentBackend.renameEntry(entryDN, newEntry, this);
+        final OperationPhase previousPhase = enterPhase(OperationPhase.BACKEND);
+        try
+        {
+          currentBackend.renameEntry(entryDN, newEntry, this);
+        }
+        finally
+        {
+          exitPhase(previousPhase);
+        }
       }
 
       // Attach the pre-read and/or post-read controls to the response if
@@ -588,6 +598,19 @@ public class LocalBackendModifyDNOperation
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
 
+  private boolean isAllowedByAccessControl() throws DirectoryException
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      return getAccessControlHandler().isAllowed(this);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
+
   /**
    * Updates the entry so that its attributes are changed to reflect the changes
    * to the RDN.  This also performs schema checking on the updated entry.
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2011 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -71,6 +72,7 @@ import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
 import org.opends.server.types.LockManager.DNLock;
 import org.opends.server.types.Modification;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.Privilege;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.types.SynchronizationProviderResult;
@@ -373,7 +375,7 @@ public class LocalBackendModifyOperation
     checkIfCanceled(false);
 
     // Acquire a write lock on the target entry.
-    final DNLock entryLock = DirectoryServer.getLockManager().tryWriteLockEntry(entryDN);
+    final DNLock entryLock = LocalBackendWorkflowElement.tryWriteLockEntry(this, entryDN);
     try
     {
       if (entryLock == null)
@@ -385,7 +387,7 @@ public class LocalBackendModifyOperation
 
       checkIfCanceled(false);
 
-      currentEntry = backend.getEntry(entryDN);
+      currentEntry = LocalBackendWorkflowElement.getEntry(this, backend, entryDN);
       if (currentEntry == null)
       {
         setResultCode(ResultCode.NO_SUCH_OBJECT);
@@ -489,7 +491,15 @@ public class LocalBackendModifyOperation
           return;
         }
 
-        backend.replaceEntry(currentEntry, modifiedEntry, this);
+        final OperationPhase previousPhase = enterPhase(OperationPhase.BACKEND);
+        try
+        {
+          backend.replaceEntry(currentEntry, modifiedEntry, this);
+        }
+        finally
+        {
+          exitPhase(previousPhase);
+        }
 
         if (isAuthnManagedLocally())
         {
@@ -526,7 +536,7 @@ public class LocalBackendModifyOperation
   {
     try
     {
-      if (!getAccessControlHandler().isAllowed(this))
+      if (!isAllowedByAccessControl())
       {
         setResultCodeAndMessageNoInfoDisclosure(modifiedEntry,
             ResultCode.INSUFFICIENT_ACCESS_RIGHTS,
@@ -574,6 +584,19 @@ public class LocalBackendModifyOperation
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
 
+  private boolean isAllowedByAccessControl() throws DirectoryException
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      return getAccessControlHandler().isAllowed(this);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
+
   private DirectoryException newDirectoryException(Entry entry,
       ResultCode resultCode, LocalizableMessage message) throws DirectoryException
   {
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -27,6 +28,7 @@ import org.opends.server.api.ClientConnection;
 import org.opends.server.controls.*;
 import org.opends.server.core.*;
 import org.opends.server.types.*;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.operation.PostOperationSearchOperation;
 import org.opends.server.types.operation.PreOperationSearchOperation;
 import org.opends.server.types.operation.SearchEntrySearchOperation;
@@ -150,7 +152,7 @@ public class LocalBackendSearchOperation
     // and any other controls specified.
     try
     {
-      if (!getAccessControlHandler().isAllowed(this))
+      if (!isAllowedByAccessControl())
       {
         setResultCode(ResultCode.INSUFFICIENT_ACCESS_RIGHTS);
         appendErrorMessage(ERR_SEARCH_AUTHZ_INSUFFICIENT_ACCESS_RIGHTS.get(baseDN));
@@ -221,7 +223,15 @@ public class LocalBackendSearchOperation
       if (processSearchNow)
       {
         // Process the search in the backend and all its subordinates.
-        backend.search(this);
+        final OperationPhase previousPhase = enterPhase(OperationPhase.BACKEND);
+        try
+        {
+          backend.search(this);
+        }
+        finally
+        {
+          exitPhase(previousPhase);
+        }
       }
     }
     catch (DirectoryException de)
@@ -395,6 +405,19 @@ public class LocalBackendSearchOperation
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
 
+  private boolean isAllowedByAccessControl() throws DirectoryException
+  {
+    final OperationPhase previousPhase = enterPhase(OperationPhase.ACCESS_CONTROL);
+    try
+    {
+      return getAccessControlHandler().isAllowed(this);
+    }
+    finally
+    {
+      exitPhase(previousPhase);
+    }
+  }
+
   /** Indicates if the backend supports the control corresponding to provided oid. */
   private boolean backendSupportsControl(final String oid)
   {
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.workflowelement.localbackend;
 
@@ -44,13 +45,16 @@ import org.opends.server.core.DirectoryServer;
 import org.opends.server.core.ModifyDNOperation;
 import org.opends.server.core.ModifyOperation;
 import org.opends.server.core.SearchOperation;
+import org.opends.server.monitors.LocalBackendMonitor;
 import org.opends.server.types.AbstractOperation;
 import org.opends.server.types.AdditionalLogItem;
 import org.opends.server.types.CanceledOperationException;
 import org.opends.server.types.Control;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
+import org.opends.server.types.LockManager.DNLock;
 import org.opends.server.types.Operation;
+import org.opends.server.types.OperationPhase;
 import org.opends.server.types.OperationType;
 import org.opends.server.types.Privilege;
 import org.opends.server.types.SearchResultEntry;
@@ -586,6 +590,79 @@ public class LocalBackendWorkflowElement
     return AccessControlConfigManager.getInstance().getAccessControlHandler();
   }
 
+  /**
+   * Retrieves the provided entry from the backend, accounting the time spent to the {@link OperationPhase#BACKEND}
+   * phase of the operation.
+   *
+   * @param operation
+   *          the operation retrieving the entry
+   * @param backend
+   *          the backend holding the entry
+   * @param entryDN
+   *          the entry to retrieve
+   * @return the requested entry, or {@code null} if it does not exist
+   * @throws DirectoryException
+   *           if a problem occurs while trying to retrieve the entry
+   */
+  static Entry getEntry(Operation operation, LocalBackend<?> backend, DN entryDN) throws DirectoryException
+  {
+    final OperationPhase previousPhase = operation.enterPhase(OperationPhase.BACKEND);
+    try
+    {
+      return backend.getEntry(entryDN);
+    }
+    finally
+    {
+      operation.exitPhase(previousPhase);
+    }
+  }
+
+  /**
+   * Attempts to acquire a write lock on the provided entry, accounting the time spent waiting for it to the
+   * {@link OperationPhase#LOCK} phase of the operation.
+   *
+   * @param operation
+   *          the operation acquiring the lock
+   * @param entryDN
+   *          the entry to lock
+   * @return the lock, or {@code null} if it could not be acquired
+   */
+  static DNLock tryWriteLockEntry(Operation operation, DN entryDN)
+  {
+    final OperationPhase previousPhase = operation.enterPhase(OperationPhase.LOCK);
+    try
+    {
+      return DirectoryServer.getLockManager().tryWriteLockEntry(entryDN);
+    }
+    finally
+    {
+      operation.exitPhase(previousPhase);
+    }
+  }
+
+  /**
+   * Attempts to acquire a write lock on the provided entry and its subtree, accounting the time spent waiting for it
+   * to the {@link OperationPhase#LOCK} phase of the operation.
+   *
+   * @param operation
+   *          the operation acquiring the lock
+   * @param entryDN
+   *          the base of the subtree to lock
+   * @return the lock, or {@code null} if it could not be acquired
+   */
+  static DNLock tryWriteLockSubtree(Operation operation, DN entryDN)
+  {
+    final OperationPhase previousPhase = operation.enterPhase(OperationPhase.LOCK);
+    try
+    {
+      return DirectoryServer.getLockManager().tryWriteLockSubtree(entryDN);
+    }
+    finally
+    {
+      operation.exitPhase(previousPhase);
+    }
+  }
+
   /**
    * Executes an operation on the provided backend.
    *
@@ -598,6 +675,23 @@ public class LocalBackendWorkflowElement
    */
   private static void executeOperation(Operation operation, LocalBackend<?> backend)
       throws CanceledOperationException {
+    final long startTime = System.nanoTime();
+    try
+    {
+      executeOperationOnBackend(operation, backend);
+    }
+    finally
+    {
+      final LocalBackendMonitor monitor = backend.getBackendMonitor();
+      if (monitor != null)
+      {
+        monitor.updateOperationDuration(operation.getOperationType(), System.nanoTime() - startTime);
+      }
+    }
+  }
+
+  private static void executeOperationOnBackend(Operation operation, LocalBackend<?> backend)
+      throws CanceledOperationException {
     switch (operation.getOperationType())
     {
       case BIND:
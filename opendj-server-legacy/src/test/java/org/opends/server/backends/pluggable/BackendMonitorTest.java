@@ -0,0 +1,135 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.backends.pluggable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.opends.server.DirectoryServerTestCase;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.backends.pluggable.BackendMonitor.FrequencySketch;
+import org.opends.server.types.SearchFilter;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+@Test(groups = { "precommit", "pluggablebackend", "unit" }, singleThreaded = true)
+public class BackendMonitorTest extends DirectoryServerTestCase
+{
+  @BeforeClass
+  public void startServer() throws Exception
+  {
+    TestCaseUtils.startServer();
+  }
+
+  @Test
+  public void testFrequencySketchCountsAndAgesIncrementally()
+  {
+    final FrequencySketch sketch = new FrequencySketch(16);
+    long estimate = 0;
+    for (int i = 0; i < 100; i++)
+    {
+      estimate = sketch.increment(42);
+    }
+    // Only a few counters have been halved so far
+    assertThat(estimate).isBetween(50L, 100L);
+    assertThat(sketch.estimate(42)).isEqualTo(estimate);
+
+    // Every counter is halved twice while other filters are counted
+    final int additions = 2 * FrequencySketch.AGING_INTERVAL * sketch.size();
+    for (int i = 0; i < additions; i++)
+    {
+      sketch.increment(1000 + i);
+    }
+    assertThat(sketch.estimate(42)).isLessThan(50L);
+  }
+
+  @Test
+  public void testLeastUsedFilterIsReplacedByMoreUsedFilter() throws Exception
+  {
+    final BackendMonitor monitor = newBackendMonitor(2);
+    use(monitor, "(uid=a)", 5);
+    use(monitor, "(uid=b)", 3);
+    // Not admitted while it is used less than the least used filter
+    use(monitor, "(uid=c)", 2);
+    assertThat(getFilters(monitor)).containsOnly("(uid=a) hits:5", "(uid=b) hits:3");
+
+    use(monitor, "(uid=c)", 20);
+    assertThat(getFilters(monitor)).hasSize(2).contains("(uid=a) hits:5").doesNotContain("(uid=b) hits:3");
+    assertThat(getFilters(monitor).get(0) + getFilters(monitor).get(1)).contains("(uid=c)");
+  }
+
+  @Test
+  public void testLeastUsedFilterAccountsForHitsAfterAdmission() throws Exception
+  {
+    final BackendMonitor monitor = newBackendMonitor(2);
+    use(monitor, "(uid=a)", 1);
+    use(monitor, "(uid=b)", 1);
+    // b was the least used filter when it was admitted, but it is not anymore
+    use(monitor, "(uid=b)", 10);
+
+    use(monitor, "(uid=c)", 20);
+    final List<String> filters = getFilters(monitor);
+    assertThat(filters).hasSize(2).contains("(uid=b) hits:11");
+    assertThat(filters.get(0) + filters.get(1)).contains("(uid=c)").doesNotContain("(uid=a)");
+  }
+
+  @Test
+  public void testDisablingFilterUseClearsFilters() throws Exception
+  {
+    final BackendMonitor monitor = newBackendMonitor(2);
+    use(monitor, "(uid=a)", 5);
+    use(monitor, "(uid=b)", 5);
+    monitor.enableFilterUseStats(false);
+    monitor.enableFilterUseStats(true);
+    assertThat(getFilters(monitor)).isEmpty();
+
+    use(monitor, "(uid=c)", 1);
+    use(monitor, "(uid=d)", 1);
+    assertThat(getFilters(monitor)).containsOnly("(uid=c) hits:1", "(uid=d) hits:1");
+  }
+
+  private BackendMonitor newBackendMonitor(int maxEntries)
+  {
+    final BackendMonitor monitor = new BackendMonitor("test", null);
+    monitor.setMaxEntries(maxEntries);
+    monitor.enableFilterUseStats(true);
+    return monitor;
+  }
+
+  private void use(BackendMonitor monitor, String filter, int times) throws Exception
+  {
+    final SearchFilter searchFilter = SearchFilter.createFilterFromString(filter);
+    for (int i = 0; i < times; i++)
+    {
+      monitor.updateStats(searchFilter, LocalizableMessage.EMPTY);
+    }
+  }
+
+  /** Returns the filters and their hits, without the other statistics. */
+  private List<String> getFilters(BackendMonitor monitor)
+  {
+    final List<String> filters = new ArrayList<>();
+    for (String value : monitor.createFilterUseValues())
+    {
+      filters.add(value.substring(0, value.indexOf(" maxmatches:")));
+    }
+    return filters;
+  }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.backends.pluggable;
 
@@ -36,6 +37,9 @@ import static org.testng.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -43,6 +47,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 import org.forgerock.opendj.ldap.ByteString;
@@ -934,6 +939,30 @@ public abstract class PluggableBackendImplTestCase<C extends PluggableBackendCfg
     }
   }
 
+  @Test
+  public void testParallelExportLDIFIsIdenticalToSequentialExport() throws Exception
+  {
+    final String sequentialExport = exportLDIF(1, 256);
+    assertThat(sequentialExport).contains(searchDN.toString());
+
+    // Small batches so that every worker thread gets several of them and the writer has to reorder them
+    assertThat(exportLDIF(4, 2)).isEqualTo(sequentialExport);
+    assertThat(exportLDIF(4, 1)).isEqualTo(sequentialExport);
+    assertThat(exportLDIF(0, 3)).isEqualTo(sequentialExport);
+  }
+
+  private String exportLDIF(int threadCount, int batchSize) throws Exception
+  {
+    ByteArrayOutputStream ldifOutputContent = new ByteArrayOutputStream();
+    try (final LDIFExportConfig exportConfig = new LDIFExportConfig(ldifOutputContent))
+    {
+      exportConfig.setIncludeOperationalAttributes(true);
+      exportConfig.setThreadCount(threadCount);
+      new ExportJob(exportConfig, batchSize).exportLDIF(backend.getRootContainer());
+    }
+    return ldifOutputContent.toString();
+  }
+
   @Test
   public void testExportLDIFAndImportLDIF() throws Exception
   {
@@ -1147,6 +1176,126 @@ public abstract class PluggableBackendImplTestCase<C extends PluggableBackendCfg
     assertThat(backend.verifyBackend(config)).isEqualTo(1);
   }
 
+  @Test
+  public void testParallelVerifyFindsSameErrorsAsSequentialVerify() throws Exception
+  {
+    final VerifyConfig completeConfig = new VerifyConfig();
+    completeConfig.setBaseDN(testBaseDN);
+    final VerifyConfig cleanConfig = new VerifyConfig();
+    cleanConfig.setBaseDN(testBaseDN);
+    cleanConfig.addCleanIndex("dn2id");
+    final VerifyConfig cleanIndexConfig = new VerifyConfig();
+    cleanIndexConfig.setBaseDN(testBaseDN);
+    cleanIndexConfig.addCleanIndex(backendIndexes.keySet().iterator().next());
+
+    for (VerifyConfig config : Arrays.asList(completeConfig, cleanConfig, cleanIndexConfig))
+    {
+      config.setThreadCount(1);
+      final long sequentialErrorCount = new VerifyJob(backend.getRootContainer(), config).verifyBackend();
+
+      // Small ranges of entry IDs so that every thread verifies several units of work
+      config.setThreadCount(4);
+      assertThat(new VerifyJob(backend.getRootContainer(), config, 2).verifyBackend()).isEqualTo(sequentialErrorCount);
+      assertThat(new VerifyJob(backend.getRootContainer(), config, 1).verifyBackend()).isEqualTo(sequentialErrorCount);
+    }
+  }
+
+  @Test
+  public void testVerifyResumesFromCheckpoint() throws Exception
+  {
+    final File checkpointFile = File.createTempFile("verify", ".checkpoint");
+    try
+    {
+      final VerifyConfig config = new VerifyConfig();
+      config.setBaseDN(testBaseDN);
+      config.setThreadCount(2);
+      config.setCheckpointFile(checkpointFile.getPath());
+      final long errorCount = new VerifyJob(backend.getRootContainer(), config, 2).verifyBackend();
+      assertThat(checkpointFile).doesNotExist();
+
+      // Pretend that an identical verification has already verified every unit of work and found 3 more errors
+      final EntryContainer entryContainer = backend.getRootContainer().getEntryContainer(testBaseDN);
+      final long highestID = getHighestEntryID(entryContainer);
+      final Properties checkpoint = newCheckpoint(
+          new VerifyJob(backend.getRootContainer(), config, 2).getSignature(false, highestID),
+          getID2EntryRecordCount(entryContainer), errorCount + 3);
+      for (long fromID = 0; fromID <= highestID; fromID += 2)
+      {
+        checkpoint.setProperty("completed." + entryContainer.getID2Entry().getName() + "#" + fromID, "true");
+      }
+      storeCheckpoint(checkpoint, checkpointFile);
+      assertThat(new VerifyJob(backend.getRootContainer(), config, 2).verifyBackend()).isEqualTo(errorCount + 3);
+      assertThat(checkpointFile).doesNotExist();
+
+      // The entry IDs have changed since the checkpoint was written: it must not be resumed
+      checkpoint.setProperty("signature",
+          new VerifyJob(backend.getRootContainer(), config, 2).getSignature(false, highestID - 1));
+      storeCheckpoint(checkpoint, checkpointFile);
+      assertThat(new VerifyJob(backend.getRootContainer(), config, 2).verifyBackend()).isEqualTo(errorCount);
+
+      // The units of work do not cover the same ranges of entry IDs: it must not be resumed
+      checkpoint.setProperty("signature",
+          new VerifyJob(backend.getRootContainer(), config, 2).getSignature(false, highestID));
+      storeCheckpoint(checkpoint, checkpointFile);
+      assertThat(new VerifyJob(backend.getRootContainer(), config, 3).verifyBackend()).isEqualTo(errorCount);
+
+      // The entry limit statistics refer to an index which is not verified: it must not be resumed
+      checkpoint.setProperty("entry-limit.0", "00 1 unknown-index");
+      storeCheckpoint(checkpoint, checkpointFile);
+      assertThat(new VerifyJob(backend.getRootContainer(), config, 2).verifyBackend()).isEqualTo(errorCount);
+      assertThat(checkpointFile).doesNotExist();
+    }
+    finally
+    {
+      checkpointFile.delete();
+    }
+  }
+
+  private long getHighestEntryID(final EntryContainer entryContainer) throws Exception
+  {
+    return backend.getRootContainer().getStorage().read(new ReadOperation<Long>()
+    {
+      @Override
+      public Long run(ReadableTransaction txn) throws Exception
+      {
+        return entryContainer.getHighestEntryID(txn).longValue();
+      }
+    });
+  }
+
+  private long getID2EntryRecordCount(final EntryContainer entryContainer) throws Exception
+  {
+    return backend.getRootContainer().getStorage().read(new ReadOperation<Long>()
+    {
+      @Override
+      public Long run(ReadableTransaction txn) throws Exception
+      {
+        return entryContainer.getID2Entry().getRecordCount(txn);
+      }
+    });
+  }
+
+  private Properties newCheckpoint(String signature, long keyCount, long errorCount)
+  {
+    final Properties checkpoint = new Properties();
+    checkpoint.setProperty("signature", signature);
+    checkpoint.setProperty("key-count", Long.toString(keyCount));
+    checkpoint.setProperty("error-count", Long.toString(errorCount));
+    checkpoint.setProperty("entry-limit-exceeded-count", "0");
+    checkpoint.setProperty("multi-reference-count", "0");
+    checkpoint.setProperty("entry-references-count", "0");
+    checkpoint.setProperty("max-entry-per-value", "0");
+    return checkpoint;
+  }
+
+  private void storeCheckpoint(Properties checkpoint, File checkpointFile) throws Exception
+  {
+    try (OutputStream out = new FileOutputStream(checkpointFile))
+    {
+      checkpoint.store(out, null);
+    }
+  }
+
   @Test
   public void testBackupAndRestore() throws Exception
   {
@@ -0,0 +1,53 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.backends.pluggable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.opends.server.backends.pluggable.Utils.id;
+
+import org.forgerock.opendj.ldap.ByteString;
+import org.opends.server.DirectoryServerTestCase;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+@Test(groups = { "precommit", "pluggablebackend", "unit" })
+public class WorkingSetTest extends DirectoryServerTestCase
+{
+  @Test
+  public void testEmptyWorkingSet()
+  {
+    final ByteString encoded = new WorkingSet().encode();
+
+    assertThat(encoded.length()).isEqualTo(0);
+    assertThat(WorkingSet.decode(encoded)).isEmpty();
+  }
+
+  @Test
+  public void testEncodeDecode()
+  {
+    final WorkingSet workingSet = new WorkingSet();
+    // Reads are sampled, record enough of them for every entry to be sampled at least once
+    for (int i = 0; i < 1000; i++)
+    {
+      for (long entryID : new long[] { 300, 1, 70000, 2, 1L << 40 })
+      {
+        workingSet.record(id(entryID));
+      }
+    }
+
+    assertThat(WorkingSet.decode(workingSet.encode())).containsExactly(1, 2, 300, 70000, 1L << 40);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.opendj.ldap.ModificationType.REPLACE;
+import static org.forgerock.opendj.ldap.requests.Requests.newModifyRequest;
+import static org.opends.server.protocols.internal.InternalClientConnection.getRootConnection;
+import static org.opends.server.protocols.internal.Requests.newSearchRequest;
+
+import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.ldap.SearchScope;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.protocols.internal.InternalSearchOperation;
+import org.opends.server.types.OperationPhase;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/** Tests the collection of the time spent by operations in each processing phase. */
+@SuppressWarnings("javadoc")
+public class EtimeBreakdownTestCase extends CoreTestCase
+{
+  @BeforeClass
+  public void startServer() throws Exception
+  {
+    TestCaseUtils.startServer();
+    TestCaseUtils.initializeTestBackend(true);
+    TestCaseUtils.addEntry(
+        "dn: uid=etime.user,o=test",
+        "objectClass: top",
+        "objectClass: person",
+        "objectClass: organizationalPerson",
+        "objectClass: inetOrgPerson",
+        "uid: etime.user",
+        "cn: Etime User",
+        "sn: User");
+  }
+
+  @Test
+  public void phasesAreNotTrackedByDefault() throws Exception
+  {
+    final ModifyOperation modifyOperation = modify();
+    for (OperationPhase phase : OperationPhase.values())
+    {
+      assertThat(modifyOperation.getPhaseNanoTime(phase)).isEqualTo(-1);
+    }
+  }
+
+  @Test
+  public void phasesAreTrackedWhenEnabled() throws Exception
+  {
+    TestCaseUtils.dsconfig("set-global-configuration-prop", "--set", "etime-breakdown:true");
+    try
+    {
+      final ModifyOperation modifyOperation = modify();
+      assertThat(modifyOperation.getPhaseNanoTime(OperationPhase.WORK_QUEUE)).isEqualTo(0);
+      assertThat(modifyOperation.getPhaseNanoTime(OperationPhase.LOCK)).isPositive();
+      assertThat(modifyOperation.getPhaseNanoTime(OperationPhase.BACKEND)).isPositive();
+
+      final InternalSearchOperation searchOperation =
+          getRootConnection().processSearch(newSearchRequest("o=test", SearchScope.WHOLE_SUBTREE, "(uid=etime.user)"));
+      assertThat(searchOperation.getResultCode()).isEqualTo(ResultCode.SUCCESS);
+      assertThat(searchOperation.getPhaseNanoTime(OperationPhase.ACCESS_CONTROL)).isNotNegative();
+      assertThat(searchOperation.getPhaseNanoTime(OperationPhase.BACKEND)).isPositive();
+      assertThat(searchOperation.getPhaseNanoTime(OperationPhase.LOCK)).isEqualTo(0);
+    }
+    finally
+    {
+      TestCaseUtils.dsconfig("set-global-configuration-prop", "--set", "etime-breakdown:false");
+    }
+  }
+
+  private ModifyOperation modify()
+  {
+    final ModifyOperation modifyOperation = getRootConnection().processModify(
+        newModifyRequest("uid=etime.user,o=test").addModification(REPLACE, "description", "etime"));
+    assertThat(modifyOperation.getResultCode()).isEqualTo(ResultCode.SUCCESS);
+    return modifyOperation;
+  }
+}
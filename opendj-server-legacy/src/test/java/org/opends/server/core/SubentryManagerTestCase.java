@@ -13,6 +13,7 @@
  *
  * Copyright 2009-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.opends.server.core;
@@ -126,6 +127,67 @@ public class SubentryManagerTestCase extends CoreTestCase
     assertThat(subentryList).isEmpty();
   }
 
+  /**
+   * The subentries applying to the children of an entry are cached per parent
+   * DN, make sure that every kind of subentry change is visible afterwards.
+   */
+  @Test
+  public void testParentCacheIsInvalidatedBySubentryChanges() throws Exception
+  {
+    SubentryManager manager = DirectoryServer.getSubentryManager();
+    DN testDN = testEntry.getName();
+    DN siblingDN = DN.valueOf("cn=Sales," + BASE);
+    DN subentryDN = DN.valueOf("cn=Cache Subentry," + SUFFIX);
+    DN renamedSubentryDN = DN.valueOf("cn=Renamed Cache Subentry," + SUFFIX);
+    assertThat(getDns(manager.getSubentries(testDN))).doesNotContain(subentryDN);
+    assertThat(getDns(manager.getCollectiveSubentries(testDN))).doesNotContain(subentryDN);
+
+    try
+    {
+      // Add.
+      addEntry(
+           "dn: " + subentryDN,
+           "objectClass: top",
+           "objectclass: subentry",
+           "objectClass: collectiveAttributeSubentry",
+           "objectClass: extensibleObject",
+           "c-l: Cache",
+           "subtreeSpecification: {base \"ou=Test SubEntry Manager\"}",
+           "cn: Cache Subentry");
+      assertThat(getDns(manager.getCollectiveSubentries(testDN))).contains(subentryDN);
+      assertThat(getDns(manager.getCollectiveSubentries(testEntry))).contains(subentryDN);
+
+      // Modify.
+      replaceAttribute(DirectoryServer.getEntry(subentryDN), "subtreeSpecification",
+          "{base \"ou=Test SubEntry Manager\", specificExclusions { chopBefore:\"uid=rogasawara\" } }");
+      assertThat(getDns(manager.getCollectiveSubentries(testDN))).doesNotContain(subentryDN);
+      assertThat(getDns(manager.getCollectiveSubentries(testEntry))).doesNotContain(subentryDN);
+      assertThat(getDns(manager.getCollectiveSubentries(siblingDN))).contains(subentryDN);
+
+      // Modify DN.
+      ModifyDNOperation modifyDNOperation = getRootConnection().processModifyDN(
+          subentryDN.toString(), renamedSubentryDN.rdn().toString(), true, null);
+      assertEquals(modifyDNOperation.getResultCode(), ResultCode.SUCCESS);
+      assertThat(getDns(manager.getCollectiveSubentries(siblingDN)))
+          .contains(renamedSubentryDN).doesNotContain(subentryDN);
+
+      // Delete.
+      TestCaseUtils.deleteEntry(renamedSubentryDN);
+      assertThat(getDns(manager.getCollectiveSubentries(siblingDN))).doesNotContain(renamedSubentryDN);
+      assertThat(getDns(manager.getCollectiveSubentries(testDN))).doesNotContain(renamedSubentryDN);
+    }
+    finally
+    {
+      for (DN dn : newArrayList(subentryDN, renamedSubentryDN))
+      {
+        if (DirectoryServer.getEntry(dn) != null)
+        {
+          TestCaseUtils.deleteEntry(dn);
+        }
+      }
+    }
+  }
+
   private List<Entry> getEntries(List<SubEntry> subentries)
   {
     final List<Entry> results = new ArrayList<>();
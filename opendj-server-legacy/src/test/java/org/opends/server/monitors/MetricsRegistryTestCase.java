@@ -0,0 +1,139 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.monitors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opends.server.monitors.MetricsRegistry.Gauge;
+import org.opends.server.monitors.MetricsRegistry.Histogram;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/** This class defines a set of tests for the {@link MetricsRegistry} class. */
+@SuppressWarnings("javadoc")
+public class MetricsRegistryTestCase extends MonitorTestCase
+{
+  private final MetricsRegistry registry = MetricsRegistry.getInstance();
+
+  @AfterMethod
+  public void removeTestMetrics()
+  {
+    registry.removeMetrics("test", "metrics-registry");
+  }
+
+  @Test
+  public void testCounterIsWrittenWithTotalSuffix()
+  {
+    registry.counter("test_requests", "Test requests", "test", "metrics-registry", "id", "a").add(3);
+    registry.counter("test_requests", "Test requests", "test", "metrics-registry", "id", "a").increment();
+
+    assertThat(writeOpenMetrics())
+        .contains("# TYPE ds_test_requests counter\n")
+        .contains("# HELP ds_test_requests Test requests\n")
+        .contains("ds_test_requests_total{test=\"metrics-registry\",id=\"a\"} 4\n")
+        .endsWith("# EOF\n");
+  }
+
+  @Test
+  public void testGaugeIsReadWhenWritten()
+  {
+    final long[] value = { 1 };
+    registry.registerGauge("test_size", "Test size", new Gauge()
+    {
+      @Override
+      public long getValue()
+      {
+        return value[0];
+      }
+    }, "test", "metrics-registry");
+    value[0] = 42;
+
+    assertThat(writeOpenMetrics())
+        .contains("# TYPE ds_test_size gauge\n")
+        .contains("ds_test_size{test=\"metrics-registry\"} 42\n");
+  }
+
+  @Test
+  public void testHistogramBucketsAreCumulative()
+  {
+    final Histogram histogram =
+        registry.histogram("test_duration_seconds", "Test duration", "test", "metrics-registry");
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+    histogram.record(TimeUnit.SECONDS.toNanos(60));
+
+    assertThat(writeOpenMetrics())
+        .contains("# TYPE ds_test_duration_seconds histogram\n")
+        .contains("ds_test_duration_seconds_bucket{test=\"metrics-registry\",le=\"0.000016\"} 1\n")
+        .contains("ds_test_duration_seconds_bucket{test=\"metrics-registry\",le=\"0.000512\"} 1\n")
+        .contains("ds_test_duration_seconds_bucket{test=\"metrics-registry\",le=\"0.001024\"} 2\n")
+        .contains("ds_test_duration_seconds_bucket{test=\"metrics-registry\",le=\"16.777216\"} 2\n")
+        .contains("ds_test_duration_seconds_bucket{test=\"metrics-registry\",le=\"+Inf\"} 3\n")
+        .contains("ds_test_duration_seconds_count{test=\"metrics-registry\"} 3\n")
+        .contains("ds_test_duration_seconds_sum{test=\"metrics-registry\"} 60.00101\n");
+  }
+
+  @Test
+  public void testLabelValuesAreEscaped()
+  {
+    registry.counter("test_escaped", "Test \"escaped\"\nhelp", "test", "metrics-registry", "dn", "cn=a\\,b \"c\"");
+
+    assertThat(writeOpenMetrics())
+        .contains("# HELP ds_test_escaped Test \\\"escaped\\\"\\nhelp\n")
+        .contains("ds_test_escaped_total{test=\"metrics-registry\",dn=\"cn=a\\\\,b \\\"c\\\"\"} 0\n");
+  }
+
+  @Test
+  public void testRemoveMetricsMatchesExactLabelValue()
+  {
+    registry.counter("test_removed", "Test removed", "test", "metrics-registry", "backend", "userRoot");
+    registry.counter("test_removed", "Test removed", "test", "metrics-registry", "backend", "userRoot2");
+    registry.counter("test_removed", "Test removed", "backend", "userRoot", "test", "metrics-registry");
+    registry.counter("test_removed", "Test removed", "test", "metrics-registry", "other", "userRoot");
+
+    registry.removeMetrics("backend", "userRoot");
+
+    assertThat(writeOpenMetrics())
+        .doesNotContain("backend=\"userRoot\"")
+        .contains("ds_test_removed_total{test=\"metrics-registry\",backend=\"userRoot2\"} 0\n")
+        .contains("ds_test_removed_total{test=\"metrics-registry\",other=\"userRoot\"} 0\n");
+  }
+
+  @Test
+  public void testFamilyWithoutMetricsIsNotWritten()
+  {
+    registry.counter("test_empty", "Test empty", "test", "metrics-registry");
+    registry.removeMetrics("test", "metrics-registry");
+
+    assertThat(writeOpenMetrics()).doesNotContain("ds_test_empty");
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testMetricTypeCannotChange()
+  {
+    registry.counter("test_typed", "Test typed", "test", "metrics-registry");
+    registry.histogram("test_typed", "Test typed", "test", "metrics-registry");
+  }
+
+  private String writeOpenMetrics()
+  {
+    final StringBuilder buffer = new StringBuilder();
+    registry.writeOpenMetrics(buffer);
+    return buffer.toString();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.protocols.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.forgerock.http.Handler;
+import org.forgerock.http.HttpApplication;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.RootContext;
+import org.opends.server.DirectoryServerTestCase;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.monitors.MetricsRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+@Test(groups = { "precommit" }, singleThreaded = true)
+public class MetricsEndpointTestCase extends DirectoryServerTestCase
+{
+  private HttpApplication httpApplication;
+  private Handler handler;
+
+  @BeforeClass
+  public void startEndpoint() throws Exception
+  {
+    TestCaseUtils.startServer();
+    httpApplication = new MetricsEndpoint(null, DirectoryServer.getInstance().getServerContext()).newHttpApplication();
+    handler = httpApplication.start();
+  }
+
+  @AfterClass
+  public void stopEndpoint()
+  {
+    httpApplication.stop();
+    MetricsRegistry.getInstance().removeMetrics("test", "metrics-endpoint");
+  }
+
+  @Test
+  public void testGetReturnsOpenMetrics() throws Exception
+  {
+    MetricsRegistry.getInstance().counter("test_endpoint", "Test endpoint", "test", "metrics-endpoint").add(7);
+
+    final Response response = handle("GET");
+    assertThat(response.getStatus()).isEqualTo(Status.OK);
+    assertThat(response.getHeaders().getFirst("Content-Type")).startsWith("application/openmetrics-text");
+    assertThat(response.getEntity().getString())
+        .contains("# TYPE ds_test_endpoint counter\n")
+        .contains("ds_test_endpoint_total{test=\"metrics-endpoint\"} 7\n")
+        .endsWith("# EOF\n");
+  }
+
+  @Test
+  public void testOnlyGetIsAllowed() throws Exception
+  {
+    assertThat(handle("POST").getStatus()).isEqualTo(Status.METHOD_NOT_ALLOWED);
+  }
+
+  private Response handle(String method) throws Exception
+  {
+    final Request request = new Request().setMethod(method).setUri("/metrics");
+    return handler.handle(new RootContext(), request).getOrThrow();
+  }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2007-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.plugin;
 
@@ -326,6 +327,12 @@ public class DomainFakeCfg implements ReplicationDomainCfg
     return 1440;
   }
 
+  @Override
+  public int getConflictsHistoricalPurgeRate()
+  {
+    return 0;
+  }
+
   @Override
   public String toString()
   {
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.plugin;
 
@@ -31,6 +32,7 @@ import org.forgerock.opendj.ldap.ConditionResult;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.schema.CoreSchema;
 import org.forgerock.opendj.ldap.schema.MatchingRule;
+import org.forgerock.opendj.ldap.schema.Schema;
 import org.forgerock.opendj.ldap.schema.SchemaBuilder;
 import org.opends.server.TestCaseUtils;
 import org.forgerock.opendj.server.config.meta.ReplicationDomainCfgDefn.AssuredType;
@@ -121,6 +123,34 @@ public class HistoricalCsnOrderingTest extends ReplicationTestCase
 
   }
 
+  /**
+   * Check that the HistoricalCsnPurgeMatchingRule only matches the older or equal CSNs of the same replica.
+   */
+  @Test
+  public void purgeRuleTest() throws Exception
+  {
+    // Use the server schema, so that a clash with the other matching rules of the server is detected
+    Schema schema = getServerContext().getSchema();
+    MatchingRule rule = schema.getMatchingRule("historicalCsnPurgeMatch");
+    assertEquals(rule.getOID(), "1.3.6.1.4.1.36733.2.1.4.3");
+    assertEquals(schema.getMatchingRule(rule.getOID()).getNameOrOID(), "historicalCsnPurgeMatch");
+    assertEquals(schema.getMatchingRule("1.3.6.1.4.1.36733.2.1.4.1").getNameOrOID(), "caseIgnoreJsonQueryMatch");
+    assertEquals(schema.getMatchingRule("1.3.6.1.4.1.36733.2.1.4.2").getNameOrOID(), "caseExactJsonQueryMatch");
+
+    ByteString older = ByteString.valueOfUtf8("a:" + new CSN(1, 0, 2));
+    ByteString purgeDate = ByteString.valueOfUtf8("dummy:" + new CSN(2, Integer.MAX_VALUE, 2));
+    ByteString newer = ByteString.valueOfUtf8("a:" + new CSN(3, 0, 2));
+    ByteString otherReplicaOlder = ByteString.valueOfUtf8("a:" + new CSN(1, 0, 1));
+    ByteString otherReplicaNewer = ByteString.valueOfUtf8("a:" + new CSN(3, 0, 3));
+
+    Assertion assertion = rule.getAssertion(purgeDate);
+    assertEquals(assertion.matches(rule.normalizeAttributeValue(older)), ConditionResult.TRUE);
+    assertEquals(assertion.matches(rule.normalizeAttributeValue(purgeDate)), ConditionResult.TRUE);
+    assertEquals(assertion.matches(rule.normalizeAttributeValue(newer)), ConditionResult.FALSE);
+    assertEquals(assertion.matches(rule.normalizeAttributeValue(otherReplicaOlder)), ConditionResult.FALSE);
+    assertEquals(assertion.matches(rule.normalizeAttributeValue(otherReplicaNewer)), ConditionResult.FALSE);
+  }
+
   /**
    * Test that we can retrieve the entries that were missed by
    * a replication server and can  re-build operations from the historical
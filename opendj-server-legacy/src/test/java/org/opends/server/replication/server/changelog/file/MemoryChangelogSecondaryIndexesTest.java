@@ -0,0 +1,133 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.opends.server.replication.server.changelog.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.schema.AttributeType;
+import org.opends.server.DirectoryServerTestCase;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.replication.common.CSN;
+import org.opends.server.replication.protocol.DeleteMsg;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/** Test for the MemoryChangelogSecondaryIndexes class. */
+@SuppressWarnings("javadoc")
+public class MemoryChangelogSecondaryIndexesTest extends DirectoryServerTestCase
+{
+  private AttributeType targetDN;
+  private AttributeType targetEntryUUID;
+  private AttributeType changeType;
+  private int timestamp;
+
+  @BeforeClass
+  public void classSetup() throws Exception
+  {
+    TestCaseUtils.startServer();
+    targetDN = getAttributeType("targetDN");
+    targetEntryUUID = getAttributeType("targetEntryUUID");
+    changeType = getAttributeType("changeType");
+  }
+
+  private AttributeType getAttributeType(String name)
+  {
+    return DirectoryServer.getInstance().getServerContext().getSchema().getAttributeType(name);
+  }
+
+  private DeleteMsg newDeleteMsg(String dn, String entryUUID)
+  {
+    return new DeleteMsg(DN.valueOf(dn), new CSN(++timestamp, 0, 1), entryUUID);
+  }
+
+  @Test
+  public void indexesNewRecords() throws Exception
+  {
+    final MemoryChangelogSecondaryIndexes indexes = new MemoryChangelogSecondaryIndexes(1);
+    indexes.addRecord(1, newDeleteMsg("uid=user.1,dc=example,dc=com", "uuid1"));
+    indexes.addRecord(2, newDeleteMsg("uid=user.2,dc=example,dc=com", "uuid2"));
+    indexes.addRecord(3, newDeleteMsg("uid=user.1,dc=example,dc=com", "uuid3"));
+
+    assertThat(indexes.isIndexed(targetDN)).isTrue();
+    assertThat(indexes.isIndexed(getAttributeType("cn"))).isFalse();
+    assertThat(indexes.getFirstIndexedChangeNumber()).isEqualTo(1);
+    assertThat(indexes.getChangeNumbers(targetDN, ByteString.valueOfUtf8("UID=User.1,DC=Example,DC=Com")))
+        .containsExactly(1, 3);
+    assertThat(indexes.getChangeNumbers(targetEntryUUID, ByteString.valueOfUtf8("uuid2"))).containsExactly(2);
+    assertThat(indexes.getChangeNumbers(changeType, ByteString.valueOfUtf8("delete"))).containsExactly(1, 2, 3);
+    assertThat(indexes.getChangeNumbers(changeType, ByteString.valueOfUtf8("add"))).isEmpty();
+    assertThat(indexes.getChangeNumbers(getAttributeType("cn"), ByteString.valueOfUtf8("user"))).isNull();
+  }
+
+  @Test
+  public void olderRecordsAreCoveredOnceAllIndexed() throws Exception
+  {
+    final MemoryChangelogSecondaryIndexes indexes = new MemoryChangelogSecondaryIndexes(11);
+    indexes.addRecord(11, newDeleteMsg("uid=user.1,dc=example,dc=com", "uuid11"));
+    assertThat(indexes.getNextOlderChangeNumber()).isEqualTo(-1);
+
+    for (long changeNumber = 5; changeNumber < 10; changeNumber++)
+    {
+      indexes.addOlderRecord(changeNumber, newDeleteMsg("uid=user.1,dc=example,dc=com", "uuid" + changeNumber));
+    }
+    assertThat(indexes.getNextOlderChangeNumber()).isEqualTo(10);
+    assertThat(indexes.getFirstIndexedChangeNumber()).isEqualTo(11);
+    assertThat(indexes.getChangeNumbers(targetDN, ByteString.valueOfUtf8("uid=user.1,dc=example,dc=com")))
+        .containsExactly(11);
+
+    // change number 10 was purged from the replica DBs
+    indexes.addOlderRecord(10, null);
+    assertThat(indexes.getNextOlderChangeNumber()).isEqualTo(-1);
+    assertThat(indexes.getFirstIndexedChangeNumber()).isEqualTo(5);
+    assertThat(indexes.getChangeNumbers(targetDN, ByteString.valueOfUtf8("uid=user.1,dc=example,dc=com")))
+        .containsExactly(5, 6, 7, 8, 9, 11);
+  }
+
+  @Test
+  public void outOfSequenceOlderRecordRestartsIndexing() throws Exception
+  {
+    final MemoryChangelogSecondaryIndexes indexes = new MemoryChangelogSecondaryIndexes(5);
+    indexes.addOlderRecord(1, newDeleteMsg("uid=user.1,dc=example,dc=com", "uuid1"));
+    indexes.addOlderRecord(3, newDeleteMsg("uid=user.3,dc=example,dc=com", "uuid3"));
+    indexes.addOlderRecord(4, newDeleteMsg("uid=user.4,dc=example,dc=com", "uuid4"));
+
+    assertThat(indexes.getFirstIndexedChangeNumber()).isEqualTo(3);
+    assertThat(indexes.getChangeNumbers(targetEntryUUID, ByteString.valueOfUtf8("uuid1"))).isEmpty();
+    assertThat(indexes.getChangeNumbers(targetEntryUUID, ByteString.valueOfUtf8("uuid3"))).containsExactly(3);
+  }
+
+  @Test
+  public void purgeRemovesOldRecords() throws Exception
+  {
+    final MemoryChangelogSecondaryIndexes indexes = new MemoryChangelogSecondaryIndexes(1);
+    for (long changeNumber = 1; changeNumber <= 10; changeNumber++)
+    {
+      indexes.addRecord(changeNumber, newDeleteMsg("uid=user.1,dc=example,dc=com", "uuid" + changeNumber));
+    }
+
+    indexes.purgeUpTo(8);
+    assertThat(indexes.getFirstIndexedChangeNumber()).isEqualTo(8);
+    assertThat(indexes.getChangeNumbers(changeType, ByteString.valueOfUtf8("delete"))).containsExactly(8, 9, 10);
+    assertThat(indexes.getChangeNumbers(targetEntryUUID, ByteString.valueOfUtf8("uuid7"))).isEmpty();
+
+    indexes.clear(11);
+    assertThat(indexes.getFirstIndexedChangeNumber()).isEqualTo(11);
+    assertThat(indexes.getChangeNumbers(changeType, ByteString.valueOfUtf8("delete"))).isEmpty();
+  }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.service;
 
@@ -45,6 +46,9 @@ public class FakeReplicationDomain extends ReplicationDomain
   /** A StringBuilder that will be used to build a new String should the import be called. */
   private StringBuilder importString;
   private int exportedEntryCount;
+  /** The window and the number of EntryMsg of the last import. */
+  private volatile int importWindow;
+  private volatile int importedMsgCount;
 
   private FakeReplicationDomain(DN baseDN, int serverID,
       SortedSet<String> replicationServers, int window, long heartbeatInterval,
@@ -108,7 +112,11 @@ public class FakeReplicationDomain extends ReplicationDomain
   {
     try
     {
-      output.write(exportString.getBytes());
+      // write one entry at a time, like the LDIF export of a backend
+      for (String entry : exportString.split("(?<=\n\n)"))
+      {
+        output.write(entry.getBytes());
+      }
       output.flush();
       output.close();
     }
@@ -121,6 +129,8 @@ public class FakeReplicationDomain extends ReplicationDomain
   @Override
   protected void importBackend(InputStream input) throws DirectoryException
   {
+    final ImportExportContext ieCtx = getImportExportContext();
+    importWindow = ieCtx.getInitWindow();
     byte[] buffer = new byte[1000];
     int ret;
     do
@@ -139,6 +149,17 @@ public class FakeReplicationDomain extends ReplicationDomain
       }
     }
     while (ret >= 0);
+    importedMsgCount = ieCtx.getMsgCnt();
+  }
+
+  int getImportWindow()
+  {
+    return importWindow;
+  }
+
+  int getImportedMsgCount()
+  {
+    return importedMsgCount;
   }
 
   @Override
@@ -13,13 +13,16 @@
  *
  * Copyright 2008-2010 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.replication.service;
 
 import static org.opends.messages.ReplicationMessages.*;
+import static org.opends.server.replication.service.ReplicationDomain.*;
 import static org.opends.server.util.CollectionUtils.*;
 import static org.testng.Assert.*;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.concurrent.BlockingQueue;
@@ -429,12 +432,91 @@ public class ReplicationDomainTest extends ReplicationTestCase
     }
   }
 
+  /**
+   * Test that the initialization window is scaled to the size of the EntryMsg
+   * sent during a total update, so that bigger messages do not put more data
+   * in flight.
+   */
+  @Test
+  public void totalUpdateWindowKeepsTheDataInFlight()
+  {
+    assertEquals(ReplicationDomain.getTotalUpdateWindow(100), 12);
+    assertEquals(ReplicationDomain.getTotalUpdateWindow(1000), 125);
+    assertEquals(ReplicationDomain.getTotalUpdateWindow(Integer.MAX_VALUE), Integer.MAX_VALUE / 8);
+    // the importer acknowledges every half window
+    assertEquals(ReplicationDomain.getTotalUpdateWindow(1), 2);
+    assertEquals(ReplicationDomain.getTotalUpdateWindow(0), 2);
+
+    for (int initWindow : new int[] { 16, 100, 999, 1000 })
+    {
+      final long windowBytes = (long) ReplicationDomain.getTotalUpdateWindow(initWindow) * TOTAL_UPDATE_MSG_SIZE;
+      assertTrue(windowBytes <= (long) initWindow * INIT_WINDOW_MSG_SIZE);
+    }
+  }
+
+  /**
+   * Test that a total update big enough to need the flow control sends the
+   * scaled window to the importer and groups the entries into EntryMsg of
+   * TOTAL_UPDATE_MSG_SIZE.
+   */
+  @Test
+  public void exportAndImportWithTotalUpdateWindow() throws Exception
+  {
+    final int ENTRYCOUNT = 20000;
+    DN testService = DN.valueOf("o=test");
+    ReplicationServer replServer = null;
+    FakeReplicationDomain domain1 = null;
+    FakeReplicationDomain domain2 = null;
+
+    try
+    {
+      int replServerPort = TestCaseUtils.findFreePort();
+      replServer = createReplicationServer(11, replServerPort, "exportAndImportWindow", 100);
+      SortedSet<String> servers = newTreeSet("localhost:" + replServerPort);
+
+      String exportedData = buildExportedData(ENTRYCOUNT, 100);
+      domain1 = new FakeReplicationDomain(testService, 1, servers, 0, exportedData, null, ENTRYCOUNT);
+      StringBuilder importedData = new StringBuilder();
+      domain2 = new FakeReplicationDomain(testService, 2, servers, 0, null, importedData, 0);
+
+      assertTrue(initializeFromRemote(domain2));
+      waitEndExport(exportedData, importedData);
+      assertExportSucessful(domain1, domain2, exportedData, importedData);
+
+      int count = 0;
+      while (domain2.getImportedMsgCount() == 0 && count < 100)
+      {
+        count++;
+        Thread.sleep(100);
+      }
+      // the initialization window size of the fake configuration is 100
+      final int window = ReplicationDomain.getTotalUpdateWindow(100);
+      final int msgCount = domain2.getImportedMsgCount();
+      assertEquals(domain2.getImportWindow(), window);
+      assertTrue(msgCount > 2 * window, "The export should have waited for acknowledgements, msgCount=" + msgCount);
+      // all the messages but the last one are more than half full
+      assertTrue(msgCount <= exportedData.length() / (TOTAL_UPDATE_MSG_SIZE / 2) + 1, "msgCount=" + msgCount);
+    }
+    finally
+    {
+      disable(domain1, domain2);
+      remove(replServer);
+    }
+  }
+
   private String buildExportedData(final int ENTRYCOUNT)
   {
+    return buildExportedData(ENTRYCOUNT, 0);
+  }
+
+  private String buildExportedData(final int ENTRYCOUNT, final int paddingLength)
+  {
+    final char[] padding = new char[paddingLength];
+    Arrays.fill(padding, 'x');
     final StringBuilder sb = new StringBuilder();
     for (int i = 0; i < ENTRYCOUNT; i++)
     {
-      sb.append("key : value").append(i).append("\n\n");
+      sb.append("key : value").append(i).append(padding).append("\n\n");
     }
     return sb.toString();
   }
@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2008 Sun Microsystems, Inc.
  * Portions Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.tools;
 
@@ -457,6 +458,101 @@ public class ImportLDIFTestCase extends ToolsTestCase
         Attributes.create("givenname", "Aaccf"));
   }
 
+  /**
+   * Tests an import with several threads of LDIF containing malformed entries:
+   * they must be rejected with their own line number, and must not prevent the
+   * other entries, including those read in the same batch, from being imported.
+   */
+  @Test
+  public void testImportMalformedEntriesWithSeveralThreads() throws Exception
+  {
+    final int nbEntries = 300;
+    final int malformedDNEntry = 70;
+    final int malformedAttributeEntry = 150;
+    long malformedDNLine = 0;
+    long malformedAttributeLine = 0;
+
+    final StringBuilder ldif = new StringBuilder();
+    long lineNumber = 1;
+    ldif.append("dn: dc=example,dc=com\nobjectclass: domain\nobjectclass: top\ndc: example\n\n");
+    lineNumber += 5;
+    for (int i = 0; i < nbEntries; i++)
+    {
+      if (i == malformedDNEntry)
+      {
+        malformedDNLine = lineNumber;
+        ldif.append("dn: not a valid DN\n");
+      }
+      else
+      {
+        ldif.append("dn: uid=user.").append(i).append(",dc=example,dc=com\n");
+      }
+      ldif.append("objectClass: person\nobjectClass: top\n");
+      ldif.append("sn: User ").append(i).append("\ncn: User ").append(i).append("\n");
+      lineNumber += 5;
+      if (i == malformedAttributeEntry)
+      {
+        malformedAttributeLine = lineNumber - 5;
+        ldif.append("this line has no attribute name\n");
+        lineNumber++;
+      }
+      ldif.append("\n");
+      lineNumber++;
+    }
+
+    final File ldifFile = new File(tempDir, "malformed.ldif");
+    try (PrintStream writer = new PrintStream(new FileOutputStream(ldifFile)))
+    {
+      writer.print(ldif);
+    }
+    File reject = File.createTempFile("reject", ".ldif");
+    String[] args =
+    {
+        "-f",
+        DirectoryServer.getConfigFile(),
+        "--noPropertiesFile",
+        "-l",
+        ldifFile.getAbsolutePath(),
+        "-F",
+        "-n",
+        beID,
+        "-R",
+        reject.getAbsolutePath(),
+        "--threadCount",
+        "4",
+        "--offline"
+    };
+
+    try
+    {
+      assertEquals(importLDIF(args), 0);
+      final String rejected = readFile(reject);
+      assertTrue(rejected.contains("starting at line " + malformedDNLine + " because"), rejected);
+      assertTrue(rejected.contains("starting at line " + malformedAttributeLine + " because"), rejected);
+
+      TaskUtils.enableBackend(beID);
+      try
+      {
+        assertNull(DirectoryServer.getEntry(DN.valueOf("uid=user." + malformedAttributeEntry + ",dc=example,dc=com")));
+        for (int i = 0; i < nbEntries; i++)
+        {
+          if (i != malformedDNEntry && i != malformedAttributeEntry)
+          {
+            assertNotNull(DirectoryServer.getEntry(DN.valueOf("uid=user." + i + ",dc=example,dc=com")));
+          }
+        }
+      }
+      finally
+      {
+        TaskUtils.disableBackend(beID);
+      }
+    }
+    finally
+    {
+      reject.delete();
+    }
+  }
+
   private int importLDIF(String[] args)
   {
     return ImportLDIF.mainImportLDIF(args, false, System.out, System.err);
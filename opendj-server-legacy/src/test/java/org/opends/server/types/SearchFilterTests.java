@@ -14,9 +14,11 @@
  * Copyright 2008 Sun Microsystems, Inc.
  * Portions Copyright 2013-2014 Manuel Gaupp
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
+import java.lang.reflect.Method;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -25,6 +27,7 @@ import java.util.List;
 
 import org.forgerock.opendj.ldap.Base64;
 import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ConditionResult;
 import org.forgerock.opendj.ldap.schema.AttributeType;
 import org.opends.server.DirectoryServerTestCase;
 import org.opends.server.TestCaseUtils;
@@ -418,6 +421,53 @@ public class SearchFilterTests extends DirectoryServerTestCase {
     runMatchTest(ldifEntry, filterStr, expectMatch);
   }
 
+  private static final String UNDEFINED_LDIF = TestCaseUtils.makeLdif(
+          "dn: uid=jsmith,dc=example,dc=com",
+          "objectclass: inetorgperson",
+          "objectclass: posixAccount",
+          "uid: jsmith",
+          "cn: John Smith",
+          "sn: Smith",
+          "uidNumber: 100",
+          "gidNumber: 100",
+          "homeDirectory: /home/jsmith"
+          );
+
+  /** "(uidNumber=abc)" is undefined because its assertion value is not an integer. */
+  @DataProvider
+  public Object[][] undefinedComponentsParams() {
+    return new Object[][]{
+            {"(uidNumber=abc)", false},
+            {"(!(uidNumber=abc))", false},
+            {"(&(uidNumber=abc)(sn=Jones))", false},
+            {"(!(&(uidNumber=abc)(sn=Jones)))", true},
+            {"(!(&(sn=Jones)(uidNumber=abc)))", true},
+            {"(!(&(uidNumber=abc)(sn=Smith)))", false},
+            {"(|(uidNumber=abc)(sn=Smith))", true},
+            {"(!(|(uidNumber=abc)(sn=Jones)))", false},
+            {"(!(|(sn=Jones)(cn=Jane*)))", true},
+    };
+  }
+
+  /** AND and OR filters follow the three-valued logic of RFC 4511 whatever the order of their components. */
+  @Test(dataProvider = "undefinedComponentsParams")
+  public void testMatchesUndefinedComponents(String filterStr, boolean expectMatch) throws Exception {
+    Entry entry = TestCaseUtils.entryFromLdifString(UNDEFINED_LDIF);
+    runSingleMatchTest(entry, filterStr, expectMatch);
+    // second evaluation uses the cached compiled filter
+    runSingleMatchTest(entry, filterStr, expectMatch);
+    // the interpreted evaluation, used when tracing, must give the same result
+    runSingleInterpretedMatchTest(entry, filterStr, expectMatch);
+  }
+
+  private void runSingleInterpretedMatchTest(Entry entry, String filterStr, boolean expectMatch) throws Exception {
+    final SearchFilter filter = SearchFilter.createFilterFromString(filterStr);
+    Method m = SearchFilter.class.getDeclaredMethod("matchesEntryInternal", SearchFilter.class, Entry.class, int.class);
+    m.setAccessible(true);
+    ConditionResult result = (ConditionResult) m.invoke(filter, filter, entry, 0);
+    Assert.assertEquals(result == ConditionResult.TRUE, expectMatch, "Filter=" + filter + "\nEntry=" + entry);
+  }
+
   private void runMatchTest(String ldifEntry, String filterStr, boolean expectMatch) throws Exception {
     Entry entry = TestCaseUtils.entryFromLdifString(ldifEntry);
 
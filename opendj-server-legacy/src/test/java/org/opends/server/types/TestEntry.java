@@ -13,6 +13,7 @@
  *
  * Copyright 2006-2008 Sun Microsystems, Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.opends.server.types;
 
@@ -34,6 +35,7 @@ import org.forgerock.i18n.LocalizableMessageBuilder;
 import org.forgerock.i18n.LocalizedIllegalArgumentException;
 import org.forgerock.opendj.ldap.AttributeDescription;
 import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ByteStringBuilder;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.schema.AttributeType;
 import org.forgerock.opendj.ldap.schema.CoreSchema;
@@ -42,6 +44,7 @@ import org.forgerock.opendj.ldap.schema.Schema;
 import org.opends.server.TestCaseUtils;
 import org.opends.server.core.DirectoryServer;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 /**
@@ -729,6 +732,46 @@ public final class TestEntry extends TypesTestCase {
     System.out.println();
   }
 
+  @DataProvider
+  public Object[][] encodeConfigs()
+  {
+    return new Object[][] {
+      { new EntryEncodeConfig(false, false, false) },
+      { new EntryEncodeConfig(false, true, true) },
+    };
+  }
+
+  /** Tests that decoding only some attribute types skips the other attributes. */
+  @Test(dataProvider = "encodeConfigs")
+  public void testDecodeAttributeTypesSubset(EntryEncodeConfig config) throws Exception
+  {
+    Entry e = TestCaseUtils.makeEntry(
+         "dn: uid=test.user,o=test",
+         "objectClass: top",
+         "objectClass: person",
+         "objectClass: organizationalPerson",
+         "objectClass: inetOrgPerson",
+         "uid: test.user",
+         "cn: Test User",
+         "sn: User",
+         "description: skipped",
+         "creatorsName: cn=Directory Manager");
+    ByteStringBuilder buffer = new ByteStringBuilder();
+    e.encode(buffer, config);
+
+    Schema schema = DirectoryServer.getInstance().getServerContext().getSchema();
+    Set<AttributeType> attributeTypes = newHashSet(schema.getAttributeType("cn"), schema.getAttributeType("sn"));
+    Entry decoded = Entry.decode(buffer.asReader(), config.getCompressedSchema(), attributeTypes);
+
+    assertEquals(decoded.getName(), e.getName());
+    assertEquals(decoded.getObjectClasses(), e.getObjectClasses());
+    assertThat(getNames(decoded.getAllAttributes())).containsOnly("cn", "sn");
+    assertEquals(decoded.getAllAttributes(schema.getAttributeType("sn")),
+        e.getAllAttributes(schema.getAttributeType("sn")));
+
+    assertEquals(Entry.decode(buffer.asReader(), config.getCompressedSchema()), e);
+  }
+
   private List<String> getNames(Iterable<Attribute> allAttributes)
   {
     List<String> results = new ArrayList<>();